@@ -0,0 +1,83 @@
+package de.claas.mosis.benchmark;
+
+import de.claas.mosis.model.DecoratorProcessor;
+import de.claas.mosis.model.Processor;
+import de.claas.mosis.processing.debug.Forward;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class {@link de.claas.mosis.benchmark.DecoratorBenchmark}. It is
+ * intended to measure the overhead of stacking {@link
+ * de.claas.mosis.model.DecoratorProcessor} objects. The given number of
+ * decorators wraps a {@link de.claas.mosis.processing.debug.Forward} module.
+ * Both processing a single sample and reading a parameter of the innermost
+ * decorator are measured.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class DecoratorBenchmark {
+
+    @Param({"0", "1", "4", "16"})
+    public int _Depth;
+    private Processor<Object, Object> _P;
+    private String _Parameter;
+    private List<Object> _In;
+    private List<Object> _Out;
+
+    @SuppressWarnings("unchecked")
+    @Setup
+    public void setUp() {
+        if (_Depth == 0) {
+            _P = new Forward<>();
+            _Parameter = DecoratorProcessor.CLASS;
+        } else {
+            _P = new DecoratorProcessor<>();
+            String prefix = "";
+            for (int i = 1; i < _Depth; i++) {
+                _P.setParameter(prefix + DecoratorProcessor.CLASS,
+                        DecoratorProcessor.class.getName());
+                prefix += DecoratorProcessor.SHADOWED;
+            }
+            _P.setParameter(prefix + DecoratorProcessor.CLASS,
+                    Forward.class.getName());
+            _Parameter = prefix + DecoratorProcessor.CLASS;
+        }
+        _P.setUp();
+        _In = Collections.singletonList((Object) 42.0);
+        _Out = new ArrayList<>();
+    }
+
+    @Benchmark
+    public List<Object> process() {
+        _Out.clear();
+        _P.process(_In, _Out);
+        return _Out;
+    }
+
+    @Benchmark
+    public String getParameter() {
+        return _P.getParameter(_Parameter);
+    }
+
+}
@@ -0,0 +1,196 @@
+package de.claas.mosis.benchmark;
+
+import de.claas.mosis.io.DataHandler;
+import de.claas.mosis.io.MemoryImpl;
+import de.claas.mosis.io.StreamHandler;
+import de.claas.mosis.io.format.PlainText;
+import de.claas.mosis.model.Data;
+import de.claas.mosis.util.Utils;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class {@link de.claas.mosis.benchmark.FormatBenchmark}. It is intended
+ * to measure the throughput (i.e. records per second) of reading and writing
+ * records with the data formats of package {@link de.claas.mosis.io.format}.
+ * A synthetic dataset with the given number of records (i.e. rows) and fields
+ * per record (i.e. width) is generated in memory. It is read from and written
+ * to memory (see {@link de.claas.mosis.io.MemoryImpl}), so that no I/O is
+ * involved.
+ * <p>
+ * Each operation reads or writes a single record. Once all records were read
+ * (or written), the handler is rewound by dismantling and setting it up again.
+ * Handlers keep their default settings, so that a header (e.g. of CSV data) is
+ * read or written once per pass through the dataset.
+ * Thus, the score is given in records per second and the gc profiler reports
+ * bytes allocated per record (i.e. <code>gc.alloc.rate.norm</code>). The
+ * secondary result <code>_Bytes</code> gives the number of bytes read or
+ * written per second (counted whenever all records were read or written).
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class FormatBenchmark {
+
+    @Param({"de.claas.mosis.io.format.CommaSeparatedValues",
+            "de.claas.mosis.io.format.JavaScriptObjectNotation",
+            "de.claas.mosis.io.format.PlainText",
+            "de.claas.mosis.io.format.Serialization",
+            "de.claas.mosis.io.format.CompactBinary"})
+    public String _Format;
+    @Param({"4", "32"})
+    public int _Width;
+    @Param({"100", "10000"})
+    public int _Rows;
+    private final String _Name = getClass().getName() + "@"
+            + Integer.toHexString(System.identityHashCode(this));
+    private List<Object> _Records;
+    private StreamHandler<Object> _Reader;
+    private StreamHandler<Object> _Writer;
+    private List<Object> _In;
+    private List<Object> _Out;
+    private int _Read;
+    private int _Written;
+
+    @Setup
+    public void setUp() throws Exception {
+        _Records = new ArrayList<>();
+        for (int i = 0; i < _Rows; i++) {
+            _Records.add(record(i));
+        }
+        _In = new ArrayList<>();
+        _Out = new ArrayList<>();
+
+        // Generate dataset
+        StreamHandler<Object> generator = handler(DataHandler.MODE_WRITE,
+                _Name + "-read");
+        generator.setUp();
+        generator.process(_Records, _Out);
+        generator.dismantle();
+        _Out.clear();
+
+        _Reader = handler(DataHandler.MODE_READ, _Name + "-read");
+        _Reader.setUp();
+        _Writer = handler(DataHandler.MODE_WRITE, _Name + "-write");
+        _Writer.setUp();
+        _Read = 0;
+        _Written = 0;
+    }
+
+    @TearDown
+    public void tearDown() {
+        _Reader.dismantle();
+        _Writer.dismantle();
+        MemoryImpl.release(_Name + "-read");
+        MemoryImpl.release(_Name + "-write");
+    }
+
+    @Benchmark
+    public void read(Blackhole blackhole, Counters counters) {
+        if (_Read == _Rows) {
+            _Reader.dismantle();
+            _Reader.setUp();
+            _Read = 0;
+            counters._Bytes += MemoryImpl.size(_Name + "-read");
+        }
+        _Reader.process(_In, _Out);
+        blackhole.consume(_Out.get(0));
+        _Out.clear();
+        _Read++;
+    }
+
+    @Benchmark
+    public void write(Blackhole blackhole, Counters counters) {
+        if (_Written == _Rows) {
+            _Writer.dismantle();
+            _Writer.setUp();
+            _Written = 0;
+            counters._Bytes += MemoryImpl.size(_Name + "-write");
+        }
+        _In.add(_Records.get(_Written));
+        _Writer.process(_In, _Out);
+        blackhole.consume(_Out);
+        _In.clear();
+        _Out.clear();
+        _Written++;
+    }
+
+    /**
+     * Returns a handler for the given mode and (in-memory) buffer.
+     *
+     * @param mode the mode (see {@link de.claas.mosis.io.DataHandler#MODE})
+     * @param name the name of the buffer (see {@link
+     *             de.claas.mosis.io.MemoryImpl#NAME})
+     * @return a handler for the given mode and buffer
+     * @throws Exception if the handler could not be created
+     */
+    @SuppressWarnings("unchecked")
+    private StreamHandler<Object> handler(String mode, String name)
+            throws Exception {
+        StreamHandler<Object> handler = (StreamHandler<Object>) Utils
+                .instance(Class.forName(_Format));
+        Utils.updateParameters(handler,
+                StreamHandler.IMPL, MemoryImpl.class.getName(),
+                MemoryImpl.NAME, name,
+                DataHandler.MODE, mode);
+        return handler;
+    }
+
+    /**
+     * Returns a synthetic record. Numbers and words alternate between the
+     * fields of the record. Plain text is represented by a line of words.
+     *
+     * @param row the row of the record
+     * @return a synthetic record
+     */
+    private Object record(int row) {
+        Data data = new Data();
+        StringBuilder line = new StringBuilder();
+        for (int i = 0; i < _Width; i++) {
+            Object value = i % 2 == 0 ? row + i / 8.0 : "value-" + row;
+            data.put("field-" + i, value);
+            line.append(i == 0 ? "" : " ").append(value);
+        }
+        return PlainText.class.getName().equals(_Format) ? line.toString()
+                : data;
+    }
+
+    /**
+     * Secondary results that are reported along with the number of records
+     * per second.
+     */
+    @State(Scope.Thread)
+    @AuxCounters(AuxCounters.Type.OPERATIONS)
+    public static class Counters {
+
+        public long _Bytes;
+
+        @Setup(Level.Iteration)
+        public void setUp() {
+            _Bytes = 0;
+        }
+    }
+
+}
@@ -0,0 +1,135 @@
+package de.claas.mosis.benchmark;
+
+import de.claas.mosis.flow.Graph;
+import de.claas.mosis.flow.iterator.RepeatedOneShotLevelOrder;
+import de.claas.mosis.model.ProcessorAdapter;
+import de.claas.mosis.processing.debug.Forward;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class {@link de.claas.mosis.benchmark.GraphBenchmark}. It is intended to
+ * measure the throughput (i.e. samples per second) of dispatching samples
+ * through {@link de.claas.mosis.flow.Graph#process(Class)}. The graph consists
+ * of a data source, a chain of {@link de.claas.mosis.processing.debug.Forward}
+ * modules and a data sink. The data source provides several samples at once,
+ * so that modules are either invoked per sample or per batch of samples (see
+ * {@link de.claas.mosis.model.BatchProcessor}).
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class GraphBenchmark {
+
+    private static final int SAMPLES = 4096;
+    @Param({"1", "64"})
+    public int _BatchSize;
+    @Param({"1", "4"})
+    public int _Length;
+    @Param({"false", "true"})
+    public boolean _Metrics;
+    private Graph _Graph;
+    private Sink _Sink;
+
+    @Setup
+    public void setUp() {
+        _Graph = new Graph();
+        _Sink = new Sink();
+        ProcessorAdapter<?, ?> previous = new Source(SAMPLES, _BatchSize);
+        for (int i = 0; i < _Length; i++) {
+            ProcessorAdapter<?, ?> next = new Batch(_BatchSize);
+            _Graph.addLink(previous, next);
+            previous = next;
+        }
+        _Graph.addLink(previous, _Sink);
+        _Graph.setMetricsEnabled(_Metrics);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(SAMPLES)
+    public long process() throws Exception {
+        _Graph.process(RepeatedOneShotLevelOrder.class);
+        return _Sink._Count;
+    }
+
+    /**
+     * A data source that provides a limited number of samples. Several
+     * samples are provided per invocation.
+     */
+    public static class Source extends ProcessorAdapter<Object, Object> {
+
+        private static final Object SAMPLE = 42.0;
+        private final int _Limit;
+        private final int _Block;
+        private int _Provided;
+
+        public Source(int limit, int block) {
+            _Limit = limit;
+            _Block = block;
+        }
+
+        @Override
+        public void setUp() {
+            super.setUp();
+            _Provided = 0;
+        }
+
+        @Override
+        public void process(List<Object> in, List<Object> out) {
+            for (int i = 0; i < _Block && _Provided < _Limit; i++) {
+                out.add(SAMPLE);
+                _Provided++;
+            }
+        }
+    }
+
+    /**
+     * A module that forwards all samples and processes the given number of
+     * samples at once.
+     */
+    public static class Batch extends Forward<Object> {
+
+        private final int _BatchSize;
+
+        public Batch(int batchSize) {
+            _BatchSize = batchSize;
+        }
+
+        @Override
+        public int getBatchSize() {
+            return _BatchSize;
+        }
+    }
+
+    /**
+     * A data sink that counts all samples.
+     */
+    public static class Sink extends ProcessorAdapter<Object, Object> {
+
+        private long _Count;
+
+        @Override
+        public void process(List<Object> in, List<Object> out) {
+            _Count += in.size();
+        }
+    }
+
+}
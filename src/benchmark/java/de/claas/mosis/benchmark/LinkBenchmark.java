@@ -0,0 +1,67 @@
+package de.claas.mosis.benchmark;
+
+import de.claas.mosis.flow.Link;
+import de.claas.mosis.util.Utils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class {@link de.claas.mosis.benchmark.LinkBenchmark}. It is intended to
+ * measure the throughput (i.e. operations per second) of pushing values into
+ * and polling values from {@link de.claas.mosis.flow.Link} implementations.
+ * Each operation pushes the given number of values at once and polls all of
+ * them (one at a time) by the same thread.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LinkBenchmark {
+
+    @Param({"de.claas.mosis.flow.LinkAdapter",
+            "de.claas.mosis.flow.UnbiasedLink",
+            "de.claas.mosis.flow.BiasedLink",
+            "de.claas.mosis.flow.BoundedLink",
+            "de.claas.mosis.flow.RingBufferLink"})
+    public String _Link;
+    @Param({"1", "64"})
+    public int _Values;
+    private Link _L;
+    private List<Object> _In;
+
+    @Setup
+    public void setUp() throws Exception {
+        _L = (Link) Utils.instance(Class.forName(_Link));
+        _In = new ArrayList<>();
+        for (int i = 0; i < _Values; i++) {
+            _In.add((double) i);
+        }
+    }
+
+    @Benchmark
+    public void pushAndPoll(Blackhole blackhole) {
+        _L.push(_In);
+        while (!_L.isEmpty()) {
+            blackhole.consume(_L.poll());
+        }
+    }
+
+}
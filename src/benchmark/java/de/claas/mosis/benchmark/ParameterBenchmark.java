@@ -0,0 +1,61 @@
+package de.claas.mosis.benchmark;
+
+import de.claas.mosis.model.ParameterHandle;
+import de.claas.mosis.processing.debug.Sleep;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class {@link de.claas.mosis.benchmark.ParameterBenchmark}. It is
+ * intended to measure the throughput (i.e. lookups per second) of reading
+ * parameters from a {@link de.claas.mosis.model.Configurable} object. Lookups
+ * of raw values (see {@link de.claas.mosis.model.ConfigurableAdapter#getParameter(String)}),
+ * parsed values and cached values (see {@link de.claas.mosis.model.ParameterHandle})
+ * are compared.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ParameterBenchmark {
+
+    private Sleep _P;
+    private ParameterHandle<Long> _Handle;
+
+    @Setup
+    public void setUp() {
+        _P = new Sleep();
+        _P.setParameter(Sleep.DELAY, "10");
+        _Handle = new ParameterHandle.AsLong(_P, Sleep.DELAY);
+    }
+
+    @Benchmark
+    public String getParameter() {
+        return _P.getParameter(Sleep.DELAY);
+    }
+
+    @Benchmark
+    public long getAndParseParameter() {
+        return Long.parseLong(_P.getParameter(Sleep.DELAY));
+    }
+
+    @Benchmark
+    public long getHandle() {
+        return _Handle.get();
+    }
+
+}
@@ -0,0 +1,285 @@
+package de.claas.mosis.flow;
+
+import de.claas.mosis.annotation.Parameter;
+import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.Configurable;
+import de.claas.mosis.model.ConfigurableAdapter;
+import de.claas.mosis.model.Observer;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class {@link de.claas.mosis.flow.BoundedLink}. It is intended to provide
+ * an implementation of the {@link de.claas.mosis.flow.Link} interface with a
+ * limited capacity. Values are kept in a preallocated circular buffer. Once the
+ * capacity is reached, the configured policy decides whether the producer is
+ * blocked until space becomes available, whether the oldest or the newest
+ * values are discarded, or whether an exception is thrown. By default, the
+ * oldest values are discarded. The current queue depth, the maximum queue
+ * depth and the number of discarded values are available as (read-only)
+ * parameters.
+ * <p>
+ * Blocking the producer requires that values are polled by another thread
+ * (see {@link de.claas.mosis.flow.Graph#processPipelined()}), which is
+ * indicated by {@link #setConcurrent(boolean)}. Otherwise (e.g. when a graph
+ * is processed sequentially), the producer is not blocked. Instead, an {@link
+ * java.lang.IllegalStateException} is thrown (like {@link #POLICY_FAIL}). If
+ * a blocked producer is interrupted, then all values that were not accepted
+ * are discarded and the interrupt flag is kept.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class BoundedLink extends ConfigurableAdapter implements Link, Observer {
+
+    @Parameter("Maximum number of values that are buffered by this link.")
+    public static final String CAPACITY = "capacity";
+    @Parameter("Action that is taken when the capacity of this link is exhausted.")
+    public static final String POLICY = "policy";
+    public static final String POLICY_BLOCK = "block producer";
+    public static final String POLICY_DROP_OLDEST = "drop oldest";
+    public static final String POLICY_DROP_NEWEST = "drop newest";
+    public static final String POLICY_FAIL = "fail";
+    @Parameter("Number of values that are currently buffered by this link (read-only).")
+    public static final String QUEUE_DEPTH = "queue depth";
+    @Parameter("Maximum number of values that were buffered by this link at once (read-only).")
+    public static final String MAX_QUEUE_DEPTH = "maximum queue depth";
+    @Parameter("Number of values that were discarded by this link (read-only).")
+    public static final String DROPPED = "dropped values";
+    private Object[] _Buffer;
+    private int _Head;
+    private int _Size;
+    private int _MaxSize;
+    private long _Dropped;
+    private String _Policy;
+    private boolean _Concurrent;
+
+    /**
+     * Initializes the class with default values.
+     */
+    public BoundedLink() {
+        addObserver(this);
+        addCondition(CAPACITY, new Condition.IsInteger());
+        addCondition(CAPACITY, new Condition.IsGreaterThan(0d));
+        setParameter(CAPACITY, 1024);
+        List<String> whiteList = Arrays.asList(POLICY_BLOCK,
+                POLICY_DROP_OLDEST, POLICY_DROP_NEWEST, POLICY_FAIL);
+        addCondition(POLICY, new Condition.IsInList(whiteList));
+        setParameter(POLICY, POLICY_DROP_OLDEST);
+        addCondition(QUEUE_DEPTH, new Condition.ReadOnly());
+        addCondition(MAX_QUEUE_DEPTH, new Condition.ReadOnly());
+        addCondition(DROPPED, new Condition.ReadOnly());
+    }
+
+    /**
+     * Initializes the class with the given values.
+     *
+     * @param capacity the parameter {@link #CAPACITY}
+     * @param policy   the parameter {@link #POLICY}
+     */
+    public BoundedLink(int capacity, String policy) {
+        this();
+        setParameter(CAPACITY, capacity);
+        setParameter(POLICY, policy);
+    }
+
+    @Override
+    public synchronized String getParameter(String parameter) {
+        if (QUEUE_DEPTH.equals(parameter)) {
+            return Integer.toString(_Size);
+        } else if (MAX_QUEUE_DEPTH.equals(parameter)) {
+            return Integer.toString(_MaxSize);
+        } else if (DROPPED.equals(parameter)) {
+            return Long.toString(_Dropped);
+        } else {
+            return super.getParameter(parameter);
+        }
+    }
+
+    /**
+     * Returns the number of values that were discarded by this link (see
+     * {@link #DROPPED}).
+     *
+     * @return the number of values that were discarded by this link
+     */
+    public synchronized long getDropped() {
+        return _Dropped;
+    }
+
+    @Override
+    public synchronized void setParameter(String parameter, String value) {
+        super.setParameter(parameter, value);
+    }
+
+    /**
+     * Returns <code>true</code> if values are polled by another thread than
+     * the one that pushes them. Otherwise, <code>false</code> is returned.
+     *
+     * @return <code>true</code> if values are polled by another thread
+     */
+    public synchronized boolean isConcurrent() {
+        return _Concurrent;
+    }
+
+    /**
+     * Sets whether values are polled by another thread than the one that
+     * pushes them (e.g. by {@link de.claas.mosis.flow.visitor.PipeliningVisitor}).
+     * Only then, {@link #POLICY_BLOCK} blocks the producer. Producers that
+     * are blocked when this is reset are no longer blocked.
+     *
+     * @param concurrent <code>true</code> if values are polled by another
+     *                   thread
+     */
+    public synchronized void setConcurrent(boolean concurrent) {
+        _Concurrent = concurrent;
+        notifyAll();
+    }
+
+    /**
+     * Appends the given values to this link. Returns <code>false</code> if
+     * some of the given values were not accepted (i.e. they were discarded by
+     * {@link #POLICY_DROP_NEWEST} or because a blocked producer was
+     * interrupted). Otherwise, <code>true</code> is returned.
+     *
+     * @param in the values
+     * @return <code>false</code> if some of the given values were not
+     * accepted
+     * @throws java.lang.IllegalStateException if the capacity is exceeded and
+     *                                         neither values can be discarded
+     *                                         nor the producer can be blocked
+     */
+    @Override
+    public synchronized boolean push(List<Object> in) {
+        boolean accepted = true;
+        boolean exceeded = _Size + in.size() > _Buffer.length;
+        if (exceeded && (POLICY_FAIL.equals(_Policy)
+                || POLICY_BLOCK.equals(_Policy) && !_Concurrent)) {
+            throw full();
+        }
+        int remaining = in.size();
+        for (Object value : in) {
+            if (_Size == _Buffer.length && isBlocking() && !awaitSpace()) {
+                _Dropped += remaining;
+                return false;
+            }
+            if (_Size == _Buffer.length) {
+                if (POLICY_DROP_OLDEST.equals(_Policy)) {
+                    remove();
+                    _Dropped++;
+                } else if (POLICY_DROP_NEWEST.equals(_Policy)) {
+                    _Dropped++;
+                    accepted = false;
+                    remaining--;
+                    continue;
+                } else {
+                    // The producer is no longer blocked (e.g. policy changed)
+                    throw full();
+                }
+            }
+            _Buffer[(_Head + _Size) % _Buffer.length] = value;
+            _Size++;
+            remaining--;
+        }
+        if (_Size > _MaxSize) {
+            _MaxSize = _Size;
+        }
+        return accepted;
+    }
+
+    /**
+     * Returns <code>true</code> if the producer is blocked once the capacity
+     * is exhausted (i.e. if {@link #POLICY_BLOCK} is configured and values
+     * are polled by another thread). Otherwise, <code>false</code> is
+     * returned.
+     *
+     * @return <code>true</code> if the producer is blocked
+     */
+    private boolean isBlocking() {
+        return _Concurrent && POLICY_BLOCK.equals(_Policy);
+    }
+
+    /**
+     * Returns an exception that indicates that the capacity is exhausted.
+     *
+     * @return an exception that indicates that the capacity is exhausted
+     */
+    private IllegalStateException full() {
+        String msg = String.format(
+                "Link is full (capacity: %d, queue depth: %d).",
+                _Buffer.length, _Size);
+        return new IllegalStateException(msg);
+    }
+
+    /**
+     * Waits until this link can accept another value or the producer is no
+     * longer blocked (see {@link #isBlocking()}). Returns <code>false</code>
+     * if the current thread was interrupted while waiting.
+     *
+     * @return <code>false</code> if the current thread was interrupted
+     */
+    private boolean awaitSpace() {
+        try {
+            while (_Size == _Buffer.length && isBlocking()) {
+                if (_Size > _MaxSize) {
+                    _MaxSize = _Size;
+                }
+                wait();
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    public synchronized Object poll() {
+        if (isEmpty()) {
+            throw new IllegalStateException();
+        } else {
+            Object value = remove();
+            if (POLICY_BLOCK.equals(_Policy)) {
+                notifyAll();
+            }
+            return value;
+        }
+    }
+
+    /**
+     * Removes and returns the oldest value from the buffer.
+     *
+     * @return the oldest value
+     */
+    private Object remove() {
+        Object value = _Buffer[_Head];
+        _Buffer[_Head] = null;
+        _Head = (_Head + 1) % _Buffer.length;
+        _Size--;
+        return value;
+    }
+
+    @Override
+    public synchronized boolean isEmpty() {
+        return _Size == 0;
+    }
+
+    @Override
+    public synchronized void update(Configurable configurable, String parameter) {
+        if (CAPACITY.equals(parameter)) {
+            Object[] buffer = new Object[getParameterAsInteger(CAPACITY)];
+            int size = Math.min(_Size, buffer.length);
+            for (int i = 0; i < size; i++) {
+                buffer[i] = _Buffer[(_Head + _Size - size + i) % _Buffer.length];
+            }
+            _Dropped += _Size - size;
+            _Buffer = buffer;
+            _Head = 0;
+            _Size = size;
+            notifyAll();
+        } else if (POLICY.equals(parameter)) {
+            _Policy = getParameter(POLICY);
+            notifyAll();
+        }
+    }
+
+}
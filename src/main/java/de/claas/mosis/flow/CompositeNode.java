@@ -19,6 +19,7 @@ public class CompositeNode extends Node {
 
     private final Set<Node> _Sources;
     private final Node _Sink;
+    private Schedule _Schedule;
 
     /**
      * Initializes the class with default parameter.
@@ -64,6 +65,21 @@ public class CompositeNode extends Node {
         return _Sink;
     }
 
+    /**
+     * Returns the {@link de.claas.mosis.flow.Schedule} of processing modules
+     * within this composition. The schedule is compiled once (i.e. when it is
+     * first requested). Thus, the composition should not be changed
+     * afterwards.
+     *
+     * @return the {@link de.claas.mosis.flow.Schedule} of this composition
+     */
+    public Schedule getSchedule() {
+        if (_Schedule == null) {
+            _Schedule = new Schedule(_Sources);
+        }
+        return _Schedule;
+    }
+
     @Override
     public boolean visit(Visitor visitor) {
         return visitor.visitCompositeNode(this);
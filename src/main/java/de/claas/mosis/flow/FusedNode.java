@@ -0,0 +1,192 @@
+package de.claas.mosis.flow;
+
+import de.claas.mosis.model.Processor;
+import de.claas.mosis.model.ProcessorAdapter;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.List;
+import java.util.Vector;
+
+/**
+ * The class {@link de.claas.mosis.flow.FusedNode}. It is an implementation of
+ * the {@link de.claas.mosis.flow.PlainNode} class. It is intended to represent
+ * a linear chain of {@link de.claas.mosis.flow.PlainNode} objects (i.e. nodes
+ * with a single predecessor and a single successor) as a single node. The
+ * output values of each node are directly passed on to the next node in the
+ * chain (one value per sample), rather than being buffered in the intermediate
+ * {@link de.claas.mosis.flow.Link} objects. Thus, intermediate links remain
+ * empty.
+ * <p>
+ * Inbound links are those of the first node in the chain and outbound links
+ * are those of the last node in the chain. The underlying graph is not
+ * modified. Fused nodes are created when compiling a {@link
+ * de.claas.mosis.flow.Schedule} (see {@link de.claas.mosis.flow.Graph#setFusion(boolean)}).
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class FusedNode extends PlainNode {
+
+    private final List<PlainNode> _Nodes;
+    private final PlainNode _Head;
+    private final PlainNode _Tail;
+
+    /**
+     * Initializes the class with the given parameter.
+     *
+     * @param nodes the chain of nodes (in order of data flow). See {@link
+     *              #getNodes()} for details.
+     */
+    public FusedNode(List<PlainNode> nodes) {
+        super(new Chain(nodes));
+        if (nodes.size() < 2) {
+            throw new IllegalArgumentException(
+                    "a chain must consist of at least two nodes");
+        }
+        _Nodes = Collections.unmodifiableList(new ArrayList<>(nodes));
+        _Head = _Nodes.get(0);
+        _Tail = _Nodes.get(_Nodes.size() - 1);
+    }
+
+    /**
+     * Returns the chain of nodes that is represented by this node. The nodes
+     * are returned in order of data flow.
+     *
+     * @return the chain of nodes that is represented by this node
+     */
+    public List<PlainNode> getNodes() {
+        return _Nodes;
+    }
+
+    @Override
+    public void addSuccessor(Node successor, Link link) {
+        throw new UnsupportedOperationException("fused nodes are immutable");
+    }
+
+    @Override
+    public boolean removeSuccessor(Node successor) {
+        throw new UnsupportedOperationException("fused nodes are immutable");
+    }
+
+    @Override
+    public boolean hasPredecessors() {
+        return _Head.hasPredecessors();
+    }
+
+    @Override
+    public boolean hasSuccessors() {
+        return _Tail.hasSuccessors();
+    }
+
+    @Override
+    public boolean hasInboundData() {
+        return _Head.hasInboundData();
+    }
+
+    @Override
+    public boolean hasOutboundData() {
+        return _Tail.hasOutboundData();
+    }
+
+    @Override
+    public Collection<Node> getSuccessors() {
+        return _Tail.getSuccessors();
+    }
+
+    @Override
+    public Collection<Node> getPredecessors() {
+        return _Head.getPredecessors();
+    }
+
+    @Override
+    public Link getInboundLink(Node node) {
+        return _Head.getInboundLink(node);
+    }
+
+    @Override
+    public Link getOutboundLink(Node node) {
+        return _Tail.getOutboundLink(node);
+    }
+
+    /**
+     * The class {@link de.claas.mosis.flow.FusedNode.Chain}. It is intended
+     * to invoke the {@link de.claas.mosis.model.Processor} modules of a chain
+     * of nodes one after another. Each output value of a module is processed
+     * by the next module as a sample of its own.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    private static class Chain extends ProcessorAdapter<Object, Object> {
+
+        private final Processor<Object, Object>[] _Stages;
+        private final List<List<Object>> _Samples = new ArrayList<>();
+        private final List<List<Object>> _Outputs = new ArrayList<>();
+
+        /**
+         * Initializes the class with the given parameter.
+         *
+         * @param nodes the chain of nodes
+         */
+        @SuppressWarnings("unchecked")
+        public Chain(List<PlainNode> nodes) {
+            _Stages = (Processor<Object, Object>[])
+                    new Processor<?, ?>[nodes.size()];
+            for (int i = 0; i < _Stages.length; i++) {
+                _Stages[i] = (Processor<Object, Object>) nodes.get(i)
+                        .getProcessor();
+                _Samples.add(new Vector<>());
+                _Outputs.add(new Vector<>());
+            }
+        }
+
+        @Override
+        public void setUp() {
+            super.setUp();
+            for (Processor<Object, Object> stage : _Stages) {
+                stage.setUp();
+            }
+        }
+
+        @Override
+        public void dismantle() {
+            super.dismantle();
+            for (Processor<Object, Object> stage : _Stages) {
+                stage.dismantle();
+            }
+        }
+
+        @Override
+        public void process(List<Object> in, List<Object> out) {
+            process(0, in, out);
+        }
+
+        /**
+         * Processes a sample by the given stage and passes all output values
+         * on to the next stage. Output values of the last stage are added to
+         * the outbound data.
+         *
+         * @param stage the stage
+         * @param in    the inbound data of the stage
+         * @param out   the outbound data of the chain
+         */
+        private void process(int stage, List<Object> in, List<Object> out) {
+            if (stage == _Stages.length - 1) {
+                _Stages[stage].process(in, out);
+                return;
+            }
+            List<Object> values = _Outputs.get(stage);
+            List<Object> sample = _Samples.get(stage + 1);
+            values.clear();
+            _Stages[stage].process(in, values);
+            for (int i = 0; i < values.size(); i++) {
+                sample.clear();
+                sample.add(values.get(i));
+                process(stage + 1, sample, out);
+            }
+            values.clear();
+        }
+
+    }
+
+}
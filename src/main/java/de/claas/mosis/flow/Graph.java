@@ -1,7 +1,7 @@
 package de.claas.mosis.flow;
 
-import de.claas.mosis.flow.iterator.OneShotLevelOrder;
 import de.claas.mosis.flow.visitor.DismantlingVisitor;
+import de.claas.mosis.flow.visitor.PipeliningVisitor;
 import de.claas.mosis.flow.visitor.ProcessingVisitor;
 import de.claas.mosis.flow.visitor.SettingUpVisitor;
 import de.claas.mosis.model.Processor;
@@ -20,11 +20,13 @@ import java.util.*;
  */
 public class Graph {
 
-    // TODO provide option to choose appropriate type of Link
     // TODO provide option to link two node objects (e.g. CompositeNode, PlainNode)
 
     private final Map<Processor<?, ?>, Node> _Nodes;
     private final Set<Node> _Sources;
+    private Schedule _Schedule;
+    private boolean _Fusion;
+    private Metrics _Metrics;
 
     /**
      * Initializes the class with default values.
@@ -35,15 +37,31 @@ public class Graph {
     }
 
     /**
-     * Adds a directional link between both processors.
+     * Adds a directional link between both processors. An {@link
+     * de.claas.mosis.flow.UnbiasedLink} is used to connect both processors.
      *
      * @param src the source
      * @param dst the destination
      */
     public void addLink(Processor<?, ?> src, Processor<?, ?> dst) {
+        addLink(src, dst, new UnbiasedLink());
+    }
+
+    /**
+     * Adds a directional link between both processors. The given {@link
+     * de.claas.mosis.flow.Link} is used to connect both processors (e.g. a
+     * {@link de.claas.mosis.flow.BoundedLink} in order to limit the amount of
+     * buffered data).
+     *
+     * @param src  the source
+     * @param dst  the destination
+     * @param link the link
+     */
+    public void addLink(Processor<?, ?> src, Processor<?, ?> dst, Link link) {
         Node s = getNode(src);
         Node d = getNode(dst);
-        s.addSuccessor(d, new UnbiasedLink());
+        s.addSuccessor(d, link);
+        _Schedule = null;
 
         _Sources.remove(s);
         _Sources.remove(d);
@@ -62,6 +80,7 @@ public class Graph {
         Node s = getNode(src);
         Node d = getNode(dst);
         s.removeSuccessor(d);
+        _Schedule = null;
 
         _Sources.remove(s);
         _Sources.remove(d);
@@ -98,6 +117,78 @@ public class Graph {
         return _Sources;
     }
 
+    /**
+     * Returns the compiled {@link de.claas.mosis.flow.Schedule} of this graph.
+     * The schedule is compiled when first requested and is kept until links
+     * are added or removed.
+     *
+     * @return the compiled {@link de.claas.mosis.flow.Schedule} of this graph
+     */
+    public Schedule getSchedule() {
+        if (_Schedule == null) {
+            _Schedule = new Schedule(getSources(), _Fusion);
+        }
+        return _Schedule;
+    }
+
+    /**
+     * Returns <code>true</code> if linear chains of nodes are fused when
+     * compiling the {@link de.claas.mosis.flow.Schedule} of this graph.
+     * Otherwise, <code>false</code> is returned.
+     *
+     * @return <code>true</code> if linear chains of nodes are fused
+     */
+    public boolean isFusion() {
+        return _Fusion;
+    }
+
+    /**
+     * Sets whether linear chains of nodes are fused when compiling the {@link
+     * de.claas.mosis.flow.Schedule} of this graph (see {@link
+     * de.claas.mosis.flow.FusedNode} for details). Fused nodes pass their
+     * output values directly to the next node of the chain. Fusion is
+     * disabled by default.
+     *
+     * @param fusion whether linear chains of nodes are fused
+     */
+    public void setFusion(boolean fusion) {
+        _Fusion = fusion;
+        _Schedule = null;
+    }
+
+    /**
+     * Returns <code>true</code> if metrics are tracked while processing this
+     * graph. Otherwise, <code>false</code> is returned.
+     *
+     * @return <code>true</code> if metrics are tracked
+     */
+    public boolean isMetricsEnabled() {
+        return _Metrics != null;
+    }
+
+    /**
+     * Sets whether metrics are tracked while processing this graph (see
+     * {@link de.claas.mosis.flow.Metrics} for details). Metrics are tracked
+     * for all nodes and links, so that modules need not be decorated (e.g.
+     * with {@link de.claas.mosis.processing.debug.Counter}). Enabling metrics
+     * discards previously tracked metrics. Metrics are disabled by default.
+     *
+     * @param enabled whether metrics are tracked
+     */
+    public void setMetricsEnabled(boolean enabled) {
+        _Metrics = enabled ? new Metrics() : null;
+    }
+
+    /**
+     * Returns the metrics of this graph or <code>null</code> if metrics are
+     * disabled (see {@link #setMetricsEnabled(boolean)}).
+     *
+     * @return the metrics of this graph
+     */
+    public Metrics getMetrics() {
+        return _Metrics;
+    }
+
     /**
      * Returns an instantiated {@link java.lang.Iterable} object of the given
      * {@link java.lang.Class} for this graph. This is a convenience method and
@@ -150,7 +241,9 @@ public class Graph {
      * processing modules is determined by the given {@link java.util.Iterator}
      * class. If the data source is no longer providing data or there are no
      * more processing modules that need processing, then processing modules are
-     * also dismantled.
+     * also dismantled. All nodes are visited according to the compiled {@link
+     * de.claas.mosis.flow.Schedule} of this graph (see {@link
+     * Schedule#visit(Visitor, Class)} for details).
      *
      * @param clazz the {@link java.util.Iterator} class
      * @throws java.lang.ReflectiveOperationException See {@link #iterator(Class)}
@@ -159,17 +252,43 @@ public class Graph {
      */
     public void process(Class<? extends Iterator<Node>> clazz)
             throws ReflectiveOperationException {
-        visit(new SettingUpVisitor(), iterable(OneShotLevelOrder.class));
-        visit(new ProcessingVisitor(), iterable(clazz));
-        visit(new DismantlingVisitor(), iterable(OneShotLevelOrder.class));
+        Schedule schedule = getSchedule();
+        if (_Metrics != null) {
+            _Metrics.register(schedule);
+        }
+        schedule.visit(new SettingUpVisitor());
+        schedule.visit(new ProcessingVisitor(_Metrics), clazz);
+        schedule.visit(new DismantlingVisitor());
     }
 
-    private void visit(Visitor visitor, Iterable<Node> iterator)
-            throws ReflectiveOperationException {
-        for (Node node : iterator) {
-            if (!node.visit(visitor)) {
-                break;
-            }
+    /**
+     * Initializes processing modules and starts data processing. Unlike
+     * {@link #process(Class)}, every node is processed on its own thread, so
+     * that processing modules run concurrently (i.e. as a pipeline). Data
+     * sources are processed until one of them is no longer providing data.
+     * Afterwards, remaining data is processed and processing modules are
+     * dismantled.
+     *
+     * @throws java.lang.ReflectiveOperationException See {@link #iterator(Class)}
+     *                                                for details.
+     * @throws java.lang.InterruptedException         if interrupted while
+     *                                                waiting for processing
+     *                                                to finish
+     * @see de.claas.mosis.flow.visitor.PipeliningVisitor
+     */
+    public void processPipelined() throws ReflectiveOperationException,
+            InterruptedException {
+        Schedule schedule = getSchedule();
+        if (_Metrics != null) {
+            _Metrics.register(schedule);
+        }
+        PipeliningVisitor pipeline = new PipeliningVisitor(_Metrics);
+        schedule.visit(new SettingUpVisitor());
+        schedule.visit(pipeline);
+        try {
+            pipeline.execute();
+        } finally {
+            schedule.visit(new DismantlingVisitor());
         }
     }
 
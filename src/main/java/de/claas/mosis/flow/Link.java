@@ -10,7 +10,9 @@ import java.util.List;
  * purpose is to buffer and monitor the flow of information from one {@link
  * de.claas.mosis.model.Processor} to the next {@link de.claas.mosis.model.Processor}.
  * Concrete implementations may be configurable and may choose which data they
- * accept (i.e. want to forward / buffer).
+ * accept (i.e. want to forward / buffer). When a graph is processed
+ * concurrently (see {@link de.claas.mosis.flow.Graph#processPipelined()}),
+ * values are pushed by one thread and polled by another thread.
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
@@ -10,7 +10,9 @@ import java.util.Queue;
  * The class {@link de.claas.mosis.flow.LinkAdapter}. It is intended to provide
  * a common implementation of the {@link de.claas.mosis.flow.Link} interface. It
  * acts as a link between two {@link de.claas.mosis.model.Processor} objects and
- * accepts all objects (i.e. no objects are discarded).
+ * accepts all objects (i.e. no objects are discarded). Access to the
+ * underlying buffer is synchronized, so that values may be pushed and polled
+ * from different threads.
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
@@ -26,12 +28,12 @@ public class LinkAdapter extends ConfigurableAdapter implements Link {
     }
 
     @Override
-    public boolean push(List<Object> in) {
+    public synchronized boolean push(List<Object> in) {
         return _Buffer.addAll(in);
     }
 
     @Override
-    public Object poll() {
+    public synchronized Object poll() {
         if (isEmpty()) {
             throw new IllegalStateException();
         } else {
@@ -40,7 +42,7 @@ public class LinkAdapter extends ConfigurableAdapter implements Link {
     }
 
     @Override
-    public boolean isEmpty() {
+    public synchronized boolean isEmpty() {
         return _Buffer.isEmpty();
     }
 
@@ -0,0 +1,388 @@
+package de.claas.mosis.flow;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * The class {@link de.claas.mosis.flow.Metrics}. It is intended to collect
+ * performance metrics of all {@link de.claas.mosis.flow.Node} and {@link
+ * de.claas.mosis.flow.Link} objects of a graph while it is processed (see
+ * {@link de.claas.mosis.flow.Graph#setMetricsEnabled(boolean)}). For every
+ * node, the number of calls, the number of incoming and outgoing samples and
+ * the time spent processing (i.e. busy time) are tracked. For every link, the
+ * number of pushed (i.e. accepted) and polled values are tracked. The queue
+ * depth of a link is derived from these. Values that a link discarded are not
+ * counted as pushed (see {@link
+ * de.claas.mosis.flow.visitor.ProcessingVisitor}). As values are counted once
+ * they were pushed, they may be polled before they were counted (i.e. the
+ * queue depth is never negative, but may briefly be too small).
+ * <p>
+ * Nodes and links are registered once per {@link de.claas.mosis.flow.Schedule}
+ * before processing starts. While processing, counters are only looked up by
+ * identity and incremented by the (single) thread that processes a node or
+ * writes / reads a link. Thus, tracking metrics neither takes locks nor
+ * allocates memory. Snapshots of all counters can be exported at any time
+ * (see {@link #toTable()} and {@link #toJson()}).
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class Metrics {
+
+    private final Map<Node, NodeMetrics> _Nodes = new IdentityHashMap<>();
+    private final Map<Link, LinkMetrics> _Links = new IdentityHashMap<>();
+    private final List<NodeMetrics> _NodeList = new ArrayList<>();
+    private final List<LinkMetrics> _LinkList = new ArrayList<>();
+    private volatile long _Started = System.nanoTime();
+
+    /**
+     * Registers all nodes of the given schedule (including nodes within
+     * {@link de.claas.mosis.flow.CompositeNode} objects) and their outbound
+     * links. Nodes and links that were registered before keep their counters.
+     * This method must not be called while the graph is being processed.
+     *
+     * @param schedule the schedule
+     */
+    public synchronized void register(Schedule schedule) {
+        for (int i = 0; i < schedule.size(); i++) {
+            Node node = schedule.get(i);
+            if (node instanceof CompositeNode) {
+                register(((CompositeNode) node).getSchedule());
+            } else if (!_Nodes.containsKey(node)) {
+                NodeMetrics metrics = new NodeMetrics(Schedule.describe(node));
+                _Nodes.put(node, metrics);
+                _NodeList.add(metrics);
+            }
+            for (Node successor : node.getSuccessors()) {
+                Link link = node.getOutboundLink(successor);
+                if (!_Links.containsKey(link)) {
+                    String name = Schedule.describe(node) + " -> "
+                            + Schedule.describe(successor);
+                    LinkMetrics metrics = new LinkMetrics(name);
+                    _Links.put(link, metrics);
+                    _LinkList.add(metrics);
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns the metrics of the given node or <code>null</code> if the node
+     * was not registered.
+     *
+     * @param node the node
+     * @return the metrics of the given node
+     */
+    public NodeMetrics getNode(Node node) {
+        return _Nodes.get(node);
+    }
+
+    /**
+     * Returns the metrics of the given link or <code>null</code> if the link
+     * was not registered.
+     *
+     * @param link the link
+     * @return the metrics of the given link
+     */
+    public LinkMetrics getLink(Link link) {
+        return _Links.get(link);
+    }
+
+    /**
+     * Returns the metrics of all registered nodes (in order of registration).
+     *
+     * @return the metrics of all registered nodes
+     */
+    public List<NodeMetrics> getNodes() {
+        return Collections.unmodifiableList(_NodeList);
+    }
+
+    /**
+     * Returns the metrics of all registered links (in order of registration).
+     *
+     * @return the metrics of all registered links
+     */
+    public List<LinkMetrics> getLinks() {
+        return Collections.unmodifiableList(_LinkList);
+    }
+
+    /**
+     * Counts values that were pushed into the given link. Unregistered links
+     * are ignored.
+     *
+     * @param link   the link
+     * @param values the number of values
+     */
+    public void pushed(Link link, int values) {
+        LinkMetrics metrics = _Links.get(link);
+        if (metrics != null) {
+            metrics._Pushed.lazySet(metrics._Pushed.get() + values);
+        }
+    }
+
+    /**
+     * Counts a value that was polled from the given link. Unregistered links
+     * are ignored.
+     *
+     * @param link the link
+     */
+    public void polled(Link link) {
+        LinkMetrics metrics = _Links.get(link);
+        if (metrics != null) {
+            metrics._Polled.lazySet(metrics._Polled.get() + 1);
+        }
+    }
+
+    /**
+     * Returns the number of nanoseconds since these metrics were created or
+     * last reset.
+     *
+     * @return the number of nanoseconds since these metrics were created or
+     * last reset
+     */
+    public long getElapsedTime() {
+        return System.nanoTime() - _Started;
+    }
+
+    /**
+     * Resets all counters. Registered nodes and links are kept. This method
+     * should not be called while the graph is being processed.
+     */
+    public synchronized void reset() {
+        for (NodeMetrics metrics : _NodeList) {
+            metrics._Calls.set(0);
+            metrics._SamplesIn.set(0);
+            metrics._SamplesOut.set(0);
+            metrics._BusyTime.set(0);
+        }
+        for (LinkMetrics metrics : _LinkList) {
+            metrics._Pushed.set(0);
+            metrics._Polled.set(0);
+        }
+        _Started = System.nanoTime();
+    }
+
+    /**
+     * Returns a snapshot of all counters as (human readable) text table. Rates
+     * are given per second since these metrics were created or last reset.
+     *
+     * @return a snapshot of all counters as text table
+     */
+    public synchronized String toTable() {
+        double seconds = seconds();
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, "%-40s %12s %12s %12s %12s %8s%n",
+                "node", "calls", "samples in", "samples out", "busy [ms]",
+                "busy [%]"));
+        for (NodeMetrics metrics : _NodeList) {
+            long busy = metrics.getBusyTime();
+            sb.append(String.format(Locale.ROOT,
+                    "%-40s %12d %12d %12d %12.3f %8.2f%n",
+                    metrics.getName(), metrics.getCalls(),
+                    metrics.getSamplesIn(), metrics.getSamplesOut(),
+                    busy / 1e6, seconds > 0 ? busy / 1e7 / seconds : 0));
+        }
+        sb.append(String.format(Locale.ROOT, "%-40s %12s %12s %12s %12s %12s%n",
+                "link", "pushed", "polled", "queue depth", "push [1/s]",
+                "poll [1/s]"));
+        for (LinkMetrics metrics : _LinkList) {
+            sb.append(String.format(Locale.ROOT,
+                    "%-40s %12d %12d %12d %12.1f %12.1f%n",
+                    metrics.getName(), metrics.getPushed(),
+                    metrics.getPolled(), metrics.getQueueDepth(),
+                    rate(metrics.getPushed(), seconds),
+                    rate(metrics.getPolled(), seconds)));
+        }
+        return sb.toString();
+    }
+
+    /**
+     * Returns a snapshot of all counters as JSON object. Busy times are given
+     * in nanoseconds. Rates are given per second since these metrics were
+     * created or last reset.
+     *
+     * @return a snapshot of all counters as JSON object
+     */
+    public synchronized String toJson() {
+        double seconds = seconds();
+        StringBuilder sb = new StringBuilder();
+        sb.append("{\"elapsedTime\":").append(getElapsedTime());
+        sb.append(",\"nodes\":[");
+        for (int i = 0; i < _NodeList.size(); i++) {
+            NodeMetrics metrics = _NodeList.get(i);
+            sb.append(i == 0 ? "{" : ",{");
+            sb.append("\"name\":").append(quote(metrics.getName()));
+            sb.append(",\"calls\":").append(metrics.getCalls());
+            sb.append(",\"samplesIn\":").append(metrics.getSamplesIn());
+            sb.append(",\"samplesOut\":").append(metrics.getSamplesOut());
+            sb.append(",\"busyTime\":").append(metrics.getBusyTime());
+            sb.append("}");
+        }
+        sb.append("],\"links\":[");
+        for (int i = 0; i < _LinkList.size(); i++) {
+            LinkMetrics metrics = _LinkList.get(i);
+            sb.append(i == 0 ? "{" : ",{");
+            sb.append("\"name\":").append(quote(metrics.getName()));
+            sb.append(",\"pushed\":").append(metrics.getPushed());
+            sb.append(",\"polled\":").append(metrics.getPolled());
+            sb.append(",\"queueDepth\":").append(metrics.getQueueDepth());
+            sb.append(",\"pushRate\":").append(
+                    rate(metrics.getPushed(), seconds));
+            sb.append(",\"pollRate\":").append(
+                    rate(metrics.getPolled(), seconds));
+            sb.append("}");
+        }
+        return sb.append("]}").toString();
+    }
+
+    @Override
+    public String toString() {
+        return toTable();
+    }
+
+    private double seconds() {
+        return getElapsedTime() / (double) TimeUnit.SECONDS.toNanos(1);
+    }
+
+    private static double rate(long count, double seconds) {
+        return seconds > 0 ? count / seconds : 0;
+    }
+
+    /**
+     * Returns the given string as (quoted and escaped) JSON string.
+     *
+     * @param value the string
+     * @return the given string as JSON string
+     */
+    private static String quote(String value) {
+        StringBuilder sb = new StringBuilder("\"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                sb.append('\\').append(c);
+            } else if (c < 0x20) {
+                sb.append(String.format("\\u%04x", (int) c));
+            } else {
+                sb.append(c);
+            }
+        }
+        return sb.append('"').toString();
+    }
+
+    /**
+     * The class {@link de.claas.mosis.flow.Metrics.NodeMetrics}. It is
+     * intended to hold the counters of a single {@link
+     * de.claas.mosis.flow.Node}.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class NodeMetrics {
+
+        private final String _Name;
+        private final AtomicLong _Calls = new AtomicLong();
+        private final AtomicLong _SamplesIn = new AtomicLong();
+        private final AtomicLong _SamplesOut = new AtomicLong();
+        private final AtomicLong _BusyTime = new AtomicLong();
+
+        /**
+         * Initializes the class with the given parameter.
+         *
+         * @param name the name of the node
+         */
+        private NodeMetrics(String name) {
+            _Name = name;
+        }
+
+        /**
+         * Records a single call of the node's module. This method must only
+         * be called by the thread that processes the node.
+         *
+         * @param samplesIn  the number of incoming samples
+         * @param samplesOut the number of outgoing samples
+         * @param busyTime   the time spent processing (in nanoseconds)
+         */
+        public void record(int samplesIn, int samplesOut, long busyTime) {
+            _Calls.lazySet(_Calls.get() + 1);
+            _SamplesIn.lazySet(_SamplesIn.get() + samplesIn);
+            _SamplesOut.lazySet(_SamplesOut.get() + samplesOut);
+            _BusyTime.lazySet(_BusyTime.get() + busyTime);
+        }
+
+        public String getName() {
+            return _Name;
+        }
+
+        public long getCalls() {
+            return _Calls.get();
+        }
+
+        public long getSamplesIn() {
+            return _SamplesIn.get();
+        }
+
+        public long getSamplesOut() {
+            return _SamplesOut.get();
+        }
+
+        /**
+         * Returns the time spent processing (in nanoseconds).
+         *
+         * @return the time spent processing (in nanoseconds)
+         */
+        public long getBusyTime() {
+            return _BusyTime.get();
+        }
+
+    }
+
+    /**
+     * The class {@link de.claas.mosis.flow.Metrics.LinkMetrics}. It is
+     * intended to hold the counters of a single {@link
+     * de.claas.mosis.flow.Link}.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class LinkMetrics {
+
+        private final String _Name;
+        private final AtomicLong _Pushed = new AtomicLong();
+        private final AtomicLong _Polled = new AtomicLong();
+
+        /**
+         * Initializes the class with the given parameter.
+         *
+         * @param name the name of the link
+         */
+        private LinkMetrics(String name) {
+            _Name = name;
+        }
+
+        public String getName() {
+            return _Name;
+        }
+
+        public long getPushed() {
+            return _Pushed.get();
+        }
+
+        public long getPolled() {
+            return _Polled.get();
+        }
+
+        /**
+         * Returns the number of values that were pushed but not yet polled.
+         *
+         * @return the number of values that were pushed but not yet polled
+         */
+        public long getQueueDepth() {
+            return Math.max(0, getPushed() - getPolled());
+        }
+
+    }
+
+}
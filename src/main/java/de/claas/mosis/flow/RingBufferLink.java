@@ -0,0 +1,187 @@
+package de.claas.mosis.flow;
+
+import de.claas.mosis.annotation.Parameter;
+import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.Configurable;
+import de.claas.mosis.model.ConfigurableAdapter;
+import de.claas.mosis.model.Observer;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * The class {@link de.claas.mosis.flow.RingBufferLink}. It is intended to
+ * provide an implementation of the {@link de.claas.mosis.flow.Link} interface
+ * for exactly one producing and one consuming thread (e.g. see {@link
+ * de.claas.mosis.flow.Graph#processPipelined()}). Values are kept in a
+ * preallocated circular buffer whose capacity is a power of two. Neither locks
+ * nor per-value allocations are involved in pushing or polling values. A batch
+ * of values is published with a single write that is visible to the consumer.
+ * <p>
+ * If the buffer is full, then the producer waits until the consumer polled
+ * enough values. The wait strategy trades latency against CPU usage: spinning
+ * reacts fastest but occupies a processor, yielding gives other threads a
+ * chance to run and parking releases the processor for a short period of
+ * time. The capacity should be configured before values are pushed.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class RingBufferLink extends ConfigurableAdapter implements Link,
+        Observer {
+
+    @Parameter("Minimum number of values that are buffered by this link. The capacity is rounded up to the next power of two.")
+    public static final String CAPACITY = "capacity";
+    @Parameter("Strategy for waiting on the consumer while the buffer is full.")
+    public static final String WAIT_STRATEGY = "wait strategy";
+    public static final String WAIT_BUSY_SPIN = "busy spin";
+    public static final String WAIT_YIELD = "yield";
+    public static final String WAIT_PARK = "park";
+    @Parameter("Number of values that are currently buffered by this link (read-only).")
+    public static final String QUEUE_DEPTH = "queue depth";
+    private final AtomicLong _Head = new AtomicLong();
+    private final AtomicLong _Tail = new AtomicLong();
+    private Object[] _Buffer;
+    private int _Mask;
+    private long _CachedHead;
+    private long _CachedTail;
+    private String _WaitStrategy;
+
+    /**
+     * Initializes the class with default values.
+     */
+    public RingBufferLink() {
+        addObserver(this);
+        addCondition(CAPACITY, new Condition.IsInteger());
+        addCondition(CAPACITY, new Condition.IsGreaterThan(0d));
+        addCondition(CAPACITY, new Condition.IsLessOrEqual((double) (1 << 30)));
+        setParameter(CAPACITY, 1024);
+        List<String> whiteList = Arrays.asList(WAIT_BUSY_SPIN, WAIT_YIELD,
+                WAIT_PARK);
+        addCondition(WAIT_STRATEGY, new Condition.IsInList(whiteList));
+        setParameter(WAIT_STRATEGY, WAIT_YIELD);
+        addCondition(QUEUE_DEPTH, new Condition.ReadOnly());
+    }
+
+    /**
+     * Initializes the class with the given values.
+     *
+     * @param capacity     the parameter {@link #CAPACITY}
+     * @param waitStrategy the parameter {@link #WAIT_STRATEGY}
+     */
+    public RingBufferLink(int capacity, String waitStrategy) {
+        this();
+        setParameter(CAPACITY, capacity);
+        setParameter(WAIT_STRATEGY, waitStrategy);
+    }
+
+    @Override
+    public String getParameter(String parameter) {
+        if (QUEUE_DEPTH.equals(parameter)) {
+            return Long.toString(_Tail.get() - _Head.get());
+        } else {
+            return super.getParameter(parameter);
+        }
+    }
+
+    @Override
+    public boolean push(List<Object> in) {
+        int size = in.size();
+        long tail = _Tail.get();
+        int index = 0;
+        while (index < size) {
+            int free = available(tail);
+            if (free == 0) {
+                // Publish what was written so far and wait for the consumer.
+                _Tail.set(tail);
+                if (!await()) {
+                    return false;
+                }
+                continue;
+            }
+            int end = Math.min(size, index + free);
+            for (; index < end; index++) {
+                _Buffer[(int) tail & _Mask] = in.get(index);
+                tail++;
+            }
+        }
+        _Tail.set(tail);
+        return true;
+    }
+
+    /**
+     * Returns the number of values that can be written without overwriting
+     * values that were not polled yet.
+     *
+     * @param tail the producer's position
+     * @return the number of values that can be written
+     */
+    private int available(long tail) {
+        int free = (int) (_Buffer.length - (tail - _CachedHead));
+        if (free == 0) {
+            _CachedHead = _Head.get();
+            free = (int) (_Buffer.length - (tail - _CachedHead));
+        }
+        return free;
+    }
+
+    /**
+     * Waits according to the configured wait strategy. Returns
+     * <code>false</code> if the current thread was interrupted.
+     *
+     * @return <code>false</code> if the current thread was interrupted
+     */
+    private boolean await() {
+        if (WAIT_YIELD.equals(_WaitStrategy)) {
+            Thread.yield();
+        } else if (WAIT_PARK.equals(_WaitStrategy)) {
+            LockSupport.parkNanos(50000L);
+        }
+        return !Thread.currentThread().isInterrupted();
+    }
+
+    @Override
+    public Object poll() {
+        long head = _Head.get();
+        if (head == _CachedTail) {
+            _CachedTail = _Tail.get();
+            if (head == _CachedTail) {
+                throw new IllegalStateException();
+            }
+        }
+        int index = (int) head & _Mask;
+        Object value = _Buffer[index];
+        _Buffer[index] = null;
+        _Head.lazySet(head + 1);
+        return value;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return _Head.get() == _Tail.get();
+    }
+
+    @Override
+    public void update(Configurable configurable, String parameter) {
+        if (CAPACITY.equals(parameter)) {
+            int capacity = Integer.highestOneBit(getParameterAsInteger(CAPACITY) - 1) << 1;
+            Object[] buffer = new Object[Math.max(1, capacity)];
+            long head = _Head.get();
+            long tail = _Tail.get();
+            int size = (int) Math.min(tail - head, buffer.length);
+            for (int i = 0; i < size; i++) {
+                buffer[i] = _Buffer[(int) (tail - size + i) & _Mask];
+            }
+            _Buffer = buffer;
+            _Mask = buffer.length - 1;
+            _CachedHead = 0;
+            _CachedTail = 0;
+            _Head.set(0);
+            _Tail.set(size);
+        } else if (WAIT_STRATEGY.equals(parameter)) {
+            _WaitStrategy = getParameter(WAIT_STRATEGY);
+        }
+    }
+
+}
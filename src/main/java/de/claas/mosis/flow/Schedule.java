@@ -0,0 +1,384 @@
+package de.claas.mosis.flow;
+
+import de.claas.mosis.flow.iterator.InfiniteLevelOrder;
+import de.claas.mosis.flow.iterator.OneShotLevelOrder;
+import de.claas.mosis.flow.iterator.RepeatedOneShotLevelOrder;
+
+import java.util.*;
+
+/**
+ * The class {@link de.claas.mosis.flow.Schedule}. It is intended to represent
+ * a compiled (i.e. precomputed) order in which all {@link
+ * de.claas.mosis.flow.Node} objects of a graph are visited. The order is
+ * computed once and kept in flat arrays, so that visiting the graph does not
+ * involve any (per-step) allocations or lookups. A schedule is immutable and
+ * does not reflect subsequent changes to the graph. Thus, it must be compiled
+ * again whenever links are added or removed.
+ * <p>
+ * Nodes are visited in the very same order as by {@link
+ * de.claas.mosis.flow.iterator.OneShotLevelOrder}, {@link
+ * de.claas.mosis.flow.iterator.RepeatedOneShotLevelOrder} and {@link
+ * de.claas.mosis.flow.iterator.InfiniteLevelOrder}, respectively.
+ * <p>
+ * Optionally, linear chains of {@link de.claas.mosis.flow.PlainNode} objects
+ * are fused into a single {@link de.claas.mosis.flow.FusedNode}. A node is
+ * fused with its successor, if it is not a data source, if it has exactly one
+ * successor, if that successor has exactly one predecessor and if both are
+ * connected by a plain {@link de.claas.mosis.flow.UnbiasedLink} (i.e. a link
+ * without special buffering semantics). A fused chain is visited at the
+ * position of its first node. Data sources never head a chain, because
+ * visitors decide whether processing continues by means of a source's own
+ * outputs (e.g. for <code>Linear -&gt; ToString -&gt; PlainText</code> only
+ * <code>ToString -&gt; PlainText</code> is fused).
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class Schedule {
+
+    private final Node[] _Nodes;
+    private final Set<Node> _SourceSet;
+    private final int _Sources;
+    private final Node[] _Levels;
+    private final int[] _Offsets;
+    private final Map<Node, Node> _Fused;
+
+    /**
+     * Initializes the class with the given parameter. Nodes are not fused.
+     *
+     * @param sources the data sources to start with
+     */
+    public Schedule(Set<Node> sources) {
+        this(sources, false);
+    }
+
+    /**
+     * Initializes the class with the given parameters.
+     *
+     * @param sources the data sources to start with
+     * @param fusion  whether linear chains of nodes are fused
+     */
+    public Schedule(Set<Node> sources, boolean fusion) {
+        _Sources = sources.size();
+        _Fused = new HashMap<>();
+        _Nodes = fusion ? fuse(levelOrder(sources), sources, _Fused)
+                : levelOrder(sources);
+        _SourceSet = Collections.unmodifiableSet(new LinkedHashSet<>(Arrays
+                .asList(_Nodes).subList(0, _Sources)));
+
+        List<List<Node>> levels = new ArrayList<>();
+        initLevels(levels, new HashSet<Node>(), 0, sources, _Fused);
+        _Levels = new Node[_Nodes.length];
+        _Offsets = new int[levels.size()];
+        int offset = _Levels.length;
+        for (int level = 0; level < levels.size(); level++) {
+            List<Node> nodes = levels.get(level);
+            offset -= nodes.size();
+            _Offsets[level] = offset;
+            for (int i = 0; i < nodes.size(); i++) {
+                _Levels[offset + i] = nodes.get(i);
+            }
+        }
+    }
+
+    /**
+     * Returns all nodes in level order (i.e. breadth-first). This is the order
+     * of {@link de.claas.mosis.flow.iterator.OneShotLevelOrder}.
+     *
+     * @param sources the data sources to start with
+     * @return all nodes in level order
+     */
+    private static Node[] levelOrder(Set<Node> sources) {
+        Set<Node> visited = new HashSet<>(sources);
+        List<Node> nodes = new ArrayList<>(sources);
+        for (int i = 0; i < nodes.size(); i++) {
+            for (Node successor : nodes.get(i).getSuccessors()) {
+                if (visited.add(successor)) {
+                    nodes.add(successor);
+                }
+            }
+        }
+        return nodes.toArray(new Node[nodes.size()]);
+    }
+
+    /**
+     * Fuses linear chains of nodes (see class description for details). The
+     * given map is populated with the first node of each chain and its
+     * corresponding {@link de.claas.mosis.flow.FusedNode}.
+     *
+     * @param nodes   all nodes in level order
+     * @param sources the data sources
+     * @param fused   the fused chains (by their first node)
+     * @return all (fused) nodes in level order
+     */
+    private static Node[] fuse(Node[] nodes, Set<Node> sources,
+                               Map<Node, Node> fused) {
+        Set<Node> absorbed = new HashSet<>();
+        List<Node> result = new ArrayList<>();
+        for (Node node : nodes) {
+            if (absorbed.contains(node)) {
+                continue;
+            }
+            List<PlainNode> chain = new ArrayList<>();
+            Node current = node;
+            while (isFusable(current, sources)) {
+                Node next = current.getSuccessors().iterator().next();
+                if (chain.isEmpty()) {
+                    chain.add((PlainNode) current);
+                }
+                chain.add((PlainNode) next);
+                absorbed.add(next);
+                current = next;
+            }
+            if (chain.isEmpty()) {
+                result.add(node);
+            } else {
+                Node chained = new FusedNode(chain);
+                fused.put(node, chained);
+                result.add(chained);
+            }
+        }
+        return result.toArray(new Node[result.size()]);
+    }
+
+    /**
+     * Returns <code>true</code> if the given node can be fused with its
+     * successor. Otherwise, <code>false</code> is returned.
+     *
+     * @param node    the node
+     * @param sources the data sources
+     * @return <code>true</code> if the given node can be fused with its
+     * successor
+     */
+    private static boolean isFusable(Node node, Set<Node> sources) {
+        if (!isPlain(node) || sources.contains(node)
+                || !node.hasPredecessors() || node.getSuccessors().size() != 1) {
+            return false;
+        }
+        Node successor = node.getSuccessors().iterator().next();
+        Link link = node.getOutboundLink(successor);
+        return successor != node && isPlain(successor)
+                && !sources.contains(successor)
+                && successor.getPredecessors().size() == 1
+                && link.getClass().equals(UnbiasedLink.class);
+    }
+
+    /**
+     * Returns <code>true</code> if the given node is a {@link
+     * de.claas.mosis.flow.PlainNode} (and not a specialization thereof).
+     *
+     * @param node the node
+     * @return <code>true</code> if the given node is a {@link
+     * de.claas.mosis.flow.PlainNode}
+     */
+    private static boolean isPlain(Node node) {
+        return node.getClass().equals(PlainNode.class);
+    }
+
+    /**
+     * Returns the node that represents the given node in this schedule. This
+     * is either the {@link de.claas.mosis.flow.FusedNode} of a chain (if the
+     * given node is the first node of that chain) or the given node itself.
+     *
+     * @param node the node
+     * @return the node that represents the given node in this schedule
+     */
+    public Node resolve(Node node) {
+        Node fused = _Fused.get(node);
+        return fused == null ? node : fused;
+    }
+
+    /**
+     * Assigns all nodes to levels (i.e. depth-first). This is the assignment
+     * of {@link de.claas.mosis.flow.iterator.InfiniteLevelOrder}.
+     *
+     * @param levels  the levels
+     * @param visited the nodes that were already assigned
+     * @param level   the current level
+     * @param nodes   the nodes to be assigned to the current level
+     * @param fused   the fused chains (by their first node)
+     */
+    private static void initLevels(List<List<Node>> levels, Set<Node> visited,
+                                   int level, Collection<Node> nodes,
+                                   Map<Node, Node> fused) {
+        for (Node node : nodes) {
+            if (fused.containsKey(node)) {
+                node = fused.get(node);
+            }
+            if (visited.add(node)) {
+                if (level >= levels.size()) {
+                    levels.add(new ArrayList<Node>());
+                }
+                levels.get(level).add(node);
+                initLevels(levels, visited, level + 1, node.getSuccessors(),
+                        fused);
+            }
+        }
+    }
+
+    /**
+     * Returns the number of nodes in this schedule.
+     *
+     * @return the number of nodes in this schedule
+     */
+    public int size() {
+        return _Nodes.length;
+    }
+
+    /**
+     * Returns the node at the given position in level order. The data sources
+     * make up the first positions.
+     *
+     * @param index the position
+     * @return the node at the given position
+     */
+    public Node get(int index) {
+        return _Nodes[index];
+    }
+
+    /**
+     * Returns the data sources of this schedule.
+     *
+     * @return the data sources of this schedule
+     */
+    public Set<Node> getSources() {
+        return _SourceSet;
+    }
+
+    /**
+     * Returns <code>true</code> if the node at the given position is a data
+     * source of this schedule. Otherwise, <code>false</code> is returned.
+     *
+     * @param index the position
+     * @return <code>true</code> if the node is a data source
+     */
+    public boolean isSource(int index) {
+        return index < _Sources;
+    }
+
+    /**
+     * Visits all nodes once in level order. Visiting stops as soon as a node
+     * returns <code>false</code>. The returned value indicates whether all
+     * nodes returned <code>true</code>.
+     *
+     * @param visitor the visitor
+     * @return <code>true</code> if all nodes returned <code>true</code>
+     */
+    public boolean visit(Visitor visitor) {
+        for (Node node : _Nodes) {
+            if (!node.visit(visitor)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Visits all nodes repeatedly in level order until a node returns
+     * <code>false</code>. This corresponds to {@link
+     * de.claas.mosis.flow.iterator.RepeatedOneShotLevelOrder}.
+     *
+     * @param visitor the visitor
+     */
+    public void visitRepeatedly(Visitor visitor) {
+        while (_Nodes.length > 0 && visit(visitor)) {
+            continue;
+        }
+    }
+
+    /**
+     * Visits all nodes repeatedly until a node returns <code>false</code>.
+     * Each iteration adds the next level of nodes, which are visited before
+     * the nodes of previous levels. This corresponds to {@link
+     * de.claas.mosis.flow.iterator.InfiniteLevelOrder}.
+     *
+     * @param visitor the visitor
+     */
+    public void visitInfinitely(Visitor visitor) {
+        if (_Levels.length == 0) {
+            return;
+        }
+        for (int level = 0; ; level = Math.min(level + 1, _Offsets.length - 1)) {
+            for (int i = _Offsets[level]; i < _Levels.length; i++) {
+                if (!_Levels[i].visit(visitor)) {
+                    return;
+                }
+            }
+        }
+    }
+
+    /**
+     * Visits all nodes in the order of the given {@link java.util.Iterator}
+     * class. The iterators of package {@link de.claas.mosis.flow.iterator}
+     * are mapped onto this schedule. Any other {@link java.util.Iterator}
+     * class is instantiated, which assumes that it has a constructor that
+     * accepts a {@link java.util.Set} of {@link de.claas.mosis.flow.Node}
+     * objects.
+     *
+     * @param visitor the visitor
+     * @param clazz   the {@link java.util.Iterator} class
+     * @throws java.lang.ReflectiveOperationException If the {@link java.util.Iterator}
+     *                                                class could not be
+     *                                                properly instantiated.
+     */
+    public void visit(Visitor visitor, Class<? extends Iterator<Node>> clazz)
+            throws ReflectiveOperationException {
+        if (OneShotLevelOrder.class.equals(clazz)) {
+            visit(visitor);
+        } else if (RepeatedOneShotLevelOrder.class.equals(clazz)) {
+            visitRepeatedly(visitor);
+        } else if (InfiniteLevelOrder.class.equals(clazz)) {
+            visitInfinitely(visitor);
+        } else {
+            Iterator<Node> iterator = clazz.getConstructor(Set.class)
+                    .newInstance(_SourceSet);
+            while (iterator.hasNext()) {
+                if (!iterator.next().visit(visitor)) {
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Returns a short description of the given node (for dumping schedules
+     * and metrics).
+     *
+     * @param node the node
+     * @return a short description of the given node
+     */
+    static String describe(Node node) {
+        if (node instanceof FusedNode) {
+            StringBuilder sb = new StringBuilder();
+            for (PlainNode plain : ((FusedNode) node).getNodes()) {
+                sb.append(sb.length() == 0 ? "" : " -> ");
+                sb.append(describe(plain));
+            }
+            return sb.append(" (fused)").toString();
+        } else if (node instanceof PlainNode) {
+            Class<?> clazz = ((PlainNode) node).getProcessor().getClass();
+            return clazz.getSimpleName().isEmpty() ? clazz.getName() : clazz
+                    .getSimpleName();
+        } else if (node instanceof CompositeNode) {
+            CompositeNode composite = (CompositeNode) node;
+            StringBuilder sb = new StringBuilder("composite [");
+            for (int i = 0; i < composite.getSchedule().size(); i++) {
+                sb.append(i == 0 ? "" : ", ");
+                sb.append(describe(composite.getSchedule().get(i)));
+            }
+            return sb.append("]").toString();
+        } else {
+            return node.toString();
+        }
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < _Nodes.length; i++) {
+            sb.append(String.format("%d: %s%s%n", i, describe(_Nodes[i]),
+                    isSource(i) ? " (source)" : ""));
+        }
+        return sb.toString();
+    }
+
+}
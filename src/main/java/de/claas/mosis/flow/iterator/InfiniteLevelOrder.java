@@ -42,8 +42,8 @@ public class InfiniteLevelOrder implements Iterator<Node> {
      */
     public InfiniteLevelOrder(Set<Node> sources) {
         _Visited = new HashSet<>();
-        _Nodes = new LinkedList<>();
-        _Levels = new LinkedList<>();
+        _Nodes = new ArrayList<>();
+        _Levels = new ArrayList<>();
         _Level = 0;
         _Index = 0;
         initLevels(0, sources);
@@ -61,7 +61,7 @@ public class InfiniteLevelOrder implements Iterator<Node> {
 
     private List<Node> getNodes(int level) {
         if (level >= _Levels.size()) {
-            _Levels.add(level, new LinkedList<Node>());
+            _Levels.add(level, new ArrayList<Node>());
         }
         return _Levels.get(level);
     }
@@ -0,0 +1,364 @@
+package de.claas.mosis.flow.visitor;
+
+import de.claas.mosis.flow.BoundedLink;
+import de.claas.mosis.flow.CompositeNode;
+import de.claas.mosis.flow.FusedNode;
+import de.claas.mosis.flow.Link;
+import de.claas.mosis.flow.Metrics;
+import de.claas.mosis.flow.Node;
+import de.claas.mosis.flow.PlainNode;
+import de.claas.mosis.flow.Visitor;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * The class {@link de.claas.mosis.flow.visitor.PipeliningVisitor}. It is an
+ * implementation of the {@link de.claas.mosis.flow.Visitor} interface. It is
+ * intended to process all nodes within a graph concurrently (i.e. as a
+ * pipeline). Visiting a node merely registers it. Once all nodes were visited,
+ * {@link #execute()} runs each node on its own worker thread and waits until
+ * processing has finished.
+ * <p>
+ * Every worker processes its node by means of a {@link
+ * de.claas.mosis.flow.visitor.ProcessingVisitor}. Data sources (i.e. nodes
+ * without predecessors) are processed repeatedly until one of them stops
+ * providing data. All other nodes are processed whenever data is available on
+ * their inbound links. Processing ends once the data sources stopped and no
+ * more data is left within the graph. Each link is written by exactly one
+ * worker and read by exactly one worker, so that values leave a link in the
+ * very same order as with sequential processing. This requires {@link
+ * de.claas.mosis.flow.Link} implementations to be safe for one producing and
+ * one consuming thread. While processing, {@link de.claas.mosis.flow.BoundedLink}
+ * objects between workers are marked as concurrent, so that they may block
+ * producers (see {@link de.claas.mosis.flow.BoundedLink#setConcurrent(boolean)}).
+ * <p>
+ * Optionally, calls of modules and values passing through links are tracked
+ * in {@link de.claas.mosis.flow.Metrics} (see {@link
+ * #PipeliningVisitor(de.claas.mosis.flow.Metrics)}).
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class PipeliningVisitor implements Visitor {
+
+    private final Map<Node, Worker> _Workers = new IdentityHashMap<>();
+    private final Map<Node, Worker> _Heads = new IdentityHashMap<>();
+    private final ReentrantLock _Lock = new ReentrantLock();
+    private final Metrics _Metrics;
+    private int _Running;
+    private volatile boolean _Stopped;
+    private volatile boolean _Done;
+    private Throwable _Failure;
+
+    /**
+     * Initializes the class with default values. No metrics are tracked.
+     */
+    public PipeliningVisitor() {
+        this(null);
+    }
+
+    /**
+     * Initializes the class with the given parameter.
+     *
+     * @param metrics the metrics of processed nodes and links (or
+     *                <code>null</code> if no metrics should be tracked)
+     */
+    public PipeliningVisitor(Metrics metrics) {
+        _Metrics = metrics;
+    }
+
+    @Override
+    public boolean visitPlainNode(PlainNode node) {
+        register(node);
+        return true;
+    }
+
+    @Override
+    public boolean visitCompositeNode(CompositeNode node) {
+        register(node);
+        return true;
+    }
+
+    /**
+     * Registers a worker for the given node (unless one was already
+     * registered). The worker of a {@link de.claas.mosis.flow.FusedNode} is
+     * also registered for the first node of its chain, so that predecessors
+     * can resolve it.
+     *
+     * @param node the node
+     */
+    private void register(Node node) {
+        if (!_Workers.containsKey(node)) {
+            Worker worker = new Worker(node);
+            _Workers.put(node, worker);
+            if (node instanceof FusedNode) {
+                _Heads.put(((FusedNode) node).getNodes().get(0), worker);
+            }
+        }
+    }
+
+    /**
+     * Processes all visited nodes concurrently and waits until processing has
+     * finished. If processing failed in any of the workers, then the first
+     * failure is rethrown.
+     *
+     * @throws java.lang.InterruptedException if interrupted while waiting
+     */
+    public void execute() throws InterruptedException {
+        for (Worker worker : _Workers.values()) {
+            worker.resolveSuccessors();
+        }
+        setConcurrent(true);
+        _Running = _Workers.size();
+        for (Worker worker : _Workers.values()) {
+            worker.start();
+        }
+        try {
+            for (Worker worker : _Workers.values()) {
+                worker.join();
+            }
+        } catch (InterruptedException e) {
+            fail(e);
+            throw e;
+        } finally {
+            setConcurrent(false);
+        }
+
+        if (_Failure instanceof RuntimeException) {
+            throw (RuntimeException) _Failure;
+        } else if (_Failure instanceof Error) {
+            throw (Error) _Failure;
+        } else if (_Failure != null) {
+            throw new IllegalStateException(_Failure);
+        }
+    }
+
+    /**
+     * Marks all outbound {@link de.claas.mosis.flow.BoundedLink} objects of
+     * the visited nodes as concurrent (or sequential).
+     *
+     * @param concurrent <code>true</code> if the links are concurrent
+     */
+    private void setConcurrent(boolean concurrent) {
+        for (Node node : _Workers.keySet()) {
+            for (Node successor : node.getSuccessors()) {
+                Link link = node.getOutboundLink(successor);
+                if (link instanceof BoundedLink) {
+                    ((BoundedLink) link).setConcurrent(concurrent);
+                }
+            }
+        }
+    }
+
+    /**
+     * Aborts processing due to the given failure. All workers are interrupted.
+     *
+     * @param failure the failure
+     */
+    private void fail(Throwable failure) {
+        _Lock.lock();
+        try {
+            if (_Failure == null) {
+                _Failure = failure;
+            }
+            finish();
+        } finally {
+            _Lock.unlock();
+        }
+        for (Worker worker : _Workers.values()) {
+            worker.interrupt();
+        }
+    }
+
+    /**
+     * Marks processing as finished and wakes all waiting workers. The caller
+     * must hold the lock.
+     */
+    private void finish() {
+        _Done = true;
+        for (Worker worker : _Workers.values()) {
+            worker.wake();
+        }
+    }
+
+    /**
+     * Called (while holding the lock) whenever a worker stops running. If no
+     * other worker is running, then waiting workers with pending data are
+     * woken. If there are none, processing has finished.
+     */
+    private void idle() {
+        if (--_Running > 0) {
+            return;
+        }
+        boolean woken = false;
+        for (Worker worker : _Workers.values()) {
+            if (worker._Waiting && worker._Node.hasInboundData()) {
+                worker.wake();
+                woken = true;
+            }
+        }
+        if (!woken) {
+            finish();
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.flow.visitor.PipeliningVisitor.Worker}.
+     * It is intended to process a single node on a thread of its own.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    private class Worker extends Thread {
+
+        private final Node _Node;
+        private final Condition _Ready;
+        private final ProcessingVisitor _Visitor;
+        private Worker[] _Successors;
+        private volatile boolean _Waiting;
+
+        /**
+         * Initializes the class with the given parameters.
+         *
+         * @param node the node that is processed by this worker
+         */
+        public Worker(Node node) {
+            super("pipeline-" + node);
+            setDaemon(true);
+            _Node = node;
+            _Ready = _Lock.newCondition();
+            _Visitor = new ProcessingVisitor(_Metrics) {
+
+                private final List<Object> _Value = Arrays.asList(new Object[1]);
+
+                @Override
+                protected void distributeOutputs(Node node, List<Object> out) {
+                    if (node != _Node) {
+                        super.distributeOutputs(node, out);
+                    } else if (out.size() <= 1) {
+                        super.distributeOutputs(node, out);
+                        signalSuccessors();
+                    } else {
+                        // Links may block, so that successors are notified
+                        // after each value.
+                        for (Object value : out) {
+                            _Value.set(0, value);
+                            super.distributeOutputs(node, _Value);
+                            signalSuccessors();
+                        }
+                    }
+                }
+            };
+        }
+
+        /**
+         * Resolves the workers of all successor nodes.
+         */
+        private void resolveSuccessors() {
+            List<Worker> successors = new ArrayList<>();
+            for (Node successor : _Node.getSuccessors()) {
+                Worker worker = _Workers.get(successor);
+                if (worker == null) {
+                    worker = _Heads.get(successor);
+                }
+                if (worker != null) {
+                    successors.add(worker);
+                }
+            }
+            _Successors = successors.toArray(new Worker[successors.size()]);
+        }
+
+        /**
+         * Wakes this worker if it is waiting for data. The caller must hold
+         * the lock.
+         */
+        private void wake() {
+            if (_Waiting) {
+                _Waiting = false;
+                _Running++;
+                _Ready.signal();
+            }
+        }
+
+        /**
+         * Notifies the workers of all successor nodes that new data is
+         * available. Workers are only woken if they are waiting for data.
+         */
+        private void signalSuccessors() {
+            for (Worker successor : _Successors) {
+                if (successor._Waiting) {
+                    _Lock.lock();
+                    try {
+                        successor.wake();
+                    } finally {
+                        _Lock.unlock();
+                    }
+                }
+            }
+        }
+
+        /**
+         * Returns <code>true</code> once data is available for this worker's
+         * node. Otherwise, <code>false</code> is returned if processing has
+         * finished.
+         *
+         * @return <code>true</code> once data is available
+         * @throws java.lang.InterruptedException if interrupted while waiting
+         */
+        private boolean awaitData() throws InterruptedException {
+            _Lock.lock();
+            try {
+                while (!_Done) {
+                    // Announce waiting before checking for data, so that
+                    // producers do not miss this worker.
+                    _Waiting = true;
+                    if (_Node.hasInboundData()) {
+                        _Waiting = false;
+                        return true;
+                    }
+                    idle();
+                    while (_Waiting && !_Done) {
+                        _Ready.await();
+                    }
+                }
+                return false;
+            } finally {
+                _Lock.unlock();
+            }
+        }
+
+        @Override
+        public void run() {
+            try {
+                if (_Node.hasPredecessors()) {
+                    while (awaitData()) {
+                        _Node.visit(_Visitor);
+                    }
+                } else {
+                    while (!_Stopped && !_Done && _Node.visit(_Visitor)) {
+                        continue;
+                    }
+                    _Lock.lock();
+                    try {
+                        _Stopped = true;
+                        idle();
+                    } finally {
+                        _Lock.unlock();
+                    }
+                }
+            } catch (InterruptedException e) {
+                if (!_Done) {
+                    fail(e);
+                }
+            } catch (RuntimeException | Error e) {
+                fail(e);
+            }
+        }
+
+    }
+
+}
@@ -1,9 +1,10 @@
 package de.claas.mosis.flow.visitor;
 
 import de.claas.mosis.flow.*;
-import de.claas.mosis.flow.iterator.OneShotLevelOrder;
+import de.claas.mosis.model.BatchProcessor;
 import de.claas.mosis.model.Processor;
 
+import java.util.ArrayList;
 import java.util.List;
 import java.util.Vector;
 
@@ -14,6 +15,16 @@ import java.util.Vector;
  * de.claas.mosis.model.Processor} modules for all nodes within a graph. This
  * implementation also takes care of forwarding output data to the corresponding
  * successors.
+ * <p>
+ * Modules that implement the {@link de.claas.mosis.model.BatchProcessor}
+ * interface (with a batch size greater than one) receive as many samples at
+ * once as are available on their inbound links (up to their batch size). This
+ * is not done for data sources and for nodes that are their own predecessor,
+ * as these depend on the outputs of the previous sample.
+ * <p>
+ * Optionally, calls of modules and values passing through links are tracked
+ * in {@link de.claas.mosis.flow.Metrics} (see {@link
+ * #ProcessingVisitor(de.claas.mosis.flow.Metrics)}).
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
@@ -21,23 +32,100 @@ public class ProcessingVisitor implements Visitor {
 
     private final List<List<Object>> _In = new Vector<>();
     private final List<Object> _Out = new Vector<>();
+    private final List<List<Object>> _Batch = new ArrayList<>();
+    private final Metrics _Metrics;
     private int level = 0;
 
+    /**
+     * Initializes the class with default values. No metrics are tracked.
+     */
+    public ProcessingVisitor() {
+        this(null);
+    }
+
+    /**
+     * Initializes the class with the given parameter.
+     *
+     * @param metrics the metrics of processed nodes and links (or
+     *                <code>null</code> if no metrics should be tracked)
+     */
+    public ProcessingVisitor(Metrics metrics) {
+        _Metrics = metrics;
+    }
+
     @SuppressWarnings({"unchecked", "rawtypes"})
     @Override
     public boolean visitPlainNode(PlainNode node) {
+        Processor processor = node.getProcessor();
+        if (processor instanceof BatchProcessor
+                && ((BatchProcessor) processor).getBatchSize() > 1
+                && node.hasPredecessors() && node.getInboundLink(node) == null) {
+            return visitBatchNode(node, (BatchProcessor) processor);
+        }
+
         List<Object> in = getInputs();
+        Metrics.NodeMetrics metrics = _Metrics == null ? null : _Metrics
+                .getNode(node);
         _Out.clear();
         boolean inboundData = !node.hasPredecessors() || node.hasInboundData();
         while (inboundData) {
+            _Out.clear();
             inboundData = fetchInputs(node, in);
-            ((Processor) node.getProcessor()).process(in, _Out);
+            long started = metrics == null ? 0 : System.nanoTime();
+            processor.process(in, _Out);
+            if (metrics != null) {
+                metrics.record(in.size(), _Out.size(), System.nanoTime()
+                        - started);
+            }
             distributeOutputs(node, _Out);
             in.clear();
         }
         return node.hasPredecessors() || !_Out.isEmpty();
     }
 
+    /**
+     * Processes all available input values of the given node in batches (see
+     * {@link #visitPlainNode(de.claas.mosis.flow.PlainNode)}). The outputs of
+     * each batch are distributed at once.
+     *
+     * @param node      the node
+     * @param processor the node's module
+     * @return an indicator of whether the next node may be visited
+     */
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private boolean visitBatchNode(PlainNode node, BatchProcessor processor) {
+        int batchSize = processor.getBatchSize();
+        Metrics.NodeMetrics metrics = _Metrics == null ? null : _Metrics
+                .getNode(node);
+        if (_Batch.isEmpty()) {
+            _Batch.add(null);
+        }
+        _Batch.set(0, getInputs());
+        _Out.clear();
+        boolean inboundData = node.hasInboundData();
+        while (inboundData) {
+            int samples = 0;
+            while (inboundData && samples < batchSize) {
+                if (samples == _Batch.size()) {
+                    _Batch.add(new ArrayList<>());
+                }
+                inboundData = fetchInputs(node, _Batch.get(samples++));
+            }
+            _Out.clear();
+            long started = metrics == null ? 0 : System.nanoTime();
+            processor.processBatch(_Batch.subList(0, samples), _Out);
+            if (metrics != null) {
+                metrics.record(samples, _Out.size(), System.nanoTime()
+                        - started);
+            }
+            distributeOutputs(node, _Out);
+            for (int i = 0; i < samples; i++) {
+                _Batch.get(i).clear();
+            }
+        }
+        return true;
+    }
+
     @Override
     public boolean visitCompositeNode(CompositeNode node) {
         List<Object> in = getInputs();
@@ -47,14 +135,12 @@ public class ProcessingVisitor implements Visitor {
         boolean inboundData = !node.hasPredecessors() || node.hasInboundData();
         while (inboundData) {
             inboundData = fetchInputs(node, in);
-            OneShotLevelOrder iterator = new OneShotLevelOrder(
-                    node.getSources());
-            while (iterator.hasNext()) {
-                Node n = iterator.next();
-                if (node.getSources().contains(n)) {
+            Schedule schedule = node.getSchedule();
+            for (int i = 0; i < schedule.size(); i++) {
+                if (schedule.isSource(i)) {
                     _In.add(in);
                 }
-                n.visit(this);
+                schedule.get(i).visit(this);
             }
             distributeOutputs(node, _Out);
         }
@@ -84,6 +170,9 @@ public class ProcessingVisitor implements Visitor {
             Link link = node.getInboundLink(predecessor);
             if (!link.isEmpty()) {
                 in.add(link.poll());
+                if (_Metrics != null) {
+                    _Metrics.polled(link);
+                }
             }
             inboundData |= !link.isEmpty() && predecessor != node;
         }
@@ -91,14 +180,30 @@ public class ProcessingVisitor implements Visitor {
     }
 
     /**
-     * Distributes output values to all successor nodes of a given node.
+     * Distributes output values to all successor nodes of a given node. If
+     * metrics are tracked, then only values that were accepted by a link are
+     * counted. Values that a {@link de.claas.mosis.flow.BoundedLink} discarded
+     * while pushing (see {@link de.claas.mosis.flow.BoundedLink#DROPPED}) are
+     * deducted. Values of other links are only counted, if the link accepted
+     * all of them (see {@link de.claas.mosis.flow.Link#push(java.util.List)}).
      *
      * @param node the node
      * @param out  the output values
      */
-    private void distributeOutputs(Node node, List<Object> out) {
+    protected void distributeOutputs(Node node, List<Object> out) {
         for (Node successor : node.getSuccessors()) {
-            node.getOutboundLink(successor).push(out);
+            Link link = node.getOutboundLink(successor);
+            if (_Metrics == null || out.isEmpty()) {
+                link.push(out);
+            } else if (link instanceof BoundedLink) {
+                BoundedLink bounded = (BoundedLink) link;
+                long dropped = bounded.getDropped();
+                bounded.push(out);
+                dropped = bounded.getDropped() - dropped;
+                _Metrics.pushed(link, (int) (out.size() - dropped));
+            } else if (link.push(out)) {
+                _Metrics.pushed(link, out.size());
+            }
         }
     }
 
@@ -3,7 +3,6 @@ package de.claas.mosis.flow.visitor;
 import de.claas.mosis.flow.CompositeNode;
 import de.claas.mosis.flow.PlainNode;
 import de.claas.mosis.flow.Visitor;
-import de.claas.mosis.flow.iterator.OneShotLevelOrder;
 import de.claas.mosis.model.Processor;
 
 import java.util.HashSet;
@@ -32,12 +31,7 @@ public class SettingUpVisitor implements Visitor {
 
     @Override
     public boolean visitCompositeNode(CompositeNode node) {
-        OneShotLevelOrder levelOrder = new OneShotLevelOrder(node.getSources());
-        while (levelOrder.hasNext()) {
-            if (!levelOrder.next().visit(this)) {
-                break;
-            }
-        }
+        node.getSchedule().visit(this);
         return true;
     }
 
@@ -4,6 +4,7 @@ import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
 import de.claas.mosis.model.ProcessorAdapter;
 
 import java.util.Arrays;
@@ -38,6 +39,8 @@ public abstract class DataHandler<T> extends ProcessorAdapter<T, T> {
     public static final String MODE_WRITE = "write";
     @Parameter("Whether input values should be forwarded (during write operations).")
     public static final String FORWARD_INPUTS = "forward input data";
+    private final ParameterHandle<String> _Mode = getHandle(MODE);
+    private final ParameterHandle<Boolean> _ForwardInputs = getHandleAsBoolean(FORWARD_INPUTS);
 
     /**
      * Initializes the class with default values.
@@ -64,8 +67,8 @@ public abstract class DataHandler<T> extends ProcessorAdapter<T, T> {
      * only"
      */
     protected boolean isReadOnly(List<?> data) {
-        return MODE_READ.equals(getParameter(MODE))
-                || MODE_AUTO.equals(getParameter(MODE)) && !hasData(data);
+        String mode = _Mode.get();
+        return MODE_READ.equals(mode) || MODE_AUTO.equals(mode) && !hasData(data);
     }
 
     /**
@@ -81,8 +84,8 @@ public abstract class DataHandler<T> extends ProcessorAdapter<T, T> {
      * only"
      */
     protected boolean isWriteOnly(List<?> data) {
-        return MODE_WRITE.equals(getParameter(MODE))
-                || MODE_AUTO.equals(getParameter(MODE)) && hasData(data);
+        String mode = _Mode.get();
+        return MODE_WRITE.equals(mode) || MODE_AUTO.equals(mode) && hasData(data);
     }
 
     /**
@@ -93,7 +96,7 @@ public abstract class DataHandler<T> extends ProcessorAdapter<T, T> {
      * output data)
      */
     protected boolean shouldForward() {
-        return getParameterAsBoolean(FORWARD_INPUTS);
+        return _ForwardInputs.get();
     }
 
 }
\ No newline at end of file
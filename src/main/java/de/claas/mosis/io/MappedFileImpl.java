@@ -0,0 +1,160 @@
+package de.claas.mosis.io;
+
+import de.claas.mosis.annotation.Parameter;
+import de.claas.mosis.model.Condition;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * The class {@link de.claas.mosis.io.MappedFileImpl}. It is intended to
+ * provide access to (large) files by means of memory-mapping, such that {@link
+ * de.claas.mosis.io.StreamHandler} implementations can process them without
+ * copying data from kernel buffers. Output is written just like with {@link
+ * de.claas.mosis.io.FileImpl}.
+ * <p>
+ * Files are mapped in regions of at most {@link #MAPPING_SIZE} bytes. Once a
+ * region has been consumed, the next region is mapped (i.e. mappings roll over
+ * the file), so that files larger than 2 GB are supported. The mapped region
+ * can be accessed directly (see {@link de.claas.mosis.io.MappedFileImpl.MappedInputStream#getBuffer(int)}).
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class MappedFileImpl extends FileImpl {
+
+    @Parameter("Maximum number of bytes that are mapped into memory at once.")
+    public static final String MAPPING_SIZE = "size of mapping";
+
+    /**
+     * Initializes the class with default values.
+     */
+    public MappedFileImpl() {
+        addCondition(MAPPING_SIZE, new Condition.IsInteger());
+        addCondition(MAPPING_SIZE, new Condition.IsGreaterThan(0d));
+        setParameter(MAPPING_SIZE, 64 * 1024 * 1024);
+    }
+
+    @Override
+    public MappedInputStream getInputStream() throws IOException {
+        FileChannel channel = FileChannel.open(Paths.get(getParameter(FILE)),
+                StandardOpenOption.READ);
+        return new MappedInputStream(channel,
+                getParameterAsInteger(MAPPING_SIZE));
+    }
+
+    /**
+     * The class {@link de.claas.mosis.io.MappedFileImpl.MappedInputStream}. It
+     * is intended to read a file through a rolling memory-mapping. Bytes can
+     * either be read like from any other {@link java.io.InputStream} or
+     * directly from the mapped region (see {@link #getBuffer(int)}). Both ways
+     * share the same position. The size of the file is determined once (i.e.
+     * when the stream is created).
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class MappedInputStream extends InputStream {
+
+        private final FileChannel _Channel;
+        private final long _Size;
+        private final int _MappingSize;
+        private ByteBuffer _Buffer = ByteBuffer.allocate(0);
+        private long _Position;
+
+        /**
+         * Initializes the class with the given parameters.
+         *
+         * @param channel     the file
+         * @param mappingSize the maximum number of bytes that are mapped at
+         *                    once
+         * @throws java.io.IOException if the size of the file cannot be
+         *                             determined
+         */
+        public MappedInputStream(FileChannel channel, int mappingSize)
+                throws IOException {
+            _Channel = channel;
+            _Size = channel.size();
+            _MappingSize = mappingSize;
+        }
+
+        /**
+         * Returns the mapped region. The buffer's position corresponds to the
+         * current position within the file and the buffer's remaining bytes
+         * are the bytes that can be accessed without mapping the next region.
+         * Consumed bytes must be skipped by advancing the buffer's position.
+         * <p>
+         * If less than the given number of bytes remain, then the next region
+         * is mapped (starting at the current position), so that unconsumed
+         * bytes (e.g. of a character that spans two regions) remain
+         * accessible. Fewer bytes are only returned, if the end of the file is
+         * near. No bytes are returned at the end of the file.
+         *
+         * @param minimum the minimum number of accessible bytes
+         * @return the mapped region
+         * @throws java.io.IOException if the next region cannot be mapped
+         */
+        public ByteBuffer getBuffer(int minimum) throws IOException {
+            if (_Buffer.remaining() < minimum) {
+                long position = _Position + _Buffer.position();
+                long length = Math.min(Math.max(_MappingSize, minimum),
+                        _Size - position);
+                if (length > _Buffer.remaining()) {
+                    _Buffer = _Channel.map(FileChannel.MapMode.READ_ONLY,
+                            position, length);
+                    _Position = position;
+                }
+            }
+            return _Buffer;
+        }
+
+        @Override
+        public int read() throws IOException {
+            ByteBuffer buffer = getBuffer(1);
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) throws IOException {
+            if (len == 0) {
+                return 0;
+            }
+            ByteBuffer buffer = getBuffer(1);
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int length = Math.min(len, buffer.remaining());
+            buffer.get(b, off, length);
+            return length;
+        }
+
+        @Override
+        public long skip(long n) throws IOException {
+            long position = _Position + _Buffer.position();
+            long skipped = Math.max(0, Math.min(n, _Size - position));
+            if (skipped <= _Buffer.remaining()) {
+                _Buffer.position(_Buffer.position() + (int) skipped);
+            } else {
+                _Buffer = ByteBuffer.allocate(0);
+                _Position = position + skipped;
+            }
+            return skipped;
+        }
+
+        @Override
+        public int available() throws IOException {
+            long position = _Position + _Buffer.position();
+            return (int) Math.min(Integer.MAX_VALUE, _Size - position);
+        }
+
+        @Override
+        public void close() throws IOException {
+            _Buffer = ByteBuffer.allocate(0);
+            _Channel.close();
+        }
+
+    }
+
+}
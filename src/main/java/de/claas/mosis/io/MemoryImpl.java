@@ -0,0 +1,273 @@
+package de.claas.mosis.io;
+
+import de.claas.mosis.annotation.Parameter;
+import de.claas.mosis.model.Condition;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * The class {@link de.claas.mosis.io.MemoryImpl}. It is intended to provide
+ * access to growable in-memory buffers, such that {@link
+ * de.claas.mosis.io.StreamHandler} implementations can process them without
+ * any I/O (e.g. for benchmarking and testing data formats). Buffers are
+ * identified by name and shared by all instances with the same {@link #NAME}.
+ * Thus, a buffer can be preloaded (see {@link #preload(String, byte[])}) and
+ * inspected (see {@link #toByteArray(String)}) without access to the instance
+ * that a {@link de.claas.mosis.io.StreamHandler} created.
+ * <p>
+ * Buffers behave like files (see {@link de.claas.mosis.io.FileImpl}). Each
+ * input stream starts at the beginning of the buffer and reads until its
+ * current end. Thus, a dataset is rewound by creating a new input stream (e.g.
+ * by dismantling and setting up a {@link de.claas.mosis.io.StreamHandler}) or
+ * by calling {@link java.io.InputStream#reset()}. Each output stream clears
+ * the buffer, unless {@link #APPEND} is set. Buffers are not synchronized, so
+ * that they should only be accessed by a single thread at a time.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class MemoryImpl extends StreamHandlerImpl {
+
+    @Parameter("Name of the buffer that is to be accessed / processed. All instances with the same name share the buffer.")
+    public static final String NAME = "name of buffer";
+    @Parameter("Whether output is appended to the buffer (rather than replacing its contents).")
+    public static final String APPEND = "append to buffer";
+    private static final Map<String, Buffer> BUFFERS = new ConcurrentHashMap<>();
+
+    /**
+     * Initializes the class with default values.
+     */
+    public MemoryImpl() {
+        addCondition(NAME, new Condition.IsNotNull());
+        setParameter(NAME, "memory");
+        addCondition(APPEND, new Condition.IsBoolean());
+        setParameter(APPEND, false);
+    }
+
+    /**
+     * Returns the buffer with the given name. The buffer is created if it does
+     * not exist yet.
+     *
+     * @param name the name of the buffer
+     * @return the buffer with the given name
+     */
+    private static Buffer buffer(String name) {
+        Buffer buffer = BUFFERS.get(name);
+        if (buffer == null) {
+            BUFFERS.putIfAbsent(name, new Buffer());
+            buffer = BUFFERS.get(name);
+        }
+        return buffer;
+    }
+
+    /**
+     * Replaces the contents of the named buffer by the given bytes. The bytes
+     * are copied.
+     *
+     * @param name the name of the buffer
+     * @param data the bytes
+     */
+    public static void preload(String name, byte[] data) {
+        Buffer buffer = buffer(name);
+        buffer._Size = 0;
+        buffer.write(data, 0, data.length);
+    }
+
+    /**
+     * Returns a copy of the contents of the named buffer.
+     *
+     * @param name the name of the buffer
+     * @return a copy of the contents of the named buffer
+     */
+    public static byte[] toByteArray(String name) {
+        Buffer buffer = buffer(name);
+        return Arrays.copyOf(buffer._Data, buffer._Size);
+    }
+
+    /**
+     * Returns a read-only view of the current contents of the named buffer.
+     * The view is not updated when bytes are written to the buffer.
+     *
+     * @param name the name of the buffer
+     * @return a read-only view of the contents of the named buffer
+     */
+    public static ByteBuffer wrap(String name) {
+        Buffer buffer = buffer(name);
+        return ByteBuffer.wrap(buffer._Data, 0, buffer._Size).asReadOnlyBuffer();
+    }
+
+    /**
+     * Returns the number of bytes in the named buffer.
+     *
+     * @param name the name of the buffer
+     * @return the number of bytes in the named buffer
+     */
+    public static int size(String name) {
+        return buffer(name)._Size;
+    }
+
+    /**
+     * Removes the named buffer, so that its memory can be reclaimed. Streams
+     * that were created before keep accessing the removed buffer.
+     *
+     * @param name the name of the buffer
+     */
+    public static void release(String name) {
+        BUFFERS.remove(name);
+    }
+
+    @Override
+    public MemoryInputStream getInputStream() {
+        return new MemoryInputStream(buffer(getParameter(NAME)));
+    }
+
+    @Override
+    public MemoryOutputStream getOutputStream() {
+        Buffer buffer = buffer(getParameter(NAME));
+        if (!getParameterAsBoolean(APPEND)) {
+            buffer._Size = 0;
+        }
+        return new MemoryOutputStream(buffer);
+    }
+
+    /**
+     * A growable array of bytes.
+     */
+    private static class Buffer {
+
+        private byte[] _Data = new byte[256];
+        private int _Size;
+
+        /**
+         * Appends the given bytes. The array is grown (i.e. doubled) as
+         * needed.
+         *
+         * @param b   the bytes
+         * @param off the offset of the first byte
+         * @param len the number of bytes
+         */
+        private void write(byte[] b, int off, int len) {
+            if (_Size + len > _Data.length) {
+                int capacity = Math.max(_Data.length * 2, _Size + len);
+                _Data = Arrays.copyOf(_Data, capacity);
+            }
+            System.arraycopy(b, off, _Data, _Size, len);
+            _Size += len;
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.io.MemoryImpl.MemoryInputStream}. It is
+     * intended to read a buffer from its beginning to its current end. Bytes
+     * that are appended to the buffer while reading are read as well. Marking
+     * is supported and, by default, the mark is at the beginning of the
+     * buffer, so that {@link #reset()} rewinds the stream.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class MemoryInputStream extends InputStream {
+
+        private final Buffer _Buffer;
+        private int _Position;
+        private int _Mark;
+
+        /**
+         * Initializes the class with the given parameter.
+         *
+         * @param buffer the buffer
+         */
+        private MemoryInputStream(Buffer buffer) {
+            _Buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            if (_Position >= _Buffer._Size) {
+                return -1;
+            }
+            return _Buffer._Data[_Position++] & 0xFF;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) {
+                return 0;
+            }
+            int available = available();
+            if (available == 0) {
+                return -1;
+            }
+            int n = Math.min(len, available);
+            System.arraycopy(_Buffer._Data, _Position, b, off, n);
+            _Position += n;
+            return n;
+        }
+
+        @Override
+        public long skip(long n) {
+            long skipped = Math.max(0, Math.min(n, available()));
+            _Position += (int) skipped;
+            return skipped;
+        }
+
+        @Override
+        public int available() {
+            return Math.max(0, _Buffer._Size - _Position);
+        }
+
+        @Override
+        public boolean markSupported() {
+            return true;
+        }
+
+        @Override
+        public void mark(int readLimit) {
+            _Mark = _Position;
+        }
+
+        @Override
+        public void reset() {
+            _Position = _Mark;
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.io.MemoryImpl.MemoryOutputStream}. It is
+     * intended to append bytes to a buffer.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class MemoryOutputStream extends OutputStream {
+
+        private final Buffer _Buffer;
+        private final byte[] _Single = new byte[1];
+
+        /**
+         * Initializes the class with the given parameter.
+         *
+         * @param buffer the buffer
+         */
+        private MemoryOutputStream(Buffer buffer) {
+            _Buffer = buffer;
+        }
+
+        @Override
+        public void write(int b) {
+            _Single[0] = (byte) b;
+            _Buffer.write(_Single, 0, 1);
+        }
+
+        @Override
+        public void write(byte[] b, int off, int len) {
+            if (off < 0 || len < 0 || off + len > b.length) {
+                throw new IndexOutOfBoundsException();
+            }
+            _Buffer.write(b, off, len);
+        }
+    }
+
+}
@@ -12,6 +12,8 @@ import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
 import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
 
 /**
  * The class {@link de.claas.mosis.io.StreamHandler}. It is a partial
@@ -28,7 +30,10 @@ import java.util.Collection;
  * given parameter is defined for it). As opposed to {@link
  * de.claas.mosis.model.DecoratorProcessor} classes, calls to {@link
  * #addCondition(String, Condition)}, {@link #removeCondition(String,
- * Condition)}, etc. are not forwarded.
+ * Condition)}, etc. are not forwarded. The parameters of the {@link
+ * de.claas.mosis.io.StreamHandlerImpl} instance are determined once (i.e.
+ * when it is created), so that forwarding a parameter does not involve
+ * copying all of its parameters.
  *
  * @param <T> type of (incoming and outgoing) data. See {@link
  *            de.claas.mosis.model.Processor} for details.
@@ -37,12 +42,13 @@ import java.util.Collection;
 @Documentation(
         category = Category.InputOutput,
         author = {"Claas Ahlrichs"},
-        description = "This is a partial implementation of a DataHandler which allows reading and writing of stream-based resources. This implementation manages input and output streams. It represents the middle piece between implementations of data formats and data storage options.  This implementation will read and write to the standard input and output by default. But it can also be configured to any stream-based resource (see implementations of StreamHandlerImpl such as FileImpl or UrlImpl). This module is most useful when creating a new data format which is also why most data formats in this framework utilize this module. One may want to use concrete implementations such as PlainText or TransmissionControlProtocolImpl as reference.",
+        description = "This is a partial implementation of a DataHandler which allows reading and writing of stream-based resources. This implementation manages input and output streams. It represents the middle piece between implementations of data formats and data storage options.  This implementation will read and write to the standard input and output by default. But it can also be configured to any stream-based resource (see implementations of StreamHandlerImpl such as FileImpl, MemoryImpl or UrlImpl). This module is most useful when creating a new data format which is also why most data formats in this framework utilize this module. One may want to use concrete implementations such as PlainText or TransmissionControlProtocolImpl as reference.",
         purpose = "To allow storage and retrieval of objects within any stream-based resource.")
 public abstract class StreamHandler<T> extends DataHandler<T> implements Observer {
 
     @Parameter("Name of class from StreamHandlerImpl. An instance of this class backs this handler.  Any class, implementing de.claas.mosis.io.StreamHandlerImpl, can be used.")
     public static final String IMPL = "impl";
+    private final Set<String> _ImplParameters = new HashSet<>();
     private StreamHandlerImpl _Impl;
     private InputStream _Input;
     private OutputStream _Output;
@@ -75,11 +81,13 @@ public abstract class StreamHandler<T> extends DataHandler<T> implements Observe
     }
 
     @Override
-    public void setParameter(String parameter, String value) {
+    protected void setParameter(String parameter, String value,
+                                boolean validate) {
         if (_Impl != null && !isLocalParameter(parameter)) {
+            // Parameters of the implementation are always validated
             _Impl.setParameter(parameter, value);
         } else {
-            super.setParameter(parameter, value);
+            super.setParameter(parameter, value, validate);
         }
     }
 
@@ -124,7 +132,7 @@ public abstract class StreamHandler<T> extends DataHandler<T> implements Observe
      * @return <code>true</code>, if the parameter belongs to this processor
      */
     private boolean isLocalParameter(String parameter) {
-        return _Impl == null || !_Impl.getParameters().contains(parameter);
+        return _Impl == null || !_ImplParameters.contains(parameter);
     }
 
     /**
@@ -173,6 +181,8 @@ public abstract class StreamHandler<T> extends DataHandler<T> implements Observe
             try {
                 Class<?> clazz = Class.forName(getParameter(IMPL));
                 _Impl = (StreamHandlerImpl) Utils.instance(clazz);
+                _ImplParameters.clear();
+                _ImplParameters.addAll(_Impl.getParameters());
             } catch (Exception e) {
                 e.printStackTrace();
             }
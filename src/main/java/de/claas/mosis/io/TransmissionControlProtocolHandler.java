@@ -0,0 +1,361 @@
+package de.claas.mosis.io;
+
+import de.claas.mosis.annotation.Category;
+import de.claas.mosis.annotation.Documentation;
+import de.claas.mosis.annotation.Parameter;
+import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.Data;
+import de.claas.mosis.model.ParameterHandle;
+
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.nio.charset.Charset;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+/**
+ * The class {@link de.claas.mosis.io.TransmissionControlProtocolHandler}. It
+ * is intended to enable communication with many external entities through
+ * TCP connections. As opposed to {@link de.claas.mosis.io.TransmissionControlProtocolImpl}
+ * (which awaits a single connection), this {@link de.claas.mosis.io.DataHandler}
+ * accepts any number of connections on a local port and serves all of them
+ * without blocking (i.e. by means of a {@link java.nio.channels.Selector}).
+ * <p>
+ * Every connection transmits records of text which are terminated by a line
+ * feed (an optional carriage return before the line feed is dropped). When
+ * reading, all connections are polled once and every complete record is
+ * returned as {@link de.claas.mosis.model.Data} object. The record is stored
+ * under the key {@link #RECORD} and the identifier of its connection (i.e. the
+ * remote address) is stored under the key {@link #CONNECTION}. Nothing is
+ * returned if no record is available. Records must not exceed {@link
+ * #MAX_RECORD} bytes (including the line feed). Otherwise, the connection is
+ * closed. When writing, each record is sent to the connection with the given
+ * identifier. Bytes that cannot be sent right away are queued and sent as soon
+ * as the connection becomes writable again (i.e. whenever the handler is
+ * processing). A connection is closed if sending fails.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@Documentation(
+        category = Category.InputOutput,
+        author = {"Claas Ahlrichs"},
+        description = "This is a realization of a DataHandler which accepts TCP connections from many external entities at once. Every connection transmits records of text (one record per line). Connections are read without blocking, so that reading returns only those records that are already available. Each record is tagged with the remote address of its connection. Depending on the the mode, this implementation can either retrieve records (read-only), send records to connected entities (write-only) or both (read-and-write). The local address and port to which the server is bound, the character set of records, the initial size of the buffer per connection as well as the maximum size of records are configurable. Connections that send larger records are closed. Records that cannot be sent right away are queued and sent later on (without blocking).",
+        purpose = "To allow retrieval of records from (and storage of records in) many TCP connections.")
+public class TransmissionControlProtocolHandler extends DataHandler<Data> {
+
+    @Parameter("Local hostname / IP to which the server is bound.")
+    public static final String HOST = "hostname";
+    @Parameter("Local port to which the server is bound.")
+    public static final String PORT = "port";
+    @Parameter("Initial number of bytes used during input operations (per connection).")
+    public static final String BUFFER = "size of buffer";
+    @Parameter("Maximum number of bytes per record (including the line feed). Connections that exceed the limit are closed.")
+    public static final String MAX_RECORD = "maximum size of record";
+    @Parameter("Character set of records.")
+    public static final String CHARSET_NAME = "name of character set";
+    public static final String CONNECTION = "connection";
+    public static final String RECORD = "record";
+    private final ParameterHandle<Integer> _Buffer = getHandleAsInteger(BUFFER);
+    private final ParameterHandle<Integer> _MaxRecord = getHandleAsInteger(MAX_RECORD);
+    private final Map<String, Connection> _Connections = new HashMap<>();
+    private final Queue<Data> _Records = new LinkedList<>();
+    private Selector _Selector;
+    private ServerSocketChannel _Server;
+    private Charset _Charset;
+
+    /**
+     * Initializes the class with default values.
+     */
+    public TransmissionControlProtocolHandler() {
+        addCondition(HOST, new Condition.IsNotNull());
+        setParameter(HOST, "localhost");
+        addCondition(PORT, new Condition.IsInteger());
+        addCondition(PORT, new Condition.IsGreaterOrEqual(0d));
+        addCondition(PORT, new Condition.IsLessThan(Math.pow(2, 16)));
+        setParameter(PORT, 12345);
+        addCondition(BUFFER, new Condition.IsInteger());
+        addCondition(BUFFER, new Condition.IsGreaterThan(0d));
+        setParameter(BUFFER, 2048);
+        addCondition(MAX_RECORD, new Condition.IsInteger());
+        addCondition(MAX_RECORD, new Condition.IsGreaterThan(0d));
+        setParameter(MAX_RECORD, 1024 * 1024);
+        addCondition(CHARSET_NAME, new Condition.IsNotNull());
+        setParameter(CHARSET_NAME, "UTF-8");
+    }
+
+    @Override
+    public void setUp() {
+        super.setUp();
+        try {
+            _Charset = Charset.forName(getParameter(CHARSET_NAME));
+            String host = getParameter(HOST);
+            Integer port = getParameterAsInteger(PORT);
+            if (host != null && port != null) {
+                _Selector = Selector.open();
+                _Server = ServerSocketChannel.open();
+                _Server.socket().setReuseAddress(true);
+                _Server.bind(new InetSocketAddress(host, port));
+                _Server.configureBlocking(false);
+                _Server.register(_Selector, SelectionKey.OP_ACCEPT);
+            }
+        } catch (IOException ioe) {
+            ioe.printStackTrace();
+        }
+    }
+
+    @Override
+    public void dismantle() {
+        super.dismantle();
+        for (Connection connection : new ArrayList<>(_Connections.values())) {
+            connection.close();
+        }
+        _Records.clear();
+        try {
+            if (_Server != null) {
+                _Server.close();
+            }
+            if (_Selector != null) {
+                _Selector.close();
+            }
+        } catch (IOException ioe) {
+            ioe.printStackTrace();
+        } finally {
+            _Server = null;
+            _Selector = null;
+        }
+    }
+
+    /**
+     * Returns the identifiers of all open connections.
+     *
+     * @return the identifiers of all open connections
+     */
+    public List<String> getConnections() {
+        return new ArrayList<>(_Connections.keySet());
+    }
+
+    @Override
+    public void process(List<Data> in, List<Data> out) {
+        try {
+            if (isReadOnly(in)) {
+                poll(true);
+                while (!_Records.isEmpty()) {
+                    out.add(_Records.poll());
+                }
+            } else if (in != null) {
+                poll(false);
+                for (Data data : in) {
+                    Connection connection = _Connections.get(data
+                            .getAsString(CONNECTION));
+                    if (connection != null) {
+                        connection.write(data.getAsString(RECORD));
+                    }
+                }
+                if (shouldForward()) {
+                    out.addAll(in);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Accepts pending connections, sends queued bytes and optionally reads
+     * all available data from open connections (without blocking). Complete
+     * records are queued.
+     *
+     * @param read whether available data should be read
+     * @throws java.io.IOException if the selector fails
+     */
+    private void poll(boolean read) throws IOException {
+        if (_Selector == null || _Selector.selectNow() == 0) {
+            return;
+        }
+        Iterator<SelectionKey> keys = _Selector.selectedKeys().iterator();
+        while (keys.hasNext()) {
+            SelectionKey key = keys.next();
+            keys.remove();
+            if (!key.isValid()) {
+                continue;
+            }
+            if (key.isAcceptable()) {
+                SocketChannel channel;
+                while ((channel = _Server.accept()) != null) {
+                    channel.configureBlocking(false);
+                    Connection connection = new Connection(channel);
+                    connection._Key = channel.register(_Selector,
+                            SelectionKey.OP_READ, connection);
+                    _Connections.put(connection._Id, connection);
+                }
+            } else {
+                Connection connection = (Connection) key.attachment();
+                if (read && key.isReadable()) {
+                    connection.read();
+                }
+                if (key.isValid() && key.isWritable()) {
+                    connection.flush();
+                }
+            }
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.io.TransmissionControlProtocolHandler.Connection}.
+     * It is intended to frame the records of a single connection.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    private class Connection {
+
+        private final SocketChannel _Channel;
+        private final String _Id;
+        private final Queue<ByteBuffer> _Pending = new LinkedList<>();
+        private SelectionKey _Key;
+        private ByteBuffer _Bytes;
+        private int _Scanned;
+
+        /**
+         * Initializes the class with the given parameter.
+         *
+         * @param channel the connection
+         * @throws java.io.IOException if the remote address cannot be
+         *                             determined
+         */
+        public Connection(SocketChannel channel) throws IOException {
+            _Channel = channel;
+            _Id = channel.getRemoteAddress().toString();
+            _Bytes = ByteBuffer.allocate(Math.min(_Buffer.get(),
+                    _MaxRecord.get()));
+        }
+
+        /**
+         * Reads all available bytes and queues complete records. The
+         * connection is closed once the remote entity closed it. Any
+         * incomplete record is queued before. The connection is also closed,
+         * if a record exceeds the maximum size of records (the incomplete
+         * record is discarded).
+         */
+        private void read() {
+            try {
+                int length;
+                while ((length = _Channel.read(_Bytes)) > 0) {
+                    frame();
+                    if (!_Bytes.hasRemaining()) {
+                        int capacity = (int) Math.min(_Bytes.capacity() * 2L,
+                                _MaxRecord.get());
+                        if (capacity <= _Bytes.capacity()) {
+                            close();
+                            return;
+                        }
+                        ByteBuffer buffer = ByteBuffer.allocate(capacity);
+                        _Bytes.flip();
+                        _Bytes = buffer.put(_Bytes);
+                    }
+                }
+                if (length == -1) {
+                    if (_Bytes.position() > 0) {
+                        queue(0, _Bytes.position());
+                    }
+                    close();
+                }
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        /**
+         * Queues all complete records within the buffer and removes them from
+         * the buffer.
+         */
+        private void frame() {
+            byte[] bytes = _Bytes.array();
+            int start = 0;
+            for (int i = _Scanned; i < _Bytes.position(); i++) {
+                if (bytes[i] == '\n') {
+                    int end = i > start && bytes[i - 1] == '\r' ? i - 1 : i;
+                    queue(start, end);
+                    start = i + 1;
+                }
+            }
+            if (start > 0) {
+                _Bytes.flip();
+                _Bytes.position(start);
+                _Bytes.compact();
+            }
+            _Scanned = _Bytes.position();
+        }
+
+        /**
+         * Queues the record between the given indices of the buffer.
+         *
+         * @param start the first byte of the record
+         * @param end   the end of the record (exclusive)
+         */
+        private void queue(int start, int end) {
+            Data data = new Data();
+            data.put(CONNECTION, _Id);
+            data.put(RECORD, new String(_Bytes.array(), start, end - start,
+                    _Charset));
+            _Records.add(data);
+        }
+
+        /**
+         * Sends the given record (followed by a line feed). Bytes that cannot
+         * be sent right away are queued (see {@link #flush()}).
+         *
+         * @param record the record
+         */
+        private void write(String record) {
+            _Pending.add(_Charset.encode(record + "\n"));
+            flush();
+        }
+
+        /**
+         * Sends as many queued bytes as possible (without blocking). If bytes
+         * remain, then the selector reports once the connection becomes
+         * writable again. The connection is closed if sending fails.
+         */
+        private void flush() {
+            try {
+                while (!_Pending.isEmpty()) {
+                    ByteBuffer buffer = _Pending.peek();
+                    _Channel.write(buffer);
+                    if (buffer.hasRemaining()) {
+                        _Key.interestOps(SelectionKey.OP_READ
+                                | SelectionKey.OP_WRITE);
+                        return;
+                    }
+                    _Pending.poll();
+                }
+                _Key.interestOps(SelectionKey.OP_READ);
+            } catch (IOException e) {
+                close();
+            }
+        }
+
+        /**
+         * Closes this connection.
+         */
+        private void close() {
+            _Connections.remove(_Id);
+            try {
+                _Channel.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            }
+        }
+
+    }
+
+}
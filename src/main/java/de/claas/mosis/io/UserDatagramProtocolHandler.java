@@ -4,11 +4,15 @@ import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.io.IOException;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
+import java.net.SocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.DatagramChannel;
 import java.util.List;
 
 /**
@@ -19,6 +23,18 @@ import java.util.List;
  * (mostly) stream-based communication. This implementation allows the use of
  * UDP connections, such that {@link de.claas.mosis.model.Processor} modules can
  * process {@link java.net.DatagramPacket} objects.
+ * <p>
+ * By default, a single datagram is received (blocking) per call and a new
+ * {@link java.net.DatagramPacket} is allocated for it. If {@link #DRAIN} is
+ * set, then a non-blocking {@link java.nio.channels.DatagramChannel} is used
+ * instead. Every call returns all pending datagrams (at most {@link
+ * #POOL_SIZE}) without blocking. These datagrams are received into a pool of
+ * reusable packets, i.e. a returned packet is overwritten after {@link
+ * #POOL_SIZE} further datagrams were received. Datagrams that exceed {@link
+ * #BUFFER} are discarded. Received and discarded datagrams are counted (see
+ * {@link #RECEIVED} and {@link #DROPPED}). The counters are kept in fields and
+ * only converted when their (read-only) parameters are accessed, so that
+ * receiving datagrams does not modify any parameters.
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
@@ -35,7 +51,24 @@ public class UserDatagramProtocolHandler extends DataHandler<DatagramPacket> {
     public static final String PORT = "port";
     @Parameter("Number of bytes used during input operations.")
     public static final String BUFFER = "size of buffer";
+    @Parameter("Size of the socket's receive buffer (in bytes). Zero keeps the system's default.")
+    public static final String RECEIVE_BUFFER = "size of receive buffer";
+    @Parameter("Whether all pending datagrams should be received (without blocking) into a pool of reusable packets.")
+    public static final String DRAIN = "drain pending datagrams";
+    @Parameter("Number of reusable packets (i.e. maximum number of datagrams returned per call) when draining datagrams.")
+    public static final String POOL_SIZE = "size of pool";
+    @Parameter("Number of datagrams that were received while draining datagrams (read-only).")
+    public static final String RECEIVED = "received datagrams";
+    @Parameter("Number of datagrams that were discarded (as they exceeded the size of buffer) while draining datagrams (read-only).")
+    public static final String DROPPED = "dropped datagrams";
+    private final ParameterHandle<Integer> _Buffer = getHandleAsInteger(BUFFER);
     protected DatagramSocket _Socket;
+    protected DatagramChannel _Channel;
+    private DatagramPacket[] _Packets;
+    private ByteBuffer[] _Buffers;
+    private int _Next;
+    private long _Received;
+    private long _Dropped;
 
     /**
      * Initializes the class with default values.
@@ -50,6 +83,29 @@ public class UserDatagramProtocolHandler extends DataHandler<DatagramPacket> {
         addCondition(BUFFER, new Condition.IsInteger());
         addCondition(BUFFER, new Condition.IsGreaterOrEqual(0d));
         setParameter(BUFFER, 2048);
+        addCondition(RECEIVE_BUFFER, new Condition.IsInteger());
+        addCondition(RECEIVE_BUFFER, new Condition.IsGreaterOrEqual(0d));
+        setParameter(RECEIVE_BUFFER, 0);
+        addCondition(DRAIN, new Condition.IsBoolean());
+        setParameter(DRAIN, false);
+        addCondition(POOL_SIZE, new Condition.IsInteger());
+        addCondition(POOL_SIZE, new Condition.IsGreaterThan(0d));
+        setParameter(POOL_SIZE, 64);
+        setParameter(RECEIVED, 0);
+        addCondition(RECEIVED, new Condition.ReadOnly());
+        setParameter(DROPPED, 0);
+        addCondition(DROPPED, new Condition.ReadOnly());
+    }
+
+    @Override
+    public String getParameter(String parameter) {
+        if (RECEIVED.equals(parameter)) {
+            return Long.toString(_Received);
+        } else if (DROPPED.equals(parameter)) {
+            return Long.toString(_Dropped);
+        } else {
+            return super.getParameter(parameter);
+        }
     }
 
     @Override
@@ -58,9 +114,22 @@ public class UserDatagramProtocolHandler extends DataHandler<DatagramPacket> {
         try {
             String host = getParameter(HOST);
             Integer port = getParameterAsInteger(PORT);
-            if (host != null && port != null) {
+            Integer receiveBuffer = getParameterAsInteger(RECEIVE_BUFFER);
+            if (host != null && port != null
+                    && getParameterAsBoolean(DRAIN)) {
+                _Channel = DatagramChannel.open();
+                if (receiveBuffer > 0) {
+                    _Channel.socket().setReceiveBufferSize(receiveBuffer);
+                }
+                _Channel.bind(new InetSocketAddress(host, port));
+                _Channel.configureBlocking(false);
+                createPool();
+            } else if (host != null && port != null) {
                 _Socket = new DatagramSocket(new InetSocketAddress(
                         host, port));
+                if (receiveBuffer > 0) {
+                    _Socket.setReceiveBufferSize(receiveBuffer);
+                }
             }
         } catch (IOException ioe) {
             ioe.printStackTrace();
@@ -74,19 +143,86 @@ public class UserDatagramProtocolHandler extends DataHandler<DatagramPacket> {
             _Socket.close();
             _Socket = null;
         }
+        if (_Channel != null) {
+            try {
+                _Channel.close();
+            } catch (IOException ioe) {
+                ioe.printStackTrace();
+            } finally {
+                _Channel = null;
+                _Packets = null;
+                _Buffers = null;
+            }
+        }
+    }
+
+    /**
+     * Allocates the pool of reusable packets. Each packet has room for one
+     * more byte than {@link #BUFFER}, so that oversized datagrams can be
+     * detected.
+     */
+    private void createPool() {
+        int size = getParameterAsInteger(POOL_SIZE);
+        int length = _Buffer.get() + 1;
+        _Packets = new DatagramPacket[size];
+        _Buffers = new ByteBuffer[size];
+        for (int i = 0; i < size; i++) {
+            byte[] buffer = new byte[length];
+            _Packets[i] = new DatagramPacket(buffer, length);
+            _Buffers[i] = ByteBuffer.wrap(buffer);
+        }
+        _Next = 0;
+    }
+
+    /**
+     * Receives all pending datagrams (without blocking) into the pool of
+     * reusable packets. At most one datagram per packet is received. The
+     * counters {@link #RECEIVED} and {@link #DROPPED} are updated.
+     *
+     * @param out the received datagrams
+     * @throws java.io.IOException if datagrams cannot be received
+     */
+    private void drain(List<DatagramPacket> out) throws IOException {
+        int limit = _Buffer.get();
+        for (int i = 0; i < _Packets.length; ) {
+            ByteBuffer buffer = _Buffers[_Next];
+            buffer.clear();
+            SocketAddress address = _Channel.receive(buffer);
+            if (address == null) {
+                break;
+            } else if (buffer.position() > limit) {
+                _Dropped++;
+                continue;
+            }
+            DatagramPacket packet = _Packets[_Next];
+            packet.setData(buffer.array(), 0, buffer.position());
+            packet.setSocketAddress(address);
+            out.add(packet);
+            _Received++;
+            i++;
+            _Next = (_Next + 1) % _Packets.length;
+        }
     }
 
     @Override
     public void process(List<DatagramPacket> in, List<DatagramPacket> out) {
         try {
-            if (isReadOnly(in)) {
-                int length = getParameterAsInteger(BUFFER);
+            if (isReadOnly(in) && _Channel != null) {
+                drain(out);
+            } else if (isReadOnly(in)) {
+                int length = _Buffer.get();
                 DatagramPacket p = new DatagramPacket(new byte[length], length);
                 _Socket.receive(p);
                 out.add(p);
             } else if (in != null) {
                 for (DatagramPacket p : in) {
-                    _Socket.send(p);
+                    if (_Channel != null) {
+                        _Channel.send(ByteBuffer.wrap(p.getData(),
+                                p.getOffset(), p.getLength()),
+                                p.getSocketAddress());
+                    } else {
+                        _Socket.send(p);
+                    }
                 }
                 if (shouldForward()) {
                     out.addAll(in);
@@ -3,12 +3,20 @@ package de.claas.mosis.io.format;
 import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
+import de.claas.mosis.io.MappedFileImpl;
 import de.claas.mosis.io.StreamHandler;
 import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.Charset;
+import java.nio.charset.CharsetDecoder;
+import java.nio.charset.CodingErrorAction;
 import java.util.LinkedList;
 import java.util.Queue;
 
@@ -20,6 +28,13 @@ import java.util.Queue;
  * allows to read and write lines of text (i.e. {@link java.lang.String}) from
  * any of the {@link de.claas.mosis.io.StreamHandlerImpl} implementations (e.g.
  * {@link de.claas.mosis.io.FileImpl} or {@link de.claas.mosis.io.UrlImpl}).
+ * <p>
+ * Alternatively, text can be read one character at a time (see {@link
+ * #readChar()}). Characters are decoded directly from the data buffer, which
+ * avoids creating intermediate {@link java.lang.String} objects. Lines and
+ * characters should not be read from the same stream. If backed by a {@link
+ * de.claas.mosis.io.MappedFileImpl}, lines and characters are decoded directly
+ * from the mapped file (i.e. bytes are not copied into the data buffer).
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
@@ -36,11 +51,18 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
     public static final String LINE_SEPARATOR = "line separator";
     @Parameter("Character set used during input / output operations.")
     public static final String CHARSET_NAME = "name of character set";
+    private final ParameterHandle<String> _LineSeparator = getHandle(LINE_SEPARATOR);
+    private final ParameterHandle<String> _CharsetName = getHandle(CHARSET_NAME);
     private final Queue<String> _Queue;
     private byte[] _Buffer;
+    private ByteBuffer _Bytes;
+    private CharBuffer _Chars;
+    private CharsetDecoder _Decoder;
+    private boolean _EndOfInput;
     private StringBuilder _StringBuilder;
     private int _Last;
     private BufferedInputStream _Input;
+    private MappedFileImpl.MappedInputStream _Mapped;
     private BufferedOutputStream _Output;
 
     /**
@@ -80,7 +102,11 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
     @Override
     protected BufferedInputStream getInputStream() throws IOException {
         if (_Input == null) {
-            _Input = new BufferedInputStream(super.getInputStream());
+            InputStream input = super.getInputStream();
+            if (input instanceof MappedFileImpl.MappedInputStream) {
+                _Mapped = (MappedFileImpl.MappedInputStream) input;
+            }
+            _Input = new BufferedInputStream(input);
         }
         return _Input;
     }
@@ -106,6 +132,17 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
     public void setUp() {
         super.setUp();
         _Buffer = new byte[getParameterAsInteger(BUFFER_SIZE)];
+        _Bytes = ByteBuffer.wrap(_Buffer);
+        _Bytes.limit(0);
+        _Chars = CharBuffer.allocate(_Buffer.length);
+        _Chars.limit(0);
+        _Decoder = Charset.forName(_CharsetName.get()).newDecoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        _EndOfInput = false;
+        _StringBuilder = new StringBuilder();
+        _Queue.clear();
+        _Last = -1;
     }
 
     @Override
@@ -118,6 +155,7 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
                 e.printStackTrace();
             } finally {
                 _Input = null;
+                _Mapped = null;
             }
         }
         if (_Output != null) {
@@ -144,6 +182,10 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
      * @throws java.io.IOException if something unexpected happens
      */
     protected String readLine(boolean preserveLineEnding) throws IOException {
+        getInputStream();
+        if (_Mapped != null) {
+            return readLineMapped(preserveLineEnding);
+        }
         int length = 0, startIndex;
         while (_Queue.isEmpty()
                 && (length = getInputStream().read(_Buffer)) != -1) {
@@ -163,13 +205,13 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
                         _StringBuilder = new StringBuilder();
                     } else if (_StringBuilder.length() > 0) {
                         String s = new String(_Buffer, startIndex, endIndex
-                                - startIndex - 1 + tmp, getParameter(CHARSET_NAME));
+                                - startIndex - 1 + tmp, _CharsetName.get());
                         _StringBuilder.append(s);
                         _Queue.add(_StringBuilder.toString());
                         _StringBuilder = new StringBuilder();
                     } else {
                         String s = new String(_Buffer, startIndex, endIndex
-                                - startIndex - 1 + tmp, getParameter(CHARSET_NAME));
+                                - startIndex - 1 + tmp, _CharsetName.get());
                         _Queue.add(s);
                     }
                     startIndex = endIndex + eol - 1;
@@ -177,7 +219,7 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
                 }
             }
             if (startIndex < length) {
-                String s = new String(_Buffer, startIndex, length - startIndex, getParameter(CHARSET_NAME));
+                String s = new String(_Buffer, startIndex, length - startIndex, _CharsetName.get());
                 _StringBuilder.append(s);
                 _Last = _Buffer[length - 1];
             } else {
@@ -193,6 +235,150 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
         return _Queue.isEmpty() ? null : _Queue.poll();
     }
 
+    /**
+     * Returns the next line of plain text by scanning the mapped file for the
+     * next <code>end of line</code> (see {@link #readLine(boolean)}). The line
+     * is decoded directly from the mapped region. If a line spans two
+     * regions, then the remainder of the line is mapped along with the next
+     * region.
+     *
+     * @param preserveLineEnding true, if line-termination characters should be
+     *                           preserved. false, if line-termination
+     *                           characters should not be returned.
+     * @return the next line of plain text
+     * @throws java.io.IOException if something unexpected happens
+     */
+    private String readLineMapped(boolean preserveLineEnding)
+            throws IOException {
+        int minimum = 1, scanned = 0;
+        while (true) {
+            ByteBuffer bytes = _Mapped.getBuffer(minimum);
+            int start = bytes.position();
+            int remaining = bytes.remaining();
+            boolean endOfInput = remaining < minimum;
+            for (int i = start + scanned; i < bytes.limit(); i++) {
+                int curr = bytes.get(i);
+                if (curr == 0x0A || curr == 0x0D) {
+                    if (i + 1 == bytes.limit() && !endOfInput) {
+                        // The next byte may belong to the end of line
+                        break;
+                    }
+                    int next = i + 1 < bytes.limit() ? bytes.get(i + 1) : -1;
+                    int eol = endOfLine(curr, next);
+                    int length = i - start + (preserveLineEnding ? eol : 0);
+                    return decodeLine(bytes, length, i - start + eol);
+                }
+                scanned++;
+            }
+            if (endOfInput) {
+                return remaining == 0 ? null : decodeLine(bytes, remaining,
+                        remaining);
+            }
+            minimum = Math.max(remaining + 1, remaining * 2);
+        }
+    }
+
+    /**
+     * Returns the given number of bytes (starting at the buffer's position)
+     * as decoded text. Afterwards, the consumed bytes are skipped.
+     *
+     * @param bytes    the bytes
+     * @param length   the number of bytes that are decoded
+     * @param consumed the number of bytes that are skipped
+     * @return the decoded text
+     * @throws java.io.IOException if something unexpected happens
+     */
+    private String decodeLine(ByteBuffer bytes, int length, int consumed)
+            throws IOException {
+        ByteBuffer line = bytes.duplicate();
+        line.limit(line.position() + length);
+        String text = _Decoder.decode(line).toString();
+        bytes.position(bytes.position() + consumed);
+        return text;
+    }
+
+    /**
+     * Returns the next character of text. If the end of the stream has been
+     * reached, then <code>-1</code> is returned. Bytes are read into the data
+     * buffer and decoded (in bulk) as needed. This method blocks until a
+     * character is available.
+     *
+     * @return the next character of text or <code>-1</code>
+     * @throws java.io.IOException if something unexpected happens
+     */
+    protected int readChar() throws IOException {
+        if (!_Chars.hasRemaining() && !decode()) {
+            return -1;
+        }
+        return _Chars.get();
+    }
+
+    /**
+     * Reads and decodes bytes until at least one character is available.
+     * Returns <code>false</code> if the end of the stream has been reached
+     * and no more characters are available.
+     *
+     * @return <code>false</code> if no more characters are available
+     * @throws java.io.IOException if something unexpected happens
+     */
+    private boolean decode() throws IOException {
+        getInputStream();
+        if (_Mapped != null) {
+            return decodeMapped();
+        }
+        while (!_Chars.hasRemaining()) {
+            if (_EndOfInput) {
+                return false;
+            }
+            _Bytes.compact();
+            if (!_Bytes.hasRemaining()) {
+                throw new IOException(
+                        "buffer size is too small for character set");
+            }
+            int length = getInputStream().read(_Buffer, _Bytes.position(),
+                    _Bytes.remaining());
+            _EndOfInput = length == -1;
+            if (!_EndOfInput) {
+                _Bytes.position(_Bytes.position() + length);
+            }
+            _Bytes.flip();
+            _Chars.clear();
+            _Decoder.decode(_Bytes, _Chars, _EndOfInput);
+            if (_EndOfInput) {
+                _Decoder.flush(_Chars);
+            }
+            _Chars.flip();
+        }
+        return true;
+    }
+
+    /**
+     * Decodes bytes directly from the mapped file until at least one
+     * character is available (see {@link #decode()}). Bytes that do not form
+     * a complete character are decoded together with the next mapped region.
+     *
+     * @return <code>false</code> if no more characters are available
+     * @throws java.io.IOException if something unexpected happens
+     */
+    private boolean decodeMapped() throws IOException {
+        int minimum = 1;
+        while (!_Chars.hasRemaining()) {
+            if (_EndOfInput) {
+                return false;
+            }
+            ByteBuffer bytes = _Mapped.getBuffer(minimum);
+            _EndOfInput = bytes.remaining() < minimum;
+            _Chars.clear();
+            _Decoder.decode(bytes, _Chars, _EndOfInput);
+            if (_EndOfInput) {
+                _Decoder.flush(_Chars);
+            }
+            _Chars.flip();
+            minimum = bytes.remaining() + 1;
+        }
+        return true;
+    }
+
     /**
      * Writes a line of plain text. It optionally appends any line-termination
      * characters (i.e. 0x0A, 0x0D, 0x0A 0x0D, 0x0D 0x0A).
@@ -204,7 +390,7 @@ public abstract class AbstractTextFormat<T> extends StreamHandler<T> {
      */
     protected void writeLine(String line, boolean appendEndEnding)
             throws IOException {
-        byte[] data = appendEndEnding ? (line + getParameter(LINE_SEPARATOR))
+        byte[] data = appendEndEnding ? (line + _LineSeparator.get())
                 .getBytes() : line.getBytes();
         getOutputStream().write(data);
         getOutputStream().flush();
@@ -5,12 +5,13 @@ import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
 import de.claas.mosis.model.Data;
-import de.claas.mosis.util.Parser;
+import de.claas.mosis.model.ParameterHandle;
 
+import java.io.IOException;
+import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 import java.util.Vector;
-import java.util.regex.Pattern;
 
 /**
  * The class {@link de.claas.mosis.io.format.CommaSeparatedValues}. It is
@@ -34,7 +35,14 @@ import java.util.regex.Pattern;
  * <li>LF = %x0A ;as per section 6.1 of RFC 2234 [2]</li> <li>NEWLINE = (CR LF)
  * / (LF CR) / CR / LF</li> <li>TEXTDATA = %x20-21 / %x23-2B / %x2D-7E</li>
  * </ol>
- * TODO use PARSER project rather than implementing the parsing manually
+ * <p>
+ * Records are parsed by a hand-written state machine, one character at a time
+ * (see {@link #readChar()}). Neither regular expressions nor intermediate
+ * copies of the input are involved. One record is returned per call of
+ * {@link #process(java.util.List, java.util.List)}. The header is read (or
+ * written) again whenever this module is set up, so that a dataset can be
+ * rewound by dismantling and setting up this module.
+ *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
 @Documentation(
@@ -51,15 +59,21 @@ public class CommaSeparatedValues extends AbstractTextFormat<Data> {
     public static final String HEADER = "header";
     @Parameter("Whether a header line is expected during input / output operations.")
     public static final String HAS_HEADER = "has header";
-    private final Pattern CR;
-    private final Pattern DQuote;
-    private final Pattern TwoDQuotes;
-    private final Pattern LF;
-    private final Pattern NEWLINE;
-    private final StringBuilder _CSV;
+    private final ParameterHandle<String> _Separator = getHandle(SEPARATOR);
+    private final ParameterHandle<Boolean> _HasHeader = getHandleAsBoolean(HAS_HEADER);
+    private final ParameterHandle<String> _Header = getHandle(HEADER);
+    private static final int CR = 0x0D;
+    private static final int LF = 0x0A;
+    private static final int DQUOTE = 0x22;
+    private static final int SQUOTE = 0x27;
+    private static final int FIELD = 0;
+    private static final int UNESCAPED = 1;
+    private static final int ESCAPED = 2;
+    private static final int CLOSING = 3;
+    private final StringBuilder _Field;
+    private final List<String> _Fields;
     private final List<String> _Attributes;
-    private Pattern Textdata;
-    private Pattern Separator;
+    private int _Skip;
     private boolean _HeaderRead;
     private boolean _HeaderWritten;
 
@@ -67,13 +81,8 @@ public class CommaSeparatedValues extends AbstractTextFormat<Data> {
      * Initializes the class with default values.
      */
     public CommaSeparatedValues() {
-        CR = Pattern.compile(" \\x0D");
-        DQuote = Pattern.compile("[\\x22\\x27]");
-        TwoDQuotes = Pattern.compile("\\x22\\x22");
-        LF = Pattern.compile("\\x0A");
-        NEWLINE = Pattern.compile("(\\x0D\\x0A)|(\\c0A\\x0D)|\\x0D|\\x0A");
-        Textdata = Pattern.compile("[^\\x00-\\x1F\\x22\\x2C]");
-        _CSV = new StringBuilder();
+        _Field = new StringBuilder();
+        _Fields = new ArrayList<>();
         _Attributes = new Vector<>();
         _HeaderWritten = false;
         _HeaderRead = false;
@@ -90,84 +99,64 @@ public class CommaSeparatedValues extends AbstractTextFormat<Data> {
     @Override
     public void setUp() {
         super.setUp();
-        // TODO Avoid hard coded patterns
-        Separator = Pattern.compile(Pattern.quote(getParameter(SEPARATOR)));
-        int sep = getParameter(SEPARATOR).charAt(0);
-        Textdata = Pattern.compile(String.format("[^\\x00-\\x1F\\x22\\x%02X]", sep));
-    }
-
-    @Override
-    public void dismantle() {
-        super.dismantle();
-        Separator = null;
+        _Skip = -1;
+        _Attributes.clear();
+        _HeaderRead = false;
+        _HeaderWritten = false;
     }
 
     @Override
     public void process(List<Data> in, List<Data> out) {
         try {
             if (isReadOnly(in)) {
-                // Keep buffer updated
-                String line = readLine(true);
-                if (line != null) {
-                    _CSV.append(line);
-                }
-                if (!_HeaderRead && getParameterAsBoolean(HAS_HEADER)) {
-                    line = readLine(true);
-                    if (line != null) {
-                        _CSV.append(line);
+                char separator = _Separator.get().charAt(0);
+                if (!_HeaderRead && _HasHeader.get()) {
+                    if (!record(separator, _Fields)) {
+                        return;
                     }
+                    _Attributes.clear();
+                    _Attributes.addAll(_Fields);
+                    updateHeader();
                 }
+                _HeaderRead = true;
 
-                // Parse CSV
-                if (_CSV.length() > 0) {
-                    List<Data> data = new Vector<>();
-                    String processed = csvText(new StringBuilder(_CSV),
-                            !_HeaderRead && getParameterAsBoolean(HAS_HEADER),
-                            _Attributes, data);
-                    if (processed != null) {
-                        _HeaderRead = true;
-                        _CSV.replace(0, processed.length(), "");
-                        out.addAll(data);
-
-                        // Update HEADER
-                        StringBuilder tmp = new StringBuilder();
-                        boolean first = true;
-                        for (String key : _Attributes) {
-                            if (first) {
-                                first = false;
-                            } else {
-                                tmp.append(getParameter(SEPARATOR));
-                            }
-                            tmp.append(key);
-                        }
-                        setParameter(HEADER, tmp.toString());
+                if (record(separator, _Fields)) {
+                    int size = _Attributes.size();
+                    Data data = new Data();
+                    for (int i = 0; i < _Fields.size(); i++) {
+                        data.put(attribute(_Attributes, i), _Fields.get(i));
                     }
+                    if (size != _Attributes.size()) {
+                        updateHeader();
+                    }
+                    out.add(data);
                 }
             } else {
-                if (!_HeaderWritten && getParameterAsBoolean(HAS_HEADER)) {
-                    if (getParameter(HEADER).isEmpty()) {
+                String separator = _Separator.get();
+                if (!_HeaderWritten && _HasHeader.get()) {
+                    if (_Header.get().isEmpty()) {
                         StringBuilder processed = new StringBuilder();
                         boolean first = true;
                         for (String key : in.get(0).keySet()) {
                             if (first) {
                                 first = false;
                             } else {
-                                processed.append(getParameter(SEPARATOR));
+                                processed.append(separator);
                             }
                             processed.append(key);
                             _Attributes.add(key);
                         }
                         setParameter(HEADER, processed.toString());
                     }
-                    writeLine(getParameter(HEADER), true);
+                    writeLine(_Header.get(), true);
                     _HeaderWritten = true;
                 }
-                if (_Attributes.isEmpty() && !getParameter(HEADER).isEmpty()) {
+                if (_Attributes.isEmpty() && !_Header.get().isEmpty()) {
                     // TODO Replace by CSV parser (i.e. not just split)
-                    Collections.addAll(_Attributes, getParameter(HEADER).split(getParameter(SEPARATOR)));
+                    Collections.addAll(_Attributes, _Header.get().split(separator));
                 }
                 for (Data datum : in) {
-                    writeLine(toCSV(datum, _Attributes), true);
+                    writeLine(toCSV(datum, _Attributes, separator), true);
                 }
                 if (shouldForward()) {
                     out.addAll(in);
@@ -194,276 +183,104 @@ public class CommaSeparatedValues extends AbstractTextFormat<Data> {
     }
 
     /**
-     * Returns the CSV data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid CSV data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
+     * Reads the next record and returns <code>true</code> if a record was
+     * read. Otherwise, <code>false</code> is returned (i.e. the end of the
+     * stream was reached). Empty lines are skipped. The record is parsed one
+     * character at a time as defined in rule:
      * <p>
-     * <b>csv-text = [header NEWLINE] record *(NEWLINE record) [NEWLINE]</b>
-     *
-     * @param csv        the CSV data that is being processed
-     * @param header     true, if the first line of CSV data should be
-     *                   interpreted as column headers. false, if CSV data does
-     *                   not have such column headers
-     * @param attributes if data was successfully processed, then the list will
-     *                   be updated to represent the column headers (if no such
-     *                   column headers exist, then they are automatically
-     *                   generated)
-     * @param data       if data was successfully processed, then the list will
-     *                   be updated to represent the processed CSV data
-     * @return the CSV data that was processed by this call
-     */
-    private String csvText(StringBuilder csv, boolean header,
-                           List<String> attributes, List<Data> data) {
-        StringBuilder processed = new StringBuilder();
-        StringBuilder line = new StringBuilder();
-        String lineText;
-        Data record;
-        String csvText;
-
-        // [header CRLF]
-        if (header && (csvText = header(csv, attributes)) != null) {
-            processed.append(csvText);
-            if ((csvText = Parser.startsWith(csv, NEWLINE)) == null) {
-                Parser.unprocess(csv, processed);
-                return null;
-            }
-            processed.append(csvText);
-        }
-
-        // record *(CRLF record)
-        record = new Data();
-        if (csv.length() == 0
-                || (csvText = record(csv, attributes, record)) == null) {
-            Parser.unprocess(csv, processed);
-            return null;
-        }
-        processed.append(csvText);
-        data.add(record);
-
-        while ((lineText = Parser.startsWith(csv, NEWLINE)) != null) {
-            line.append(lineText);
-            record = new Data();
-            if (csv.length() == 0
-                    || (lineText = record(csv, attributes, record)) == null) {
-                Parser.unprocess(csv, line);
-                break;
-            }
-            line.append(lineText);
-            processed.append(line);
-            line.replace(0, line.length(), "");
-            data.add(record);
-        }
-
-        // [CRLF]
-        if ((csvText = Parser.startsWith(csv, NEWLINE)) != null) {
-            processed.append(csvText);
-        }
-        return processed.toString();
-    }
-
-    /**
-     * Returns the CSV data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid CSV data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
+     * <b>record = field *(SEPARATOR field)</b>
      * <p>
-     * <b>header = name *(SEPARATOR name)</b>
+     * Fields may be enclosed in double quotes (or single quotes). Within such
+     * fields, separators and line breaks are part of the field and two
+     * adjacent quotes represent a single quote. The line break that ends a
+     * record is only consumed as far as needed, so that reading does not
+     * block on data that belongs to the next record.
      *
-     * @param csv        the CSV data that is being processed
-     * @param attributes if data was successfully processed, then the list will
-     *                   be updated to represent the column header
-     * @return the CSV data that was processed by this call
+     * @param separator the separating character between two fields
+     * @param fields    the list is updated to represent the fields of the
+     *                  record
+     * @return <code>true</code> if a record was read
+     * @throws java.io.IOException if something unexpected happens
      */
-    private String header(StringBuilder csv, List<String> attributes) {
-        StringBuilder processed = new StringBuilder();
-        StringBuffer text;
-        String header;
-
-        // name
-        text = new StringBuffer();
-        if ((header = name(csv, text)) == null) {
-            return null;
+    private boolean record(char separator, List<String> fields)
+            throws IOException {
+        fields.clear();
+        _Field.setLength(0);
+
+        // Skip remainder of previous NEWLINE and empty lines
+        int c = readChar();
+        if (c == _Skip) {
+            c = readChar();
         }
-        processed.append(header);
-        attributes.add(text.toString());
-
-        // *(SEPARATOR name)
-        while ((header = Parser.startsWith(csv, Separator)) != null) {
-            processed.append(header);
-            text = new StringBuffer();
-            if ((header = name(csv, text)) == null) {
-                Parser.unprocess(csv, processed);
-                return null;
+        while (c == CR || c == LF) {
+            int next = readChar();
+            if (next == (c == CR ? LF : CR)) {
+                next = readChar();
             }
-            processed.append(header);
-            attributes.add(text.toString());
+            c = next;
         }
-        return processed.toString();
-    }
-
-    /**
-     * Returns the CSV data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid CSV data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>record = field *(SEPARATOR field)</b>
-     *
-     * @param csv        the CSV data that is being processed
-     * @param attributes the column headers. If there are more columns then
-     *                   column headers, then the missing headers are
-     *                   automatically generated and appended to this list.
-     * @param data       if data was successfully processed, then the {@link
-     *                   de.claas.mosis.model.Data} object will be updated to
-     *                   represent the processed CSV data / record
-     * @return the CSV data that was processed by this call
-     */
-    private String record(StringBuilder csv, List<String> attributes, Data data) {
-        StringBuilder processed = new StringBuilder();
-        int index = 0;
-        StringBuffer text;
-        String record;
-
-        // field
-        text = new StringBuffer();
-        if ((record = field(csv, text)) == null) {
-            return null;
+        _Skip = -1;
+        if (c == -1) {
+            return false;
         }
-        processed.append(record);
-        data.put(attribute(attributes, index++), text.toString());
 
-        // *(SEPARATOR field)
-        while ((record = Parser.startsWith(csv, Separator)) != null) {
-            processed.append(record);
-            text = new StringBuffer();
-            if ((record = field(csv, text)) == null) {
-                Parser.unprocess(csv, processed);
-                return null;
+        int state = FIELD;
+        int quote = -1;
+        for (; ; c = readChar()) {
+            if (state == ESCAPED) {
+                if (c == quote) {
+                    state = CLOSING;
+                } else if (c == -1) {
+                    fields.add(_Field.toString());
+                    return true;
+                } else {
+                    _Field.append((char) c);
+                }
+                continue;
+            } else if (state == CLOSING) {
+                if (c == quote) {
+                    _Field.append((char) c);
+                    state = ESCAPED;
+                    continue;
+                }
+                state = UNESCAPED;
+            } else if (state == FIELD && (c == DQUOTE || c == SQUOTE)) {
+                quote = c;
+                state = ESCAPED;
+                continue;
             }
-            processed.append(record);
-            data.put(attribute(attributes, index++), text.toString());
-        }
-        return processed.toString();
-    }
-
-    /**
-     * Returns the CSV data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid CSV data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>name = field</b>
-     *
-     * @param csv  the CSV data that is being processed
-     * @param text if data was successfully processed, then the {@link
-     *             java.lang.StringBuilder} instance will be updated with the
-     *             text that is represented by the above rule
-     * @return the CSV data that was processed by this call
-     */
-    private String name(StringBuilder csv, StringBuffer text) {
-        return field(csv, text);
-    }
-
-    /**
-     * Returns the CSV data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid CSV data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>field = escaped / unescaped</b>
-     *
-     * @param csv  the CSV data that is being processed
-     * @param text if data was successfully processed, then the {@link
-     *             StringBuilder} instance will be updated with the text that is
-     *             represented by the above rule
-     * @return the CSV data that was processed by this call
-     */
-    private String field(StringBuilder csv, StringBuffer text) {
-        String field;
-
-        // escaped / unescaped
-        if ((field = escaped(csv, text)) != null) {
-            return field;
-        } else if ((field = unescaped(csv, text)) != null) {
-            return field;
-        }
-        return null;
-    }
 
-    /**
-     * Returns the CSV data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid CSV data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>escaped = DQUOTE *(TEXTDATA / SEPARATOR / CR / LF / 2DQUOTE)
-     * DQUOTE</b>
-     *
-     * @param csv  the CSV data that is being processed
-     * @param text if data was successfully processed, then the {@link
-     *             java.lang.StringBuilder} instance will be updated with the
-     *             text in between the quotes
-     * @return the CSV data that was processed by this call
-     */
-    private String escaped(StringBuilder csv, StringBuffer text) {
-        StringBuilder processed = new StringBuilder();
-        String escaped;
-        int length;
-
-        // DQUOTE
-        if ((escaped = Parser.startsWith(csv, DQuote)) == null) {
-            return null;
-        }
-        processed.append(escaped);
-
-        // *(TEXTDATA / SEPARATOR / CR / LF / 2DQUOTE)
-        do {
-            length = processed.length();
-            if ((escaped = Parser.startsWith(csv, Textdata)) != null) {
-                processed.append(escaped);
-                text.append(escaped);
-            } else if ((escaped = Parser.startsWith(csv, Separator)) != null) {
-                processed.append(escaped);
-                text.append(escaped);
-            } else if ((escaped = Parser.startsWith(csv, CR)) != null) {
-                processed.append(escaped);
-                text.append(escaped);
-            } else if ((escaped = Parser.startsWith(csv, LF)) != null) {
-                processed.append(escaped);
-                text.append(escaped);
-            } else if ((escaped = Parser.startsWith(csv, TwoDQuotes)) != null) {
-                processed.append(escaped);
-                text.append(escaped.charAt(0));
+            if (c == separator) {
+                fields.add(_Field.toString());
+                _Field.setLength(0);
+                state = FIELD;
+            } else if (c == CR || c == LF || c == -1) {
+                fields.add(_Field.toString());
+                _Skip = c == CR ? LF : c == LF ? CR : -1;
+                return true;
+            } else {
+                _Field.append((char) c);
+                state = UNESCAPED;
             }
-        } while (length != processed.length());
-
-        // DQUOTE
-        if ((escaped = Parser.startsWith(csv, DQuote)) == null) {
-            Parser.unprocess(csv, processed);
-            return null;
         }
-        processed.append(escaped);
-        return processed.toString();
     }
 
     /**
-     * Returns the CSV data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid CSV data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>unescaped = *TEXTDATA</b>
-     *
-     * @param csv  the CSV data that is being processed
-     * @param text if data was successfully processed, then the {@link
-     *             java.lang.StringBuilder} instance will be updated with the
-     *             text that is represented by the above rule
-     * @return the CSV data that was processed by this call
+     * Updates the parameter {@link #HEADER} to reflect the current attribute
+     * names.
      */
-    private String unescaped(StringBuilder csv, StringBuffer text) {
-        StringBuilder processed = new StringBuilder();
-        String unescaped;
-
-        // *TEXTDATA
-        while ((unescaped = Parser.startsWith(csv, Textdata)) != null) {
-            processed.append(unescaped);
-            text.append(unescaped);
+    private void updateHeader() {
+        StringBuilder tmp = new StringBuilder();
+        boolean first = true;
+        for (String key : _Attributes) {
+            if (first) {
+                first = false;
+            } else {
+                tmp.append(_Separator.get());
+            }
+            tmp.append(key);
         }
-        return processed.toString();
+        setParameter(HEADER, tmp.toString(), false);
     }
 
     /**
@@ -471,9 +288,11 @@ public class CommaSeparatedValues extends AbstractTextFormat<Data> {
      *
      * @param data       the CSV object that should be returned as CSV data
      * @param attributes the attributes that should be in the CSV data
+     * @param separator  the separator between two fields
      * @return CSV data that represents a CSV object
      */
-    private String toCSV(Data data, List<String> attributes) {
+    private String toCSV(Data data, List<String> attributes,
+                         String separator) {
         // TODO Escape characters
         // TODO return header
         boolean first = true;
@@ -483,7 +302,7 @@ public class CommaSeparatedValues extends AbstractTextFormat<Data> {
                 first = false;
                 processed.append(data.getAsString(attribute));
             } else {
-                processed.append(getParameter(SEPARATOR));
+                processed.append(separator);
                 processed.append(data.getAsString(attribute));
             }
 
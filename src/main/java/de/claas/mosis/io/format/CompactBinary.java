@@ -0,0 +1,546 @@
+package de.claas.mosis.io.format;
+
+import de.claas.mosis.annotation.Category;
+import de.claas.mosis.annotation.Documentation;
+import de.claas.mosis.io.StreamHandler;
+import de.claas.mosis.model.Data;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * The class {@link de.claas.mosis.io.format.CompactBinary}. It is intended to
+ * read and write {@link de.claas.mosis.model.Data} records in a compact binary
+ * format. This {@link de.claas.mosis.io.StreamHandler} allows to read and write
+ * records from any of the {@link de.claas.mosis.io.StreamHandlerImpl}
+ * implementations (e.g. {@link de.claas.mosis.io.FileImpl} or {@link
+ * de.claas.mosis.io.PipedImpl}).
+ * <p>
+ * Records are preceded by a schema, which lists the keys of a record and the
+ * types of their values. A schema is written before the first record and
+ * whenever keys or types change. Records are written as length-prefixed
+ * sequence of values (in order of the schema), so that neither keys nor class
+ * descriptors are repeated. Values of type {@link java.lang.Boolean}, {@link
+ * java.lang.Integer}, {@link java.lang.Long}, {@link java.lang.Float}, {@link
+ * java.lang.Double}, {@link java.math.BigDecimal} and {@link java.lang.String}
+ * are supported. Values of type {@link java.lang.Byte} and {@link
+ * java.lang.Short} are read as {@link java.lang.Integer} and values of any
+ * other type are written as {@link java.lang.String}.
+ * <p>
+ * Written records are flushed once per call of {@link #process(java.util.List,
+ * java.util.List)} rather than once per record.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@Documentation(
+        category = Category.DataFormat,
+        author = {"Claas Ahlrichs"},
+        description = "This is a realization of a StreamHandler. It allows the framework to read and write records (i.e. Data objects) in a compact binary format directly from files, network streams, etc. The keys and types of a record are written once (as schema) and records only consist of their values.",
+        purpose = "To allow compact and fast serialization and deserialization of records.")
+public class CompactBinary extends StreamHandler<Data> {
+
+    // Stream: (SCHEMA | RECORD)*
+    // SCHEMA: 'S' count (key type)*, where key is a length-prefixed string
+    // RECORD: 'R' length bitmap value*, where bitmap marks null values
+    private static final int SCHEMA = 'S';
+    private static final int RECORD = 'R';
+    private static final byte NULL = 0;
+    private static final byte BOOLEAN = 1;
+    private static final byte INTEGER = 2;
+    private static final byte LONG = 3;
+    private static final byte FLOAT = 4;
+    private static final byte DOUBLE = 5;
+    private static final byte DECIMAL = 6;
+    private static final byte STRING = 7;
+    private InputStream _Input;
+    private OutputStream _Output;
+    private String[] _ReadKeys;
+    private byte[] _ReadTypes;
+    private String[] _WriteKeys;
+    private byte[] _WriteTypes;
+    private byte[] _Buffer = new byte[256];
+    private int _Position;
+    private int _Limit;
+
+    @Override
+    protected InputStream getInputStream() throws IOException {
+        if (_Input == null) {
+            _Input = new BufferedInputStream(super.getInputStream());
+        }
+        return _Input;
+    }
+
+    @Override
+    protected OutputStream getOutputStream() throws IOException {
+        if (_Output == null) {
+            _Output = new BufferedOutputStream(super.getOutputStream());
+        }
+        return _Output;
+    }
+
+    @Override
+    public void dismantle() {
+        super.dismantle();
+        if (_Input != null) {
+            try {
+                _Input.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                _Input = null;
+            }
+        }
+        if (_Output != null) {
+            try {
+                _Output.close();
+            } catch (IOException e) {
+                e.printStackTrace();
+            } finally {
+                _Output = null;
+            }
+        }
+        _ReadKeys = null;
+        _ReadTypes = null;
+        _WriteKeys = null;
+        _WriteTypes = null;
+    }
+
+    @Override
+    public void process(List<Data> in, List<Data> out) {
+        try {
+            if (isReadOnly(in)) {
+                Data data = read();
+                if (data != null) {
+                    out.add(data);
+                }
+            } else if (in != null) {
+                for (Data data : in) {
+                    if (data != null) {
+                        write(data);
+                    }
+                }
+                getOutputStream().flush();
+                if (shouldForward()) {
+                    out.addAll(in);
+                }
+            }
+        } catch (Exception e) {
+            e.printStackTrace();
+        }
+    }
+
+    /**
+     * Reads the next record. Schemas are read as they appear in the stream.
+     * If the end of the stream was reached, then <code>null</code> is
+     * returned.
+     *
+     * @return the next record or <code>null</code>
+     * @throws java.io.IOException if the stream could not be read or if the
+     *                             stream is malformed
+     */
+    private Data read() throws IOException {
+        InputStream input = getInputStream();
+        while (true) {
+            int tag = input.read();
+            if (tag == -1) {
+                return null;
+            } else if (tag == SCHEMA) {
+                readSchema(input);
+            } else if (tag == RECORD) {
+                if (_ReadKeys == null) {
+                    throw new IOException("record without schema");
+                }
+                fill(input, readVarint(input));
+                Data data = new Data();
+                int bitmap = (_ReadKeys.length + 7) >>> 3;
+                require(bitmap);
+                _Position = bitmap;
+                for (int i = 0; i < _ReadKeys.length; i++) {
+                    boolean isNull = (_Buffer[i >>> 3] & (1 << (i & 7))) != 0;
+                    data.put(_ReadKeys[i], isNull ? null : get(_ReadTypes[i]));
+                }
+                if (_Position != _Limit) {
+                    throw new IOException("malformed record");
+                }
+                return data;
+            } else {
+                throw new IOException("unexpected tag: " + tag);
+            }
+        }
+    }
+
+    /**
+     * Reads a schema (i.e. keys and types of succeeding records).
+     *
+     * @param input the stream
+     * @throws java.io.IOException if the stream could not be read or if the
+     *                             stream is malformed
+     */
+    private void readSchema(InputStream input) throws IOException {
+        int count = readVarint(input);
+        String[] keys = new String[count];
+        byte[] types = new byte[count];
+        for (int i = 0; i < count; i++) {
+            fill(input, readVarint(input));
+            keys[i] = new String(_Buffer, 0, _Limit, StandardCharsets.UTF_8);
+            int type = input.read();
+            if (type < NULL || type > STRING) {
+                throw new IOException("unexpected type: " + type);
+            }
+            types[i] = (byte) type;
+        }
+        _ReadKeys = keys;
+        _ReadTypes = types;
+    }
+
+    /**
+     * Reads the given number of bytes into the buffer.
+     *
+     * @param input  the stream
+     * @param length the number of bytes
+     * @throws java.io.IOException if the stream could not be read
+     */
+    private void fill(InputStream input, int length) throws IOException {
+        ensure(length);
+        for (int n = 0; n < length; ) {
+            int read = input.read(_Buffer, n, length - n);
+            if (read < 0) {
+                throw new EOFException();
+            }
+            n += read;
+        }
+        _Position = 0;
+        _Limit = length;
+    }
+
+    /**
+     * Decodes a value of the given type from the buffer.
+     *
+     * @param type the type
+     * @return the value
+     * @throws java.io.IOException if the buffer is malformed
+     */
+    private Object get(byte type) throws IOException {
+        switch (type) {
+            case BOOLEAN:
+                return getByte() != 0;
+            case INTEGER:
+                return (int) unzigzag(getVarint());
+            case LONG:
+                return unzigzag(getVarint());
+            case FLOAT:
+                return Float.intBitsToFloat((int) getFixed(4));
+            case DOUBLE:
+                return Double.longBitsToDouble(getFixed(8));
+            case DECIMAL:
+                int scale = (int) unzigzag(getVarint());
+                return new BigDecimal(new BigInteger(getBytes()), scale);
+            case STRING:
+                int length = (int) getVarint();
+                require(length);
+                String value = new String(_Buffer, _Position, length,
+                        StandardCharsets.UTF_8);
+                _Position += length;
+                return value;
+            default:
+                return null;
+        }
+    }
+
+    private int getByte() throws IOException {
+        require(1);
+        return _Buffer[_Position++];
+    }
+
+    private long getVarint() throws IOException {
+        long value = 0;
+        for (int shift = 0; shift < 64; shift += 7) {
+            int b = getByte();
+            value |= (long) (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    private long getFixed(int bytes) throws IOException {
+        require(bytes);
+        long value = 0;
+        for (int i = 0; i < bytes; i++) {
+            value = (value << 8) | (_Buffer[_Position++] & 0xFF);
+        }
+        return value;
+    }
+
+    private byte[] getBytes() throws IOException {
+        int length = (int) getVarint();
+        require(length);
+        _Position += length;
+        return Arrays.copyOfRange(_Buffer, _Position - length, _Position);
+    }
+
+    private void require(int bytes) throws IOException {
+        if (bytes < 0 || _Position + bytes > _Limit) {
+            throw new IOException("malformed record");
+        }
+    }
+
+    private static int readVarint(InputStream input) throws IOException {
+        int value = 0;
+        for (int shift = 0; shift < 32; shift += 7) {
+            int b = input.read();
+            if (b < 0) {
+                throw new EOFException();
+            }
+            value |= (b & 0x7F) << shift;
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("malformed varint");
+    }
+
+    /**
+     * Writes the given record. A schema is written beforehand, if the keys or
+     * types of the record differ from those of the previous record.
+     *
+     * @param data the record
+     * @throws java.io.IOException if the stream could not be written
+     */
+    private void write(Data data) throws IOException {
+        if (!matchesSchema(data)) {
+            writeSchema(data);
+        }
+        int bitmap = (_WriteKeys.length + 7) >>> 3;
+        ensure(bitmap);
+        Arrays.fill(_Buffer, 0, bitmap, (byte) 0);
+        _Position = bitmap;
+        int i = 0;
+        for (Object value : data.values()) {
+            if (value == null) {
+                _Buffer[i >>> 3] |= 1 << (i & 7);
+            } else {
+                put(_WriteTypes[i], value);
+            }
+            i++;
+        }
+        OutputStream output = getOutputStream();
+        output.write(RECORD);
+        writeVarint(output, _Position);
+        output.write(_Buffer, 0, _Position);
+    }
+
+    /**
+     * Returns <code>true</code>, if the keys and types of the given record
+     * match the current schema. Otherwise, <code>false</code> is returned.
+     * Values that are <code>null</code> match any type.
+     *
+     * @param data the record
+     * @return <code>true</code>, if the record matches the current schema
+     */
+    private boolean matchesSchema(Data data) {
+        if (_WriteKeys == null || _WriteKeys.length != data.size()) {
+            return false;
+        }
+        int i = 0;
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            Object value = entry.getValue();
+            if (!_WriteKeys[i].equals(entry.getKey())
+                    || value != null && typeOf(value) != _WriteTypes[i]) {
+                return false;
+            }
+            i++;
+        }
+        return true;
+    }
+
+    /**
+     * Writes a schema for the given record and makes it the current schema.
+     * Values that are <code>null</code> keep the type of the current schema
+     * (if possible).
+     *
+     * @param data the record
+     * @throws java.io.IOException if the stream could not be written
+     */
+    private void writeSchema(Data data) throws IOException {
+        String[] keys = new String[data.size()];
+        byte[] types = new byte[keys.length];
+        int i = 0;
+        for (Map.Entry<String, Object> entry : data.entrySet()) {
+            if (entry.getKey() == null) {
+                throw new IOException("keys must not be null");
+            }
+            keys[i] = entry.getKey();
+            Object value = entry.getValue();
+            if (value != null) {
+                types[i] = typeOf(value);
+            } else if (_WriteKeys != null && i < _WriteKeys.length
+                    && keys[i].equals(_WriteKeys[i])) {
+                types[i] = _WriteTypes[i];
+            } else {
+                types[i] = NULL;
+            }
+            i++;
+        }
+
+        OutputStream output = getOutputStream();
+        output.write(SCHEMA);
+        writeVarint(output, keys.length);
+        for (i = 0; i < keys.length; i++) {
+            byte[] key = keys[i].getBytes(StandardCharsets.UTF_8);
+            writeVarint(output, key.length);
+            output.write(key);
+            output.write(types[i]);
+        }
+        _WriteKeys = keys;
+        _WriteTypes = types;
+    }
+
+    /**
+     * Returns the type of the given value.
+     *
+     * @param value the value (must not be <code>null</code>)
+     * @return the type of the given value
+     */
+    private static byte typeOf(Object value) {
+        if (value instanceof Double) {
+            return DOUBLE;
+        } else if (value instanceof Long) {
+            return LONG;
+        } else if (value instanceof Integer || value instanceof Short
+                || value instanceof Byte) {
+            return INTEGER;
+        } else if (value instanceof Boolean) {
+            return BOOLEAN;
+        } else if (value instanceof Float) {
+            return FLOAT;
+        } else if (value instanceof BigDecimal) {
+            return DECIMAL;
+        } else {
+            return STRING;
+        }
+    }
+
+    /**
+     * Encodes a value of the given type into the buffer.
+     *
+     * @param type  the type
+     * @param value the value (must not be <code>null</code>)
+     */
+    private void put(byte type, Object value) {
+        switch (type) {
+            case BOOLEAN:
+                putByte((Boolean) value ? 1 : 0);
+                break;
+            case INTEGER:
+            case LONG:
+                putVarint(zigzag(((Number) value).longValue()));
+                break;
+            case FLOAT:
+                putFixed(Float.floatToRawIntBits((Float) value), 4);
+                break;
+            case DOUBLE:
+                putFixed(Double.doubleToRawLongBits((Double) value), 8);
+                break;
+            case DECIMAL:
+                BigDecimal decimal = (BigDecimal) value;
+                putVarint(zigzag(decimal.scale()));
+                putBytes(decimal.unscaledValue().toByteArray());
+                break;
+            default:
+                putString(value.toString());
+                break;
+        }
+    }
+
+    private void putByte(int value) {
+        ensure(_Position + 1);
+        _Buffer[_Position++] = (byte) value;
+    }
+
+    private void putVarint(long value) {
+        ensure(_Position + 10);
+        while ((value & ~0x7FL) != 0) {
+            _Buffer[_Position++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        _Buffer[_Position++] = (byte) value;
+    }
+
+    private void putFixed(long value, int bytes) {
+        ensure(_Position + bytes);
+        for (int shift = (bytes - 1) * 8; shift >= 0; shift -= 8) {
+            _Buffer[_Position++] = (byte) (value >>> shift);
+        }
+    }
+
+    private void putBytes(byte[] bytes) {
+        putVarint(bytes.length);
+        ensure(_Position + bytes.length);
+        System.arraycopy(bytes, 0, _Buffer, _Position, bytes.length);
+        _Position += bytes.length;
+    }
+
+    /**
+     * Encodes the given string (as UTF-8) into the buffer. Strings that only
+     * consist of ASCII characters are encoded without intermediate copies.
+     *
+     * @param value the string
+     */
+    private void putString(String value) {
+        int length = value.length();
+        for (int i = 0; i < length; i++) {
+            if (value.charAt(i) >= 0x80) {
+                putBytes(value.getBytes(StandardCharsets.UTF_8));
+                return;
+            }
+        }
+        putVarint(length);
+        ensure(_Position + length);
+        for (int i = 0; i < length; i++) {
+            _Buffer[_Position++] = (byte) value.charAt(i);
+        }
+    }
+
+    /**
+     * Grows the buffer (if necessary), so that it holds at least the given
+     * number of bytes. The content of the buffer is retained.
+     *
+     * @param capacity the minimum capacity
+     */
+    private void ensure(int capacity) {
+        if (capacity > _Buffer.length) {
+            _Buffer = Arrays.copyOf(_Buffer,
+                    Math.max(capacity, 2 * _Buffer.length));
+        }
+    }
+
+    private static void writeVarint(OutputStream output, int value)
+            throws IOException {
+        while ((value & ~0x7F) != 0) {
+            output.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        output.write(value);
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+}
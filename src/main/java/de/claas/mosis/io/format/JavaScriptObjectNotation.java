@@ -3,12 +3,11 @@ package de.claas.mosis.io.format;
 import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.model.Data;
-import de.claas.mosis.util.Parser;
 
+import java.io.IOException;
 import java.math.BigDecimal;
 import java.util.List;
 import java.util.Vector;
-import java.util.regex.Pattern;
 
 /**
  * The class {@link de.claas.mosis.io.format.JavaScriptObjectNotation}. It is
@@ -49,7 +48,13 @@ import java.util.regex.Pattern;
  * return U+000D</li> <li>%x74 / ; t tab U+0009</li> <li>%x75 4HEXDIG ; uXXXX
  * U+XXXX</li> <li>)</li> </ol> <ol> <li>quotation-mark = %x22 ; "</li>
  * <li>unescaped = %x20-21 / %x23-5B / %x5D-10FFFF</li> </ol>
- *TODO use PARSER project rather than implementing the parsing manually
+ * <p>
+ * JSON data is parsed incrementally in a single pass, one character at a time
+ * (see {@link #readChar()}). Objects may span any number of lines. One object
+ * is returned per call of {@link #process(java.util.List, java.util.List)}.
+ * If the JSON data is an array, then the objects within the array are
+ * returned one after another.
+ *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
 @Documentation(
@@ -59,77 +64,32 @@ import java.util.regex.Pattern;
         purpose = "To allow storage in JSON and retrieval of data in JSON.")
 public class JavaScriptObjectNotation extends AbstractTextFormat<Data> {
 
-    private final Pattern BeginArray;
-    private final Pattern BeginObject;
-    private final Pattern EndArray;
-    private final Pattern EndObject;
-    private final Pattern NameSeparator;
-    private final Pattern ValueSeparator;
-    private final Pattern False;
-    private final Pattern Null;
-    private final Pattern True;
-    private final Pattern DecimalPoint;
-    private final Pattern Digit1To9;
-    private final Pattern Digit;
-    private final Pattern E;
-    private final Pattern Minus;
-    private final Pattern Plus;
-    private final Pattern Zero;
-    private final Pattern QuotationMark;
-    private final Pattern Unescaped;
-    private final Pattern Escaped;
-    private final StringBuilder _JSON;
+    private static final int NONE = -2;
+    private final StringBuilder _Text;
+    private int _Next;
+    private boolean _InArray;
 
     /**
      * Initializes the class with default values.
      */
     public JavaScriptObjectNotation() {
-        BeginArray = Pattern.compile("\\s*\\x5B\\s*");
-        BeginObject = Pattern.compile("\\s*\\x7B\\s*");
-        EndArray = Pattern.compile("\\s*\\x5D\\s*");
-        EndObject = Pattern.compile("\\s*\\x7D\\s*");
-        NameSeparator = Pattern.compile("\\s*\\x3A\\s*");
-        ValueSeparator = Pattern.compile("\\s*\\x2C\\s*");
-        False = Pattern.compile("\\x66\\x61\\x6c\\x73\\x65");
-        Null = Pattern.compile("\\x6e\\x75\\x6c\\x6c");
-        True = Pattern.compile("\\x74\\x72\\x75\\x65");
-        DecimalPoint = Pattern.compile("\\x2E");
-        Digit1To9 = Pattern.compile("[\\x31-\\x39]");
-        Digit = Pattern.compile("[\\x30-\\x39]");
-        E = Pattern.compile("[\\x65\\x45]");
-        Minus = Pattern.compile("\\x2D");
-        Plus = Pattern.compile("\\x2B");
-        Zero = Pattern.compile("\\x30");
-        QuotationMark = Pattern.compile("\\x22");
-        Unescaped = Pattern
-                .compile("[\\x20-\\x21\\x23-\\x5B\\x5D-\\x{10FFFF}]");
-        Escaped = Pattern
-                .compile("\\x5C([\\x22\\x5C\\x2F\\x62\\x66\\x6E\\x72\\x74]|\\x75[0-9a-f]{4})");
-        _JSON = new StringBuilder();
+        _Text = new StringBuilder();
+    }
+
+    @Override
+    public void setUp() {
+        super.setUp();
+        _Next = NONE;
+        _InArray = false;
     }
 
     @Override
     public void process(List<Data> in, List<Data> out) {
         try {
             if (isReadOnly(in)) {
-                // Keep buffer updated
-                String line = readLine(true);
-                if (line != null) {
-                    _JSON.append(line);
-                }
-
-                // Parse JSON
-                if (_JSON.length() > 0) {
-                    Data data = new Data();
-                    List<Object> values = new Vector<>();
-                    String processed = jsonText(new StringBuilder(_JSON), data,
-                            values);
-                    if (processed != null) {
-                        _JSON.replace(0, processed.length(), "");
-                        out.add(data);
-                        // TODO How to differentiate between arrays and objects?
-                        // TODO How should arrays be handled at all?
-                    }
+                Data data = jsonText();
+                if (data != null) {
+                    out.add(data);
                 }
             } else {
                 for (Data datum : in) {
@@ -145,433 +105,327 @@ public class JavaScriptObjectNotation extends AbstractTextFormat<Data> {
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
+     * Returns the next JSON object. If the end of the stream has been reached,
+     * then <code>null</code> is returned. The data is processed as defined in
+     * rule:
      * <p>
      * <b>JSON-text = object / array</b>
+     * <p>
+     * The objects within a (top-level) array are returned one at a time. Any
+     * other values within such an array are skipped. Characters are only read
+     * as far as needed, so that reading does not block on data that belongs
+     * to the next object.
      *
-     * @param json   the JSON data that is being processed
-     * @param data   if data was successfully processed and it was a JSON
-     *               object, then the {@link de.claas.mosis.model.Data} instance
-     *               will be updated to represent the processed JSON object
-     * @param values if data was successfully processed and it was a JSON array,
-     *               then the list will be updated to represent the processed
-     *               JSON array
-     * @return the JSON data that was processed by this call
+     * @return the next JSON object or <code>null</code>
+     * @throws java.io.IOException if something unexpected happens (e.g.
+     *                             invalid JSON data)
      */
-    private String jsonText(StringBuilder json, Data data, List<Object> values) {
-        String jsonText;
-
-        // object
-        if ((jsonText = object(json, data)) != null) {
-            return jsonText;
-        }
-
-        // array
-        if ((jsonText = array(json, values)) != null) {
-            return jsonText;
+    private Data jsonText() throws IOException {
+        while (true) {
+            int c = whitespace();
+            if (c == -1) {
+                if (_InArray) {
+                    throw unexpected(c);
+                }
+                return null;
+            } else if (_InArray) {
+                // [ value *( value-separator value ) ] end-array
+                if (c == 0x5D) {
+                    next();
+                    _InArray = false;
+                    continue;
+                } else if (c == 0x2C) {
+                    next();
+                }
+                Object value = value();
+                if (value instanceof Data) {
+                    return (Data) value;
+                }
+            } else if (c == 0x5B) {
+                // begin-array
+                next();
+                _InArray = true;
+            } else if (c == 0x7B) {
+                return object();
+            } else {
+                throw unexpected(c);
+            }
         }
-        return null;
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
+     * Returns the processed JSON object. The data is processed as defined in
+     * rule:
      * <p>
      * <b>object = begin-object [ member *( value-separator member ) ]
      * end-object</b>
+     * <p>
+     * <b>member = string name-separator value</b>
      *
-     * @param json the JSON data that is being processed
-     * @param data if data was successfully processed, then the {@link
-     *             de.claas.mosis.model.Data} instance will be updated to
-     *             represent the processed JSON object
-     * @return the JSON data that was processed by this call
+     * @return the processed JSON object
+     * @throws java.io.IOException if something unexpected happens (e.g.
+     *                             invalid JSON data)
      */
-    private String object(StringBuilder json, Data data) {
-        StringBuilder processed = new StringBuilder();
-        String object;
-
-        // begin-object
-        if ((object = Parser.startsWith(json, BeginObject)) == null) {
-            return null;
-        }
-        processed.append(object);
-
-        // [ member *( value-separator member ) ]
-        if ((object = member(json, data)) != null) {
-            processed.append(object);
-            while ((object = Parser.startsWith(json, ValueSeparator)) != null) {
-                processed.append(object);
-                if ((object = member(json, data)) == null) {
-                    Parser.unprocess(json, processed);
-                    return null;
-                }
-                processed.append(object);
+    private Data object() throws IOException {
+        Data data = new Data();
+        expect(0x7B);
+        if (whitespace() == 0x7D) {
+            next();
+            return data;
+        }
+        while (true) {
+            whitespace();
+            String name = string();
+            whitespace();
+            expect(0x3A);
+            data.put(name, value());
+            whitespace();
+            int c = next();
+            if (c == 0x7D) {
+                return data;
+            } else if (c != 0x2C) {
+                throw unexpected(c);
             }
         }
-
-        // end-object
-        if ((object = Parser.startsWith(json, EndObject)) == null) {
-            Parser.unprocess(json, processed);
-            return null;
-        }
-        processed.append(object);
-        return processed.toString();
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
+     * Returns the processed JSON array. The data is processed as defined in
+     * rule:
      * <p>
      * <b>array = begin-array [ value *( value-separator value ) ]
      * end-array</b>
      *
-     * @param json   the JSON data that is being processed
-     * @param values if data was successfully processed, then the list will be
-     *               updated to represent the processed JSON array
-     * @return the JSON data that was processed by this call
+     * @return the processed JSON array
+     * @throws java.io.IOException if something unexpected happens (e.g.
+     *                             invalid JSON data)
      */
-    private String array(StringBuilder json, List<Object> values) {
-        StringBuilder processed = new StringBuilder();
-        String array;
-
-        // begin-array
-        if ((array = Parser.startsWith(json, BeginArray)) == null) {
-            return null;
-        }
-        processed.append(array);
-
-        // [ value *( value-separator value ) ]
-        if ((array = value(json, values)) != null) {
-            processed.append(array);
-            while ((array = Parser.startsWith(json, ValueSeparator)) != null) {
-                processed.append(array);
-                if ((array = value(json, values)) == null) {
-                    Parser.unprocess(json, processed);
-                    return null;
-                }
-                processed.append(array);
+    private List<Object> array() throws IOException {
+        List<Object> values = new Vector<>();
+        expect(0x5B);
+        if (whitespace() == 0x5D) {
+            next();
+            return values;
+        }
+        while (true) {
+            values.add(value());
+            whitespace();
+            int c = next();
+            if (c == 0x5D) {
+                return values;
+            } else if (c != 0x2C) {
+                throw unexpected(c);
             }
         }
-
-        // end-array
-        if ((array = Parser.startsWith(json, EndArray)) == null) {
-            Parser.unprocess(json, processed);
-            return null;
-        }
-        processed.append(array);
-        return processed.toString();
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
+     * Returns the processed JSON value. The data is processed as defined in
+     * rule:
      * <p>
-     * <b>member = string name-separator value</b>
+     * <b>value = false / null / true / object / array / number / string</b>
      *
-     * @param json the JSON data that is being processed
-     * @param data if data was successfully processed, then the {@link
-     *             de.claas.mosis.model.Data} instance will be updated with the
-     *             processed member / field
-     * @return the JSON data that was processed by this call
+     * @return the processed JSON value
+     * @throws java.io.IOException if something unexpected happens (e.g.
+     *                             invalid JSON data)
      */
-    private String member(StringBuilder json, Data data) {
-        StringBuilder processed = new StringBuilder();
-        List<Object> values = new Vector<>();
-        StringBuilder name = new StringBuilder();
-        String member;
-
-        // string
-        if ((member = string(json, name)) == null) {
-            return null;
-        }
-        processed.append(member);
-
-        // name-separator
-        if ((member = Parser.startsWith(json, NameSeparator)) == null) {
-            Parser.unprocess(json, processed);
-            return null;
-        }
-        processed.append(member);
-
-        // value
-        if ((member = value(json, values)) == null) {
-            Parser.unprocess(json, processed);
+    private Object value() throws IOException {
+        int c = whitespace();
+        if (c == 0x7B) {
+            return object();
+        } else if (c == 0x5B) {
+            return array();
+        } else if (c == 0x22) {
+            return string();
+        } else if (c == 0x74) {
+            literal("true");
+            return Boolean.TRUE;
+        } else if (c == 0x66) {
+            literal("false");
+            return Boolean.FALSE;
+        } else if (c == 0x6E) {
+            literal("null");
             return null;
+        } else if (c == 0x2D || c >= 0x30 && c <= 0x39) {
+            return number();
+        } else {
+            throw unexpected(c);
         }
-        data.put(name.toString(), values.get(0));
-        processed.append(member);
-        return processed.toString();
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
+     * Returns the processed JSON string. The data is processed as defined in
+     * rule:
      * <p>
      * <b>string = quotation-mark *character quotation-mark</b>
+     * <p>
+     * Escaped characters are replaced by the characters they represent.
      *
-     * @param json the JSON data that is being processed
-     * @param text if data was successfully processed, then the {@link
-     *             java.lang.StringBuilder} instance will be updated with the
-     *             text in between the quotes
-     * @return the JSON data that was processed by this call
+     * @return the processed JSON string
+     * @throws java.io.IOException if something unexpected happens (e.g.
+     *                             invalid JSON data)
      */
-    private String string(StringBuilder json, StringBuilder text) {
-        StringBuilder processed = new StringBuilder();
-        String string;
-
-        // quotation-mark
-        if ((string = Parser.startsWith(json, QuotationMark)) == null) {
-            return null;
-        }
-        processed.append(string);
-
-        // *char
-        while ((string = character(json, text)) != null) {
-            processed.append(string);
-        }
-
-        // quotation-mark
-        if ((string = Parser.startsWith(json, QuotationMark)) == null) {
-            Parser.unprocess(json, processed);
-            return null;
+    private String string() throws IOException {
+        expect(0x22);
+        _Text.setLength(0);
+        while (true) {
+            int c = next();
+            if (c == 0x22) {
+                return _Text.toString();
+            } else if (c == 0x5C) {
+                _Text.append(escaped());
+            } else if (c == -1) {
+                throw unexpected(c);
+            } else {
+                _Text.append((char) c);
+            }
         }
-        processed.append(string);
-        return processed.toString();
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>character = unescaped / escaped</b>
+     * Returns the character that is represented by an escape sequence (i.e.
+     * the characters following the reverse solidus).
      *
-     * @param json the JSON data that is being processed * @param text if data
-     *             was successfully processed, then the {@link
-     *             java.lang.StringBuilder} instance will be updated with the
-     *             text in between the quotes
-     * @return the JSON data that was processed by this call
+     * @return the character that is represented by an escape sequence
+     * @throws java.io.IOException if something unexpected happens (e.g.
+     *                             invalid JSON data)
      */
-    private String character(StringBuilder json, StringBuilder text) {
-        String character;
-
-        // unescaped
-        if ((character = Parser.startsWith(json, Unescaped)) != null) {
-            text.append(character);
-            return character;
-        }
-
-        // escaped
-        if ((character = Parser.startsWith(json, Escaped)) != null) {
-            // TODO Handle escaped characters.
-            text.append(character);
-            return character;
+    private char escaped() throws IOException {
+        int c = next();
+        switch (c) {
+            case 0x22:
+            case 0x5C:
+            case 0x2F:
+                return (char) c;
+            case 0x62:
+                return '\b';
+            case 0x66:
+                return '\f';
+            case 0x6E:
+                return '\n';
+            case 0x72:
+                return '\r';
+            case 0x74:
+                return '\t';
+            case 0x75:
+                int value = 0;
+                for (int i = 0; i < 4; i++) {
+                    int digit = Character.digit(next(), 16);
+                    if (digit < 0) {
+                        throw new IOException("invalid escape sequence");
+                    }
+                    value = value * 16 + digit;
+                }
+                return (char) value;
+            default:
+                throw unexpected(c);
         }
-        return null;
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
+     * Returns the processed JSON number. The data is processed as defined in
+     * rule:
      * <p>
-     * <b>value = false / null / true / object / array / number / string</b>
+     * <b>number = [ minus ] integer [ frac ] [ exp ]</b>
      *
-     * @param json   the JSON data that is being processed
-     * @param values if data was successfully processed, then the list will be
-     *               updated the processed value
-     * @return the JSON data that was processed by this call
+     * @return the processed JSON number
+     * @throws java.io.IOException if something unexpected happens (e.g.
+     *                             invalid JSON data)
      */
-    private String value(StringBuilder json, List<Object> values) {
-        String value;
-
-        // false
-        if ((value = Parser.startsWith(json, False)) != null) {
-            values.add(Boolean.FALSE);
-            return value;
-        }
-
-        // null
-        if ((value = Parser.startsWith(json, Null)) != null) {
-            values.add(null);
-            return value;
-        }
-
-        // true
-        if ((value = Parser.startsWith(json, True)) != null) {
-            values.add(Boolean.TRUE);
-            return value;
+    private BigDecimal number() throws IOException {
+        _Text.setLength(0);
+        int c = peek();
+        while (c >= 0x30 && c <= 0x39 || c == 0x2D || c == 0x2B
+                || c == 0x2E || c == 0x65 || c == 0x45) {
+            _Text.append((char) next());
+            c = peek();
         }
-
-        // object
-        Data data = new Data();
-        if ((value = object(json, data)) != null) {
-            values.add(data);
-            return value;
-        }
-
-        // array
-        List<Object> array = new Vector<>();
-        if ((value = array(json, array)) != null) {
-            values.add(array);
-            return value;
-        }
-
-        // number
-        if ((value = number(json)) != null) {
-            values.add(new BigDecimal(value));
-            return value;
-        }
-
-        // string
-        StringBuilder text = new StringBuilder();
-        if ((value = string(json, text)) != null) {
-            values.add(text.toString());
-            return value;
+        try {
+            return new BigDecimal(_Text.toString());
+        } catch (NumberFormatException e) {
+            throw new IOException("invalid number: " + _Text, e);
         }
-        return null;
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>number = [ minus ] integer [ frac ] [ exp ]</b>
+     * Consumes the given literal (e.g. <code>true</code>, <code>false</code>
+     * or <code>null</code>).
      *
-     * @param json the JSON data that is being processed
-     * @return the JSON data that was processed by this call
+     * @param literal the literal
+     * @throws java.io.IOException if something unexpected happens (e.g.
+     *                             invalid JSON data)
      */
-    private String number(StringBuilder json) {
-        StringBuilder processed = new StringBuilder();
-        String number;
-
-        // [ minus ]
-        if ((number = Parser.startsWith(json, Minus)) != null) {
-            processed.append(number);
-        }
-
-        // integer
-        if ((number = integer(json)) == null) {
-            Parser.unprocess(json, processed);
-            return null;
-        }
-        processed.append(number);
-
-        // [ frac ]
-        if ((number = frac(json)) != null) {
-            processed.append(number);
+    private void literal(String literal) throws IOException {
+        for (int i = 0; i < literal.length(); i++) {
+            expect(literal.charAt(i));
         }
-
-        // [ exp ]
-        if ((number = exp(json)) != null) {
-            processed.append(number);
-        }
-        return processed.toString();
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>integer = zero / ( DIGIT1-9 *DIGIT )</b>
+     * Consumes the given character.
      *
-     * @param json the JSON data that is being processed
-     * @return the JSON data that was processed by this call
+     * @param expected the character
+     * @throws java.io.IOException if another character was found
      */
-    private String integer(StringBuilder json) {
-        StringBuilder processed = new StringBuilder();
-        String integer;
-
-        // zero
-        if ((integer = Parser.startsWith(json, Zero)) != null) {
-            return integer;
+    private void expect(int expected) throws IOException {
+        int c = next();
+        if (c != expected) {
+            throw unexpected(c);
         }
-
-        // ( DIGIT1-9 *DIGIT )
-        if ((integer = Parser.startsWith(json, Digit1To9)) == null) {
-            return null;
-        }
-        do {
-            processed.append(integer);
-        } while ((integer = Parser.startsWith(json, Digit)) != null);
-        return processed.toString();
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>frac = decimal-point +DIGIT</b>
+     * Skips whitespace (i.e. space, horizontal tab, line feed and carriage
+     * return) and returns the next character without consuming it.
      *
-     * @param json the JSON data that is being processed
-     * @return the JSON data that was processed by this call
+     * @return the next character or <code>-1</code>
+     * @throws java.io.IOException if something unexpected happens
      */
-    private String frac(StringBuilder json) {
-        StringBuilder processed = new StringBuilder();
-        String frac;
-
-        // decimal-point
-        if ((frac = Parser.startsWith(json, DecimalPoint)) == null) {
-            return null;
-        }
-        processed.append(frac);
-
-        // +DIGIT
-        if ((frac = Parser.startsWith(json, Digit)) == null) {
-            Parser.unprocess(json, processed);
-            return null;
+    private int whitespace() throws IOException {
+        int c = peek();
+        while (c == 0x20 || c == 0x09 || c == 0x0A || c == 0x0D) {
+            next();
+            c = peek();
         }
-        do {
-            processed.append(frac);
-        } while ((frac = Parser.startsWith(json, Digit)) != null);
-        return processed.toString();
+        return c;
     }
 
     /**
-     * Returns the JSON data that was processed by this call. If no data was
-     * processed (e.g. incomplete or invalid JSON data), then <code>null</code>
-     * is returned. The data is processed as defined in rule:
-     * <p>
-     * <b>exp = e [ minus / plus ] +DIGIT</b>
+     * Returns the next character without consuming it.
      *
-     * @param json the JSON data that is being processed
-     * @return the JSON data that was processed by this call
+     * @return the next character or <code>-1</code>
+     * @throws java.io.IOException if something unexpected happens
      */
-    private String exp(StringBuilder json) {
-        StringBuilder processed = new StringBuilder();
-        String exp;
-
-        // e
-        if ((exp = Parser.startsWith(json, E)) == null) {
-            return null;
+    private int peek() throws IOException {
+        if (_Next == NONE) {
+            _Next = readChar();
         }
-        processed.append(exp);
+        return _Next;
+    }
 
-        // [ minus / plus ]
-        if ((exp = Parser.startsWith(json, Minus)) != null) {
-            processed.append(exp);
-        } else if ((exp = Parser.startsWith(json, Plus)) != null) {
-            processed.append(exp);
-        }
+    /**
+     * Returns and consumes the next character.
+     *
+     * @return the next character or <code>-1</code>
+     * @throws java.io.IOException if something unexpected happens
+     */
+    private int next() throws IOException {
+        int c = peek();
+        _Next = NONE;
+        return c;
+    }
 
-        // +DIGIT
-        if ((exp = Parser.startsWith(json, Digit)) == null) {
-            Parser.unprocess(json, processed);
-            return null;
+    /**
+     * Returns an exception that reports an unexpected character.
+     *
+     * @param c the unexpected character or <code>-1</code>
+     * @return an exception that reports an unexpected character
+     */
+    private static IOException unexpected(int c) {
+        if (c == -1) {
+            return new IOException("unexpected end of stream");
         }
-        do {
-            processed.append(exp);
-        } while ((exp = Parser.startsWith(json, Digit)) != null);
-        return processed.toString();
+        return new IOException(String.format("unexpected character '%c'", c));
     }
 
     /**
@@ -633,8 +487,7 @@ public class JavaScriptObjectNotation extends AbstractTextFormat<Data> {
         if (o == null) {
             return null;
         } else if (o instanceof String) {
-            // TODO Escape characters
-            return String.format("%s%s%s", '"', o.toString(), '"');
+            return toJSON((String) o);
         } else if (o instanceof Data) {
             return toJSON((Data) o);
         } else if (o instanceof List) {
@@ -644,4 +497,34 @@ public class JavaScriptObjectNotation extends AbstractTextFormat<Data> {
         }
     }
 
+    /**
+     * Returns JSON data that represents a JSON string. Quotation marks,
+     * reverse solidi and control characters are escaped.
+     *
+     * @param text the JSON string that should be returned as JSON data
+     * @return JSON data that represents a JSON string
+     */
+    private String toJSON(String text) {
+        StringBuilder processed = new StringBuilder(text.length() + 2);
+        processed.append('"');
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == '"' || c == '\\') {
+                processed.append('\\').append(c);
+            } else if (c == '\n') {
+                processed.append("\\n");
+            } else if (c == '\r') {
+                processed.append("\\r");
+            } else if (c == '\t') {
+                processed.append("\\t");
+            } else if (c < 0x20) {
+                processed.append(String.format("\\u%04x", (int) c));
+            } else {
+                processed.append(c);
+            }
+        }
+        processed.append('"');
+        return processed.toString();
+    }
+
 }
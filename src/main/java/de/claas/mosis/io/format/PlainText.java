@@ -4,6 +4,7 @@ import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.util.List;
 
@@ -28,6 +29,8 @@ public class PlainText extends AbstractTextFormat<String> {
     public static final String PREFIX = "prefix";
     @Parameter("Whether 'new line' character(s) should be appended during output operations.")
     public static final String APPEND_NEWLINE = "append newline";
+    private final ParameterHandle<String> _Prefix = getHandle(PREFIX);
+    private final ParameterHandle<Boolean> _AppendNewline = getHandleAsBoolean(APPEND_NEWLINE);
 
     /**
      * Initializes the class with default values.
@@ -49,8 +52,8 @@ public class PlainText extends AbstractTextFormat<String> {
                 }
             } else {
                 for (String line : in) {
-                    writeLine(getParameter(PREFIX), false);
-                    writeLine(line, getParameterAsBoolean(APPEND_NEWLINE));
+                    writeLine(_Prefix.get(), false);
+                    writeLine(line, _AppendNewline.get());
                 }
                 if (shouldForward()) {
                     out.addAll(in);
@@ -4,9 +4,10 @@ import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
-import de.claas.mosis.model.ProcessorAdapter;
+import de.claas.mosis.model.ParameterHandle;
 
-import java.util.*;
+import java.util.Arrays;
+import java.util.List;
 
 /**
  * The class {@link de.claas.mosis.io.generator.Function}. It is intended to
@@ -16,16 +17,29 @@ import java.util.*;
  * <p>
  * Valid arithmetic expressions are of the form:</br>
  * <p>
- * <ol> <li>expression = term { ("+" | "-") term }.</li> <li>term = factor {
- * ("*" | "/") factor }.</li> <li>factor = value | ["cos" | "sin"] "("
- * expression ")" | factor "^" expression.</li> <li>value = number |
- * variable.</li> <li>number = ["+" | "-"] digit { digit } ["." digit { digit
- * }].</li> <li>digit = "0" | "1" | "2" | "3" | "4" | "5" | "6" | "7" | "8" |
+ * <ol> <li>expression = term { ("+" | "-") term }.</li> <li>term = power {
+ * ("*" | "/") power }.</li> <li>power = unary [ "^" expression ].</li> <li>unary =
+ * { "+" | "-" } factor.</li> <li>factor = number | variable | "(" expression
+ * ")" | function "(" expression { "," expression } ")".</li> <li>function =
+ * "sin" | "cos" | "tan" | "exp" | "log" | "sqrt" | "abs" | "min" |
+ * "max".</li> <li>number = digit { digit } ["." digit { digit }].</li>
+ * <li>digit = "0" | "1" | "2" | "3" | "4" | "5" | "6" | "7" | "8" |
  * "9".</li> <li>variable = "x" { digit }.</li> </ol>
  * <p>
- * TODO There seems to be a difference between the grammar above and the impl.
+ * The above grammar is given in EBNF (Extended Backus-Naur Form). Whitespace
+ * between symbols is ignored. Signs bind tighter than exponents (i.e. "-2^2"
+ * equals 4). The exponent extends to the end of the enclosing expression
+ * (i.e. "2^3+1" equals 16 and "2^3*2" equals 64), so that parentheses are
+ * required to limit it (e.g. "(2^3)+1" equals 9). The functions "min" and
+ * "max" accept two or more arguments, all other functions accept exactly one
+ * argument. The variable "x" is equal to "x0" and refers to the first input
+ * value. Missing input values (i.e. variables without corresponding input
+ * value) and <code>null</code> values are replaced by zero.
  * <p>
- * The above grammar is given in EBNF (Extended Backus-Naur Form).
+ * The expression is compiled into an {@link
+ * de.claas.mosis.io.generator.Function.Expression} whenever the {@link
+ * #FUNCTION} parameter changes, so that processing a sample merely evaluates
+ * the compiled expression.
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
@@ -33,24 +47,21 @@ import java.util.*;
         dataSource = true,
         category = Category.InputOutput,
         author = {"Claas Ahlrichs"},
-        description = "This is a realization of a ProcessingAdapter and it returns a predefined sequence of numbers (similarly to Linear). This implementation returns one by default. However, the mathematical expression that is used to generate the sequence can be configured. The input data from one or multiple inbound modules are used as input values for the expression. This module is especially powerful when used in combination with Linear. Not just linear expressions, but also functions (e.g. 'sin', 'cos', etc.) as well as exponential expressions can be utilized.",
+        description = "This is a realization of a ProcessingAdapter and it returns a predefined sequence of numbers (similarly to Linear). This implementation returns one by default. However, the mathematical expression that is used to generate the sequence can be configured. The input data from one or multiple inbound modules are used as input values for the expression. This module is especially powerful when used in combination with Linear. Not just linear expressions, but also functions (e.g. 'sin', 'cos', 'exp', 'log', 'sqrt', 'abs', 'tan', 'min', 'max') as well as exponential expressions can be utilized.",
         purpose = "To provide access to a predefined sequence of numbers.")
-public class Function extends ProcessorAdapter<Double, Double> {
+public class Function extends Generator {
 
     @Parameter("Mathematical function / expression used to generate output values.")
     public static final String FUNCTION = "function";
-    private final Queue<String> _Token;
-    private final Stack<Double> _Result;
-    private final List<Double> _Variables;
+    private final ParameterHandle<String> _Function = getHandle(FUNCTION);
+    private String _Source;
+    private Expression _Expression;
+    private double[] _Values = new double[0];
 
     /**
      * Initializes the class with default values.
      */
     public Function() {
-        _Token = new LinkedList<>();
-        _Result = new Stack<>();
-        _Variables = new Vector<>();
-
         addCondition(FUNCTION, new IsValidExpression());
         setParameter(FUNCTION, "1");
     }
@@ -58,16 +69,28 @@ public class Function extends ProcessorAdapter<Double, Double> {
     @Override
     public void dismantle() {
         super.dismantle();
-        _Token.clear();
-        _Result.clear();
-        _Variables.clear();
+        _Source = null;
+        _Expression = null;
     }
 
     @Override
-    public void process(List<Double> in, List<Double> out) {
-        String expression = getParameter(FUNCTION);
-        in = in == null ? new Vector<Double>() : in;
-        out.add(interpret(expression, in));
+    protected void generate(List<Double> in, double[] values, int offset,
+                            int length) {
+        String expression = _Function.get();
+        if (!expression.equals(_Source)) {
+            _Expression = new Expression(expression);
+            _Source = expression;
+        }
+        int count = in.size();
+        if (_Values.length < count) {
+            _Values = new double[count];
+        }
+        for (int i = 0; i < count; i++) {
+            Double value = in.get(i);
+            _Values[i] = value == null ? 0.0 : value;
+        }
+        double value = _Expression.evaluate(_Values, count);
+        Arrays.fill(values, offset, offset + length, value);
     }
 
     /**
@@ -80,168 +103,371 @@ public class Function extends ProcessorAdapter<Double, Double> {
      * @return the result after interpreting a mathematical expression
      */
     public double interpret(String expression, List<Double> data) {
-        _Token.clear();
-        _Token.addAll(tokenize(expression));
-        _Result.clear();
-        _Variables.clear();
-        _Variables.addAll(data);
-        expression();
-        if (!_Token.isEmpty()) {
-            // TODO What is this?
-            throw new IllegalArgumentException("also my bad ...");
+        double[] values = new double[data.size()];
+        for (int i = 0; i < values.length; i++) {
+            Double value = data.get(i);
+            values[i] = value == null ? 0.0 : value;
         }
-        return _Result.pop();
+        return new Expression(expression).evaluate(values, values.length);
     }
 
     /**
-     * Returns the set of tokens that make up the given mathematical expression.
-     * These tokens are interpreted by methods {@link #expression()}, {@link
-     * #term()} and so on.
+     * The class {@link de.claas.mosis.io.generator.Function.Expression}. It is
+     * intended to represent a compiled mathematical expression (as defined in
+     * {@link de.claas.mosis.io.generator.Function}). The expression is parsed
+     * once and compiled into a sequence of instructions for a stack machine.
+     * Sub-expressions without variables are evaluated at compile time.
+     * Evaluating the expression does not allocate any objects. However,
+     * instances are not thread-safe as the stack is shared between
+     * evaluations.
      *
-     * @param expression the mathematical expression
-     * @return the set of tokens that make up the given mathematical expression
+     * @author Claas Ahlrichs (claasahl@tzi.de)
      */
-    private List<String> tokenize(String expression) {
-        expression = expression.replaceAll("\\s", "");
-        String regex = "[()*/+\\-x^0-9\\.]|cos|sin";
-        Stack<String> token = new Stack<>();
-        token.add(expression);
-        while (token.peek().length() > 1) {
-            String tmp = token.pop();
-            if (tmp.substring(0, 1).matches(regex)) {
-                token.add(tmp.substring(0, 1));
-                token.add(tmp.substring(1));
-            } else if (tmp.substring(0, 3).matches(regex)) {
-                token.add(tmp.substring(0, 3));
-                token.add(tmp.substring(3));
+    public static class Expression {
+
+        private static final int CONSTANT = 0;
+        private static final int VARIABLE = 1;
+        private static final int NEGATE = 2;
+        private static final int SIN = 3;
+        private static final int COS = 4;
+        private static final int TAN = 5;
+        private static final int EXP = 6;
+        private static final int LOG = 7;
+        private static final int SQRT = 8;
+        private static final int ABS = 9;
+        private static final int ADD = 10;
+        private static final int SUBTRACT = 11;
+        private static final int MULTIPLY = 12;
+        private static final int DIVIDE = 13;
+        private static final int POWER = 14;
+        private static final int MIN = 15;
+        private static final int MAX = 16;
+        private static final List<String> FUNCTIONS = Arrays.asList(
+                "sin", "cos", "tan", "exp", "log", "sqrt", "abs", "min",
+                "max");
+        private static final int[] OPERATIONS = {SIN, COS, TAN, EXP, LOG,
+                SQRT, ABS, MIN, MAX};
+        private final String _Text;
+        private int _Position;
+        private int[] _Code = new int[8];
+        private double[] _Arguments = new double[8];
+        private int _Length;
+        private int _Depth;
+        private int _MaxDepth;
+        private final double[] _Stack;
+
+        /**
+         * Initializes the class with the given parameter.
+         *
+         * @param expression the mathematical expression
+         * @throws java.lang.IllegalArgumentException if the expression is
+         *                                            invalid
+         */
+        public Expression(String expression) {
+            _Text = expression;
+            expression();
+            whitespace();
+            if (_Position < _Text.length()) {
+                throw unexpected();
+            }
+            _Code = Arrays.copyOf(_Code, _Length);
+            _Arguments = Arrays.copyOf(_Arguments, _Length);
+            _Stack = new double[_MaxDepth];
+        }
+
+        /**
+         * Returns the value of this expression for the given input values.
+         * The n-th value is assigned to the variable "xn". Variables without
+         * value are replaced by zero.
+         *
+         * @param values the input values
+         * @param count  the number of input values
+         * @return the value of this expression
+         */
+        public double evaluate(double[] values, int count) {
+            int[] code = _Code;
+            double[] stack = _Stack;
+            int top = -1;
+            for (int i = 0; i < code.length; i++) {
+                int op = code[i];
+                if (op == CONSTANT) {
+                    stack[++top] = _Arguments[i];
+                } else if (op == VARIABLE) {
+                    int index = (int) _Arguments[i];
+                    stack[++top] = index < count ? values[index] : 0.0;
+                } else if (op < ADD) {
+                    stack[top] = apply(op, stack[top], 0.0);
+                } else {
+                    double b = stack[top--];
+                    stack[top] = apply(op, stack[top], b);
+                }
+            }
+            return stack[0];
+        }
+
+        /**
+         * Returns the result of the given operation. Unary operations ignore
+         * their second operand.
+         *
+         * @param op the operation
+         * @param a  the first operand
+         * @param b  the second operand
+         * @return the result of the given operation
+         */
+        private static double apply(int op, double a, double b) {
+            switch (op) {
+                case NEGATE:
+                    return -a;
+                case SIN:
+                    return Math.sin(a);
+                case COS:
+                    return Math.cos(a);
+                case TAN:
+                    return Math.tan(a);
+                case EXP:
+                    return Math.exp(a);
+                case LOG:
+                    return Math.log(a);
+                case SQRT:
+                    return Math.sqrt(a);
+                case ABS:
+                    return Math.abs(a);
+                case ADD:
+                    return a + b;
+                case SUBTRACT:
+                    return a - b;
+                case MULTIPLY:
+                    return a * b;
+                case DIVIDE:
+                    return a / b;
+                case POWER:
+                    return Math.pow(a, b);
+                case MIN:
+                    return Math.min(a, b);
+                case MAX:
+                    return Math.max(a, b);
+                default:
+                    throw new IllegalStateException("unknown operation: " + op);
+            }
+        }
+
+        /**
+         * Appends an instruction. Operations on constants are evaluated right
+         * away (i.e. they are replaced by their result).
+         *
+         * @param op       the operation
+         * @param argument the argument (i.e. the constant or the index of the
+         *                 variable)
+         */
+        private void emit(int op, double argument) {
+            if (op > VARIABLE) {
+                int arity = op < ADD ? 1 : 2;
+                if (isConstant(arity)) {
+                    double a = _Arguments[_Length - arity];
+                    double b = arity == 2 ? _Arguments[_Length - 1] : 0.0;
+                    _Length -= arity;
+                    _Depth -= arity;
+                    emit(CONSTANT, apply(op, a, b));
+                    return;
+                }
+                _Depth -= arity - 1;
             } else {
-                // TODO What is this?
-                System.err.println("kdsjhkjsh");
+                _MaxDepth = Math.max(_MaxDepth, ++_Depth);
             }
+            if (_Length == _Code.length) {
+                _Code = Arrays.copyOf(_Code, _Length * 2);
+                _Arguments = Arrays.copyOf(_Arguments, _Length * 2);
+            }
+            _Code[_Length] = op;
+            _Arguments[_Length] = argument;
+            _Length++;
         }
-        return token;
-    }
 
-    /**
-     * Returns <code>true</code>, if the next token is among the given options.
-     * Otherwise, <code>false</code> is returned.
-     *
-     * @param options the options
-     * @return <code>true</code>, if the next token is contained within the
-     * given options
-     */
-    private boolean nextTokenEquals(String... options) {
-        String token = _Token.peek();
-        for (String option : options) {
-            if (token != null && token.equals(option)) {
-                return true;
+        /**
+         * Returns <code>true</code>, if the given number of most recent
+         * instructions are constants. Otherwise, <code>false</code> is
+         * returned.
+         *
+         * @param count the number of instructions
+         * @return <code>true</code>, if the most recent instructions are
+         * constants
+         */
+        private boolean isConstant(int count) {
+            if (_Length < count) {
+                return false;
             }
+            for (int i = _Length - count; i < _Length; i++) {
+                if (_Code[i] != CONSTANT) {
+                    return false;
+                }
+            }
+            return true;
         }
-        return false;
-    }
 
-    private void expression() {
-        term();
-        while (nextTokenEquals("+", "-")) {
-            String op = _Token.poll();
+        private void expression() {
             term();
-            double t2 = _Result.pop();
-            double t1 = _Result.pop();
-            if ("+".equals(op)) {
-                _Result.add(t1 + t2);
-            } else if ("-".equals(op)) {
-                _Result.add(t1 - t2);
+            while (next('+') || next('-')) {
+                int op = _Text.charAt(_Position - 1) == '+' ? ADD : SUBTRACT;
+                term();
+                emit(op, 0);
             }
         }
-    }
 
-    private void term() {
-        factor();
-        while (nextTokenEquals("*", "/")) {
-            String op = _Token.poll();
-            factor();
-            double t2 = _Result.pop();
-            double t1 = _Result.pop();
-            if ("*".equals(op)) {
-                _Result.add(t1 * t2);
-            } else if ("/".equals(op)) {
-                _Result.add(t1 / t2);
+        private void term() {
+            power();
+            while (next('*') || next('/')) {
+                int op = _Text.charAt(_Position - 1) == '*' ? MULTIPLY : DIVIDE;
+                power();
+                emit(op, 0);
             }
         }
-    }
 
-    private void factor() {
-        number();
-        variable();
-        if (nextTokenEquals("sin", "cos")) {
-            String op = _Token.poll();
-            if (!nextTokenEquals("(")) {
-                throw new IllegalArgumentException("my bad....");
+        private void power() {
+            unary();
+            if (next('^')) {
+                expression();
+                emit(POWER, 0);
             }
-            expression();
-            if ("sin".equals(op)) {
-                _Result.add(Math.sin(_Result.pop()));
-            } else if ("cos".equals(op)) {
-                _Result.add(Math.cos(_Result.pop()));
+        }
+
+        private void unary() {
+            boolean negate = false;
+            while (next('+') || next('-')) {
+                negate ^= _Text.charAt(_Position - 1) == '-';
+            }
+            factor();
+            if (negate) {
+                emit(NEGATE, 0);
             }
         }
-        if (nextTokenEquals("(")) {
-            _Token.poll();
-            expression();
-            if (nextTokenEquals(")")) {
-                _Token.poll();
+
+        private void factor() {
+            whitespace();
+            if (_Position >= _Text.length()) {
+                throw unexpected();
+            }
+            char c = _Text.charAt(_Position);
+            if (c >= '0' && c <= '9') {
+                emit(CONSTANT, number());
+            } else if (next('(')) {
+                expression();
+                expect(')');
+            } else if (c >= 'a' && c <= 'z') {
+                int start = _Position;
+                while (_Position < _Text.length()
+                        && _Text.charAt(_Position) >= 'a'
+                        && _Text.charAt(_Position) <= 'z') {
+                    _Position++;
+                }
+                String name = _Text.substring(start, _Position);
+                int index = FUNCTIONS.indexOf(name);
+                if ("x".equals(name)) {
+                    emit(VARIABLE, variable());
+                } else if (index >= 0) {
+                    function(OPERATIONS[index]);
+                } else {
+                    _Position = start;
+                    throw unexpected();
+                }
             } else {
-                // TODO What is this?
-                throw new IllegalArgumentException("my bad....");
+                throw unexpected();
             }
         }
-        if (nextTokenEquals("^")) {
-            _Token.poll();
+
+        /**
+         * Parses the arguments of a function.
+         *
+         * @param op the function's operation
+         */
+        private void function(int op) {
+            expect('(');
             expression();
-            double t2 = _Result.pop();
-            double t1 = _Result.pop();
-            _Result.add(Math.pow(t1, t2));
+            if (op == MIN || op == MAX) {
+                expect(',');
+                do {
+                    expression();
+                    emit(op, 0);
+                } while (next(','));
+            } else {
+                emit(op, 0);
+            }
+            expect(')');
         }
-    }
 
-    private void number() {
-        if (nextTokenEquals("0", "1", "2", "3", "4", "5", "6", "7", "8", "9",
-                "+", "-")) {
-            boolean isPositive = true;
-            while (nextTokenEquals("+", "-")) {
-                String sign = _Token.poll();
-                if (sign.equals("-")) {
-                    isPositive = !isPositive;
+        private double number() {
+            int start = _Position;
+            digits();
+            if (_Position < _Text.length() && _Text.charAt(_Position) == '.') {
+                _Position++;
+                if (digits() == 0) {
+                    throw unexpected();
                 }
             }
+            return Double.parseDouble(_Text.substring(start, _Position));
+        }
 
-            StringBuilder sb = new StringBuilder();
-            while (nextTokenEquals("0", "1", "2", "3", "4", "5", "6", "7", "8",
-                    "9", ".")) {
-                sb.append(_Token.poll());
+        private int variable() {
+            int start = _Position;
+            if (digits() == 0) {
+                return 0;
             }
-            double num = Double.parseDouble(sb.toString());
-            _Result.add(isPositive ? num : -num);
+            return Integer.parseInt(_Text.substring(start, _Position));
         }
-    }
 
-    private void variable() {
-        if (nextTokenEquals("x")) {
-            _Token.poll();
-            StringBuilder sb = new StringBuilder();
-            while (nextTokenEquals("0", "1", "2", "3", "4", "5", "6", "7", "8",
-                    "9")) {
-                sb.append(_Token.poll());
+        /**
+         * Skips all digits and returns their number.
+         *
+         * @return the number of skipped digits
+         */
+        private int digits() {
+            int start = _Position;
+            while (_Position < _Text.length()
+                    && _Text.charAt(_Position) >= '0'
+                    && _Text.charAt(_Position) <= '9') {
+                _Position++;
             }
-            if (_Variables.isEmpty()) {
-                _Result.add(0.0);
-            } else if (sb.toString().isEmpty()) {
-                _Result.add(_Variables.get(0));
-            } else {
-                int num = Integer.parseInt(sb.toString());
-                _Result.add(_Variables.get(num));
+            return _Position - start;
+        }
+
+        /**
+         * Returns <code>true</code> and skips the next character, if it equals
+         * the given character (ignoring any whitespace). Otherwise,
+         * <code>false</code> is returned.
+         *
+         * @param c the character
+         * @return <code>true</code>, if the next character equals the given
+         * character
+         */
+        private boolean next(char c) {
+            whitespace();
+            if (_Position < _Text.length() && _Text.charAt(_Position) == c) {
+                _Position++;
+                return true;
             }
+            return false;
         }
+
+        private void expect(char c) {
+            if (!next(c)) {
+                throw unexpected();
+            }
+        }
+
+        private void whitespace() {
+            while (_Position < _Text.length()
+                    && Character.isWhitespace(_Text.charAt(_Position))) {
+                _Position++;
+            }
+        }
+
+        private IllegalArgumentException unexpected() {
+            String found = _Position < _Text.length() ? "'"
+                    + _Text.charAt(_Position) + "'" : "end of expression";
+            return new IllegalArgumentException("unexpected " + found
+                    + " at position " + _Position + " in expression: "
+                    + _Text);
+        }
+
     }
 
     /**
@@ -252,12 +478,12 @@ public class Function extends ProcessorAdapter<Double, Double> {
      *
      * @author Claas Ahlrichs (claasahl@tzi.de)
      */
-    private class IsValidExpression implements Condition {
+    private static class IsValidExpression implements Condition {
 
         @Override
         public boolean complies(String parameter, String value) {
             try {
-                interpret(value, new Vector<Double>());
+                new Expression(value);
                 return true;
             } catch (Exception e) {
                 return false;
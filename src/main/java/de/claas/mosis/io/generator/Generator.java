@@ -0,0 +1,91 @@
+package de.claas.mosis.io.generator;
+
+import de.claas.mosis.annotation.Documentation;
+import de.claas.mosis.annotation.Parameter;
+import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
+import de.claas.mosis.model.ProcessorAdapter;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * The class {@link de.claas.mosis.io.generator.Generator}. It is a partial
+ * implementation of the {@link de.claas.mosis.model.Processor} interface which
+ * generates blocks of numbers. It is intended to reduce the per-value overhead
+ * of data sources (e.g. when load testing a graph).
+ * <p>
+ * Every invocation of {@link #process(java.util.List, java.util.List)}
+ * without inbound data generates as many values as are configured by {@link
+ * #BLOCK_SIZE}. Values are generated as primitives (see {@link
+ * #generate(java.util.List, double[], int, int)}) before they are added to the
+ * outbound data. Generating a block of values must be equivalent to generating
+ * one value at a time. Blocks are only generated by data sources (i.e. if no
+ * inbound data is available). Otherwise, exactly one value is generated per
+ * sample of inbound data, so that the outbound data stays in step with the
+ * inbound data. Values can also be generated directly into arrays (see {@link
+ * #generate(double[], int, int)}).
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@Documentation(
+        purpose = "It is intended to generate blocks of numbers.",
+        description = "This is a partial implementation of a module which generates numbers. The number of values that are generated per invocation (i.e. block size) can be configured to any positive integer. Blocks are only generated without inbound data (i.e. when acting as data source), otherwise one value is generated per sample. Generating a block of numbers yields the very same numbers as generating one number at a time, but with less overhead.",
+        author = "Claas Ahlrichs",
+        noOutputData = "Depends on actual implementation (this is a partial implementation).")
+public abstract class Generator extends ProcessorAdapter<Double, Double> {
+
+    @Parameter("Number of values that are generated per invocation (without inbound data).")
+    public static final String BLOCK_SIZE = "block size";
+    private final ParameterHandle<Integer> _BlockSize = getHandleAsInteger(BLOCK_SIZE);
+    private double[] _Values = new double[0];
+
+    /**
+     * Initializes the class with default values.
+     */
+    public Generator() {
+        addCondition(BLOCK_SIZE, new Condition.IsGreaterThan(0d));
+        addCondition(BLOCK_SIZE, new Condition.IsInteger());
+        setParameter(BLOCK_SIZE, 1);
+    }
+
+    @Override
+    public void process(List<Double> in, List<Double> out) {
+        int size = in == null || in.isEmpty() ? _BlockSize.get() : 1;
+        if (_Values.length < size) {
+            _Values = new double[size];
+        }
+        generate(in == null ? Collections.<Double>emptyList() : in, _Values,
+                0, size);
+        for (int i = 0; i < size; i++) {
+            out.add(_Values[i]);
+        }
+    }
+
+    /**
+     * Generates the given number of values without any inbound data. See
+     * {@link #generate(java.util.List, double[], int, int)} for details.
+     *
+     * @param values the array for generated values
+     * @param offset the offset within the array
+     * @param length the number of values
+     */
+    public void generate(double[] values, int offset, int length) {
+        generate(Collections.<Double>emptyList(), values, offset, length);
+    }
+
+    /**
+     * Generates the given number of values and stores them in the given array
+     * (starting at the given offset). All values are generated from the same
+     * inbound data.
+     *
+     * @param in     inbound data (see {@link #process(java.util.List,
+     *               java.util.List)})
+     * @param values the array for generated values
+     * @param offset the offset within the array
+     * @param length the number of values
+     */
+    protected abstract void generate(List<Double> in, double[] values,
+                                     int offset, int length);
+
+}
@@ -4,7 +4,6 @@ import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
-import de.claas.mosis.model.ProcessorAdapter;
 
 import java.util.List;
 
@@ -22,7 +21,7 @@ import java.util.List;
         author = {"Claas Ahlrichs"},
         description = "This implementation acts as a data source for a predefined (and linear) sequence of numbers. The generated numbers follow the pattern 'y = m*x + b', where 'y' corresponds to the returned number, 'm' defines the slope, 'b' represents the offset (for 'x=0') and 'x' sets the starting point. Any variable on the right hand-side of the expression can be configured. Every call to this module will increase the value of 'x' by one (default value) and return the 'y'-value. However, the step width (for 'x') between two successive calls can also be configured to any real number.",
         purpose = "To provide access to a predefined sequence of numbers.")
-public class Linear extends ProcessorAdapter<Double, Double> {
+public class Linear extends Generator {
 
     @Parameter("Slope of linear expression.")
     public static final String M = "m";
@@ -57,9 +56,12 @@ public class Linear extends ProcessorAdapter<Double, Double> {
     }
 
     @Override
-    public void process(List<Double> in, List<Double> out) {       
-        out.add(m * x + b);
-        x = x + step;
+    protected void generate(List<Double> in, double[] values, int offset,
+                            int length) {
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = m * x + b;
+            x = x + step;
+        }
     }
 
 }
@@ -6,7 +6,7 @@ import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
 import de.claas.mosis.model.Configurable;
 import de.claas.mosis.model.Observer;
-import de.claas.mosis.model.ProcessorAdapter;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.util.List;
 
@@ -24,7 +24,7 @@ import java.util.List;
         author = {"Claas Ahlrichs"},
         description = "This implementation acts as a data source for pseudo random numbers. By default, it outputs a random number between zero (inclusive) and one (exclusive). The upper and lower boundary can be configured. The seed that is used to generate pseudo random numbers can also be configured.",
         purpose = "To provide access to random numbers.")
-public class Random extends ProcessorAdapter<Double, Double> implements Observer {
+public class Random extends Generator implements Observer {
 
     @Parameter("Represents the seed of this random number generator.")
     public static final String SEED = "random_seed";
@@ -32,8 +32,9 @@ public class Random extends ProcessorAdapter<Double, Double> implements Observer
     public static final String LOWER = "lower boundary";
     @Parameter("Upper boundary / maximal random value (exclusive).")
     public static final String UPPER = "upper boundary";
+    private final ParameterHandle<Double> _Lower = getHandleAsDouble(LOWER);
+    private final ParameterHandle<Double> _Upper = getHandleAsDouble(UPPER);
     private final java.util.Random random;
-    private double lower, upper;
 
     /**
      * Initializes the class with default values.
@@ -53,16 +54,16 @@ public class Random extends ProcessorAdapter<Double, Double> implements Observer
     public void setUp() {
         super.setUp();
         random.setSeed(getParameterAsLong(SEED));
-        lower = getParameterAsDouble(LOWER);
-        upper = getParameterAsDouble(UPPER);
     }
 
     @Override
-    public void process(List<Double> in, List<Double> out) {
-        double random = this.random.nextDouble();
-        upper = getParameterAsDouble(UPPER);
-        lower = getParameterAsDouble(LOWER);
-        out.add(random * (upper - lower) + lower);
+    protected void generate(List<Double> in, double[] values, int offset,
+                            int length) {
+        double upper = _Upper.get();
+        double lower = _Lower.get();
+        for (int i = offset; i < offset + length; i++) {
+            values[i] = random.nextDouble() * (upper - lower) + lower;
+        }
     }
 
     @Override
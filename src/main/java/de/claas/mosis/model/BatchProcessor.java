@@ -0,0 +1,54 @@
+package de.claas.mosis.model;
+
+import java.util.List;
+
+/**
+ * The interface {@link de.claas.mosis.model.BatchProcessor}. It is intended to
+ * extend the {@link de.claas.mosis.model.Processor} interface by a batched
+ * mode of processing. A {@link de.claas.mosis.model.BatchProcessor} declares
+ * how many samples it accepts per invocation (see {@link #getBatchSize()}) and
+ * then receives up to that many samples at once (see {@link
+ * #processBatch(java.util.List, java.util.List)}). For cheap operations, this
+ * amortizes the overhead of invoking the module for every single sample.
+ * <p>
+ * Processing a batch of samples must be equivalent to processing each sample
+ * in order (i.e. calling {@link #process(java.util.List, java.util.List)} once
+ * per sample). The {@link de.claas.mosis.model.ProcessorAdapter} provides such
+ * a default implementation for modules that process one sample at a time.
+ *
+ * @param <I> type of incoming data. See {@link de.claas.mosis.model.Processor}
+ *            for details.
+ * @param <O> type of outgoing data. See {@link de.claas.mosis.model.Processor}
+ *            for details.
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public interface BatchProcessor<I, O> extends Processor<I, O> {
+
+    /**
+     * The batch size of modules that benefit from processing several samples
+     * at once.
+     */
+    public static final int DEFAULT_BATCH_SIZE = 64;
+
+    /**
+     * Returns the maximum number of samples that are accepted per invocation
+     * of {@link #processBatch(java.util.List, java.util.List)}. A value of one
+     * (or less) indicates that the module processes one sample at a time.
+     *
+     * @return the maximum number of samples per invocation
+     */
+    public int getBatchSize();
+
+    /**
+     * Processes several samples at once. Each element of the inbound data
+     * represents a single sample (see {@link #process(java.util.List,
+     * java.util.List)} for details). Output values of all samples are appended
+     * in order to the outbound data. At most {@link #getBatchSize()} samples
+     * are passed at once.
+     *
+     * @param in  inbound data (i.e. one list of input values per sample)
+     * @param out outbound data (i.e. output values of all samples)
+     */
+    public void processBatch(List<List<I>> in, List<O> out);
+
+}
@@ -5,6 +5,7 @@ import java.util.Collection;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.regex.Pattern;
 
 /**
  * The interface {@link de.claas.mosis.model.Condition}. It is intended to
@@ -42,7 +43,8 @@ public interface Condition {
     /**
      * The class {@link de.claas.mosis.model.Condition.RegularExpression}. It is
      * intended to verify that a parameter and / or value match a regular
-     * expression.
+     * expression. The regular expressions are compiled once (i.e. when the
+     * condition is created).
      *
      * @author Claas Ahlrichs (claasahl@tzi.de)
      * @see java.util.regex.Pattern
@@ -51,6 +53,8 @@ public interface Condition {
 
         private final String _RegExParameter;
         private final String _RegExValue;
+        private final Pattern _PatternParameter;
+        private final Pattern _PatternValue;
 
         /**
          * Initializes the class with the given parameters. The regular
@@ -68,11 +72,61 @@ public interface Condition {
         public RegularExpression(String regexParam, String regexValue) {
             _RegExParameter = regexParam;
             _RegExValue = regexValue;
+            _PatternParameter = regexParam == null ? null : Pattern
+                    .compile(regexParam);
+            _PatternValue = regexValue == null ? null : Pattern
+                    .compile(regexValue);
         }
 
         @Override
         public boolean complies(String parameter, String value) {
-            return !(_RegExParameter != null && (parameter == null || !parameter.matches(_RegExParameter))) && !(_RegExValue != null && (value == null || !value.matches(_RegExValue)));
+            return !(_RegExParameter != null && (parameter == null || !matchesParameter(parameter))) && !(_RegExValue != null && (value == null || !matchesValue(value)));
+        }
+
+        /**
+         * Returns <code>true</code>, if the parameter matches the regular
+         * expression for parameters. Otherwise, <code>false</code> is
+         * returned. This method is only called if such a regular expression
+         * was given.
+         *
+         * @param parameter the parameter (not <code>null</code>)
+         * @return <code>true</code>, if the parameter matches the regular
+         * expression for parameters
+         */
+        protected boolean matchesParameter(String parameter) {
+            return _PatternParameter.matcher(parameter).matches();
+        }
+
+        /**
+         * Returns <code>true</code>, if the value matches the regular
+         * expression for values. Otherwise, <code>false</code> is returned.
+         * This method is only called if such a regular expression was given.
+         * Subclasses may override this method with an equivalent check that
+         * does not rely on regular expressions.
+         *
+         * @param value the value (not <code>null</code>)
+         * @return <code>true</code>, if the value matches the regular
+         * expression for values
+         */
+        protected boolean matchesValue(String value) {
+            return _PatternValue.matcher(value).matches();
+        }
+
+        /**
+         * Returns the index of the first character (starting at the given
+         * index) that is not a digit (i.e. not within 0-9). The length of the
+         * string is returned if there is no such character.
+         *
+         * @param value the string
+         * @param index the index to start at
+         * @return the index of the first character that is not a digit
+         */
+        protected static int skipDigits(String value, int index) {
+            while (index < value.length() && value.charAt(index) >= '0'
+                    && value.charAt(index) <= '9') {
+                index++;
+            }
+            return index;
         }
 
         @Override
@@ -110,7 +164,8 @@ public interface Condition {
 
     /**
      * The class {@link de.claas.mosis.model.Condition.IsBoolean}. It is
-     * intended to verify that a value is boolean.
+     * intended to verify that a value is boolean. Values are checked without
+     * evaluating the regular expression.
      *
      * @author Claas Ahlrichs (claasahl@tzi.de)
      */
@@ -120,11 +175,17 @@ public interface Condition {
             super(null, "true|false");
         }
 
+        @Override
+        protected boolean matchesValue(String value) {
+            return "true".equals(value) || "false".equals(value);
+        }
+
     }
 
     /**
      * The class {@link de.claas.mosis.model.Condition.IsNumeric}. It is
-     * intended to verify that a value is numeric.
+     * intended to verify that a value is numeric. Values are checked without
+     * evaluating the regular expression.
      *
      * @author Claas Ahlrichs (claasahl@tzi.de)
      */
@@ -134,11 +195,34 @@ public interface Condition {
             super(null, "-?\\d+(.\\d+)?");
         }
 
+        @Override
+        protected boolean matchesValue(String value) {
+            int start = value.startsWith("-") ? 1 : 0;
+            int index = skipDigits(value, start);
+            if (index == start) {
+                return false;
+            } else if (index == value.length()) {
+                return true;
+            }
+            // Any code point (except line terminators) may separate the
+            // integer from the fractional part.
+            int separator = value.codePointAt(index);
+            if (separator == '\n' || separator == '\r'
+                    || separator == '\u0085' || separator == '\u2028'
+                    || separator == '\u2029') {
+                return false;
+            }
+            int fraction = index + Character.charCount(separator);
+            index = skipDigits(value, fraction);
+            return index > fraction && index == value.length();
+        }
+
     }
 
     /**
      * The class {@link de.claas.mosis.model.Condition.IsInteger}. It is
      * intended to verify that a value is an integer (and not real-valued).
+     * Values are checked without evaluating the regular expression.
      *
      * @author Claas Ahlrichs (claasahl@tzi.de)
      */
@@ -148,6 +232,13 @@ public interface Condition {
             super(null, "-?\\d+");
         }
 
+        @Override
+        protected boolean matchesValue(String value) {
+            int start = value.startsWith("-") ? 1 : 0;
+            int index = skipDigits(value, start);
+            return index > start && index == value.length();
+        }
+
     }
 
     /**
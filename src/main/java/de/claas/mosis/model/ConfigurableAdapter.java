@@ -10,7 +10,10 @@ import java.util.*;
  * interface. It tracks and manages configuration related parameters as well as
  * their corresponding values. Furthermore, it provides the option to get and
  * set parameters of varying data types (e.g. {@link java.lang.Boolean}, {@link
- * java.lang.Integer}, etc.).
+ * java.lang.Integer}, etc.). Parameters that are frequently read (e.g. for
+ * every processed sample) should be accessed through a {@link
+ * de.claas.mosis.model.ParameterHandle}, which caches the parsed value until
+ * the parameter changes.
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
@@ -24,6 +27,7 @@ public class ConfigurableAdapter implements Configurable {
     private final Map<String, String> _Parameters = new HashMap<>();
     private final Map<String, List<Condition>> _Conditions = new HashMap<>();
     private final List<Observer> _Observers = new ArrayList<>();
+    private final List<ParameterHandle<?>> _Handles = new ArrayList<>();
 
     @Override
     public Collection<String> getParameters() {
@@ -81,18 +85,100 @@ public class ConfigurableAdapter implements Configurable {
         return value == null ? null : Double.valueOf(value);
     }
 
+    /**
+     * Returns a handle that provides cached access to the given parameter (as
+     * {@link java.lang.String}). The handle is kept up to date by this
+     * {@link de.claas.mosis.model.ConfigurableAdapter}.
+     *
+     * @param parameter the parameter
+     * @return a handle that provides cached access to the given parameter
+     * @see #getParameter(String)
+     */
+    protected ParameterHandle<String> getHandle(String parameter) {
+        return register(new ParameterHandle.AsString(this, parameter));
+    }
+
+    /**
+     * See {@link #getHandle(String)} for details.
+     *
+     * @see #getParameterAsBoolean(String)
+     */
+    protected ParameterHandle<Boolean> getHandleAsBoolean(String parameter) {
+        return register(new ParameterHandle.AsBoolean(this, parameter));
+    }
+
+    /**
+     * See {@link #getHandle(String)} for details.
+     *
+     * @see #getParameterAsInteger(String)
+     */
+    protected ParameterHandle<Integer> getHandleAsInteger(String parameter) {
+        return register(new ParameterHandle.AsInteger(this, parameter));
+    }
+
+    /**
+     * See {@link #getHandle(String)} for details.
+     *
+     * @see #getParameterAsLong(String)
+     */
+    protected ParameterHandle<Long> getHandleAsLong(String parameter) {
+        return register(new ParameterHandle.AsLong(this, parameter));
+    }
+
+    /**
+     * See {@link #getHandle(String)} for details.
+     *
+     * @see #getParameterAsDouble(String)
+     */
+    protected ParameterHandle<Double> getHandleAsDouble(String parameter) {
+        return register(new ParameterHandle.AsDouble(this, parameter));
+    }
+
+    /**
+     * Registers the given handle, so that it is notified whenever a parameter
+     * changes. Handles are notified before any other {@link
+     * de.claas.mosis.model.Observer}.
+     *
+     * @param handle the handle
+     * @param <T>    type of the parameter's value
+     * @return the given handle
+     */
+    private <T> ParameterHandle<T> register(ParameterHandle<T> handle) {
+        _Handles.add(handle);
+        return handle;
+    }
+
     @Override
     public void setParameter(String parameter, String value) {
+        setParameter(parameter, value, true);
+    }
+
+    /**
+     * Sets the value of a parameter. Unlike {@link #setParameter(String,
+     * String)}, conditions are optionally not evaluated. This is intended for
+     * trusted (internal) writes only, where the value is known to satisfy all
+     * conditions (e.g. when a counter is incremented for every processed
+     * sample). Observers are notified in either case.
+     *
+     * @param parameter the parameter
+     * @param value     the value
+     * @param validate  whether conditions are evaluated
+     * @see #setParameter(String, String)
+     */
+    protected void setParameter(String parameter, String value,
+                                boolean validate) {
         // Did the value change?
-        if (getParameter(parameter) != null
-                && getParameter(parameter).equals(value)) {
+        String previous = getParameter(parameter);
+        if (previous != null && previous.equals(value)) {
             // Did not change.
             return;
         }
 
         // Any conditions to be satisfied by the new value?
-        if (_Conditions.get(parameter) != null) {
-            for (Condition condition : _Conditions.get(parameter)) {
+        List<Condition> conditions = validate ? _Conditions.get(parameter)
+                : null;
+        if (conditions != null) {
+            for (Condition condition : conditions) {
                 if (!condition.complies(parameter, value)) {
                     String format = "Parameter (%s) and value (%s) do not satisfy condition (%s).";
                     String msg = String.format(format, parameter, value,
@@ -252,11 +338,27 @@ public class ConfigurableAdapter implements Configurable {
      * @param parameter the parameter, which value has changed
      */
     protected void notifyObservers(String parameter) {
+        notifyHandles(parameter);
         for (Observer observer : _Observers) {
             observer.update(this, parameter);
         }
     }
 
+    /**
+     * Notifies all handles (see {@link #getHandle(String)}) that the given
+     * parameter has changed its value. This is done automatically by {@link
+     * #notifyObservers(String)}. Implementations that store parameters
+     * elsewhere (e.g. in another {@link de.claas.mosis.model.Configurable})
+     * may need to call this method whenever such a parameter changes.
+     *
+     * @param parameter the parameter, which value has changed
+     */
+    protected void notifyHandles(String parameter) {
+        for (int i = 0; i < _Handles.size(); i++) {
+            _Handles.get(i).update(this, parameter);
+        }
+    }
+
     /**
      * Updates (or replaces) the internal state based on another {@link
      * de.claas.mosis.model.ConfigurableAdapter}. Optionally, the internal state
@@ -274,6 +376,9 @@ public class ConfigurableAdapter implements Configurable {
             _Parameters.clear();
             _Conditions.clear();
             _Observers.clear();
+            for (int i = 0; i < _Handles.size(); i++) {
+                _Handles.get(i).invalidate();
+            }
         }
         for (String parameter : configurable.getParameters()) {
             for (Condition condition : configurable.getConditions(parameter))
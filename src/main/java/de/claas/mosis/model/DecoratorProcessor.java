@@ -73,16 +73,17 @@ public class DecoratorProcessor<I, O> extends ProcessorAdapter<I, O> implements
     }
 
     @Override
-    public void setParameter(String parameter, String value) {
+    protected void setParameter(String parameter, String value,
+                                boolean validate) {
         if (isDecoratedParameter(parameter)) {
             parameter = fixParameter(parameter);
-            _Configuration.setParameter(parameter, value);
+            _Configuration.setParameter(parameter, value, validate);
             if (_Processor != null) {
-                _Processor.setParameter(parameter, value);
+                _Processor.setParameter(parameter, value, validate);
             }
         } else {
             parameter = fixParameter(parameter);
-            super.setParameter(parameter, value);
+            super.setParameter(parameter, value, validate);
         }
     }
 
@@ -250,6 +251,10 @@ public class DecoratorProcessor<I, O> extends ProcessorAdapter<I, O> implements
 
     @Override
     public void update(Configurable configurable, String parameter) {
+        if (configurable != this) {
+            // Parameters of the decorated module may be accessed by handles
+            notifyHandles(parameter);
+        }
         if (CLASS.equals(parameter) && this.equals(configurable)) {
             try {
                 // Create module that is being "decorated"
@@ -0,0 +1,205 @@
+package de.claas.mosis.model;
+
+/**
+ * The class {@link de.claas.mosis.model.ParameterHandle}. It is intended to
+ * provide typed and cached access to a single parameter of a {@link
+ * de.claas.mosis.model.Configurable}. The value of the parameter is parsed when
+ * it is first requested and cached until the parameter changes. Changes are
+ * tracked through the {@link de.claas.mosis.model.Observer} mechanism. Thus,
+ * reading the parameter (e.g. for every processed sample) does not involve
+ * any lookups or parsing unless the parameter has changed in the meantime.
+ * <p>
+ * Handles are usually obtained from a {@link de.claas.mosis.model.ConfigurableAdapter}
+ * (e.g. see {@link ConfigurableAdapter#getHandleAsInteger(String)}), which
+ * keeps its handles up to date.
+ *
+ * @param <T> type of the parameter's value
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public abstract class ParameterHandle<T> implements Observer {
+
+    private final Configurable _Configurable;
+    private final String _Parameter;
+    private T _Value;
+    private boolean _Valid;
+
+    /**
+     * Initializes the class with the given parameters.
+     *
+     * @param configurable the {@link de.claas.mosis.model.Configurable} that
+     *                     holds the parameter
+     * @param parameter    the parameter
+     */
+    protected ParameterHandle(Configurable configurable, String parameter) {
+        _Configurable = configurable;
+        _Parameter = parameter;
+    }
+
+    /**
+     * Returns the parameter that is accessed by this handle.
+     *
+     * @return the parameter that is accessed by this handle
+     */
+    public String getParameter() {
+        return _Parameter;
+    }
+
+    /**
+     * Returns the (parsed) value of the parameter. The value is only parsed
+     * if the parameter has changed since the last call of this method.
+     *
+     * @return the (parsed) value of the parameter
+     */
+    public T get() {
+        if (!_Valid) {
+            _Value = parse(_Configurable.getParameter(_Parameter));
+            _Valid = true;
+        }
+        return _Value;
+    }
+
+    /**
+     * Discards the cached value. The value is parsed again when it is next
+     * requested.
+     */
+    public void invalidate() {
+        _Valid = false;
+    }
+
+    /**
+     * Returns the parsed value. The value <code>null</code> is returned as
+     * <code>null</code>.
+     *
+     * @param value the value of the parameter (may be <code>null</code>)
+     * @return the parsed value
+     */
+    protected abstract T parse(String value);
+
+    @Override
+    public void update(Configurable configurable, String parameter) {
+        if (_Parameter.equals(parameter)) {
+            invalidate();
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.model.ParameterHandle.AsString}. It is
+     * intended to provide access to a parameter as {@link java.lang.String}.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class AsString extends ParameterHandle<String> {
+
+        /**
+         * Initializes the class with the given parameters.
+         *
+         * @param configurable the {@link de.claas.mosis.model.Configurable}
+         * @param parameter    the parameter
+         */
+        public AsString(Configurable configurable, String parameter) {
+            super(configurable, parameter);
+        }
+
+        @Override
+        protected String parse(String value) {
+            return value;
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.model.ParameterHandle.AsBoolean}. It is
+     * intended to provide access to a parameter as {@link java.lang.Boolean}.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class AsBoolean extends ParameterHandle<Boolean> {
+
+        /**
+         * Initializes the class with the given parameters.
+         *
+         * @param configurable the {@link de.claas.mosis.model.Configurable}
+         * @param parameter    the parameter
+         */
+        public AsBoolean(Configurable configurable, String parameter) {
+            super(configurable, parameter);
+        }
+
+        @Override
+        protected Boolean parse(String value) {
+            return value == null ? null : Boolean.valueOf(value);
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.model.ParameterHandle.AsInteger}. It is
+     * intended to provide access to a parameter as {@link java.lang.Integer}.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class AsInteger extends ParameterHandle<Integer> {
+
+        /**
+         * Initializes the class with the given parameters.
+         *
+         * @param configurable the {@link de.claas.mosis.model.Configurable}
+         * @param parameter    the parameter
+         */
+        public AsInteger(Configurable configurable, String parameter) {
+            super(configurable, parameter);
+        }
+
+        @Override
+        protected Integer parse(String value) {
+            return value == null ? null : Integer.valueOf(value);
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.model.ParameterHandle.AsLong}. It is
+     * intended to provide access to a parameter as {@link java.lang.Long}.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class AsLong extends ParameterHandle<Long> {
+
+        /**
+         * Initializes the class with the given parameters.
+         *
+         * @param configurable the {@link de.claas.mosis.model.Configurable}
+         * @param parameter    the parameter
+         */
+        public AsLong(Configurable configurable, String parameter) {
+            super(configurable, parameter);
+        }
+
+        @Override
+        protected Long parse(String value) {
+            return value == null ? null : Long.valueOf(value);
+        }
+    }
+
+    /**
+     * The class {@link de.claas.mosis.model.ParameterHandle.AsDouble}. It is
+     * intended to provide access to a parameter as {@link java.lang.Double}.
+     *
+     * @author Claas Ahlrichs (claasahl@tzi.de)
+     */
+    public static class AsDouble extends ParameterHandle<Double> {
+
+        /**
+         * Initializes the class with the given parameters.
+         *
+         * @param configurable the {@link de.claas.mosis.model.Configurable}
+         * @param parameter    the parameter
+         */
+        public AsDouble(Configurable configurable, String parameter) {
+            super(configurable, parameter);
+        }
+
+        @Override
+        protected Double parse(String value) {
+            return value == null ? null : Double.valueOf(value);
+        }
+    }
+
+}
@@ -10,7 +10,9 @@ import java.util.List;
  * {@link de.claas.mosis.model.Processor} covers parameter related methods and
  * provides some convenience functions. A default implementation for
  * initialization and de-initialization methods (i.e. {@link #setUp()} and
- * {@link #dismantle()}) is also provided.
+ * {@link #dismantle()}) is also provided. Batches of samples are processed
+ * one sample at a time (i.e. the default batch size is one), unless an
+ * implementation chooses to handle batches on its own.
  *
  * @param <I> type of incoming data. See {@link de.claas.mosis.model.Processor}
  *            for details.
@@ -24,7 +26,7 @@ import java.util.List;
         author = "Claas Ahlrichs",
         noOutputData = "Refer to concrete implementations.")
 public abstract class ProcessorAdapter<I, O> extends ConfigurableAdapter
-        implements Processor<I, O> {
+        implements BatchProcessor<I, O> {
 
     private boolean isSetUp;
 
@@ -44,6 +46,18 @@ public abstract class ProcessorAdapter<I, O> extends ConfigurableAdapter
         return data != null && !data.isEmpty();
     }
 
+    @Override
+    public int getBatchSize() {
+        return 1;
+    }
+
+    @Override
+    public void processBatch(List<List<I>> in, List<O> out) {
+        for (List<I> sample : in) {
+            process(sample, out);
+        }
+    }
+
     @Override
     public void setUp() {
         isSetUp = true;
@@ -3,6 +3,7 @@ package de.claas.mosis.processing;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
 import de.claas.mosis.model.ProcessorAdapter;
 
 import java.util.List;
@@ -13,6 +14,11 @@ import java.util.Vector;
  * partial implementation of the {@link de.claas.mosis.model.Processor}
  * interface which provides a sliding window. It is intended to buffer input
  * values (in an ordered fashion) and provide access to it.
+ * <p>
+ * By default, a result is computed for every sample. The parameters {@link
+ * #STEP_WIDTH} and {@link #TUMBLING} allow to compute a result for every n-th
+ * sample only (e.g. for downsampling). Subclasses call {@link #nextStep()}
+ * once per sample to find out whether a result is due.
  *
  * @param <I> type of incoming data. See {@link de.claas.mosis.model.Processor}
  *            for details.
@@ -22,15 +28,22 @@ import java.util.Vector;
  */
 @Documentation(
         purpose = "It is intended to buffer incoming data (in an ordered fashion) and provide access to it.",
-        description = "This is a partial implementation of a module which provides a sliding window. It is intended to buffer incoming data (in an ordered fashion) and provide access to it. The size if the sliding window can be configured to any positive integer (including zero). Setting the length to zero will disable buffering and all input data are directly accessible.",
+        description = "This is a partial implementation of a module which provides a sliding window. It is intended to buffer incoming data (in an ordered fashion) and provide access to it. The size if the sliding window can be configured to any positive integer (including zero). Setting the length to zero will disable buffering and all input data are directly accessible. The step width (i.e. hop size) defines after how many samples the next result is computed. Tumbling windows do not overlap (i.e. the step width equals the size of the window).",
         author = "Claas Ahlrichs",
         noOutputData = "Depends on actual implementation (this is a partial implementation).")
 public abstract class BufferingProcessor<I, O> extends ProcessorAdapter<I, O> {
 
-    // TODO add parameter for "step width" / "overlap"
     @Parameter("Number of samples being buffered.")
     public static final String WINDOW_SIZE = "size of window";
+    @Parameter("Number of samples between two consecutive results (i.e. hop size). E.g. when set to 256 then a result is computed for every 256th sample only.")
+    public static final String STEP_WIDTH = "step width";
+    @Parameter("Whether windows do not overlap. If set, then the step width equals the size of the window.")
+    public static final String TUMBLING = "tumbling window";
+    private final ParameterHandle<Integer> _WindowSize = getHandleAsInteger(WINDOW_SIZE);
+    private final ParameterHandle<Integer> _StepWidth = getHandleAsInteger(STEP_WIDTH);
+    private final ParameterHandle<Boolean> _Tumbling = getHandleAsBoolean(TUMBLING);
     private List<List<I>> _Window;
+    private int _Steps;
 
     /**
      * Initializes the class with default values.
@@ -39,12 +52,17 @@ public abstract class BufferingProcessor<I, O> extends ProcessorAdapter<I, O> {
         addCondition(WINDOW_SIZE, new Condition.IsGreaterOrEqual(0d));
         addCondition(WINDOW_SIZE, new Condition.IsInteger());
         setParameter(WINDOW_SIZE, 0);
+        addCondition(STEP_WIDTH, new Condition.IsGreaterThan(0d));
+        addCondition(STEP_WIDTH, new Condition.IsInteger());
+        setParameter(STEP_WIDTH, 1);
+        addCondition(TUMBLING, new Condition.IsBoolean());
+        setParameter(TUMBLING, false);
     }
 
     @Override
     public void setUp() {
         super.setUp();
-        int size = getParameterAsInteger(WINDOW_SIZE);
+        int size = _WindowSize.get();
         while (getBuffer().size() > size) {
             getBuffer().remove(0);
         }
@@ -54,6 +72,7 @@ public abstract class BufferingProcessor<I, O> extends ProcessorAdapter<I, O> {
     public void dismantle() {
         super.dismantle();
         getBuffer().clear();
+        _Steps = 0;
     }
 
     /**
@@ -68,6 +87,16 @@ public abstract class BufferingProcessor<I, O> extends ProcessorAdapter<I, O> {
         return _Window;
     }
 
+    /**
+     * Returns the size of the window (i.e. the maximum number of buffered
+     * samples).
+     *
+     * @return the size of the window
+     */
+    protected int getWindowSize() {
+        return _WindowSize.get();
+    }
+
     /**
      * Returns <code>true</code>, if the buffer has reached its limit.
      * Otherwise, <code>false</code> is returned.
@@ -75,7 +104,26 @@ public abstract class BufferingProcessor<I, O> extends ProcessorAdapter<I, O> {
      * @return <code>true</code>, if the buffer has reached its limit
      */
     protected boolean isBufferFull() {
-        return getBuffer().size() >= getParameterAsInteger(WINDOW_SIZE);
+        return getBuffer().size() >= _WindowSize.get();
+    }
+
+    /**
+     * Returns <code>true</code>, if a result should be computed for the
+     * current sample. Otherwise, <code>false</code> is returned. Subclasses
+     * call this method exactly once per sample. With a step width of n, a
+     * result is due for every n-th sample (starting with the n-th sample).
+     * With tumbling windows, the step width equals the size of the window.
+     *
+     * @return <code>true</code>, if a result should be computed for the
+     * current sample
+     */
+    protected boolean nextStep() {
+        int width = _Tumbling.get() ? _WindowSize.get() : _StepWidth.get();
+        if (++_Steps >= width) {
+            _Steps = 0;
+            return true;
+        }
+        return false;
     }
 
     /**
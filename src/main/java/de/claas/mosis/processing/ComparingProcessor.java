@@ -3,6 +3,7 @@ package de.claas.mosis.processing;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
 import de.claas.mosis.model.ProcessorAdapter;
 import de.claas.mosis.processing.util.Delay;
 
@@ -29,6 +30,7 @@ public abstract class ComparingProcessor<I, O> extends ProcessorAdapter<I, O> {
     // TODO Remove port
     @Parameter("N-th input processor / module which values are compare (zero-indexed). E.g. when set to three then only the input values comping from the fourth processor / module (parent) are utilized and compared.")
     public static final String PORT_TO_USE = Delay.PORT_TO_USE;
+    private final ParameterHandle<Integer> _PortToUse = getHandleAsInteger(PORT_TO_USE);
     private I _LastValue;
 
     /**
@@ -40,6 +42,16 @@ public abstract class ComparingProcessor<I, O> extends ProcessorAdapter<I, O> {
         setParameter(PORT_TO_USE, 0);
     }
 
+    /**
+     * Returns the value of parameter {@link #PORT_TO_USE}. The value is cached
+     * until the parameter changes.
+     *
+     * @return the value of parameter {@link #PORT_TO_USE}
+     */
+    protected int getPortToUse() {
+        return _PortToUse.get();
+    }
+
     /**
      * Returns the previous sample and replaces it with the new sample.
      *
@@ -0,0 +1,254 @@
+package de.claas.mosis.processing;
+
+import de.claas.mosis.annotation.Documentation;
+
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * The class {@link de.claas.mosis.processing.DoubleBufferingProcessor}. It is
+ * a partial implementation of the {@link de.claas.mosis.processing.BufferingProcessor}
+ * class which provides a sliding window of primitive <code>double</code>
+ * values. It is intended to buffer input values without boxing or copying
+ * samples.
+ * <p>
+ * Values are kept in preallocated ring buffers, so that appending a value and
+ * evicting the oldest value takes constant time. Buffered values are accessed
+ * by index (where zero is the oldest value). Subclasses either buffer a single
+ * value per sample (see {@link #append(double)}) or all values of a sample
+ * (see {@link #append(java.util.List)}). In the latter case, each port (i.e.
+ * each position within a sample) is buffered in a column of its own. The
+ * window replaces {@link #getBuffer()}, which remains unused unless subclasses
+ * call {@link #appendAndRemove(java.util.List)}. In that case, samples are
+ * appended to both (so that {@link #isBufferFull()}, which refers to the
+ * window, applies to either of them).
+ *
+ * @param <O> type of outgoing data. See {@link de.claas.mosis.model.Processor}
+ *            for details.
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@Documentation(
+        purpose = "It is intended to buffer incoming numbers (in an ordered fashion) and provide efficient access to them.",
+        description = "This is a partial implementation of a module which provides a sliding window of numbers. The numbers are buffered in ring buffers of primitive values (one per port), so that buffering a sample takes constant time. The size of the sliding window can be configured to any positive integer (including zero).",
+        author = "Claas Ahlrichs",
+        noOutputData = "Depends on actual implementation (this is a partial implementation).")
+public abstract class DoubleBufferingProcessor<O> extends
+        BufferingProcessor<Double, O> {
+
+    private double[][] _Columns = new double[0][0];
+    private int _Capacity;
+    private int _Head;
+    private int _Count;
+
+    @Override
+    public void setUp() {
+        super.setUp();
+        resize(super.getWindowSize());
+    }
+
+    @Override
+    public void dismantle() {
+        super.dismantle();
+        _Head = 0;
+        _Count = 0;
+    }
+
+    /**
+     * Returns the size of the window (i.e. the maximum number of buffered
+     * values per column).
+     *
+     * @return the size of the window
+     */
+    @Override
+    protected int getWindowSize() {
+        int size = super.getWindowSize();
+        if (size != _Capacity) {
+            resize(size);
+        }
+        return _Capacity;
+    }
+
+    /**
+     * Returns the number of buffered values per column.
+     *
+     * @return the number of buffered values per column
+     */
+    protected int getCount() {
+        return _Count;
+    }
+
+    /**
+     * Returns the number of columns (i.e. the largest number of values within
+     * any of the buffered samples).
+     *
+     * @return the number of columns
+     */
+    protected int getColumns() {
+        return _Columns.length;
+    }
+
+    /**
+     * Returns <code>true</code>, if the window has reached its limit (i.e. the
+     * next sample evicts the oldest sample). Otherwise, <code>false</code> is
+     * returned.
+     *
+     * @return <code>true</code>, if the window has reached its limit
+     */
+    @Override
+    protected boolean isBufferFull() {
+        return _Count >= getWindowSize();
+    }
+
+    @Override
+    protected List<Double> appendAndRemove(List<Double> data) {
+        List<Double> removed = super.appendAndRemove(data);
+        append(data);
+        return removed;
+    }
+
+    /**
+     * Appends a single value to the window (i.e. to the first column). If the
+     * window has reached its limit, then the oldest value is evicted.
+     *
+     * @param value the new value
+     */
+    protected void append(double value) {
+        if (getWindowSize() == 0) {
+            return;
+        }
+        column(0)[_Head] = value;
+        advance();
+    }
+
+    /**
+     * Appends all values of a sample to the window. The n-th value is
+     * appended to the n-th column. Missing values and values other than
+     * numbers (e.g. <code>null</code>) are buffered as {@link
+     * java.lang.Double#NaN}. If the window has reached its limit, then the
+     * oldest sample is evicted.
+     *
+     * @param data the new sample
+     */
+    protected void append(List<Double> data) {
+        if (getWindowSize() == 0) {
+            return;
+        }
+        // Values are not cast to Double, as any number is buffered
+        List<?> values = data;
+        int size = values.size();
+        if (size > 0) {
+            column(size - 1);
+        }
+        for (int i = 0; i < _Columns.length; i++) {
+            Object value = i < size ? values.get(i) : null;
+            _Columns[i][_Head] = value instanceof Number ? ((Number) value)
+                    .doubleValue() : Double.NaN;
+        }
+        advance();
+    }
+
+    /**
+     * Returns the buffered value from the first column. The oldest value has
+     * index zero and the newest value has index {@link #getCount()} - 1.
+     *
+     * @param index the index of the value
+     * @return the buffered value
+     */
+    protected double get(int index) {
+        return get(0, index);
+    }
+
+    /**
+     * Returns the buffered value from the given column. The oldest value has
+     * index zero and the newest value has index {@link #getCount()} - 1.
+     *
+     * @param column the column (i.e. port)
+     * @param index  the index of the value
+     * @return the buffered value
+     */
+    protected double get(int column, int index) {
+        if (index < 0 || index >= _Count) {
+            throw new IndexOutOfBoundsException("index: " + index);
+        }
+        int i = _Head - _Count + index;
+        return _Columns[column][i < 0 ? i + _Capacity : i];
+    }
+
+    /**
+     * Copies all buffered values of the given column into the given array
+     * (starting at the given offset). Values are copied in order (i.e. from
+     * oldest to newest).
+     *
+     * @param column the column (i.e. port)
+     * @param target the array
+     * @param offset the offset within the array
+     */
+    protected void copy(int column, double[] target, int offset) {
+        double[] values = _Columns[column];
+        int start = _Head - _Count;
+        if (start >= 0) {
+            System.arraycopy(values, start, target, offset, _Count);
+        } else {
+            int tail = -start;
+            System.arraycopy(values, start + _Capacity, target, offset, tail);
+            System.arraycopy(values, 0, target, offset + tail, _Head);
+        }
+    }
+
+    /**
+     * Returns the given column. Missing columns are created (and filled with
+     * {@link java.lang.Double#NaN}).
+     *
+     * @param column the column
+     * @return the given column
+     */
+    private double[] column(int column) {
+        if (column >= _Columns.length) {
+            double[][] columns = new double[column + 1][];
+            System.arraycopy(_Columns, 0, columns, 0, _Columns.length);
+            for (int i = _Columns.length; i < columns.length; i++) {
+                columns[i] = new double[_Capacity];
+                Arrays.fill(columns[i], Double.NaN);
+            }
+            _Columns = columns;
+        }
+        return _Columns[column];
+    }
+
+    /**
+     * Advances the ring buffers after a sample was written at the current
+     * position. The oldest sample is evicted if the window is full.
+     */
+    private void advance() {
+        if (++_Head == _Capacity) {
+            _Head = 0;
+        }
+        if (_Count < _Capacity) {
+            _Count++;
+        }
+    }
+
+    /**
+     * Changes the size of the window. The most recent values are kept (as far
+     * as they fit into the new window).
+     *
+     * @param size the new size of the window
+     */
+    private void resize(int size) {
+        if (size == _Capacity) {
+            return;
+        }
+        int count = Math.min(_Count, size);
+        for (int c = 0; c < _Columns.length; c++) {
+            double[] values = new double[size];
+            for (int i = 0; i < count; i++) {
+                values[i] = get(c, _Count - count + i);
+            }
+            _Columns[c] = values;
+        }
+        _Capacity = size;
+        _Count = count;
+        _Head = size == 0 ? 0 : count % size;
+    }
+
+}
@@ -4,15 +4,23 @@ import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.util.Arrays;
 import java.util.List;
 
 /**
  * The class {@link de.claas.mosis.processing.MovingAverage}. It is intended to
- * calculate a simple moving average. This {@link de.claas.mosis.processing.BufferingProcessor}
+ * calculate a simple moving average. This {@link de.claas.mosis.processing.DoubleBufferingProcessor}
  * implementation allows varying modes of operation (see parameter {@link
  * #MODE}) for non-full buffers.
+ * <p>
+ * The sum of all buffered values is maintained incrementally (i.e. the newest
+ * sample is added and the oldest sample is subtracted). Thus, the cost per
+ * sample does not depend on the size of the window. Compensated (Kahan)
+ * summation is used to limit the accumulation of rounding errors. In
+ * addition, the sum is recalculated once per window (i.e. after as many
+ * samples as fit into the window).
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
@@ -21,13 +29,18 @@ import java.util.List;
         author = {"Claas Ahlrichs"},
         description = "This is a realization of the BufferingProcessor which is used to calculate a moving average for its input data. The number of data samples that are considered for the moving average can be configured. By setting the mode, it can also be configured how the moving average is calculated in the initial phase where the buffer is only partially filled (i.e. the number of data samples in the buffer is smaller than the actual size of the buffer). In general, the options include: waiting for the buffer to fill up, using the current size of the buffer or using the actual size of the buffer.",
         purpose = "To calculate the moving average.")
-public class MovingAverage extends BufferingProcessor<Double, Double> {
+public class MovingAverage extends DoubleBufferingProcessor<Double> {
 
     @Parameter("Mode of operation. Defines how the moving average is calculated (if at all) when the buffer is not entirely filled.")
     public static final String MODE = "mode";
     public static final String MODE_USE_ACTUAL_SIZE = "use actual size";
     public static final String MODE_USE_BUFFER_SIZE = "use buffer size";
     public static final String MODE_WAIT_FOR_BUFFER = "wait for buffer";
+    private final ParameterHandle<String> _Mode = getHandle(MODE);
+    private double _Sum;
+    private double _Compensation;
+    private int _Appended;
+    private int _Size;
 
     /**
      * Initializes the class with default values.
@@ -39,22 +52,75 @@ public class MovingAverage extends BufferingProcessor<Double, Double> {
         setParameter(MODE, MODE_USE_ACTUAL_SIZE);
     }
 
+    @Override
+    public void setUp() {
+        super.setUp();
+        recalculate();
+    }
+
+    @Override
+    public void dismantle() {
+        super.dismantle();
+        recalculate();
+    }
+
     @Override
     public void process(List<Double> in, List<Double> out) {
-        appendAndRemove(in);
-        double sum = 0;
-        for (List<Double> values : getBuffer()) {
-            for (Double value : values) {
-                sum += value;
+        int size = getWindowSize();
+        if (size != _Size) {
+            recalculate();
+        }
+        double value = 0;
+        for (Double v : in) {
+            value += v;
+        }
+        if (size > 0) {
+            if (isBufferFull()) {
+                add(-get(0));
             }
+            append(value);
+            add(value);
+            if (++_Appended == size) {
+                recalculate();
+            }
+        }
+        if (!nextStep()) {
+            return;
         }
 
-        String mode = getParameter(MODE);
+        String mode = _Mode.get();
         if (MODE_USE_ACTUAL_SIZE.equals(mode)
                 || MODE_WAIT_FOR_BUFFER.equals(mode) && isBufferFull()) {
-            out.add(sum / (double) getBuffer().size());
+            out.add(_Sum / (double) getCount());
         } else if (MODE_USE_BUFFER_SIZE.equals(mode)) {
-            out.add(sum / getParameterAsDouble(WINDOW_SIZE));
+            out.add(_Sum / (double) size);
+        }
+    }
+
+    /**
+     * Adds the given value to the sum of all buffered samples. Compensated
+     * (Kahan) summation is used to limit the accumulation of rounding errors.
+     *
+     * @param value the value
+     */
+    private void add(double value) {
+        double y = value - _Compensation;
+        double t = _Sum + y;
+        _Compensation = (t - _Sum) - y;
+        _Sum = t;
+    }
+
+    /**
+     * Recalculates the sum of all buffered samples. This discards any
+     * rounding errors that accumulated from removing samples.
+     */
+    private void recalculate() {
+        _Size = getWindowSize();
+        _Appended = 0;
+        _Sum = 0;
+        _Compensation = 0;
+        for (int i = 0; i < getCount(); i++) {
+            add(get(i));
         }
     }
 
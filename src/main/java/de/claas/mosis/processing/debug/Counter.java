@@ -5,6 +5,7 @@ import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
 import de.claas.mosis.model.DecoratorProcessor;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.util.List;
 
@@ -26,6 +27,7 @@ public class Counter extends DecoratorProcessor<Object, Object> {
 
     @Parameter("Number of times the process-method has been invoked.")
     public static final String COUNTER = "counter";
+    private final ParameterHandle<Integer> _Counter = getHandleAsInteger(COUNTER);
 
     /**
      * Initializes the class with default values.
@@ -39,8 +41,8 @@ public class Counter extends DecoratorProcessor<Object, Object> {
     @Override
     public void process(List<Object> in, List<Object> out) {
         super.process(in, out);
-        Integer count = getParameterAsInteger(COUNTER);
-        setParameter(COUNTER, count + 1);
+        Integer count = _Counter.get();
+        setParameter(COUNTER, Integer.toString(count + 1), false);
     }
 
 }
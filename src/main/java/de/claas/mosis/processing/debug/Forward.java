@@ -30,4 +30,16 @@ public class Forward<I> extends ProcessorAdapter<I, I> {
         out.addAll(in);
     }
 
+    @Override
+    public int getBatchSize() {
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    @Override
+    public void processBatch(List<List<I>> in, List<I> out) {
+        for (int i = 0; i < in.size(); i++) {
+            out.addAll(in.get(i));
+        }
+    }
+
 }
@@ -0,0 +1,119 @@
+package de.claas.mosis.processing.debug;
+
+import de.claas.mosis.annotation.Category;
+import de.claas.mosis.annotation.Documentation;
+import de.claas.mosis.annotation.Parameter;
+import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.Configurable;
+import de.claas.mosis.model.DecoratorProcessor;
+import de.claas.mosis.util.Histogram;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The class {@link de.claas.mosis.processing.debug.Latency}. It is intended
+ * for debugging purposes. This {@link de.claas.mosis.model.DecoratorProcessor}
+ * implementation measures the time (measured in nanoseconds) required to
+ * execute {@link de.claas.mosis.model.Processor#process(java.util.List,
+ * java.util.List)} of the wrapped {@link de.claas.mosis.model.Processor}
+ * object. Unlike {@link de.claas.mosis.processing.debug.Time}, all
+ * measurements are recorded in a {@link de.claas.mosis.util.Histogram} of
+ * fixed size.
+ * <p>
+ * Measuring does not modify any parameters. Instead, percentiles (and other
+ * statistics) are computed from the histogram whenever the corresponding
+ * (read-only) parameter is accessed (see {@link #getParameter(String)}). The
+ * histogram is cleared by setting {@link #RESET} to <code>true</code>.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@Documentation(
+        category = Category.Decorator,
+        author = {"Claas Ahlrichs"},
+        description = "This is a realization of a DecoratorProcessor that is mostly intended for debugging purposes. This implementation measures the number of nanoseconds that the decorated module requires for processing and records them in a histogram of fixed size. Percentiles of the processing time can be retrieved as parameters. It can be used to analyze processing time of fast modules and optimize time efficiency.",
+        purpose = "This implementation is intended for debugging purposes.")
+public class Latency extends DecoratorProcessor<Object, Object> {
+
+    @Parameter("Number of times the process-method has been invoked (since the last reset).")
+    public static final String COUNT = "count";
+    @Parameter("Median of nanoseconds the process-method took (since the last reset).")
+    public static final String P50 = "50th percentile";
+    @Parameter("90th percentile of nanoseconds the process-method took (since the last reset).")
+    public static final String P90 = "90th percentile";
+    @Parameter("99th percentile of nanoseconds the process-method took (since the last reset).")
+    public static final String P99 = "99th percentile";
+    @Parameter("99.9th percentile of nanoseconds the process-method took (since the last reset).")
+    public static final String P999 = "99.9th percentile";
+    @Parameter("Maximum of nanoseconds the process-method took (since the last reset).")
+    public static final String MAX = "maximum";
+    @Parameter("Whether to clear all measurements. The parameter is reset to false once measurements were cleared.")
+    public static final String RESET = "reset";
+    private final Histogram _Histogram = new Histogram(
+            TimeUnit.HOURS.toNanos(1), 8);
+
+    /**
+     * Initializes the class with default values.
+     */
+    public Latency() {
+        for (String parameter : new String[]{COUNT, P50, P90, P99, P999, MAX}) {
+            setParameter(LOCAL + parameter, "");
+            addCondition(LOCAL + parameter, new Condition.ReadOnly());
+        }
+        setParameter(LOCAL + RESET, false);
+        addCondition(LOCAL + RESET, new Condition.IsBoolean());
+    }
+
+    /**
+     * Returns the value of the given parameter. Statistics of the measured
+     * processing times are computed from the current state of the histogram.
+     * Percentiles and maximum are empty (i.e. "") as long as nothing was
+     * measured.
+     *
+     * @param parameter the parameter
+     * @return the value of the given parameter
+     */
+    @Override
+    public String getParameter(String parameter) {
+        String name = parameter;
+        if (_Histogram == null) {
+            // Parameters are accessed while initializing the super class
+            return super.getParameter(parameter);
+        } else if (name != null && name.startsWith(LOCAL)) {
+            name = name.substring(LOCAL.length());
+        }
+        if (COUNT.equals(name)) {
+            return Long.toString(_Histogram.getCount());
+        } else if (_Histogram.getCount() > 0 && MAX.equals(name)) {
+            return Long.toString(_Histogram.getMax());
+        } else if (_Histogram.getCount() > 0 && P50.equals(name)) {
+            return Long.toString(_Histogram.getValueAtPercentile(50));
+        } else if (_Histogram.getCount() > 0 && P90.equals(name)) {
+            return Long.toString(_Histogram.getValueAtPercentile(90));
+        } else if (_Histogram.getCount() > 0 && P99.equals(name)) {
+            return Long.toString(_Histogram.getValueAtPercentile(99));
+        } else if (_Histogram.getCount() > 0 && P999.equals(name)) {
+            return Long.toString(_Histogram.getValueAtPercentile(99.9));
+        } else {
+            return super.getParameter(parameter);
+        }
+    }
+
+    @Override
+    public void process(List<Object> in, List<Object> out) {
+        long started = System.nanoTime();
+        super.process(in, out);
+        _Histogram.record(System.nanoTime() - started);
+    }
+
+    @Override
+    public void update(Configurable configurable, String parameter) {
+        super.update(configurable, parameter);
+        if (RESET.equals(parameter) && this.equals(configurable)
+                && getParameterAsBoolean(RESET)) {
+            _Histogram.reset();
+            setParameter(RESET, "false", false);
+        }
+    }
+
+}
@@ -5,6 +5,7 @@ import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
 import de.claas.mosis.model.DecoratorProcessor;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.util.List;
 
@@ -25,6 +26,7 @@ public class Sleep extends DecoratorProcessor<Object, Object> {
 
     @Parameter("Number of milliseconds that the invocation of the process-method is delayed.")
     public static final String DELAY = "delay";
+    private final ParameterHandle<Long> _Delay = getHandleAsLong(DELAY);
 
     /**
      * Initializes the class with default values.
@@ -38,7 +40,7 @@ public class Sleep extends DecoratorProcessor<Object, Object> {
     @Override
     public void process(List<Object> in, List<Object> out) {
         try {
-            Thread.sleep(getParameterAsLong(DELAY));
+            Thread.sleep(_Delay.get());
             super.process(in, out);
         } catch (InterruptedException e) {
             e.printStackTrace();
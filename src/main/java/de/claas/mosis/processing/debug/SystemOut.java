@@ -5,6 +5,7 @@ import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
 import de.claas.mosis.model.DecoratorProcessor;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.util.List;
 
@@ -26,6 +27,7 @@ public class SystemOut extends DecoratorProcessor<Object, Object> {
 
     @Parameter("Name / identifier of this module. This name is prepended before the input and output values are written to System.out.")
     public static final String NAME = "name";
+    private final ParameterHandle<String> _Name = getHandle(NAME);
 
     /**
      * Initializes the class with default values.
@@ -46,9 +48,9 @@ public class SystemOut extends DecoratorProcessor<Object, Object> {
 
     @Override
     public void process(List<Object> in, List<Object> out) {
-        System.out.format("%s: %s\n", getParameter(NAME), in);
+        System.out.format("%s: %s\n", _Name.get(), in);
         super.process(in, out);
-        System.out.format("%s: %s\n", getParameter(NAME), out);
+        System.out.format("%s: %s\n", _Name.get(), out);
     }
 
 }
@@ -5,6 +5,7 @@ import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
 import de.claas.mosis.model.DecoratorProcessor;
+import de.claas.mosis.model.ParameterHandle;
 
 import java.util.List;
 
@@ -36,6 +37,8 @@ public class Time extends DecoratorProcessor<Object, Object> {
     public static final String FIRST_CALL = "first call";
     @Parameter("Timestamp of last invocation of process-method.")
     public static final String LAST_CALL = "last call";
+    private final ParameterHandle<Long> _TotalTime = getHandleAsLong(TOTAL_TIME);
+    private final ParameterHandle<String> _FirstCall = getHandle(FIRST_CALL);
 
     /**
      * Initializes the class with default values.
@@ -60,13 +63,13 @@ public class Time extends DecoratorProcessor<Object, Object> {
         long started = System.currentTimeMillis();
         super.process(in, out);
         long ended = System.currentTimeMillis();
-        long total = getParameterAsLong(TOTAL_TIME);
-        if (getParameter(FIRST_CALL).isEmpty()) {
-            setParameter(FIRST_CALL, started);
+        long total = _TotalTime.get();
+        if (_FirstCall.get().isEmpty()) {
+            setParameter(FIRST_CALL, Long.toString(started), false);
         }
-        setParameter(LAST_CALL, started);
-        setParameter(TIME, ended - started);
-        setParameter(TOTAL_TIME, total + ended - started);
+        setParameter(LAST_CALL, Long.toString(started), false);
+        setParameter(TIME, Long.toString(ended - started), false);
+        setParameter(TOTAL_TIME, Long.toString(total + ended - started), false);
     }
 
 }
@@ -31,4 +31,20 @@ public class ToString extends ProcessorAdapter<Object, String> {
         }
     }
 
+    @Override
+    public int getBatchSize() {
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    @Override
+    public void processBatch(List<List<Object>> in, List<String> out) {
+        for (int i = 0; i < in.size(); i++) {
+            List<Object> sample = in.get(i);
+            for (int j = 0; j < sample.size(); j++) {
+                Object data = sample.get(j);
+                out.add(data == null ? null : data.toString());
+            }
+        }
+    }
+
 }
@@ -1,20 +1,34 @@
 package de.claas.mosis.processing.util;
 
+import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
-import de.claas.mosis.processing.BufferingProcessor;
+import de.claas.mosis.model.ParameterHandle;
+import de.claas.mosis.processing.DoubleBufferingProcessor;
+import de.claas.mosis.util.FastFourierTransform;
 
+import java.util.Arrays;
 import java.util.List;
 import java.util.regex.Pattern;
 
 /**
  * The class {@link de.claas.mosis.processing.util.Convolution}. It is intended
  * to provide the means to do a one-dimensional convolution. This {@link
- * de.claas.mosis.processing.BufferingProcessor} implementation can be used to
- * highlight (or suppress) certain features of input values.
+ * de.claas.mosis.processing.DoubleBufferingProcessor} implementation can be
+ * used to highlight (or suppress) certain features of input values. Each port
+ * is buffered separately (i.e. without boxing), so that the port to use can
+ * be read directly from the window.
+ * <p>
+ * Individual samples are convolved directly (i.e. by multiplying every weight
+ * with the corresponding buffered value). For long kernels, batches of
+ * samples (see {@link #processBatch(java.util.List, java.util.List)}) are
+ * convolved block-wise by means of a fast Fourier transform (overlap-save).
+ * Both methods produce the same output values (within rounding errors). The
+ * method is chosen by the parameters {@link #METHOD} and {@link
+ * #FFT_THRESHOLD}.
  *
  * @author Claas Ahlrichs (claasahl@tzi.de)
  */
-public class Convolution extends BufferingProcessor<Double, Double> {
+public class Convolution extends DoubleBufferingProcessor<Double> {
 
     // TODO Make {two,multi}-dimensional?
     public static final String REQUIRES_FULL_BUFFER = "requires a full buffer";
@@ -22,7 +36,21 @@ public class Convolution extends BufferingProcessor<Double, Double> {
     public static final String WEIGHTS = "weights";
     public static final String SEPARATOR = "separator";
     public static final String DEFAULT_VALUE = "default value";
+    @Parameter("Method used for convolving batches of samples. Either directly, by means of a fast Fourier transform (FFT) or chosen automatically by the number of weights.")
+    public static final String METHOD = "method";
+    public static final String METHOD_AUTO = "auto";
+    public static final String METHOD_DIRECT = "direct";
+    public static final String METHOD_FFT = "fft";
+    @Parameter("Minimum number of weights for which the fast Fourier transform is used (if the method is chosen automatically).")
+    public static final String FFT_THRESHOLD = "fft threshold";
+    private final ParameterHandle<Boolean> _RequiresFullBuffer = getHandleAsBoolean(REQUIRES_FULL_BUFFER);
+    private final ParameterHandle<Integer> _PortToUse = getHandleAsInteger(PORT_TO_USE);
     private double[] _Factors;
+    private FastFourierTransform _FFT;
+    private double[] _KernelRe;
+    private double[] _KernelIm;
+    private double[] _Re;
+    private double[] _Im;
 
     /**
      * Initializes the class with default values.
@@ -39,6 +67,13 @@ public class Convolution extends BufferingProcessor<Double, Double> {
         addCondition(DEFAULT_VALUE, new Condition.IsNumeric());
         setParameter(DEFAULT_VALUE, 1);
         setParameter(WEIGHTS, "");
+        List<String> methods = Arrays.asList(METHOD_AUTO, METHOD_DIRECT,
+                METHOD_FFT);
+        addCondition(METHOD, new Condition.IsInList(methods));
+        setParameter(METHOD, METHOD_AUTO);
+        addCondition(FFT_THRESHOLD, new Condition.IsInteger());
+        addCondition(FFT_THRESHOLD, new Condition.IsGreaterThan(0d));
+        setParameter(FFT_THRESHOLD, 64);
     }
 
     @Override
@@ -59,28 +94,143 @@ public class Convolution extends BufferingProcessor<Double, Double> {
                 _Factors[i] = getParameterAsDouble(DEFAULT_VALUE);
             }
         }
+
+        // Kernel for FFT-based convolution
+        String method = getParameter(METHOD);
+        if (length > 0 && (METHOD_FFT.equals(method)
+                || METHOD_AUTO.equals(method)
+                && length >= getParameterAsInteger(FFT_THRESHOLD))) {
+            int size = Integer.highestOneBit(2 * length - 1) << 1;
+            _FFT = new FastFourierTransform(size);
+            _KernelRe = new double[size];
+            _KernelIm = new double[size];
+            for (int i = 0; i < length; i++) {
+                _KernelRe[i] = _Factors[length - 1 - i];
+            }
+            _FFT.transform(_KernelRe, _KernelIm);
+            _Re = new double[size];
+            _Im = new double[size];
+        } else {
+            _FFT = null;
+        }
     }
 
     @Override
     public void dismantle() {
         super.dismantle();
         _Factors = null;
+        _FFT = null;
+        _KernelRe = null;
+        _KernelIm = null;
+        _Re = null;
+        _Im = null;
+    }
+
+    /**
+     * Returns the number of samples that are convolved at once by means of a
+     * fast Fourier transform. If the convolution is computed directly, then
+     * one is returned.
+     *
+     * @return the number of samples that are convolved at once
+     */
+    @Override
+    public int getBatchSize() {
+        if (_FFT == null) {
+            return super.getBatchSize();
+        }
+        return _FFT.getSize() - _Factors.length + 1;
+    }
+
+    /**
+     * Convolves a batch of samples. If a fast Fourier transform is used, then
+     * the signal (i.e. the most recent buffered values followed by the values
+     * of the batch) is convolved with the reversed weights in the frequency
+     * domain (overlap-save). The result is equivalent to processing each
+     * sample on its own. Batches that contain values which are not finite are
+     * convolved directly.
+     *
+     * @param in  inbound data (i.e. one list of input values per sample)
+     * @param out outbound data (i.e. output values of all samples)
+     */
+    @Override
+    public void processBatch(List<List<Double>> in, List<Double> out) {
+        if (_FFT == null || in.size() < 2 || in.size() > getBatchSize()
+                || !prepareSignal(in)) {
+            super.processBatch(in, out);
+            return;
+        }
+
+        // Multiply spectra and transform back
+        int size = _FFT.getSize();
+        _FFT.transform(_Re, _Im);
+        for (int i = 0; i < size; i++) {
+            double re = _Re[i] * _KernelRe[i] - _Im[i] * _KernelIm[i];
+            double im = _Re[i] * _KernelIm[i] + _Im[i] * _KernelRe[i];
+            _Re[i] = re;
+            _Im[i] = im;
+        }
+        _FFT.inverse(_Re, _Im);
+
+        // Output values
+        int history = _Factors.length - 1;
+        for (int i = 0; i < in.size(); i++) {
+            append(in.get(i));
+            if (!nextStep()) {
+                continue;
+            }
+            if (_RequiresFullBuffer.get() && !isBufferFull()) {
+                out.add(null);
+            }
+            out.add(_Re[history + i]);
+        }
+    }
+
+    /**
+     * Prepares the signal for an FFT-based convolution. The signal consists
+     * of the most recent buffered values (zero-padded, if fewer values are
+     * buffered) followed by the values of the batch. Returns
+     * <code>false</code> if any of these values is not finite.
+     *
+     * @param in inbound data (i.e. one list of input values per sample)
+     * @return <code>false</code> if any of the values is not finite
+     */
+    private boolean prepareSignal(List<List<Double>> in) {
+        int port = _PortToUse.get();
+        int history = _Factors.length - 1;
+        int count = Math.min(getCount(), history);
+        Arrays.fill(_Re, 0);
+        Arrays.fill(_Im, 0);
+        for (int i = 0; i < count; i++) {
+            _Re[history - count + i] = get(port, getCount() - count + i);
+        }
+        for (int i = 0; i < in.size(); i++) {
+            Double value = in.get(i).get(port);
+            _Re[history + i] = value == null ? Double.NaN : value;
+        }
+        for (int i = 0; i < history + in.size(); i++) {
+            if (Double.isNaN(_Re[i]) || Double.isInfinite(_Re[i])) {
+                return false;
+            }
+        }
+        return true;
     }
 
     @Override
     public void process(List<Double> in, List<Double> out) {
-        appendAndRemove(in);
-        if (getParameterAsBoolean(REQUIRES_FULL_BUFFER) && !isBufferFull()) {
+        append(in);
+        if (!nextStep()) {
+            return;
+        }
+        if (_RequiresFullBuffer.get() && !isBufferFull()) {
             out.add(null);
         }
 
-        int length = getParameterAsInteger(WINDOW_SIZE);
+        int count = getCount();
+        int offset = getWindowSize() - count;
+        int port = _PortToUse.get();
         double result = 0;
-        for (int i = length - getBuffer().size(); i < length; i++) {
-            int index = i - (length - getBuffer().size());
-            double value = getBuffer().get(index).get(
-                    getParameterAsInteger(PORT_TO_USE));
-            result += _Factors[i] * value;
+        for (int i = 0; i < count; i++) {
+            result += _Factors[offset + i] * get(port, i);
         }
         out.add(result);
     }
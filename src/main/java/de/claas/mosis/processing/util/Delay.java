@@ -4,6 +4,7 @@ import de.claas.mosis.annotation.Category;
 import de.claas.mosis.annotation.Documentation;
 import de.claas.mosis.annotation.Parameter;
 import de.claas.mosis.model.Condition;
+import de.claas.mosis.model.ParameterHandle;
 import de.claas.mosis.processing.BufferingProcessor;
 
 import java.util.List;
@@ -26,6 +27,7 @@ public class Delay<T> extends BufferingProcessor<T, T> {
 
     @Parameter("N-th input processor / module which values are delayed. Only values from the referenced processor / module are delayed and forwarded (everything else is discarded). E.g. when set to three then only the input values comping from the fourth processor / module (parent) are utilized.")
     public static final String PORT_TO_USE = "port to use";
+    private final ParameterHandle<Integer> _PortToUse = getHandleAsInteger(PORT_TO_USE);
 
     /**
      * Initializes the class with default values.
@@ -39,10 +41,12 @@ public class Delay<T> extends BufferingProcessor<T, T> {
     @Override
     public void process(List<T> in, List<T> out) {
         in = appendAndRemove(in);
-        if (!hasData(in)) {
+        if (!nextStep()) {
+            return;
+        } else if (!hasData(in)) {
             out.add(null);
         } else {
-            out.add(in.get(getParameterAsInteger(PORT_TO_USE)));
+            out.add(in.get(_PortToUse.get()));
         }
     }
 
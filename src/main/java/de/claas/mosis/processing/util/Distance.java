@@ -25,9 +25,24 @@ public class Distance extends ComparingProcessor<Double, Double> {
     // TODO Remove port (from description)
     @Override
     public void process(List<Double> in, List<Double> out) {
-        Double curr = in.get(getParameterAsInteger(PORT_TO_USE));
+        Double curr = in.get(getPortToUse());
         Double prev = replace(curr);
         out.add(prev == null || curr == null ? null : curr - prev);
     }
 
+    @Override
+    public int getBatchSize() {
+        return DEFAULT_BATCH_SIZE;
+    }
+
+    @Override
+    public void processBatch(List<List<Double>> in, List<Double> out) {
+        int port = getPortToUse();
+        for (int i = 0; i < in.size(); i++) {
+            Double curr = in.get(i).get(port);
+            Double prev = replace(curr);
+            out.add(prev == null || curr == null ? null : curr - prev);
+        }
+    }
+
 }
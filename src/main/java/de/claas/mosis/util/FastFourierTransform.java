@@ -0,0 +1,124 @@
+package de.claas.mosis.util;
+
+/**
+ * The class {@link de.claas.mosis.util.FastFourierTransform}. It is intended to
+ * provide an in-place fast Fourier transform (FFT) of complex values (e.g. for
+ * {@link de.claas.mosis.processing.util.Convolution}). The transform uses the
+ * iterative radix-2 algorithm and thus requires the number of values to be a
+ * power of two. Twiddle factors are computed once per instance, so that an
+ * instance should be reused for transforms of the same size.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class FastFourierTransform {
+
+    private final int _Size;
+    private final double[] _Cos;
+    private final double[] _Sin;
+
+    /**
+     * Initializes the class with the given parameter.
+     *
+     * @param size the number of values (must be a power of two)
+     */
+    public FastFourierTransform(int size) {
+        if (size < 1 || Integer.bitCount(size) != 1) {
+            throw new IllegalArgumentException(
+                    "size must be a power of two: " + size);
+        }
+        _Size = size;
+        _Cos = new double[size / 2];
+        _Sin = new double[size / 2];
+        for (int i = 0; i < size / 2; i++) {
+            _Cos[i] = Math.cos(2 * Math.PI * i / size);
+            _Sin[i] = Math.sin(2 * Math.PI * i / size);
+        }
+    }
+
+    /**
+     * Returns the number of values.
+     *
+     * @return the number of values
+     */
+    public int getSize() {
+        return _Size;
+    }
+
+    /**
+     * Replaces the given values by their discrete Fourier transform.
+     *
+     * @param re the real parts
+     * @param im the imaginary parts
+     */
+    public void transform(double[] re, double[] im) {
+        transform(re, im, false);
+    }
+
+    /**
+     * Replaces the given values by their inverse discrete Fourier transform.
+     * The result is scaled by the number of values, so that the inverse
+     * transform restores the original values.
+     *
+     * @param re the real parts
+     * @param im the imaginary parts
+     */
+    public void inverse(double[] re, double[] im) {
+        transform(re, im, true);
+        for (int i = 0; i < _Size; i++) {
+            re[i] /= _Size;
+            im[i] /= _Size;
+        }
+    }
+
+    /**
+     * Transforms the given values in place.
+     *
+     * @param re      the real parts
+     * @param im      the imaginary parts
+     * @param inverse <code>true</code> for the inverse transform
+     */
+    private void transform(double[] re, double[] im, boolean inverse) {
+        if (re.length < _Size || im.length < _Size) {
+            throw new IllegalArgumentException("not enough values");
+        }
+
+        // Bit-reversal permutation
+        for (int i = 1, j = 0; i < _Size; i++) {
+            int bit = _Size >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                double tmp = re[i];
+                re[i] = re[j];
+                re[j] = tmp;
+                tmp = im[i];
+                im[i] = im[j];
+                im[j] = tmp;
+            }
+        }
+
+        // Butterflies
+        double sign = inverse ? 1 : -1;
+        for (int length = 2; length <= _Size; length <<= 1) {
+            int half = length >> 1;
+            int step = _Size / length;
+            for (int start = 0; start < _Size; start += length) {
+                for (int k = 0; k < half; k++) {
+                    double cos = _Cos[k * step];
+                    double sin = sign * _Sin[k * step];
+                    int a = start + k;
+                    int b = a + half;
+                    double tRe = re[b] * cos - im[b] * sin;
+                    double tIm = re[b] * sin + im[b] * cos;
+                    re[b] = re[a] - tRe;
+                    im[b] = im[a] - tIm;
+                    re[a] += tRe;
+                    im[a] += tIm;
+                }
+            }
+        }
+    }
+
+}
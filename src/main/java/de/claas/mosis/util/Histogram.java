@@ -0,0 +1,190 @@
+package de.claas.mosis.util;
+
+import java.util.Arrays;
+
+/**
+ * The class {@link de.claas.mosis.util.Histogram}. It is intended to record
+ * non-negative values (e.g. latencies in nanoseconds) with a fixed amount of
+ * memory and to provide percentiles of the recorded values (e.g. for {@link
+ * de.claas.mosis.processing.debug.Latency}). Values are counted in
+ * logarithmically growing buckets that are linearly subdivided (similar to
+ * HdrHistogram). Thus, recording a value takes constant time and never
+ * allocates memory.
+ * <p>
+ * Values below <code>2^precision</code> are recorded exactly. Larger values
+ * are recorded with a relative error of at most <code>2^(1 - precision)</code>.
+ * Values above the highest trackable value are recorded as the highest
+ * trackable value. The count, minimum and maximum of all recorded values are
+ * exact.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class Histogram {
+
+    private final int _Precision;
+    private final long _Highest;
+    private final long[] _Counts;
+    private long _Count;
+    private long _Total;
+    private long _Min;
+    private long _Max;
+
+    /**
+     * Initializes the class with the given parameters.
+     *
+     * @param highest   the highest trackable value
+     * @param precision the number of significant bits (between 1 and 20)
+     */
+    public Histogram(long highest, int precision) {
+        if (precision < 1 || precision > 20) {
+            throw new IllegalArgumentException(
+                    "precision must be between 1 and 20: " + precision);
+        }
+        if (highest < 1) {
+            throw new IllegalArgumentException(
+                    "highest value must be positive: " + highest);
+        }
+        _Precision = precision;
+        _Highest = highest;
+        _Counts = new long[index(highest) + 1];
+        reset();
+    }
+
+    /**
+     * Returns the highest trackable value.
+     *
+     * @return the highest trackable value
+     */
+    public long getHighestTrackableValue() {
+        return _Highest;
+    }
+
+    /**
+     * Records the given value. Negative values are recorded as zero.
+     *
+     * @param value the value
+     */
+    public void record(long value) {
+        if (value < 0) {
+            value = 0;
+        }
+        _Counts[index(Math.min(value, _Highest))]++;
+        _Count++;
+        _Total += value;
+        if (value < _Min) {
+            _Min = value;
+        }
+        if (value > _Max) {
+            _Max = value;
+        }
+    }
+
+    /**
+     * Removes all recorded values.
+     */
+    public void reset() {
+        Arrays.fill(_Counts, 0);
+        _Count = 0;
+        _Total = 0;
+        _Min = Long.MAX_VALUE;
+        _Max = 0;
+    }
+
+    /**
+     * Returns the number of recorded values.
+     *
+     * @return the number of recorded values
+     */
+    public long getCount() {
+        return _Count;
+    }
+
+    /**
+     * Returns the smallest recorded value (or zero if no values were
+     * recorded).
+     *
+     * @return the smallest recorded value
+     */
+    public long getMin() {
+        return _Count == 0 ? 0 : _Min;
+    }
+
+    /**
+     * Returns the largest recorded value (or zero if no values were recorded).
+     *
+     * @return the largest recorded value
+     */
+    public long getMax() {
+        return _Max;
+    }
+
+    /**
+     * Returns the mean of all recorded values (or zero if no values were
+     * recorded).
+     *
+     * @return the mean of all recorded values
+     */
+    public double getMean() {
+        return _Count == 0 ? 0 : (double) _Total / _Count;
+    }
+
+    /**
+     * Returns the value at the given percentile (i.e. the smallest value such
+     * that the given percentage of recorded values is less than or equal to
+     * it). The returned value is the highest value that is equivalent to the
+     * actual value (within the precision of this histogram), but never exceeds
+     * {@link #getMax()}. If no values were recorded, then zero is returned.
+     *
+     * @param percentile the percentile (between 0 and 100)
+     * @return the value at the given percentile
+     */
+    public long getValueAtPercentile(double percentile) {
+        if (_Count == 0) {
+            return 0;
+        }
+        double fraction = Math.min(Math.max(percentile, 0), 100) / 100;
+        long rank = Math.max(1, (long) Math.ceil(fraction * _Count));
+        long seen = 0;
+        for (int i = 0; i < _Counts.length; i++) {
+            seen += _Counts[i];
+            if (seen >= rank) {
+                return Math.min(highestEquivalentValue(i), _Max);
+            }
+        }
+        return _Max;
+    }
+
+    /**
+     * Returns the index of the bucket for the given value.
+     *
+     * @param value the (non-negative) value
+     * @return the index of the bucket for the given value
+     */
+    private int index(long value) {
+        long buckets = 1L << _Precision;
+        if (value < buckets) {
+            return (int) value;
+        }
+        int shift = 64 - Long.numberOfLeadingZeros(value) - _Precision;
+        long half = buckets >>> 1;
+        return (int) (buckets + (shift - 1) * half + (value >>> shift) - half);
+    }
+
+    /**
+     * Returns the highest value that is recorded in the given bucket.
+     *
+     * @param index the index of the bucket
+     * @return the highest value that is recorded in the given bucket
+     */
+    private long highestEquivalentValue(int index) {
+        long buckets = 1L << _Precision;
+        if (index < buckets) {
+            return index;
+        }
+        long half = buckets >>> 1;
+        int shift = (int) ((index - buckets) / half) + 1;
+        long top = (index - buckets) % half + half;
+        return ((top + 1) << shift) - 1;
+    }
+
+}
@@ -0,0 +1,229 @@
+package de.claas.mosis.flow;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.flow.BoundedLink}. It is
+ * intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ * <p>
+ * Additional test cases can be found in {@link de.claas.mosis.flow.LinkTest}.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class BoundedLinkTest {
+
+    private Link _L;
+
+    @Before
+    public void setUp() {
+        _L = new BoundedLink();
+        _L.setParameter(BoundedLink.CAPACITY, "3");
+    }
+
+    @Test
+    public void assumptionsOnParameters() {
+        assertEquals("3", _L.getParameter(BoundedLink.CAPACITY));
+        assertEquals(BoundedLink.POLICY_DROP_OLDEST,
+                _L.getParameter(BoundedLink.POLICY));
+        assertEquals("0", _L.getParameter(BoundedLink.QUEUE_DEPTH));
+        assertEquals("0", _L.getParameter(BoundedLink.MAX_QUEUE_DEPTH));
+        assertEquals("0", _L.getParameter(BoundedLink.DROPPED));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterCapacityMustBePositive() throws Exception {
+        _L.setParameter(BoundedLink.CAPACITY, "0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterPolicyMustBeInWhiteList() throws Exception {
+        try {
+            _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_DROP_OLDEST);
+            _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_DROP_NEWEST);
+            _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_FAIL);
+            _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_BLOCK);
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        _L.setParameter(BoundedLink.POLICY, "hello world");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterQueueDepthIsReadOnly() throws Exception {
+        _L.setParameter(BoundedLink.QUEUE_DEPTH, "1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterDroppedIsReadOnly() throws Exception {
+        _L.setParameter(BoundedLink.DROPPED, "1");
+    }
+
+    @Test
+    public void shouldMaintainQueueDepth() {
+        _L.push(Arrays.<Object>asList(1, 2));
+        assertEquals("2", _L.getParameter(BoundedLink.QUEUE_DEPTH));
+        _L.poll();
+        assertEquals("1", _L.getParameter(BoundedLink.QUEUE_DEPTH));
+        assertEquals("2", _L.getParameter(BoundedLink.MAX_QUEUE_DEPTH));
+    }
+
+    @Test
+    public void shouldDropOldestValues() {
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_DROP_OLDEST);
+        assertTrue(_L.push(Arrays.<Object>asList(1, 2, 3, 4, 5)));
+        assertEquals("2", _L.getParameter(BoundedLink.DROPPED));
+        assertBuffered(3, 4, 5);
+    }
+
+    @Test
+    public void shouldDropNewestValues() {
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_DROP_NEWEST);
+        assertFalse(_L.push(Arrays.<Object>asList(1, 2, 3, 4, 5)));
+        assertEquals("2", _L.getParameter(BoundedLink.DROPPED));
+        assertBuffered(1, 2, 3);
+    }
+
+    @Test
+    public void shouldFailIfFull() {
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_FAIL);
+        assertTrue(_L.push(Arrays.<Object>asList(1, 2)));
+        try {
+            _L.push(Arrays.<Object>asList(3, 4));
+            fail();
+        } catch (IllegalStateException e) {
+            assertBuffered(1, 2);
+        }
+    }
+
+    @Test
+    public void shouldBlockProducer() throws Exception {
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_BLOCK);
+        ((BoundedLink) _L).setConcurrent(true);
+        Thread producer = new Thread() {
+
+            @Override
+            public void run() {
+                _L.push(Arrays.<Object>asList(1, 2, 3, 4, 5));
+            }
+        };
+        producer.start();
+        producer.join(100);
+        assertTrue(producer.isAlive());
+        assertEquals("3", _L.getParameter(BoundedLink.QUEUE_DEPTH));
+
+        for (int i = 1; i <= 5; i++) {
+            while (_L.isEmpty()) {
+                Thread.yield();
+            }
+            assertEquals(i, _L.poll());
+        }
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+        assertEquals("0", _L.getParameter(BoundedLink.DROPPED));
+    }
+
+    @Test
+    public void shouldDropRemainingValuesIfProducerIsInterrupted()
+            throws Exception {
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_BLOCK);
+        ((BoundedLink) _L).setConcurrent(true);
+        final boolean[] result = {true, false};
+        Thread producer = new Thread() {
+
+            @Override
+            public void run() {
+                result[0] = _L.push(Arrays.<Object>asList(1, 2, 3, 4, 5));
+                result[1] = isInterrupted();
+            }
+        };
+        producer.start();
+        producer.join(100);
+        assertTrue(producer.isAlive());
+        producer.interrupt();
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+        assertFalse(result[0]);
+        assertTrue(result[1]);
+        assertEquals("2", _L.getParameter(BoundedLink.DROPPED));
+        assertBuffered(1, 2, 3);
+    }
+
+    @Test
+    public void shouldNotBlockConsumer() {
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_BLOCK);
+        assertTrue(_L.push(Arrays.<Object>asList(1, 2)));
+        assertEquals(1, _L.poll());
+        assertTrue(_L.push(Arrays.<Object>asList(3, 4)));
+        try {
+            _L.push(Arrays.<Object>asList(5));
+            fail();
+        } catch (IllegalStateException e) {
+            assertBuffered(2, 3, 4);
+        }
+    }
+
+    @Test(timeout = 10000)
+    public void shouldNotBlockSequentialProducer() {
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_BLOCK);
+        assertFalse(((BoundedLink) _L).isConcurrent());
+        try {
+            _L.push(Arrays.<Object>asList(1, 2, 3, 4));
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(_L.isEmpty());
+        }
+    }
+
+    @Test
+    public void shouldReleaseProducerIfPolicyChanges() throws Exception {
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_BLOCK);
+        ((BoundedLink) _L).setConcurrent(true);
+        final boolean[] result = {true};
+        Thread producer = new Thread() {
+
+            @Override
+            public void run() {
+                result[0] = _L.push(Arrays.<Object>asList(1, 2, 3, 4, 5));
+            }
+        };
+        producer.start();
+        producer.join(100);
+        assertTrue(producer.isAlive());
+        _L.setParameter(BoundedLink.POLICY, BoundedLink.POLICY_DROP_NEWEST);
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+        assertFalse(result[0]);
+        assertEquals("2", _L.getParameter(BoundedLink.DROPPED));
+        assertBuffered(1, 2, 3);
+    }
+
+    @Test
+    public void shouldKeepNewestValuesWhenShrinking() {
+        _L.push(Arrays.<Object>asList(1, 2, 3));
+        _L.setParameter(BoundedLink.CAPACITY, "2");
+        assertEquals("1", _L.getParameter(BoundedLink.DROPPED));
+        assertBuffered(2, 3);
+    }
+
+    /**
+     * Asserts that the given values (and only the given values) are buffered
+     * by the link.
+     *
+     * @param values the buffered values
+     */
+    private void assertBuffered(Object... values) {
+        List<Object> expected = Arrays.asList(values);
+        for (Object value : expected) {
+            assertEquals(value, _L.poll());
+        }
+        assertTrue(_L.isEmpty());
+    }
+
+}
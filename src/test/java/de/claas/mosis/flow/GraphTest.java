@@ -1,9 +1,19 @@
 package de.claas.mosis.flow;
 
+import de.claas.mosis.io.generator.Generator;
+import de.claas.mosis.io.generator.Linear;
 import de.claas.mosis.model.Processor;
+import de.claas.mosis.model.ProcessorAdapter;
+import de.claas.mosis.flow.iterator.OneShotLevelOrder;
+import de.claas.mosis.flow.iterator.RepeatedOneShotLevelOrder;
+import de.claas.mosis.processing.debug.Forward;
 import de.claas.mosis.processing.debug.Null;
+import de.claas.mosis.processing.debug.ToString;
 import org.junit.Test;
 
+import java.util.List;
+import java.util.Vector;
+
 import static org.junit.Assert.*;
 
 /**
@@ -77,4 +87,256 @@ public class GraphTest {
         assertFalse(n2.hasPredecessors());
     }
 
+    @Test
+    public void shouldRecompileSchedule() {
+        Graph g = build();
+        Processor<?, ?> p1 = new Null();
+        Processor<?, ?> p2 = new Null();
+        Processor<?, ?> p3 = new Null();
+        g.addLink(p1, p2);
+        Schedule schedule = g.getSchedule();
+        assertSame(schedule, g.getSchedule());
+        assertEquals(2, schedule.size());
+
+        g.addLink(p2, p3);
+        assertNotSame(schedule, g.getSchedule());
+        assertEquals(3, g.getSchedule().size());
+
+        schedule = g.getSchedule();
+        g.removeLink(p2, p3);
+        assertNotSame(schedule, g.getSchedule());
+        assertEquals(2, g.getSchedule().size());
+    }
+
+    @Test
+    public void shouldPreserveOrderWhenPipelined() throws Exception {
+        Graph g = build();
+        Sequence src = new Sequence(1000);
+        Sink dst1 = new Sink();
+        Sink dst2 = new Sink();
+        Processor<?, ?> fwd = new Forward<>();
+        g.addLink(src, fwd);
+        g.addLink(fwd, dst1);
+        g.addLink(fwd, dst2);
+        g.processPipelined();
+
+        assertEquals(1000, dst1.getValues().size());
+        assertEquals(dst1.getValues(), dst2.getValues());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, dst1.getValues().get(i));
+        }
+    }
+
+    @Test
+    public void shouldProcessAllDataWhenPipelined() throws Exception {
+        Graph g = build();
+        Sequence src1 = new Sequence(100);
+        Sequence src2 = new Sequence(100);
+        Sink dst = new Sink();
+        g.addLink(src1, dst);
+        g.addLink(src2, dst);
+        g.processPipelined();
+
+        int sum = 0;
+        for (Object value : dst.getValues()) {
+            sum += (Integer) value;
+        }
+        assertTrue(dst.getValues().size() >= 100);
+        assertTrue(dst.getValues().size() <= 200);
+        assertTrue(sum <= 2 * 4950);
+    }
+
+    @Test
+    public void shouldApplyBackPressureWhenPipelined() throws Exception {
+        Graph g = build();
+        Sequence src = new Sequence(1000);
+        Sink dst = new Sink();
+        Link link = new BoundedLink(4, BoundedLink.POLICY_BLOCK);
+        g.addLink(src, dst, link);
+        g.processPipelined();
+
+        assertEquals(1000, dst.getValues().size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(i, dst.getValues().get(i));
+        }
+        assertEquals("0", link.getParameter(BoundedLink.DROPPED));
+        assertTrue(Integer.parseInt(link.getParameter(BoundedLink.MAX_QUEUE_DEPTH)) <= 4);
+        assertFalse(((BoundedLink) link).isConcurrent());
+    }
+
+    @Test(timeout = 10000)
+    public void shouldNotBlockWhenProcessedSequentially() throws Exception {
+        Graph g = build();
+        Linear src = new Linear();
+        src.setParameter(Generator.BLOCK_SIZE, "8");
+        Sink dst = new Sink();
+        Link link = new BoundedLink(4, BoundedLink.POLICY_BLOCK);
+        g.addLink(src, dst, link);
+        try {
+            g.process(OneShotLevelOrder.class);
+            fail();
+        } catch (IllegalStateException e) {
+            assertTrue(link.isEmpty());
+        }
+        assertFalse(((BoundedLink) link).isConcurrent());
+    }
+
+    @Test
+    public void shouldFuseLinearChains() throws Exception {
+        Graph g = build();
+        Sequence src = new Sequence(1000);
+        Sink dst = new Sink();
+        Processor<?, ?> fwd = new Forward<>();
+        Processor<?, ?> str = new ToString();
+        g.addLink(src, fwd);
+        g.addLink(fwd, str);
+        g.addLink(str, dst);
+        assertFalse(g.isFusion());
+        assertEquals(4, g.getSchedule().size());
+        g.setFusion(true);
+        assertEquals(2, g.getSchedule().size());
+        assertTrue(g.getSchedule().toString()
+                .contains("Forward -> ToString -> Sink (fused)"));
+        g.process(RepeatedOneShotLevelOrder.class);
+
+        assertEquals(1000, dst.getValues().size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.toString(i), dst.getValues().get(i));
+        }
+        assertTrue(g.getNode(fwd).getOutboundLink(g.getNode(str)).isEmpty());
+        assertTrue(g.getNode(str).getOutboundLink(g.getNode(dst)).isEmpty());
+    }
+
+    @Test
+    public void shouldFuseLinearChainsWhenPipelined() throws Exception {
+        Graph g = build();
+        Sequence src = new Sequence(1000);
+        Sink dst = new Sink();
+        Processor<?, ?> fwd = new Forward<>();
+        Processor<?, ?> str = new ToString();
+        g.addLink(src, fwd);
+        g.addLink(fwd, str);
+        g.addLink(str, dst);
+        g.setFusion(true);
+        g.processPipelined();
+
+        assertEquals(1000, dst.getValues().size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.toString(i), dst.getValues().get(i));
+        }
+    }
+
+    @Test
+    public void shouldNotTrackMetricsByDefault() throws Exception {
+        Graph g = build();
+        assertFalse(g.isMetricsEnabled());
+        assertNull(g.getMetrics());
+        g.setMetricsEnabled(true);
+        assertTrue(g.isMetricsEnabled());
+        assertNotNull(g.getMetrics());
+    }
+
+    @Test
+    public void shouldTrackMetrics() throws Exception {
+        Graph g = build();
+        Sequence src = new Sequence(1000);
+        Sink dst = new Sink();
+        g.addLink(src, dst);
+        g.setMetricsEnabled(true);
+        g.process(RepeatedOneShotLevelOrder.class);
+
+        Metrics metrics = g.getMetrics();
+        Metrics.NodeMetrics source = metrics.getNode(g.getNode(src));
+        Metrics.NodeMetrics sink = metrics.getNode(g.getNode(dst));
+        assertEquals(1001, source.getCalls());
+        assertEquals(0, source.getSamplesIn());
+        assertEquals(1000, source.getSamplesOut());
+        assertEquals(1000, sink.getCalls());
+        assertEquals(1000, sink.getSamplesIn());
+        assertEquals(0, sink.getSamplesOut());
+        assertTrue(sink.getBusyTime() > 0);
+        Metrics.LinkMetrics link = metrics.getLink(g.getNode(src)
+                .getOutboundLink(g.getNode(dst)));
+        assertEquals("Sequence -> Sink", link.getName());
+        assertEquals(1000, link.getPushed());
+        assertEquals(1000, link.getPolled());
+        assertEquals(0, link.getQueueDepth());
+    }
+
+    @Test
+    public void shouldTrackMetricsWhenPipelined() throws Exception {
+        Graph g = build();
+        Sequence src = new Sequence(1000);
+        Sink dst = new Sink();
+        Processor<?, ?> fwd = new Forward<>();
+        Processor<?, ?> str = new ToString();
+        g.addLink(src, fwd);
+        g.addLink(fwd, str);
+        g.addLink(str, dst);
+        g.setFusion(true);
+        g.setMetricsEnabled(true);
+        g.processPipelined();
+
+        Metrics metrics = g.getMetrics();
+        assertEquals(2, metrics.getNodes().size());
+        assertEquals(1, metrics.getLinks().size());
+        Metrics.NodeMetrics chain = metrics.getNodes().get(1);
+        assertEquals("Forward -> ToString -> Sink (fused)", chain.getName());
+        assertEquals(1000, chain.getSamplesIn());
+        Metrics.LinkMetrics link = metrics.getLink(g.getNode(src)
+                .getOutboundLink(g.getNode(fwd)));
+        assertEquals(1000, link.getPushed());
+        assertEquals(1000, link.getPolled());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldRethrowFailuresWhenPipelined() throws Exception {
+        Graph g = build();
+        g.addLink(new Sequence(100), new ProcessorAdapter<Object, Object>() {
+
+            @Override
+            public void process(List<Object> in, List<Object> out) {
+                throw new IllegalStateException();
+            }
+        });
+        g.processPipelined();
+    }
+
+    /**
+     * A data source that provides a limited number of consecutive integers.
+     */
+    private static class Sequence extends ProcessorAdapter<Object, Object> {
+
+        private final int _Limit;
+        private int _Next;
+
+        public Sequence(int limit) {
+            _Limit = limit;
+        }
+
+        @Override
+        public void process(List<Object> in, List<Object> out) {
+            if (_Next < _Limit) {
+                out.add(_Next++);
+            }
+        }
+    }
+
+    /**
+     * A data sink that records all input values.
+     */
+    private static class Sink extends ProcessorAdapter<Object, Object> {
+
+        private final List<Object> _Values = new Vector<>();
+
+        public List<Object> getValues() {
+            return _Values;
+        }
+
+        @Override
+        public void process(List<Object> in, List<Object> out) {
+            _Values.addAll(in);
+        }
+    }
+
 }
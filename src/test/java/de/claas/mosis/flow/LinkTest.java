@@ -53,6 +53,12 @@ public class LinkTest {
         impl.add(new Object[]{
                 BiasedLink.class,
                 new Object[]{null, -23, 1L, 42.3, "hello world", new Object()}});
+        impl.add(new Object[]{
+                BoundedLink.class,
+                new Object[]{null, -23, 1L, 42.3, "hello world", new Object()}});
+        impl.add(new Object[]{
+                RingBufferLink.class,
+                new Object[]{null, -23, 1L, 42.3, "hello world", new Object()}});
         return impl;
     }
 
@@ -0,0 +1,112 @@
+package de.claas.mosis.flow;
+
+import de.claas.mosis.processing.debug.Forward;
+import de.claas.mosis.processing.debug.Null;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.flow.Metrics}. It is
+ * intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ * <p>
+ * Additional test cases can be found in {@link de.claas.mosis.flow.GraphTest}.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class MetricsTest {
+
+    private Metrics _M;
+    private Node _Src;
+    private Node _Dst;
+    private Link _Link;
+
+    @Before
+    public void before() {
+        _M = new Metrics();
+        _Src = new PlainNode(new Null());
+        _Dst = new PlainNode(new Forward<>());
+        _Link = new UnbiasedLink();
+        _Src.addSuccessor(_Dst, _Link);
+        Set<Node> sources = new HashSet<>();
+        sources.add(_Src);
+        _M.register(new Schedule(sources));
+    }
+
+    @Test
+    public void shouldRegisterNodesAndLinks() {
+        assertEquals(2, _M.getNodes().size());
+        assertEquals(1, _M.getLinks().size());
+        assertEquals("Null", _M.getNode(_Src).getName());
+        assertEquals("Forward", _M.getNode(_Dst).getName());
+        assertEquals("Null -> Forward", _M.getLink(_Link).getName());
+        assertNull(_M.getNode(new PlainNode(new Null())));
+        assertNull(_M.getLink(new UnbiasedLink()));
+    }
+
+    @Test
+    public void shouldKeepCountersWhenRegisteringAgain() {
+        _M.pushed(_Link, 3);
+        Set<Node> sources = new HashSet<>();
+        sources.add(_Src);
+        _M.register(new Schedule(sources));
+        assertEquals(2, _M.getNodes().size());
+        assertEquals(3, _M.getLink(_Link).getPushed());
+    }
+
+    @Test
+    public void shouldCountValues() {
+        _M.pushed(_Link, 3);
+        _M.polled(_Link);
+        _M.pushed(new UnbiasedLink(), 3);
+        _M.getNode(_Dst).record(2, 1, 500);
+        _M.getNode(_Dst).record(1, 0, 250);
+        assertEquals(3, _M.getLink(_Link).getPushed());
+        assertEquals(1, _M.getLink(_Link).getPolled());
+        assertEquals(2, _M.getLink(_Link).getQueueDepth());
+        assertEquals(2, _M.getNode(_Dst).getCalls());
+        assertEquals(3, _M.getNode(_Dst).getSamplesIn());
+        assertEquals(1, _M.getNode(_Dst).getSamplesOut());
+        assertEquals(750, _M.getNode(_Dst).getBusyTime());
+    }
+
+    @Test
+    public void shouldReset() {
+        _M.pushed(_Link, 3);
+        _M.getNode(_Dst).record(2, 1, 500);
+        _M.reset();
+        assertEquals(0, _M.getLink(_Link).getPushed());
+        assertEquals(0, _M.getNode(_Dst).getCalls());
+        assertEquals(0, _M.getNode(_Dst).getBusyTime());
+        assertEquals(2, _M.getNodes().size());
+    }
+
+    @Test
+    public void shouldExportTable() {
+        _M.pushed(_Link, 3);
+        _M.getNode(_Dst).record(2, 1, 500);
+        String[] lines = _M.toTable().split("\\r?\\n");
+        assertEquals(5, lines.length);
+        assertTrue(lines[0].startsWith("node"));
+        assertTrue(lines[2].matches("Forward\\s+1\\s+2\\s+1\\s+0\\.001\\s+.*"));
+        assertTrue(lines[3].startsWith("link"));
+        assertTrue(lines[4].matches("Null -> Forward\\s+3\\s+0\\s+3\\s+.*"));
+    }
+
+    @Test
+    public void shouldExportJson() {
+        _M.pushed(_Link, 3);
+        _M.getNode(_Dst).record(2, 1, 500);
+        String json = _M.toJson();
+        assertTrue(json.startsWith("{\"elapsedTime\":"));
+        assertTrue(json.contains("{\"name\":\"Forward\",\"calls\":1,\"samplesIn\":2,\"samplesOut\":1,\"busyTime\":500}"));
+        assertTrue(json.contains("{\"name\":\"Null -> Forward\",\"pushed\":3,\"polled\":0,\"queueDepth\":3,\"pushRate\":"));
+        assertTrue(json.endsWith("}]}"));
+    }
+
+}
@@ -0,0 +1,140 @@
+package de.claas.mosis.flow;
+
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.flow.RingBufferLink}. It is
+ * intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ * <p>
+ * Additional test cases can be found in {@link de.claas.mosis.flow.LinkTest}.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class RingBufferLinkTest {
+
+    private Link _L;
+
+    @Before
+    public void setUp() {
+        _L = new RingBufferLink();
+        _L.setParameter(RingBufferLink.CAPACITY, "3");
+    }
+
+    @Test
+    public void assumptionsOnParameters() {
+        assertEquals("3", _L.getParameter(RingBufferLink.CAPACITY));
+        assertEquals(RingBufferLink.WAIT_YIELD,
+                _L.getParameter(RingBufferLink.WAIT_STRATEGY));
+        assertEquals("0", _L.getParameter(RingBufferLink.QUEUE_DEPTH));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterCapacityMustBePositive() throws Exception {
+        _L.setParameter(RingBufferLink.CAPACITY, "0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterWaitStrategyMustBeInWhiteList() throws Exception {
+        try {
+            _L.setParameter(RingBufferLink.WAIT_STRATEGY, RingBufferLink.WAIT_BUSY_SPIN);
+            _L.setParameter(RingBufferLink.WAIT_STRATEGY, RingBufferLink.WAIT_PARK);
+            _L.setParameter(RingBufferLink.WAIT_STRATEGY, RingBufferLink.WAIT_YIELD);
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        _L.setParameter(RingBufferLink.WAIT_STRATEGY, "hello world");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterQueueDepthIsReadOnly() throws Exception {
+        _L.setParameter(RingBufferLink.QUEUE_DEPTH, "1");
+    }
+
+    @Test
+    public void shouldRoundCapacityToPowerOfTwo() {
+        assertTrue(_L.push(Arrays.<Object>asList(1, 2, 3, 4)));
+        assertEquals("4", _L.getParameter(RingBufferLink.QUEUE_DEPTH));
+        for (int i = 1; i <= 4; i++) {
+            assertEquals(i, _L.poll());
+        }
+        assertTrue(_L.isEmpty());
+    }
+
+    @Test
+    public void shouldWrapAround() {
+        for (int i = 0; i < 10; i++) {
+            assertTrue(_L.push(Arrays.<Object>asList(i, -i, i)));
+            assertEquals(i, _L.poll());
+            assertEquals(-i, _L.poll());
+            assertEquals(i, _L.poll());
+        }
+        assertTrue(_L.isEmpty());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void shouldNotPollIfEmpty() {
+        _L.poll();
+    }
+
+    @Test
+    public void shouldTransferBetweenThreadsWhenSpinning() throws Exception {
+        transfer(RingBufferLink.WAIT_BUSY_SPIN);
+    }
+
+    @Test
+    public void shouldTransferBetweenThreadsWhenYielding() throws Exception {
+        transfer(RingBufferLink.WAIT_YIELD);
+    }
+
+    @Test
+    public void shouldTransferBetweenThreadsWhenParking() throws Exception {
+        transfer(RingBufferLink.WAIT_PARK);
+    }
+
+    /**
+     * Pushes batches of values from one thread and polls them from another
+     * thread. All values must arrive in order.
+     *
+     * @param waitStrategy the wait strategy
+     * @throws Exception if something unexpected happens
+     */
+    private void transfer(String waitStrategy) throws Exception {
+        final int values = 10000;
+        _L.setParameter(RingBufferLink.CAPACITY, "64");
+        _L.setParameter(RingBufferLink.WAIT_STRATEGY, waitStrategy);
+        Thread producer = new Thread() {
+
+            @Override
+            public void run() {
+                List<Object> batch = new ArrayList<>();
+                for (int i = 0; i < values; i++) {
+                    batch.add(i);
+                    if (batch.size() == 100 || i == values - 1) {
+                        _L.push(batch);
+                        batch.clear();
+                    }
+                }
+            }
+        };
+        producer.setDaemon(true);
+        producer.start();
+        for (int i = 0; i < values; i++) {
+            while (_L.isEmpty()) {
+                Thread.yield();
+            }
+            assertEquals(i, _L.poll());
+        }
+        producer.join(1000);
+        assertFalse(producer.isAlive());
+        assertTrue(_L.isEmpty());
+    }
+
+}
@@ -0,0 +1,222 @@
+package de.claas.mosis.flow;
+
+import de.claas.mosis.flow.iterator.InfiniteLevelOrder;
+import de.claas.mosis.flow.iterator.OneShotLevelOrder;
+import de.claas.mosis.flow.iterator.RepeatedOneShotLevelOrder;
+import de.claas.mosis.io.format.PlainText;
+import de.claas.mosis.io.generator.Linear;
+import de.claas.mosis.processing.debug.Null;
+import de.claas.mosis.processing.debug.ToString;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.*;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.flow.Schedule}. It is
+ * intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class ScheduleTest {
+
+    private Node _N1, _N2, _N3, _N4, _N5;
+    private Set<Node> _Sources;
+
+    @Before
+    public void before() {
+        _N1 = new PlainNode(new Linear());
+        _N2 = new PlainNode(new Null());
+        _N3 = new PlainNode(new Null());
+        _N4 = new PlainNode(new Null());
+        _N5 = new PlainNode(new Linear());
+        _N1.addSuccessor(_N2, new UnbiasedLink());
+        _N1.addSuccessor(_N3, new UnbiasedLink());
+        _N2.addSuccessor(_N4, new UnbiasedLink());
+        _N3.addSuccessor(_N4, new UnbiasedLink());
+        _N4.addSuccessor(_N2, new UnbiasedLink());
+        _N5.addSuccessor(_N4, new UnbiasedLink());
+        _Sources = new HashSet<>(Arrays.asList(_N1, _N5));
+    }
+
+    @Test
+    public void shouldContainAllNodes() {
+        Schedule schedule = new Schedule(_Sources);
+        assertEquals(5, schedule.size());
+        assertEquals(_Sources, schedule.getSources());
+        Set<Node> nodes = new HashSet<>();
+        for (int i = 0; i < schedule.size(); i++) {
+            assertEquals(i < 2, schedule.isSource(i));
+            nodes.add(schedule.get(i));
+        }
+        assertEquals(new HashSet<>(Arrays.asList(_N1, _N2, _N3, _N4, _N5)),
+                nodes);
+    }
+
+    @Test
+    public void shouldHandleEmptyGraphs() throws Exception {
+        Schedule schedule = new Schedule(new HashSet<Node>());
+        Recorder recorder = new Recorder(10);
+        schedule.visit(recorder, RepeatedOneShotLevelOrder.class);
+        schedule.visit(recorder, InfiniteLevelOrder.class);
+        assertTrue(recorder.getNodes().isEmpty());
+    }
+
+    @Test
+    public void shouldVisitLikeOneShotLevelOrder() throws Exception {
+        compare(new OneShotLevelOrder(_Sources), OneShotLevelOrder.class, 5);
+    }
+
+    @Test
+    public void shouldVisitLikeRepeatedOneShotLevelOrder() throws Exception {
+        compare(new RepeatedOneShotLevelOrder(_Sources),
+                RepeatedOneShotLevelOrder.class, 23);
+    }
+
+    @Test
+    public void shouldVisitLikeInfiniteLevelOrder() throws Exception {
+        compare(new InfiniteLevelOrder(_Sources), InfiniteLevelOrder.class, 42);
+    }
+
+    @Test
+    public void shouldStopVisiting() {
+        Recorder recorder = new Recorder(3);
+        assertFalse(new Schedule(_Sources).visit(recorder));
+        assertEquals(3, recorder.getNodes().size());
+    }
+
+    @Test
+    public void shouldNotFuseByDefault() {
+        Node n1 = new PlainNode(new Linear());
+        Node n2 = new PlainNode(new Null());
+        Node n3 = new PlainNode(new Null());
+        n1.addSuccessor(n2, new UnbiasedLink());
+        n2.addSuccessor(n3, new UnbiasedLink());
+        Schedule schedule = new Schedule(Collections.singleton(n1));
+        assertEquals(3, schedule.size());
+        assertSame(n2, schedule.resolve(n2));
+        assertFalse(schedule.toString().contains("fused"));
+    }
+
+    @Test
+    public void shouldFuseLinearChains() {
+        Node n1 = new PlainNode(new Linear());
+        Node n2 = new PlainNode(new Null());
+        Node n3 = new PlainNode(new Null());
+        Node n4 = new PlainNode(new Null());
+        n1.addSuccessor(n2, new UnbiasedLink());
+        n2.addSuccessor(n3, new UnbiasedLink());
+        n3.addSuccessor(n4, new UnbiasedLink());
+        Schedule schedule = new Schedule(Collections.singleton(n1), true);
+        assertEquals(2, schedule.size());
+        assertSame(n1, schedule.get(0));
+        assertTrue(schedule.get(1) instanceof FusedNode);
+        assertEquals(Arrays.asList(n2, n3, n4),
+                ((FusedNode) schedule.get(1)).getNodes());
+        assertSame(schedule.get(1), schedule.resolve(n2));
+        assertTrue(schedule.toString().contains("Null -> Null -> Null (fused)"));
+
+        Recorder recorder = new Recorder(6);
+        schedule.visitInfinitely(recorder);
+        assertEquals(Arrays.asList(n1, schedule.get(1), n1, schedule.get(1),
+                n1, schedule.get(1)), recorder.getNodes());
+    }
+
+    @Test
+    public void shouldNotFuseDataSources() {
+        Node n1 = new PlainNode(new Linear());
+        Node n2 = new PlainNode(new ToString());
+        Node n3 = new PlainNode(new PlainText());
+        n1.addSuccessor(n2, new UnbiasedLink());
+        n2.addSuccessor(n3, new UnbiasedLink());
+        Schedule schedule = new Schedule(Collections.singleton(n1), true);
+        assertEquals(2, schedule.size());
+        assertSame(n1, schedule.get(0));
+        assertTrue(schedule.isSource(0));
+        assertEquals(Arrays.asList(n2, n3),
+                ((FusedNode) schedule.get(1)).getNodes());
+        assertTrue(schedule.toString().contains("ToString -> PlainText (fused)"));
+    }
+
+    @Test
+    public void shouldNotFuseSourcesBranchesOrSpecialLinks() {
+        Node n2 = new PlainNode(new Null());
+        Node n3 = new PlainNode(new Null());
+        Node n4 = new PlainNode(new Null());
+        Node n5 = new PlainNode(new Null());
+        Node n6 = new PlainNode(new Null());
+        _N1.addSuccessor(n2, new UnbiasedLink());
+        n2.addSuccessor(n3, new BoundedLink());
+        n3.addSuccessor(n4, new UnbiasedLink());
+        n4.addSuccessor(n5, new UnbiasedLink());
+        n4.addSuccessor(n6, new UnbiasedLink());
+        Schedule schedule = new Schedule(_Sources, true);
+        assertEquals(_Sources, schedule.getSources());
+        for (int i = 0; i < schedule.size(); i++) {
+            Node node = schedule.get(i);
+            if (node instanceof FusedNode) {
+                assertEquals(Arrays.asList(n3, n4),
+                        ((FusedNode) node).getNodes());
+            }
+        }
+        assertEquals(9, schedule.size());
+        assertSame(n2, schedule.resolve(n2));
+        assertTrue(schedule.resolve(n3) instanceof FusedNode);
+    }
+
+    /**
+     * A helper method to avoid code duplicates. The method compares the order
+     * of nodes visited according to a {@link de.claas.mosis.flow.Schedule}
+     * with the order of nodes returned by an {@link java.util.Iterator}.
+     *
+     * @param iterator the {@link java.util.Iterator}
+     * @param clazz    the {@link java.util.Iterator} class
+     * @param steps    the maximum number of nodes to compare
+     * @throws Exception if something unexpected happens
+     */
+    private void compare(Iterator<Node> iterator,
+                         Class<? extends Iterator<Node>> clazz, int steps)
+            throws Exception {
+        Recorder recorder = new Recorder(steps);
+        new Schedule(_Sources).visit(recorder, clazz);
+        List<Node> expected = new ArrayList<>();
+        while (iterator.hasNext() && expected.size() < steps) {
+            expected.add(iterator.next());
+        }
+        assertEquals(expected, recorder.getNodes());
+    }
+
+    /**
+     * A {@link de.claas.mosis.flow.Visitor} that records visited nodes and
+     * stops after a given number of nodes.
+     */
+    private static class Recorder implements Visitor {
+
+        private final List<Node> _Nodes = new ArrayList<>();
+        private final int _Limit;
+
+        public Recorder(int limit) {
+            _Limit = limit;
+        }
+
+        public List<Node> getNodes() {
+            return _Nodes;
+        }
+
+        @Override
+        public boolean visitPlainNode(PlainNode node) {
+            _Nodes.add(node);
+            return _Nodes.size() < _Limit;
+        }
+
+        @Override
+        public boolean visitCompositeNode(CompositeNode node) {
+            _Nodes.add(node);
+            return _Nodes.size() < _Limit;
+        }
+    }
+
+}
@@ -2,6 +2,7 @@ package de.claas.mosis.flow.visitor;
 
 import de.claas.mosis.flow.*;
 import de.claas.mosis.io.generator.Linear;
+import de.claas.mosis.model.ProcessorAdapter;
 import de.claas.mosis.processing.debug.BreakOut;
 import de.claas.mosis.processing.debug.Forward;
 import de.claas.mosis.processing.debug.Null;
@@ -11,7 +12,9 @@ import org.junit.Test;
 
 import java.util.Arrays;
 import java.util.HashSet;
+import java.util.List;
 import java.util.Set;
+import java.util.Vector;
 
 import static org.junit.Assert.*;
 
@@ -160,6 +163,27 @@ public class ProcessingVisitorTest {
         assertTrue(link2.isEmpty());
     }
 
+    @Test
+    public void shouldProcessInBatches() {
+        Forward<Object> forward = new Forward<>();
+        PlainNode node = new PlainNode(forward);
+        _P1.addSuccessor(node, new UnbiasedLink());
+        node.addSuccessor(_P2, new UnbiasedLink());
+        List<Object> values = new Vector<>();
+        for (int i = 0; i < 3 * forward.getBatchSize() + 1; i++) {
+            values.add(i);
+        }
+        _P1.getOutboundLink(node).push(values);
+
+        assertTrue(_V.visitPlainNode(node));
+        assertTrue(node.getInboundLink(_P1).isEmpty());
+        Link link = node.getOutboundLink(_P2);
+        for (Object value : values) {
+            assertEquals(value, link.poll());
+        }
+        assertTrue(link.isEmpty());
+    }
+
     @Test
     public void shouldNotProcessWithoutInput() {
         // Regular modules should only be called when input values are present.
@@ -179,4 +203,34 @@ public class ProcessingVisitorTest {
         assertEquals(1, _B22.getCallsToProcess());
     }
 
+    @Test
+    public void shouldOnlyCountAcceptedValues() {
+        Node src = new PlainNode(new ProcessorAdapter<Object, Object>() {
+
+            @Override
+            public void process(List<Object> in, List<Object> out) {
+                out.addAll(Arrays.<Object>asList(1, 2, 3, 4, 5));
+            }
+        });
+        Link newest = new BoundedLink(2, BoundedLink.POLICY_DROP_NEWEST);
+        Link oldest = new BoundedLink(2, BoundedLink.POLICY_DROP_OLDEST);
+        Link biased = new BiasedLink();
+        biased.setParameter(BiasedLink.CLASS, String.class.getName());
+        Link unbiased = new UnbiasedLink();
+        src.addSuccessor(new PlainNode(new Forward<>()), newest);
+        src.addSuccessor(new PlainNode(new Forward<>()), oldest);
+        src.addSuccessor(new PlainNode(new Forward<>()), biased);
+        src.addSuccessor(new PlainNode(new Forward<>()), unbiased);
+        Set<Node> sources = new HashSet<>();
+        sources.add(src);
+        Metrics metrics = new Metrics();
+        metrics.register(new Schedule(sources));
+
+        new ProcessingVisitor(metrics).visitPlainNode((PlainNode) src);
+        assertEquals(2, metrics.getLink(newest).getPushed());
+        assertEquals(2, metrics.getLink(oldest).getPushed());
+        assertEquals(0, metrics.getLink(biased).getPushed());
+        assertEquals(5, metrics.getLink(unbiased).getPushed());
+    }
+
 }
@@ -0,0 +1,123 @@
+package de.claas.mosis.io;
+
+import org.junit.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.io.MappedFileImpl}. It is
+ * intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ * <p>
+ * Additional test cases can be found in {@link de.claas.mosis.io.FileImplTest}.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class MappedFileImplTest extends FileImplTest {
+
+    @Override
+    public MappedFileImpl build() throws Exception {
+        File f = File.createTempFile("test", MappedFileImpl.class.getName());
+        MappedFileImpl i = new MappedFileImpl();
+        i.setParameter(FileImpl.FILE, f.getAbsolutePath());
+        return i;
+    }
+
+    /**
+     * Writes the given bytes to the tested file.
+     *
+     * @param data the bytes
+     * @throws java.lang.Exception if the file cannot be written
+     */
+    private void write(byte[] data) throws Exception {
+        FileOutputStream out = new FileOutputStream(
+                _I.getParameter(FileImpl.FILE));
+        out.write(data);
+        out.close();
+    }
+
+    @Test
+    public void assumptionsOnMappingSize() throws Exception {
+        assertEquals(Integer.toString(64 * 1024 * 1024),
+                _I.getParameter(MappedFileImpl.MAPPING_SIZE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterMappingSizeMayNotBeNull() throws Exception {
+        _I.setParameter(MappedFileImpl.MAPPING_SIZE, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterMappingSizeMustBeAnInteger() throws Exception {
+        try {
+            _I.setParameter(MappedFileImpl.MAPPING_SIZE, "1");
+            _I.setParameter(MappedFileImpl.MAPPING_SIZE, "4096");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        _I.setParameter(MappedFileImpl.MAPPING_SIZE, "1.2");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterMappingSizeMustBePositive() throws Exception {
+        _I.setParameter(MappedFileImpl.MAPPING_SIZE, "0");
+    }
+
+    @Test
+    public void shouldReadAcrossMappings() throws Exception {
+        write(new byte[]{1, 2, 3, 4, 5, 6, 7, 8, 9, 10});
+        _I.setParameter(MappedFileImpl.MAPPING_SIZE, "3");
+
+        MappedFileImpl.MappedInputStream in = ((MappedFileImpl) _I)
+                .getInputStream();
+        byte[] b = new byte[4];
+        assertEquals(10, in.available());
+        assertEquals(1, in.read());
+        assertEquals(2, in.read(b));
+        assertArrayEquals(new byte[]{2, 3, 0, 0}, b);
+        assertEquals(3, in.read(b));
+        assertArrayEquals(new byte[]{4, 5, 6, 0}, b);
+        assertEquals(2, in.skip(2));
+        assertEquals(9, in.read());
+        assertEquals(10, in.read());
+        assertEquals(-1, in.read());
+        assertEquals(-1, in.read(b));
+        in.close();
+    }
+
+    @Test
+    public void shouldKeepUnconsumedBytesAccessible() throws Exception {
+        write(new byte[]{1, 2, 3, 4, 5, 6, 7});
+        _I.setParameter(MappedFileImpl.MAPPING_SIZE, "3");
+
+        MappedFileImpl.MappedInputStream in = ((MappedFileImpl) _I)
+                .getInputStream();
+        ByteBuffer buffer = in.getBuffer(1);
+        assertEquals(3, buffer.remaining());
+        buffer.get();
+        buffer = in.getBuffer(3);
+        assertEquals(3, buffer.remaining());
+        assertEquals(2, buffer.get());
+        buffer.get();
+        buffer = in.getBuffer(5);
+        assertEquals(4, buffer.remaining());
+        assertEquals(4, buffer.get());
+        buffer.position(buffer.limit());
+        assertEquals(0, in.getBuffer(1).remaining());
+        in.close();
+    }
+
+    @Test
+    public void shouldReadEmptyFile() throws Exception {
+        MappedFileImpl.MappedInputStream in = ((MappedFileImpl) _I)
+                .getInputStream();
+        assertEquals(0, in.getBuffer(1).remaining());
+        assertEquals(-1, in.read());
+        in.close();
+    }
+
+}
@@ -0,0 +1,208 @@
+package de.claas.mosis.io;
+
+import de.claas.mosis.io.format.PlainText;
+import de.claas.mosis.util.Utils;
+import org.junit.After;
+import org.junit.Test;
+
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.io.MemoryImpl}. It is
+ * intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class MemoryImplTest extends StreamHandlerImplTest {
+
+    @Override
+    public MemoryImpl build() throws Exception {
+        MemoryImpl i = new MemoryImpl();
+        i.setParameter(MemoryImpl.NAME, "test-" + System.nanoTime());
+        return i;
+    }
+
+    @After
+    public void after() throws Exception {
+        MemoryImpl.release(_I.getParameter(MemoryImpl.NAME));
+    }
+
+    /**
+     * Returns the name of the tested buffer.
+     *
+     * @return the name of the tested buffer
+     */
+    private String name() {
+        return _I.getParameter(MemoryImpl.NAME);
+    }
+
+    @Test
+    public void assumptionsOnName() throws Exception {
+        assertEquals("memory", new MemoryImpl().getParameter(MemoryImpl.NAME));
+    }
+
+    @Test
+    public void assumptionsOnAppend() throws Exception {
+        assertEquals("false", _I.getParameter(MemoryImpl.APPEND));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterNameMayNotBeNull() throws Exception {
+        _I.setParameter(MemoryImpl.NAME, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterAppendMayNotBeNull() throws Exception {
+        _I.setParameter(MemoryImpl.APPEND, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterAppendMustBeBoolean() throws Exception {
+        try {
+            _I.setParameter(MemoryImpl.APPEND, "true");
+            _I.setParameter(MemoryImpl.APPEND, "false");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        _I.setParameter(MemoryImpl.APPEND, "maybe");
+    }
+
+    @Test
+    public void shouldReadPreloadedData() throws Exception {
+        MemoryImpl.preload(name(), new byte[]{1, 2, 3});
+
+        InputStream in = _I.getInputStream();
+        byte[] b = new byte[4];
+        assertEquals(3, in.available());
+        assertEquals(3, in.read(b));
+        assertArrayEquals(new byte[]{1, 2, 3, 0}, b);
+        assertEquals(-1, in.read());
+        assertEquals(-1, in.read(b));
+    }
+
+    @Test
+    public void shouldReadEmptyBuffer() throws Exception {
+        InputStream in = _I.getInputStream();
+        assertEquals(0, in.available());
+        assertEquals(-1, in.read());
+    }
+
+    @Test
+    public void shouldWriteData() throws Exception {
+        OutputStream out = _I.getOutputStream();
+        out.write(1);
+        out.write(new byte[]{2, 3});
+        out.close();
+        assertArrayEquals(new byte[]{1, 2, 3}, MemoryImpl.toByteArray(name()));
+        assertEquals(3, MemoryImpl.size(name()));
+    }
+
+    @Test
+    public void shouldReplaceData() throws Exception {
+        MemoryImpl.preload(name(), new byte[]{4});
+
+        _I.getOutputStream().write(new byte[]{1, 2, 3});
+        assertArrayEquals(new byte[]{1, 2, 3}, MemoryImpl.toByteArray(name()));
+    }
+
+    @Test
+    public void shouldAppendData() throws Exception {
+        _I.setParameter(MemoryImpl.APPEND, "true");
+        MemoryImpl.preload(name(), new byte[]{4});
+
+        _I.getOutputStream().write(new byte[]{1, 2, 3});
+        assertArrayEquals(new byte[]{4, 1, 2, 3}, MemoryImpl.toByteArray(name()));
+    }
+
+    @Test
+    public void shouldGrowBuffer() throws Exception {
+        byte[] data = new byte[100000];
+        for (int i = 0; i < data.length; i++) {
+            data[i] = (byte) i;
+        }
+        OutputStream out = _I.getOutputStream();
+        for (int i = 0; i < data.length; i += 1000) {
+            out.write(data, i, 1000);
+        }
+        assertArrayEquals(data, MemoryImpl.toByteArray(name()));
+    }
+
+    @Test
+    public void shouldReadWhatIsWritten() throws Exception {
+        InputStream in = _I.getInputStream();
+        OutputStream out = _I.getOutputStream();
+        out.write(23);
+        assertEquals(23, in.read());
+        assertEquals(-1, in.read());
+        out.write(42);
+        assertEquals(42, in.read());
+    }
+
+    @Test
+    public void shouldRewind() throws Exception {
+        MemoryImpl.preload(name(), new byte[]{1, 2, 3});
+
+        InputStream in = _I.getInputStream();
+        assertTrue(in.markSupported());
+        assertEquals(2, in.skip(2));
+        assertEquals(3, in.read());
+        in.reset();
+        assertEquals(1, in.read());
+        in.mark(0);
+        assertEquals(2, in.read());
+        in.reset();
+        assertEquals(2, in.read());
+        assertEquals(1, _I.getInputStream().read());
+    }
+
+    @Test
+    public void shouldShareBuffersByName() throws Exception {
+        MemoryImpl other = new MemoryImpl();
+        other.setParameter(MemoryImpl.NAME, name());
+        other.getOutputStream().write(new byte[]{1, 2});
+        assertEquals(1, _I.getInputStream().read());
+
+        MemoryImpl.release(name());
+        assertEquals(-1, _I.getInputStream().read());
+    }
+
+    @Test
+    public void shouldWrapContents() throws Exception {
+        MemoryImpl.preload(name(), new byte[]{1, 2, 3});
+
+        ByteBuffer buffer = MemoryImpl.wrap(name());
+        assertTrue(buffer.isReadOnly());
+        assertEquals(3, buffer.remaining());
+        assertEquals(1, buffer.get());
+    }
+
+    @Test
+    public void shouldBeUsableByStreamHandlers() throws Exception {
+        PlainText writer = new PlainText();
+        Utils.updateParameters(writer,
+                StreamHandler.IMPL, MemoryImpl.class.getName(),
+                MemoryImpl.NAME, name(),
+                DataHandler.MODE, DataHandler.MODE_WRITE);
+        Utils.process(writer, "hello world #1", "hello world #2");
+        writer.dismantle();
+
+        PlainText reader = new PlainText();
+        Utils.updateParameters(reader,
+                StreamHandler.IMPL, MemoryImpl.class.getName(),
+                MemoryImpl.NAME, name(),
+                DataHandler.MODE, DataHandler.MODE_READ);
+        for (int i = 0; i < 2; i++) {
+            reader.setUp();
+            assertEquals("hello world #1", Utils.process(reader));
+            assertEquals("hello world #2", Utils.process(reader));
+            assertNull(Utils.process(reader));
+            reader.dismantle();
+        }
+    }
+
+}
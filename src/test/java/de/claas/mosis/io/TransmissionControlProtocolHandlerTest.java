@@ -0,0 +1,381 @@
+package de.claas.mosis.io;
+
+import de.claas.mosis.model.Data;
+import de.claas.mosis.util.Utils;
+import org.junit.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.Vector;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.io.TransmissionControlProtocolHandler}.
+ * It is intended to collect and document a set of test cases for the tested
+ * class. Please refer to the individual tests for more detailed information.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class TransmissionControlProtocolHandlerTest extends
+        DataHandlerTest<Data, TransmissionControlProtocolHandler> {
+
+    /**
+     * A helper method to avoid code duplicates. Reads records until the given
+     * number of records was returned (or a timeout occurred).
+     *
+     * @param h     the handler
+     * @param count the number of records
+     * @return the records
+     * @throws java.lang.InterruptedException if interrupted while waiting
+     */
+    private static List<Data> read(TransmissionControlProtocolHandler h,
+                                   int count) throws InterruptedException {
+        List<Data> records = new Vector<>();
+        long timeout = System.currentTimeMillis() + 5000;
+        while (records.size() < count
+                && System.currentTimeMillis() < timeout) {
+            h.process(null, records);
+            Thread.sleep(1);
+        }
+        return records;
+    }
+
+    /**
+     * A helper method to avoid code duplicates. Returns a record.
+     *
+     * @param connection the identifier of the connection
+     * @param record     the record
+     * @return a record
+     */
+    private static Data record(String connection, String record) {
+        Data data = new Data();
+        data.put(TransmissionControlProtocolHandler.CONNECTION, connection);
+        data.put(TransmissionControlProtocolHandler.RECORD, record);
+        return data;
+    }
+
+    /**
+     * A helper method to avoid code duplicates. Waits until the given number
+     * of connections was accepted (or a timeout occurred).
+     *
+     * @param h     the handler
+     * @param count the number of connections
+     * @throws java.lang.InterruptedException if interrupted while waiting
+     */
+    private static void accept(TransmissionControlProtocolHandler h, int count)
+            throws InterruptedException {
+        long timeout = System.currentTimeMillis() + 5000;
+        while (h.getConnections().size() < count
+                && System.currentTimeMillis() < timeout) {
+            h.process(new Vector<Data>(), new Vector<Data>());
+            Thread.sleep(1);
+        }
+        assertEquals(count, h.getConnections().size());
+    }
+
+    @Override
+    protected TransmissionControlProtocolHandler build() throws Exception {
+        return new TransmissionControlProtocolHandler();
+    }
+
+    @Test
+    public void assumptionsOnHost() throws Exception {
+        assertEquals("localhost",
+                _H.getParameter(TransmissionControlProtocolHandler.HOST));
+    }
+
+    @Test
+    public void assumptionsOnPort() throws Exception {
+        assertEquals("12345",
+                _H.getParameter(TransmissionControlProtocolHandler.PORT));
+    }
+
+    @Test
+    public void assumptionsOnBuffer() throws Exception {
+        assertEquals("2048",
+                _H.getParameter(TransmissionControlProtocolHandler.BUFFER));
+    }
+
+    @Test
+    public void assumptionsOnMaxRecord() throws Exception {
+        assertEquals("1048576",
+                _H.getParameter(TransmissionControlProtocolHandler.MAX_RECORD));
+    }
+
+    @Test
+    public void assumptionsOnCharsetName() throws Exception {
+        assertEquals("UTF-8", _H.getParameter(
+                TransmissionControlProtocolHandler.CHARSET_NAME));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterHostMayNotBeNull() throws Exception {
+        Utils.updateParameter(_H, TransmissionControlProtocolHandler.HOST, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterPortMustBeValidPort() throws Exception {
+        try {
+            Utils.updateParameters(_H,
+                    TransmissionControlProtocolHandler.PORT, "9120",
+                    TransmissionControlProtocolHandler.PORT, "65535");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_H, TransmissionControlProtocolHandler.PORT, "65536");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterBufferMustBePositive() throws Exception {
+        try {
+            Utils.updateParameters(_H,
+                    TransmissionControlProtocolHandler.BUFFER, "1",
+                    TransmissionControlProtocolHandler.BUFFER, "12");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_H, TransmissionControlProtocolHandler.BUFFER, "0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterMaxRecordMustBePositive() throws Exception {
+        try {
+            Utils.updateParameters(_H,
+                    TransmissionControlProtocolHandler.MAX_RECORD, "1",
+                    TransmissionControlProtocolHandler.MAX_RECORD, "12");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_H, TransmissionControlProtocolHandler.MAX_RECORD, "0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterCharsetNameMayNotBeNull() throws Exception {
+        Utils.updateParameter(_H,
+                TransmissionControlProtocolHandler.CHARSET_NAME, null);
+    }
+
+    @Override
+    public void shouldRead() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_READ,
+                TransmissionControlProtocolHandler.PORT, "9121");
+        Socket s1 = new Socket("localhost", 9121);
+        Socket s2 = new Socket("localhost", 9121);
+        s1.getOutputStream().write("hello\r\nworld\n".getBytes("UTF-8"));
+        s2.getOutputStream().write("incomplete".getBytes("UTF-8"));
+        List<Data> records = read(_H, 2);
+        assertEquals(2, records.size());
+        String id = records.get(0).getAsString(
+                TransmissionControlProtocolHandler.CONNECTION);
+        assertEquals(record(id, "hello"), records.get(0));
+        assertEquals(record(id, "world"), records.get(1));
+
+        s2.getOutputStream().write(" record\n".getBytes("UTF-8"));
+        records = read(_H, 1);
+        assertEquals(1, records.size());
+        assertEquals("incomplete record", records.get(0).getAsString(
+                TransmissionControlProtocolHandler.RECORD));
+        assertFalse(id.equals(records.get(0).getAsString(
+                TransmissionControlProtocolHandler.CONNECTION)));
+        s1.close();
+        s2.close();
+    }
+
+    @Override
+    public void shouldWrite() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_WRITE,
+                TransmissionControlProtocolHandler.PORT, "9122");
+        Socket s = new Socket("localhost", 9122);
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                s.getInputStream(), "UTF-8"));
+        accept(_H, 1);
+        Data data = record(_H.getConnections().get(0), "hello world");
+        assertEquals(data, Utils.process(_H, data));
+        assertEquals("hello world", in.readLine());
+        data = record("unknown", "ignored");
+        assertEquals(data, Utils.process(_H, data));
+        assertNull(Utils.process(_H, (Data[]) null));
+        s.close();
+    }
+
+    @Override
+    public void shouldDetermineMode() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_AUTO,
+                TransmissionControlProtocolHandler.PORT, "9123");
+        Socket s = new Socket("localhost", 9123);
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                s.getInputStream(), "UTF-8"));
+        s.getOutputStream().write("ping\n".getBytes("UTF-8"));
+        List<Data> records = read(_H, 1);
+        assertEquals(1, records.size());
+        String id = records.get(0).getAsString(
+                TransmissionControlProtocolHandler.CONNECTION);
+        assertEquals("ping", records.get(0).getAsString(
+                TransmissionControlProtocolHandler.RECORD));
+
+        Data data = record(id, "pong");
+        assertEquals(data, Utils.process(_H, data));
+        assertEquals("pong", in.readLine());
+        s.close();
+    }
+
+    @Test
+    public void shouldNotBlock() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_READ,
+                TransmissionControlProtocolHandler.PORT, "9124");
+        Socket s = new Socket("localhost", 9124);
+        s.getOutputStream().write("incomplete".getBytes("UTF-8"));
+        accept(_H, 1);
+        assertTrue(Utils.processAll(_H).isEmpty());
+        s.close();
+    }
+
+    @Test
+    public void shouldReadManyConnections() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_READ,
+                TransmissionControlProtocolHandler.PORT, "9125");
+        List<Socket> sockets = new Vector<>();
+        for (int i = 0; i < 50; i++) {
+            Socket s = new Socket("localhost", 9125);
+            s.getOutputStream().write(("record " + i + "\n").getBytes("UTF-8"));
+            sockets.add(s);
+        }
+        List<Data> records = read(_H, 50);
+        assertEquals(50, records.size());
+        Set<String> connections = new HashSet<>();
+        Set<String> values = new HashSet<>();
+        for (Data record : records) {
+            connections.add(record.getAsString(
+                    TransmissionControlProtocolHandler.CONNECTION));
+            values.add(record.getAsString(
+                    TransmissionControlProtocolHandler.RECORD));
+        }
+        assertEquals(50, connections.size());
+        assertEquals(50, values.size());
+        for (Socket s : sockets) {
+            s.close();
+        }
+    }
+
+    @Test
+    public void shouldReadRecordsLargerThanBuffer() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_READ,
+                TransmissionControlProtocolHandler.BUFFER, "4",
+                TransmissionControlProtocolHandler.PORT, "9126");
+        Socket s = new Socket("localhost", 9126);
+        OutputStream out = s.getOutputStream();
+        out.write("a longer record\nand the last one".getBytes("UTF-8"));
+        out.close();
+        List<Data> records = read(_H, 2);
+        assertEquals(2, records.size());
+        assertEquals("a longer record", records.get(0).getAsString(
+                TransmissionControlProtocolHandler.RECORD));
+        assertEquals("and the last one", records.get(1).getAsString(
+                TransmissionControlProtocolHandler.RECORD));
+        accept(_H, 0);
+    }
+
+    @Test
+    public void shouldCloseConnectionsWithOversizedRecords() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_READ,
+                TransmissionControlProtocolHandler.BUFFER, "4",
+                TransmissionControlProtocolHandler.MAX_RECORD, "16",
+                TransmissionControlProtocolHandler.PORT, "9127");
+        Socket s = new Socket("localhost", 9127);
+        OutputStream out = s.getOutputStream();
+        out.write("fifteen bytes..\n".getBytes("UTF-8"));
+        out.write("a record that exceeds the limit\n".getBytes("UTF-8"));
+        List<Data> records = read(_H, 2);
+        assertEquals(1, records.size());
+        assertEquals("fifteen bytes..", records.get(0).getAsString(
+                TransmissionControlProtocolHandler.RECORD));
+        accept(_H, 0);
+        s.close();
+    }
+
+    @Test
+    public void shouldQueueUnsentBytes() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_WRITE,
+                TransmissionControlProtocolHandler.PORT, "9128");
+        Socket s = new Socket("localhost", 9128);
+        final BufferedReader in = new BufferedReader(new InputStreamReader(
+                s.getInputStream(), "UTF-8"));
+        accept(_H, 1);
+        StringBuilder record = new StringBuilder();
+        while (record.length() < 1024 * 1024) {
+            record.append("0123456789abcdef");
+        }
+        Data data = record(_H.getConnections().get(0), record.toString());
+        for (int i = 0; i < 16; i++) {
+            Utils.process(_H, data);
+        }
+
+        final List<String> lines = new Vector<>();
+        Thread reader = new Thread() {
+            @Override
+            public void run() {
+                try {
+                    for (int i = 0; i < 16; i++) {
+                        lines.add(in.readLine());
+                    }
+                } catch (IOException e) {
+                    e.printStackTrace();
+                }
+            }
+        };
+        reader.start();
+        long timeout = System.currentTimeMillis() + 5000;
+        while (reader.isAlive() && System.currentTimeMillis() < timeout) {
+            _H.process(new Vector<Data>(), new Vector<Data>());
+            Thread.sleep(1);
+        }
+        assertEquals(16, lines.size());
+        for (String line : lines) {
+            assertEquals(record.toString(), line);
+        }
+        s.close();
+    }
+
+    @Test
+    public void shouldCloseFailingConnections() throws Exception {
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_WRITE,
+                TransmissionControlProtocolHandler.PORT, "9129");
+        Socket s1 = new Socket("localhost", 9129);
+        accept(_H, 1);
+        String id = _H.getConnections().get(0);
+        Socket s2 = new Socket("localhost", 9129);
+        BufferedReader in = new BufferedReader(new InputStreamReader(
+                s2.getInputStream(), "UTF-8"));
+        accept(_H, 2);
+        s1.setSoLinger(true, 0);
+        s1.close();
+
+        long timeout = System.currentTimeMillis() + 5000;
+        while (_H.getConnections().contains(id)
+                && System.currentTimeMillis() < timeout) {
+            Utils.process(_H, record(id, "lost"));
+            Thread.sleep(1);
+        }
+        assertFalse(_H.getConnections().contains(id));
+        Utils.process(_H, record(_H.getConnections().get(0), "still alive"));
+        assertEquals("still alive", in.readLine());
+        s2.close();
+    }
+
+}
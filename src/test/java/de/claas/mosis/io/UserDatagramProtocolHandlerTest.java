@@ -6,6 +6,8 @@ import org.junit.Test;
 import java.net.DatagramPacket;
 import java.net.DatagramSocket;
 import java.net.InetSocketAddress;
+import java.util.List;
+import java.util.Vector;
 
 import static org.junit.Assert.*;
 
@@ -149,6 +151,187 @@ public class UserDatagramProtocolHandlerTest extends
         Utils.updateParameter(_H, UserDatagramProtocolHandler.BUFFER, "-1");
     }
 
+    @Test
+    public void assumptionsOnReceiveBuffer() throws Exception {
+        assertEquals("0",
+                _H.getParameter(UserDatagramProtocolHandler.RECEIVE_BUFFER));
+    }
+
+    @Test
+    public void assumptionsOnDrain() throws Exception {
+        assertEquals("false",
+                _H.getParameter(UserDatagramProtocolHandler.DRAIN));
+    }
+
+    @Test
+    public void assumptionsOnPoolSize() throws Exception {
+        assertEquals("64",
+                _H.getParameter(UserDatagramProtocolHandler.POOL_SIZE));
+    }
+
+    @Test
+    public void assumptionsOnCounters() throws Exception {
+        assertEquals("0",
+                _H.getParameter(UserDatagramProtocolHandler.RECEIVED));
+        assertEquals("0",
+                _H.getParameter(UserDatagramProtocolHandler.DROPPED));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterReceiveBufferMustNotBeNegative() throws Exception {
+        try {
+            Utils.updateParameters(_H,
+                    UserDatagramProtocolHandler.RECEIVE_BUFFER, "0",
+                    UserDatagramProtocolHandler.RECEIVE_BUFFER, "65536");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_H, UserDatagramProtocolHandler.RECEIVE_BUFFER, "-1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterDrainMustBeBoolean() throws Exception {
+        try {
+            Utils.updateParameters(_H,
+                    UserDatagramProtocolHandler.DRAIN, "true",
+                    UserDatagramProtocolHandler.DRAIN, "false");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_H, UserDatagramProtocolHandler.DRAIN, "maybe");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterPoolSizeMustBePositive() throws Exception {
+        try {
+            Utils.updateParameters(_H,
+                    UserDatagramProtocolHandler.POOL_SIZE, "1",
+                    UserDatagramProtocolHandler.POOL_SIZE, "12");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_H, UserDatagramProtocolHandler.POOL_SIZE, "0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterReceivedMustNotBeNegative() throws Exception {
+        Utils.updateParameter(_H, UserDatagramProtocolHandler.RECEIVED, "-1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterReceivedIsReadOnly() throws Exception {
+        Utils.updateParameter(_H, UserDatagramProtocolHandler.RECEIVED, "1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterDroppedIsReadOnly() throws Exception {
+        Utils.updateParameter(_H, UserDatagramProtocolHandler.DROPPED, "1");
+    }
+
+    /**
+     * A helper method to avoid code duplicates. Reads datagrams until the
+     * given number of datagrams was returned (or a timeout occurred).
+     *
+     * @param count the number of datagrams
+     * @return the datagrams
+     * @throws java.lang.InterruptedException if interrupted while waiting
+     */
+    private List<DatagramPacket> drain(int count) throws InterruptedException {
+        List<DatagramPacket> packets = new Vector<>();
+        long timeout = System.currentTimeMillis() + 5000;
+        while (packets.size() < count
+                && System.currentTimeMillis() < timeout) {
+            _H.process(null, packets);
+            Thread.sleep(1);
+        }
+        return packets;
+    }
+
+    @Test
+    public void shouldDrainPendingDatagrams() throws Exception {
+        DatagramSocket s = new DatagramSocket(new InetSocketAddress(
+                "localhost", 9130));
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_READ,
+                UserDatagramProtocolHandler.DRAIN, "true",
+                UserDatagramProtocolHandler.RECEIVE_BUFFER, "262144",
+                UserDatagramProtocolHandler.PORT, "9131");
+        assertTrue(Utils.processAll(_H).isEmpty());
+
+        DatagramPacket p1 = createDatagram(null, _H);
+        DatagramPacket p2 = createDatagram(null, _H);
+        p2.setLength(10);
+        s.send(p1);
+        s.send(p2);
+        List<DatagramPacket> packets = drain(2);
+        assertEquals(2, packets.size());
+        assertDatagramEquals(p1, packets.get(0));
+        assertDatagramEquals(p2, packets.get(1));
+        assertEquals(s.getLocalSocketAddress(), packets.get(0).getSocketAddress());
+        assertEquals("2", _H.getParameter(UserDatagramProtocolHandler.RECEIVED));
+        assertEquals("0", _H.getParameter(UserDatagramProtocolHandler.DROPPED));
+        s.close();
+    }
+
+    @Test
+    public void shouldReusePackets() throws Exception {
+        DatagramSocket s = new DatagramSocket(new InetSocketAddress(
+                "localhost", 9132));
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_READ,
+                UserDatagramProtocolHandler.DRAIN, "true",
+                UserDatagramProtocolHandler.POOL_SIZE, "2",
+                UserDatagramProtocolHandler.PORT, "9133");
+
+        s.send(createDatagram(null, _H));
+        s.send(createDatagram(null, _H));
+        s.send(createDatagram(null, _H));
+        List<DatagramPacket> packets = drain(3);
+        assertEquals(3, packets.size());
+        assertNotSame(packets.get(0), packets.get(1));
+        assertSame(packets.get(0), packets.get(2));
+        s.close();
+    }
+
+    @Test
+    public void shouldDropOversizedDatagrams() throws Exception {
+        DatagramSocket s = new DatagramSocket(new InetSocketAddress(
+                "localhost", 9134));
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_READ,
+                UserDatagramProtocolHandler.DRAIN, "true",
+                UserDatagramProtocolHandler.BUFFER, "50",
+                UserDatagramProtocolHandler.PORT, "9135");
+
+        DatagramPacket p = createDatagram(null, _H);
+        p.setLength(50);
+        s.send(createDatagram(null, _H));
+        s.send(p);
+        List<DatagramPacket> packets = drain(1);
+        assertEquals(1, packets.size());
+        assertDatagramEquals(p, packets.get(0));
+        assertEquals("1", _H.getParameter(UserDatagramProtocolHandler.RECEIVED));
+        assertEquals("1", _H.getParameter(UserDatagramProtocolHandler.DROPPED));
+        s.close();
+    }
+
+    @Test
+    public void shouldWriteWhenDraining() throws Exception {
+        DatagramSocket s = new DatagramSocket(new InetSocketAddress(
+                "localhost", 9136));
+        Utils.updateParameters(_H,
+                DataHandler.MODE, DataHandler.MODE_WRITE,
+                UserDatagramProtocolHandler.DRAIN, "true",
+                UserDatagramProtocolHandler.PORT, "9137");
+
+        DatagramPacket p = createDatagram(s, null);
+        DatagramPacket p2 = createDatagram(s, null);
+        assertEquals(p, Utils.process(_H, p));
+        s.receive(p2);
+        assertDatagramEquals(p, p2);
+        s.close();
+    }
+
     @Override
     public void shouldRead() throws Exception {
         DatagramSocket s = new DatagramSocket(new InetSocketAddress(
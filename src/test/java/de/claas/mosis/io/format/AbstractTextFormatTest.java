@@ -1,5 +1,7 @@
 package de.claas.mosis.io.format;
 
+import de.claas.mosis.io.FileImpl;
+import de.claas.mosis.io.MappedFileImpl;
 import de.claas.mosis.io.PipedImpl;
 import de.claas.mosis.io.StreamHandlerTest;
 import de.claas.mosis.util.Utils;
@@ -9,6 +11,8 @@ import org.junit.Test;
 
 import java.io.BufferedOutputStream;
 import java.io.BufferedReader;
+import java.io.File;
+import java.io.FileOutputStream;
 import java.io.InputStreamReader;
 
 import static org.junit.Assert.*;
@@ -222,6 +226,70 @@ public abstract class AbstractTextFormatTest<S, T extends AbstractTextFormat<S>>
         assertNull(_H.readLine(false));
     }
 
+    @Test
+    public void shouldReadChars() throws Exception {
+        Utils.updateParameter(_H, AbstractTextFormat.BUFFER_SIZE, "4");
+        BufferedOutputStream sO = _H.getOutputStream();
+        sO.write("a\u00e4\u20ac\n".getBytes("UTF-8"));
+        sO.close();
+
+        assertEquals('a', _H.readChar());
+        assertEquals('\u00e4', _H.readChar());
+        assertEquals('\u20ac', _H.readChar());
+        assertEquals('\n', _H.readChar());
+        assertEquals(-1, _H.readChar());
+        assertEquals(-1, _H.readChar());
+    }
+
+    @Test
+    public void shouldReadCharsFromMappedFile() throws Exception {
+        File file = File.createTempFile("test", MappedFileImpl.class.getName());
+        FileOutputStream out = new FileOutputStream(file);
+        out.write("a\u00e4\u20ac\n\u20ac".getBytes("UTF-8"));
+        out.close();
+        Utils.updateParameters(_H,
+                AbstractTextFormat.IMPL, MappedFileImpl.class.getName(),
+                FileImpl.FILE, file.getAbsolutePath(),
+                MappedFileImpl.MAPPING_SIZE, "2");
+
+        assertEquals('a', _H.readChar());
+        assertEquals('\u00e4', _H.readChar());
+        assertEquals('\u20ac', _H.readChar());
+        assertEquals('\n', _H.readChar());
+        assertEquals('\u20ac', _H.readChar());
+        assertEquals(-1, _H.readChar());
+        assertEquals(-1, _H.readChar());
+        file.delete();
+    }
+
+    @Test
+    public void shouldReadLinesFromMappedFile() throws Exception {
+        File file = File.createTempFile("test", MappedFileImpl.class.getName());
+        FileOutputStream out = new FileOutputStream(file);
+        out.write("abc\r\ndef\n\n\u20ac\n\rtree\r".getBytes("UTF-8"));
+        out.close();
+        Utils.updateParameters(_H,
+                AbstractTextFormat.IMPL, MappedFileImpl.class.getName(),
+                FileImpl.FILE, file.getAbsolutePath(),
+                MappedFileImpl.MAPPING_SIZE, "2");
+
+        assertEquals("abc\r\n", _H.readLine(true));
+        assertEquals("def", _H.readLine(false));
+        assertEquals("", _H.readLine(false));
+        assertEquals("\u20ac\n\r", _H.readLine(true));
+        assertEquals("tree", _H.readLine(false));
+        assertNull(_H.readLine(false));
+        assertNull(_H.readLine(true));
+
+        _H.dismantle();
+        _H.setUp();
+        for (String line : new String[]{"abc", "def", "", "\u20ac", "tree"}) {
+            assertEquals(line, _H.readLine(false));
+        }
+        assertNull(_H.readLine(false));
+        file.delete();
+    }
+
     @Test
     public void shouldChangeBufferSize() {
         assertEquals(4096, _H.getBuffer().length);
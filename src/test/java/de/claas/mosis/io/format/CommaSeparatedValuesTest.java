@@ -1,7 +1,9 @@
 package de.claas.mosis.io.format;
 
 import de.claas.mosis.io.DataHandler;
+import de.claas.mosis.io.MemoryImpl;
 import de.claas.mosis.io.PipedImpl;
+import de.claas.mosis.io.StreamHandler;
 import de.claas.mosis.model.Data;
 import de.claas.mosis.util.Utils;
 import org.junit.Ignore;
@@ -123,8 +125,45 @@ public class CommaSeparatedValuesTest extends
         assertEquals(0, _H.getInputStream().available());
     }
 
-    @Ignore
-    // TODO Please don't ignore me :)
+    @Test
+    public void shouldReadHeaderAgainAfterSetUp() throws Exception {
+        Data data = read("attr1,attr2\r\ntest1,world1\r\n");
+        assertEquals("test1", data.get("attr1"));
+        assertNull(Utils.process(_H));
+        _H.dismantle();
+        _H.setUp();
+        data = read("attr3,attr4\r\ntest2,world2\r\n");
+        assertEquals("test2", data.get("attr3"));
+        assertEquals("world2", data.get("attr4"));
+    }
+
+    @Test
+    public void shouldWriteHeaderAgainAfterSetUp() throws Exception {
+        String name = "test-" + System.nanoTime();
+        _H.dismantle();
+        Utils.updateParameters(_H,
+                StreamHandler.IMPL, MemoryImpl.class.getName(),
+                MemoryImpl.NAME, name,
+                DataHandler.MODE, DataHandler.MODE_WRITE);
+        Data data = new Data();
+        data.put("attr1", "hello");
+        data.put("attr2", "world");
+        try {
+            for (int i = 0; i < 2; i++) {
+                _H.setUp();
+                Utils.process(_H, data);
+                _H.dismantle();
+                String csv = new String(MemoryImpl.toByteArray(name), "UTF-8");
+                assertTrue(csv, csv.startsWith("attr1,attr2"));
+                assertTrue(csv, csv.contains("hello,world"));
+            }
+            _H.setUp();
+        } finally {
+            MemoryImpl.release(name);
+        }
+    }
+
+    @Test
     public void shouldNotReadHeader() throws Exception {
         Utils.updateParameter(_H, CommaSeparatedValues.HAS_HEADER, "false");
         Data data = read("attr1,attr2\n\"hello\",'world'\n");
@@ -148,8 +187,7 @@ public class CommaSeparatedValuesTest extends
         assertEquals("null,null", _H.readLine(false));
     }
 
-    @Ignore
-    // TODO Please don't ignore me :)
+    @Test
     public void shouldReadEscapedElement() throws Exception {
         Data data = read("attr1,attr2,attr3\n\"hello\",\"wo\"\"r\"\"ld\",'te\"\"st'\n");
         assertEquals("hello", data.get("attr1"));
@@ -170,6 +208,29 @@ public class CommaSeparatedValuesTest extends
         assertEquals("null,null,null", _H.readLine(false));
     }
 
+    @Test
+    public void shouldReadSeparatorsAndLineBreaksInEscapedElement()
+            throws Exception {
+        Data data = read("attr1,attr2\r\n\"a,b\",\"c\r\nd\"\r\n\r\nx,\"\"\n");
+        assertEquals("a,b", data.get("attr1"));
+        assertEquals("c\r\nd", data.get("attr2"));
+        data = Utils.process(_H);
+        assertEquals("x", data.get("attr1"));
+        assertEquals("", data.get("attr2"));
+        assertNull(Utils.process(_H));
+    }
+
+    @Test
+    public void shouldReadWithInsufficientBufferSize() throws Exception {
+        Utils.updateParameter(_H, AbstractTextFormat.BUFFER_SIZE, "4");
+        Data data = read("attr1,attr2,attr3\n\u00e4\u00f6\u00fc,\"hello\nworld\",3\n");
+        assertEquals("\u00e4\u00f6\u00fc", data.get("attr1"));
+        assertEquals("hello\nworld", data.get("attr2"));
+        assertEquals("3", data.get("attr3"));
+        assertEquals("attr1,attr2,attr3",
+                _H.getParameter(CommaSeparatedValues.HEADER));
+    }
+
     @Test
     public void shouldReadUnescapedElement() throws Exception {
         Data data = read("attr1,attr2\nhello,world\n");
@@ -218,7 +279,7 @@ public class CommaSeparatedValuesTest extends
     private Data read(String csv) throws Exception {
         Utils.updateParameter(_H, DataHandler.MODE, DataHandler.MODE_READ);
         BufferedOutputStream o = _H.getOutputStream();
-        o.write(csv.getBytes());
+        o.write(csv.getBytes("UTF-8"));
         o.close();
         return Utils.process(_H);
     }
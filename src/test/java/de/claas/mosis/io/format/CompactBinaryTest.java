@@ -0,0 +1,190 @@
+package de.claas.mosis.io.format;
+
+import de.claas.mosis.io.DataHandler;
+import de.claas.mosis.io.FileImpl;
+import de.claas.mosis.io.PipedImpl;
+import de.claas.mosis.io.StreamHandler;
+import de.claas.mosis.io.StreamHandlerTest;
+import de.claas.mosis.model.Data;
+import de.claas.mosis.util.Utils;
+import org.junit.Test;
+
+import java.io.File;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.io.format.CompactBinary}. It
+ * is intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class CompactBinaryTest extends StreamHandlerTest<Data, CompactBinary> {
+
+    @Override
+    protected CompactBinary build() throws Exception {
+        CompactBinary handler = new CompactBinary();
+        handler.setParameter(StreamHandler.IMPL, PipedImpl.class.getName());
+        return handler;
+    }
+
+    @Override
+    public void assumptionsOnImpl() throws Exception {
+        assertEquals(PipedImpl.class.getName(),
+                _H.getParameter(StreamHandler.IMPL));
+    }
+
+    @Override
+    public void shouldRead() throws Exception {
+        Utils.updateParameter(_H, DataHandler.MODE, DataHandler.MODE_READ);
+
+        OutputStream o = _H.getOutputStream();
+        o.write(new byte[]{'S', 2, 1, 'a', 5, 1, 'b', 3});
+        o.write(new byte[]{'R', 10, 0, 0x40, 0x45, 0, 0, 0, 0, 0, 0, 3});
+        o.write(new byte[]{'R', 9, 2, 0x3F, (byte) 0xF0, 0, 0, 0, 0, 0, 0});
+        o.flush();
+        assertEquals(record("a", 42.0, "b", -2L), Utils.process(_H, (Data) null));
+        assertEquals(record("a", 1.0, "b", null), Utils.process(_H, record("c", 1)));
+    }
+
+    @Override
+    public void shouldWrite() throws Exception {
+        Utils.updateParameter(_H, DataHandler.MODE, DataHandler.MODE_WRITE);
+
+        Data data = record("a", 42.0, "b", -2L);
+        assertNull(Utils.process(_H, (Data[]) null));
+        assertEquals(data, Utils.process(_H, data));
+        assertArrayEquals(new byte[]{'S', 2, 1, 'a', 5, 1, 'b', 3, 'R', 10,
+                0, 0x40, 0x45, 0, 0, 0, 0, 0, 0, 3}, available());
+        assertEquals(data, Utils.process(_H, data));
+        assertArrayEquals(new byte[]{'R', 10, 0, 0x40, 0x45, 0, 0, 0, 0, 0,
+                0, 3}, available());
+    }
+
+    @Override
+    public void shouldDetermineMode() throws Exception {
+        Utils.updateParameter(_H, DataHandler.MODE, DataHandler.MODE_AUTO);
+
+        Data data = record("value", 10L);
+        assertEquals(data, Utils.process(_H, data));
+        assertEquals(data, Utils.process(_H));
+        assertEquals(0, _H.getInputStream().available());
+    }
+
+    @Test
+    public void shouldReadAndWriteAllTypes() throws Exception {
+        Data data = record("boolean", true, "integer", -42, "long",
+                Long.MIN_VALUE, "float", 1.5f, "double", Math.PI, "decimal",
+                new BigDecimal("-123456789012345678901234567890.123"),
+                "string", "hello world", "unicode", "gr\u00fc\u00dfe \u20ac",
+                "empty", "", "null", null);
+        assertEquals(data, Utils.process(_H, data));
+        assertEquals(data, Utils.process(_H));
+    }
+
+    @Test
+    public void shouldReadOtherTypesAsIntegerOrString() throws Exception {
+        assertNotNull(Utils.process(_H, record("byte", (byte) 1, "short",
+                (short) 2, "char", 'c')));
+        assertEquals(record("byte", 1, "short", 2, "char", "c"),
+                Utils.process(_H));
+    }
+
+    @Test
+    public void shouldWriteSchemaOnlyWhenChanged() throws Exception {
+        Utils.updateParameter(_H, DataHandler.MODE, DataHandler.MODE_WRITE);
+
+        Utils.process(_H, record("a", 1L));
+        assertEquals('S', available()[0]);
+        Utils.process(_H, record("a", 2L));
+        assertEquals('R', available()[0]);
+        Utils.process(_H, record("a", null));
+        assertEquals('R', available()[0]);
+        Utils.process(_H, record("a", 2.0));
+        assertEquals('S', available()[0]);
+        Utils.process(_H, record("b", 2.0));
+        assertEquals('S', available()[0]);
+        Utils.process(_H, record("b", 2.0, "c", 1.0));
+        assertEquals('S', available()[0]);
+    }
+
+    @Test
+    public void shouldReadChangingSchemas() throws Exception {
+        Data[] records = {record("a", 1L), record("a", null),
+                record("a", "one"), record(), record("b", 2.0, "c", true)};
+        for (Data data : records) {
+            Utils.process(_H, data);
+        }
+        for (Data data : records) {
+            assertEquals(data, Utils.process(_H));
+        }
+        assertEquals(0, _H.getInputStream().available());
+    }
+
+    @Test
+    public void shouldBeCompact() throws Exception {
+        Utils.updateParameter(_H, DataHandler.MODE, DataHandler.MODE_WRITE);
+
+        Data data = record("timestamp", 1400000000000L, "x", 0.5, "y", -0.5,
+                "z", 9.81, "label", "walking");
+        Utils.process(_H, data);
+        available();
+        Utils.process(_H, data, data, data);
+        assertEquals(3 * 41, available().length);
+    }
+
+    @Test
+    public void shouldReadAndWriteFiles() throws Exception {
+        File file = File.createTempFile("test", CompactBinary.class.getName());
+        Data data = record("a", 1L, "b", "two");
+        CompactBinary writer = new CompactBinary();
+        Utils.updateParameters(writer,
+                StreamHandler.IMPL, FileImpl.class.getName(),
+                FileImpl.FILE, file.getAbsolutePath(),
+                DataHandler.MODE, DataHandler.MODE_WRITE);
+        Utils.process(writer, data, data);
+        writer.dismantle();
+
+        CompactBinary reader = new CompactBinary();
+        Utils.updateParameters(reader,
+                StreamHandler.IMPL, FileImpl.class.getName(),
+                FileImpl.FILE, file.getAbsolutePath(),
+                DataHandler.MODE, DataHandler.MODE_READ);
+        assertEquals(data, Utils.process(reader));
+        assertEquals(data, Utils.process(reader));
+        assertNull(Utils.process(reader));
+        reader.dismantle();
+    }
+
+    /**
+     * Returns a record with the given keys and values.
+     *
+     * @param keyValues alternating keys and values
+     * @return a record with the given keys and values
+     */
+    private static Data record(Object... keyValues) {
+        Data data = new Data();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            data.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return data;
+    }
+
+    /**
+     * Returns all bytes that are available from the underlying pipe.
+     *
+     * @return all bytes that are available from the underlying pipe
+     * @throws java.io.IOException if the pipe could not be read
+     */
+    private byte[] available() throws Exception {
+        InputStream i = _H.getInputStream();
+        byte[] bytes = new byte[i.available()];
+        assertEquals(bytes.length, i.read(bytes, 0, bytes.length));
+        return bytes;
+    }
+
+}
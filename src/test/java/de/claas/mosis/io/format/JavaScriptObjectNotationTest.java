@@ -189,6 +189,36 @@ public class JavaScriptObjectNotationTest extends
         assertEquals("{\"temp\":{\"string\":\"tree\"}}", write(data));
     }
 
+    @Test
+    public void shouldReadObjectAcrossLines() throws Exception {
+        Data data = read("{\r\n  \"s1\": \"hello\",\n  \"arr\": [\n    1,\n    2\n  ]\n}\n");
+        assertEquals("hello", data.get("s1"));
+        List<Object> array = data.getAs("arr");
+        assertEquals(2, array.size());
+    }
+
+    @Test
+    public void shouldReadArrayOfObjects() throws Exception {
+        Data data = read("[{\"test\":\"hello\"},\n 42,\n {\"test\":\"world\"}]\n");
+        assertEquals("hello", data.get("test"));
+        assertEquals("world", Utils.process(_H).get("test"));
+        _H.getOutputStream().close();
+        assertNull(Utils.process(_H));
+    }
+
+    @Test
+    public void shouldReadEscapedString() throws Exception {
+        Data data = read("{\"s\":\"a\\\"b\\\\c\\nd\\u00e4\"}\r\n");
+        assertEquals("a\"b\\c\nd\u00e4", data.get("s"));
+    }
+
+    @Test
+    public void shouldWriteEscapedString() throws Exception {
+        Data data = new Data();
+        data.put("s", "a\"b\\c\nd");
+        assertEquals("{\"s\":\"a\\\"b\\\\c\\nd\"}", write(data));
+    }
+
     /**
      * A helper method to avoid code duplicates. The method sets up the {@link
      * de.claas.mosis.io.DataHandler} for reading. It returns the first data
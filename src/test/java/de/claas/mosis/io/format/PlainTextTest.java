@@ -118,6 +118,15 @@ public class PlainTextTest extends AbstractTextFormatTest<String, PlainText> {
         assertEquals("hello world #3", _H.readLine(false));
     }
 
+    @Test
+    public void shouldReadAgainAfterSetUp() throws Exception {
+        assertEquals("hello world #1", read("hello world #1\n"));
+        assertNull(Utils.process(_H));
+        _H.dismantle();
+        _H.setUp();
+        assertEquals("hello world #2", read("hello world #2\n"));
+    }
+
     /**
      * A helper method to avoid code duplicates. The method sets up the {@link
      * de.claas.mosis.io.DataHandler} for reading. It returns the first data
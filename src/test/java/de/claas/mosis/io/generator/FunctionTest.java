@@ -5,6 +5,10 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Vector;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNotNull;
 
@@ -132,6 +136,14 @@ public class FunctionTest {
         assertEquals(new Double(0.25), Utils.process(_F));
         Utils.updateParameter(_F, Function.FUNCTION, "2^(2+3)");
         assertEquals(new Double(32), Utils.process(_F));
+        Utils.updateParameter(_F, Function.FUNCTION, "2^3+1");
+        assertEquals(Double.valueOf(16), Utils.process(_F));
+        Utils.updateParameter(_F, Function.FUNCTION, "(2^3)+1");
+        assertEquals(Double.valueOf(9), Utils.process(_F));
+        Utils.updateParameter(_F, Function.FUNCTION, "2^3*2");
+        assertEquals(Double.valueOf(64), Utils.process(_F));
+        Utils.updateParameter(_F, Function.FUNCTION, "max(2^3, 1)+1");
+        assertEquals(Double.valueOf(9), Utils.process(_F));
     }
 
     @Test
@@ -189,4 +201,89 @@ public class FunctionTest {
         assertEquals(0d, Utils.process(_F, Math.PI * 1.5), delta);
         assertEquals(1d, Utils.process(_F, Math.PI * 2), delta);
     }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidFunction() {
+        Utils.updateParameter(_F, Function.FUNCTION, "sinus(x)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidNumberOfArguments1() {
+        Utils.updateParameter(_F, Function.FUNCTION, "min(x)");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidNumberOfArguments2() {
+        Utils.updateParameter(_F, Function.FUNCTION, "sin(x,1)");
+    }
+
+    @Test
+    public void shouldUseFunctions() {
+        double delta = 0.00001;
+        Utils.updateParameter(_F, Function.FUNCTION, "tan(x)");
+        assertEquals(1d, Utils.process(_F, Math.PI * 0.25), delta);
+        Utils.updateParameter(_F, Function.FUNCTION, "exp(x)");
+        assertEquals(Math.E, Utils.process(_F, 1.0), delta);
+        Utils.updateParameter(_F, Function.FUNCTION, "log(x)");
+        assertEquals(1d, Utils.process(_F, Math.E), delta);
+        Utils.updateParameter(_F, Function.FUNCTION, "sqrt(x)");
+        assertEquals(3d, Utils.process(_F, 9.0), delta);
+        Utils.updateParameter(_F, Function.FUNCTION, "abs(x)");
+        assertEquals(2.5d, Utils.process(_F, -2.5), delta);
+        Utils.updateParameter(_F, Function.FUNCTION, "min(x, 3, -1)");
+        assertEquals(-2d, Utils.process(_F, -2.0), delta);
+        assertEquals(-1d, Utils.process(_F, 2.0), delta);
+        Utils.updateParameter(_F, Function.FUNCTION, "max(x, 2*3)");
+        assertEquals(6d, Utils.process(_F, 5.0), delta);
+        assertEquals(7d, Utils.process(_F, 7.0), delta);
+    }
+
+    @Test
+    public void shouldUseMultipleVariables() {
+        Utils.updateParameter(_F, Function.FUNCTION, "x0 * 10 + x1 - x2");
+        assertEquals(Double.valueOf(12), Utils.process(_F, 1.0, 3.0, 1.0));
+        assertEquals(Double.valueOf(10), Utils.process(_F, 1.0));
+    }
+
+    @Test
+    public void shouldReplaceMissingValuesByZero() {
+        Utils.updateParameter(_F, Function.FUNCTION, "x0 + x1 + 1");
+        assertEquals(Double.valueOf(1), Utils.process(_F));
+        assertEquals(Double.valueOf(1), Utils.process(_F, (Double) null));
+        assertEquals(Double.valueOf(3), Utils.process(_F, null, 2.0));
+        assertEquals(0d, _F.interpret("x1 * x5", Arrays.asList(2.0, null)), 0.0);
+    }
+
+    @Test
+    public void shouldIgnoreWhitespace() {
+        Utils.updateParameter(_F, Function.FUNCTION, " ( 4 + x ) ^ 2 ");
+        assertEquals(Double.valueOf(49), Utils.process(_F, 3.0));
+    }
+
+    @Test
+    public void shouldGenerateOneValuePerSample() throws Exception {
+        Function single = new Function();
+        Utils.updateParameter(single, Function.FUNCTION, "x0 * 2 + x1");
+        Utils.updateParameters(_F,
+                Function.FUNCTION, "x0 * 2 + x1",
+                Generator.BLOCK_SIZE, "4");
+        List<Double> expected = new Vector<>();
+        List<Double> actual = new Vector<>();
+        for (int i = 0; i < 10; i++) {
+            List<Double> in = Arrays.asList((double) i, 0.5);
+            single.process(in, expected);
+            _F.process(in, actual);
+        }
+        assertEquals(expected, actual);
+        assertEquals(10, actual.size());
+        single.dismantle();
+    }
+
+    @Test
+    public void shouldEvaluateCompiledExpression() {
+        Function.Expression expression = new Function.Expression(
+                "sqrt((2^2)*4) + -x1 * (1 + 1)");
+        assertEquals(-6d, expression.evaluate(new double[]{0, 5}, 2), 0.0);
+        assertEquals(4d, expression.evaluate(new double[]{0, 5}, 1), 0.0);
+    }
 }
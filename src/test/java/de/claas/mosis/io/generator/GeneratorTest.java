@@ -0,0 +1,143 @@
+package de.claas.mosis.io.generator;
+
+import de.claas.mosis.util.Utils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Vector;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for {@link de.claas.mosis.io.generator.Generator} classes. It
+ * is intended to collect and document a set of test cases that are applicable
+ * to all {@link de.claas.mosis.io.generator.Generator} classes. Please refer to
+ * the individual tests for more detailed information.
+ * <p>
+ * Additional test cases can be found in {@link de.claas.mosis.model.ProcessorTest}
+ * and {@link de.claas.mosis.model.ProcessorAdapterTest}.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@RunWith(Parameterized.class)
+public class GeneratorTest {
+
+    private final Class<Generator> _Clazz;
+    private Generator _G;
+
+    /**
+     * Initializes this JUnit test for an implementation of the {@link
+     * de.claas.mosis.io.generator.Generator} class.
+     *
+     * @param clazz implementation of {@link de.claas.mosis.io.generator.Generator}
+     *              class
+     */
+    public GeneratorTest(Class<Generator> clazz) {
+        _Clazz = clazz;
+    }
+
+    @Parameters
+    public static Collection<?> implementations() {
+        List<Object> impl = new Vector<>();
+        impl.add(new Object[]{Function.class});
+        impl.add(new Object[]{Linear.class});
+        impl.add(new Object[]{Random.class});
+        return impl;
+    }
+
+    @Before
+    public void before() throws Exception {
+        _G = instance();
+    }
+
+    @After
+    public void after() {
+        _G.dismantle();
+    }
+
+    /**
+     * Returns a new (and set up) instance of the tested class. Random numbers
+     * are generated with a fixed seed.
+     *
+     * @return a new instance of the tested class
+     * @throws java.lang.Exception if the class could not be instantiated
+     */
+    private Generator instance() throws Exception {
+        Generator generator = Utils.instance(_Clazz);
+        if (generator instanceof Random) {
+            generator.setParameter(Random.SEED, "42");
+        }
+        generator.setUp();
+        return generator;
+    }
+
+    @Test
+    public void assumptionsOnBlockSize() throws Exception {
+        assertEquals("1", _G.getParameter(Generator.BLOCK_SIZE));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blockSizeMayNotBeNull() throws Exception {
+        Utils.updateParameter(_G, Generator.BLOCK_SIZE, null);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blockSizeMustBePositive() throws Exception {
+        try {
+            Utils.updateParameters(_G,
+                    Generator.BLOCK_SIZE, "1",
+                    Generator.BLOCK_SIZE, "1024");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_G, Generator.BLOCK_SIZE, "0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void blockSizeMustBeInteger() throws Exception {
+        Utils.updateParameter(_G, Generator.BLOCK_SIZE, "1.5");
+    }
+
+    @Test
+    public void shouldGenerateBlocks() throws Exception {
+        Utils.updateParameter(_G, Generator.BLOCK_SIZE, "16");
+        assertEquals(16, Utils.processAll(_G).size());
+        assertEquals(16, Utils.processAll(_G).size());
+    }
+
+    @Test
+    public void shouldBeEquivalentToSingleSteps() throws Exception {
+        Generator single = instance();
+        Utils.updateParameter(_G, Generator.BLOCK_SIZE, "7");
+        List<Double> expected = new Vector<>();
+        List<Double> actual = new Vector<>();
+        for (int i = 0; i < 70; i++) {
+            single.process(null, expected);
+        }
+        for (int i = 0; i < 10; i++) {
+            _G.process(null, actual);
+        }
+        assertEquals(expected, actual);
+        single.dismantle();
+    }
+
+    @Test
+    public void shouldGenerateIntoArray() throws Exception {
+        Generator single = instance();
+        double[] values = new double[12];
+        _G.generate(values, 1, 10);
+        assertEquals(0.0, values[0], 0.0);
+        for (int i = 1; i < 11; i++) {
+            assertEquals(Utils.process(single), values[i], 0.0);
+        }
+        assertEquals(0.0, values[11], 0.0);
+        single.dismantle();
+    }
+
+}
@@ -108,6 +108,17 @@ public class ConfigurableAdapterTest {
         assertFalse(_C.getParameterAsBoolean(unknown));
     }
 
+    @Test
+    public void shouldSkipConditionsForTrustedValues() {
+        String unknown = Utils.unknownParameter(_C);
+        _C.setParameter(unknown, "hello");
+        _C.addCondition(unknown, new Condition.IsBoolean());
+        _C.addObserver(_Observer);
+        _C.setParameter(unknown, "world", false);
+        assertEquals("world", _C.getParameter(unknown));
+        assertTrue(_Observer.getParameters().contains(unknown));
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void shouldNotSatisfyConditionWhenUpdating() {
         String unknown = Utils.unknownParameter(_C);
@@ -333,6 +344,64 @@ public class ConfigurableAdapterTest {
         assertEquals(42.3, _C.getParameterAsDouble(param), 0.0001);
     }
 
+    @Test
+    public void shouldUpdateHandles() throws Exception {
+        String param = Utils.unknownParameter(_C);
+        ParameterHandle<String> string = _C.getHandle(param);
+        ParameterHandle<Boolean> bool = _C.getHandleAsBoolean(param);
+        ParameterHandle<Integer> integer = _C.getHandleAsInteger(param);
+        ParameterHandle<Long> number = _C.getHandleAsLong(param);
+        ParameterHandle<Double> decimal = _C.getHandleAsDouble(param);
+        assertEquals(param, string.getParameter());
+        assertNull(string.get());
+        assertNull(integer.get());
+
+        _C.setParameter(param, "42");
+        assertEquals("42", string.get());
+        assertFalse(bool.get());
+        assertEquals(42, (int) integer.get());
+        assertEquals(42L, (long) number.get());
+        assertEquals(42.0, decimal.get(), 0.0001);
+
+        _C.setParameter(param, "23");
+        assertEquals("23", string.get());
+        assertEquals(23, (int) integer.get());
+        assertEquals(23L, (long) number.get());
+        assertEquals(23.0, decimal.get(), 0.0001);
+
+        _C.setParameter(param, "true");
+        assertTrue(bool.get());
+    }
+
+    @Test
+    public void shouldInvalidateHandlesWhenCleared() {
+        String param = Utils.unknownParameter(_C);
+        ParameterHandle<String> handle = _C.getHandle(param);
+        _C.setParameter(param, "hello");
+        assertEquals("hello", handle.get());
+        _C.update(new ConfigurableAdapter(), true);
+        assertNull(handle.get());
+    }
+
+    @Test
+    public void shouldUpdateHandlesBeforeObservers() {
+        String param = Utils.unknownParameter(_C);
+        final ParameterHandle<String> handle = _C.getHandle(param);
+        final List<String> values = new Vector<>();
+        _C.setParameter(param, "hello");
+        assertEquals("hello", handle.get());
+        _C.addObserver(new Observer() {
+
+            @Override
+            public void update(Configurable configurable, String parameter) {
+                values.add(handle.get());
+            }
+        });
+        _C.setParameter(param, "world");
+        assertTrue(values.contains("world"));
+        assertFalse(values.contains("hello"));
+    }
+
     @Test
     public void shouldAcceptNullValues() {
         _C.addObserver(null);
@@ -61,6 +61,7 @@ public class DecoratorProcessorTest {
         impl.add(new Object[]{Sleep.class});
         impl.add(new Object[]{SystemOut.class});
         impl.add(new Object[]{Time.class});
+        impl.add(new Object[]{Latency.class});
         impl.add(new Object[]{Logger.class});
         return impl;
     }
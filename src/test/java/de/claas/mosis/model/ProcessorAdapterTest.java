@@ -63,6 +63,7 @@ public class ProcessorAdapterTest {
         impl.add(new Object[]{Null.class});
         impl.add(new Object[]{SystemOut.class});
         impl.add(new Object[]{Time.class});
+        impl.add(new Object[]{Latency.class});
         impl.add(new Object[]{NoOperation.class});
         impl.add(new Object[]{BreakOut.class});
         impl.add(new Object[]{Forward.class});
@@ -304,6 +305,11 @@ public class ProcessorAdapterTest {
         assertEquals(0, observer.getCalls());
     }
 
+    @Test
+    public void shouldHavePositiveBatchSize() throws Exception {
+        assertTrue(_P.getBatchSize() > 0);
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void shouldThrowException() throws Exception {
         Condition condition = new Condition.IsBoolean();
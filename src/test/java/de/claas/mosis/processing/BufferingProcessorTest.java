@@ -71,6 +71,66 @@ public class BufferingProcessorTest {
         assertEquals("0", _P.getParameter(BufferingProcessor.WINDOW_SIZE));
     }
 
+    @Test
+    public void assumptionsOnStepWidth() throws Exception {
+        assertEquals("1", _P.getParameter(BufferingProcessor.STEP_WIDTH));
+    }
+
+    @Test
+    public void assumptionsOnTumbling() throws Exception {
+        assertEquals("false", _P.getParameter(BufferingProcessor.TUMBLING));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterStepWidthMustBePositive() throws Exception {
+        try {
+            Utils.updateParameters(_P,
+                    BufferingProcessor.STEP_WIDTH, "1",
+                    BufferingProcessor.STEP_WIDTH, "256");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_P, BufferingProcessor.STEP_WIDTH, "0");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterTumblingMustBeBoolean() throws Exception {
+        try {
+            Utils.updateParameters(_P,
+                    BufferingProcessor.TUMBLING, "true",
+                    BufferingProcessor.TUMBLING, "false");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_P, BufferingProcessor.TUMBLING, "maybe");
+    }
+
+    @Test
+    public void shouldStepForEverySample() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertTrue(_P.nextStep());
+        }
+    }
+
+    @Test
+    public void shouldStepForEveryNthSample() throws Exception {
+        Utils.updateParameter(_P, BufferingProcessor.STEP_WIDTH, "3");
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i % 3 == 0, _P.nextStep());
+        }
+    }
+
+    @Test
+    public void shouldStepForTumblingWindows() throws Exception {
+        Utils.updateParameters(_P,
+                BufferingProcessor.WINDOW_SIZE, "4",
+                BufferingProcessor.STEP_WIDTH, "3",
+                BufferingProcessor.TUMBLING, "true");
+        for (int i = 1; i <= 10; i++) {
+            assertEquals(i % 4 == 0, _P.nextStep());
+        }
+    }
+
     @Test(expected = IllegalArgumentException.class)
     public void parameterWindowSizeMayNotBeNull() throws Exception {
         Utils.updateParameter(_P, BufferingProcessor.WINDOW_SIZE, null);
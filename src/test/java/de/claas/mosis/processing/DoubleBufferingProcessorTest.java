@@ -0,0 +1,159 @@
+package de.claas.mosis.processing;
+
+import de.claas.mosis.processing.util.Convolution;
+import de.claas.mosis.util.Utils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.runner.RunWith;
+import org.junit.runners.Parameterized;
+import org.junit.runners.Parameterized.Parameters;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.List;
+import java.util.Vector;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for {@link de.claas.mosis.processing.DoubleBufferingProcessor}
+ * classes. It is intended to collect and document a set of test cases that are
+ * applicable to all {@link de.claas.mosis.processing.DoubleBufferingProcessor}
+ * classes. Please refer to the individual tests for more detailed information.
+ * <p>
+ * Additional test cases can be found in {@link de.claas.mosis.processing.BufferingProcessorTest}.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+@RunWith(Parameterized.class)
+public class DoubleBufferingProcessorTest {
+
+    private final Class<DoubleBufferingProcessor<Object>> _Clazz;
+    private DoubleBufferingProcessor<Object> _P;
+
+    /**
+     * Initializes this JUnit test for an implementation of the {@link
+     * de.claas.mosis.processing.DoubleBufferingProcessor} class.
+     *
+     * @param clazz implementation of {@link de.claas.mosis.processing.DoubleBufferingProcessor}
+     *              class
+     */
+    public DoubleBufferingProcessorTest(
+            Class<DoubleBufferingProcessor<Object>> clazz) {
+        _Clazz = clazz;
+    }
+
+    @Parameters
+    public static Collection<?> implementations() {
+        List<Object> impl = new Vector<>();
+        impl.add(new Object[]{Convolution.class});
+        impl.add(new Object[]{MovingAverage.class});
+        return impl;
+    }
+
+    @Before
+    public void before() throws Exception {
+        _P = Utils.instance(_Clazz);
+        _P.setParameter(BufferingProcessor.WINDOW_SIZE, "3");
+        _P.setUp();
+    }
+
+    @After
+    public void after() {
+        _P.dismantle();
+    }
+
+    @Test
+    public void shouldBeInOrder() throws Exception {
+        for (int i = 0; i < 10; i++) {
+            _P.append(i);
+            int count = Math.min(i + 1, 3);
+            assertEquals(count, _P.getCount());
+            for (int j = 0; j < count; j++) {
+                assertEquals(i - count + 1 + j, _P.get(j), 0.0);
+            }
+        }
+    }
+
+    @Test
+    public void shouldBeFull() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            assertEquals(i >= 3, _P.isBufferFull());
+            _P.append(i);
+        }
+        assertTrue(_P.getBuffer().isEmpty());
+    }
+
+    @Test
+    public void shouldKeepBufferInStepWithWindow() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            List<Double> removed = _P.appendAndRemove(Arrays.asList((double) i));
+            assertEquals(i >= 3 ? Arrays.asList(i - 3.0) : null, removed);
+            assertEquals(_P.getCount(), _P.getBuffer().size());
+            assertEquals(i, _P.get(_P.getCount() - 1), 0.0);
+        }
+    }
+
+    @Test
+    public void shouldNotBuffer() throws Exception {
+        Utils.updateParameter(_P, BufferingProcessor.WINDOW_SIZE, "0");
+        _P.append(1.0);
+        _P.append(Arrays.asList(1.0, 2.0));
+        assertEquals(0, _P.getCount());
+        assertTrue(_P.isBufferFull());
+    }
+
+    @Test
+    public void shouldBufferColumns() throws Exception {
+        _P.append(Arrays.asList(1.0, 10.0));
+        _P.append(Arrays.asList(2.0, null, 200.0));
+        _P.append(Arrays.asList(3.0));
+        assertEquals(3, _P.getColumns());
+        assertEquals(2.0, _P.get(0, 1), 0.0);
+        assertEquals(10.0, _P.get(1, 0), 0.0);
+        assertTrue(Double.isNaN(_P.get(1, 1)));
+        assertTrue(Double.isNaN(_P.get(2, 0)));
+        assertEquals(200.0, _P.get(2, 1), 0.0);
+        assertTrue(Double.isNaN(_P.get(2, 2)));
+    }
+
+    @Test
+    public void shouldCopyInOrder() throws Exception {
+        double[] values = new double[4];
+        _P.append(1.0);
+        _P.append(2.0);
+        _P.copy(0, values, 1);
+        assertArrayEquals(new double[]{0.0, 1.0, 2.0, 0.0}, values, 0.0);
+        _P.append(3.0);
+        _P.append(4.0);
+        _P.copy(0, values, 0);
+        assertArrayEquals(new double[]{2.0, 3.0, 4.0, 0.0}, values, 0.0);
+    }
+
+    @Test
+    public void shouldKeepRecentValuesWhenResizing() throws Exception {
+        for (int i = 0; i < 5; i++) {
+            _P.append(i);
+        }
+        _P.setParameter(BufferingProcessor.WINDOW_SIZE, "2");
+        assertEquals(2, _P.getWindowSize());
+        assertEquals(2, _P.getCount());
+        assertEquals(3.0, _P.get(0), 0.0);
+        assertEquals(4.0, _P.get(1), 0.0);
+        _P.setParameter(BufferingProcessor.WINDOW_SIZE, "4");
+        _P.append(5.0);
+        _P.append(6.0);
+        _P.append(7.0);
+        assertEquals(4, _P.getCount());
+        assertEquals(4.0, _P.get(0), 0.0);
+        assertEquals(7.0, _P.get(3), 0.0);
+    }
+
+    @Test(expected = IndexOutOfBoundsException.class)
+    public void shouldNotAccessMissingValues() throws Exception {
+        _P.append(1.0);
+        _P.get(1);
+    }
+
+}
@@ -94,4 +94,41 @@ public class MovingAverageTest {
         assertEquals(new Double(4), Utils.process(_P, 8.0));
         assertEquals(new Double(-1), Utils.process(_P, -2.0));
     }
+
+    @Test
+    public void shouldUseStepWidth() {
+        Utils.updateParameter(_P, MovingAverage.STEP_WIDTH, "2");
+        assertNull(Utils.process(_P, 23.0));
+        assertEquals(Double.valueOf(0), Utils.process(_P, -23.0));
+        assertNull(Utils.process(_P, 12.0));
+        assertEquals(Double.valueOf(3), Utils.process(_P, 0.0));
+        assertNull(Utils.process(_P, 8.0));
+        assertEquals(Double.valueOf(-1), Utils.process(_P, -2.0));
+    }
+
+    @Test
+    public void shouldNotDrift() {
+        Utils.updateParameter(_P, MovingAverage.WINDOW_SIZE, "7");
+        double[] values = new double[10000];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = i % 3 == 0 ? 1e9 + i : 1e-3 * i;
+            double sum = 0;
+            int count = Math.min(i + 1, 7);
+            for (int j = i - count + 1; j <= i; j++) {
+                sum += values[j];
+            }
+            assertEquals(sum / count, Utils.process(_P, values[i]), 1e-6);
+        }
+    }
+
+    @Test
+    public void shouldKeepValuesWhenResizing() {
+        Utils.process(_P, 1.0);
+        Utils.process(_P, 2.0);
+        Utils.process(_P, 3.0);
+        _P.setParameter(MovingAverage.WINDOW_SIZE, "2");
+        assertEquals(Double.valueOf(3.5), Utils.process(_P, 4.0));
+        _P.setParameter(MovingAverage.WINDOW_SIZE, "3");
+        assertEquals(Double.valueOf(4), Utils.process(_P, 5.0));
+    }
 }
@@ -3,6 +3,9 @@ package de.claas.mosis.processing.condition;
 import de.claas.mosis.model.Condition;
 import org.junit.Test;
 
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -45,4 +48,14 @@ public class IsBooleanTest {
         assertFalse(c.complies(null, null));
     }
 
+    @Test
+    public void shouldMatchRegularExpression() {
+        Condition c = build();
+        String[] values = {"true", "false", "TRUE", "True", "truefalse", "true ", ""};
+        for (String value : values) {
+            assertEquals(value, Pattern.matches("true|false", value),
+                    c.complies(null, value));
+        }
+    }
+
 }
@@ -3,6 +3,9 @@ package de.claas.mosis.processing.condition;
 import de.claas.mosis.model.Condition;
 import org.junit.Test;
 
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -49,4 +52,14 @@ public class IsIntegerTest {
         assertFalse(c.complies(null, null));
     }
 
+    @Test
+    public void shouldMatchRegularExpression() {
+        Condition c = build();
+        String[] values = {"0", "-1", "42", "-", "", "1-", "--1", "1.0", "1 ", " 1", "a1", "\u0661"};
+        for (String value : values) {
+            assertEquals(value, Pattern.matches("-?\\d+", value),
+                    c.complies(null, value));
+        }
+    }
+
 }
@@ -3,6 +3,9 @@ package de.claas.mosis.processing.condition;
 import de.claas.mosis.model.Condition;
 import org.junit.Test;
 
+import java.util.regex.Pattern;
+
+import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertFalse;
 import static org.junit.Assert.assertTrue;
 
@@ -49,4 +52,22 @@ public class IsNumericTest {
         assertFalse(c.complies(null, null));
     }
 
+    @Test
+    public void shouldSeparateBySupplementaryCharacter() {
+        Condition c = build();
+        assertTrue(c.complies(null, "1\ud83d\ude002"));
+        assertFalse(c.complies(null, "1\ud83d\ude00"));
+        assertFalse(c.complies(null, "1\ud83d\ude00\ude002"));
+    }
+
+    @Test
+    public void shouldMatchRegularExpression() {
+        Condition c = build();
+        String[] values = {"0", "-1.5", "12a34", "1 2", "1\n2", "1\r2", "1\u20282", "1.", ".1", "-", "", "23.3.4", "1..2", "-.5", "\u0661", "1\ud83d\ude002", "1\ud83d\ude00", "1\ud83d2"};
+        for (String value : values) {
+            assertEquals(value, Pattern.matches("-?\\d+(.\\d+)?", value),
+                    c.complies(null, value));
+        }
+    }
+
 }
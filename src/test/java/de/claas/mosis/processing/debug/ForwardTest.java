@@ -5,6 +5,7 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
@@ -53,4 +54,16 @@ public class ForwardTest {
         assertNull(results.get(1));
     }
 
+    @Test
+    public void shouldForwardBatches() {
+        assertTrue(_P.getBatchSize() > 1);
+        List<List<Object>> in = new ArrayList<>();
+        in.add(Arrays.<Object>asList(1, 2));
+        in.add(Arrays.<Object>asList());
+        in.add(Arrays.<Object>asList(null, "hello"));
+        List<Object> out = new ArrayList<>();
+        _P.processBatch(in, out);
+        assertEquals(Arrays.<Object>asList(1, 2, null, "hello"), out);
+    }
+
 }
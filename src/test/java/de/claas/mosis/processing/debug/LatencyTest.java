@@ -0,0 +1,133 @@
+package de.claas.mosis.processing.debug;
+
+import de.claas.mosis.model.Configurable;
+import de.claas.mosis.model.DecoratorProcessor;
+import de.claas.mosis.model.Observer;
+import de.claas.mosis.util.Utils;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+
+import java.util.List;
+import java.util.Vector;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.processing.debug.Latency}. It
+ * is intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ * <p>
+ * Additional test cases can be found in {@link de.claas.mosis.model.ProcessorTest},
+ * {@link de.claas.mosis.model.ProcessorAdapterTest} and {@link
+ * de.claas.mosis.model.DecoratorProcessorTest}.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class LatencyTest {
+
+    private Latency _P;
+
+    @Before
+    public void before() throws Exception {
+        _P = new Latency();
+        _P.setParameter(Latency.CLASS, Sleep.class.getName());
+        _P.setParameter(Sleep.DELAY, "10");
+        _P.setParameter(DecoratorProcessor.SHADOWED + Sleep.CLASS,
+                Null.class.getName());
+        _P.setUp();
+    }
+
+    @After
+    public void after() {
+        _P.dismantle();
+    }
+
+    @Test
+    public void assumptionsOnParameterCount() {
+        assertEquals("0", _P.getParameter(Latency.COUNT));
+    }
+
+    @Test
+    public void assumptionsOnParameterPercentiles() {
+        assertTrue(_P.getParameter(Latency.P50).isEmpty());
+        assertTrue(_P.getParameter(Latency.P90).isEmpty());
+        assertTrue(_P.getParameter(Latency.P99).isEmpty());
+        assertTrue(_P.getParameter(Latency.P999).isEmpty());
+        assertTrue(_P.getParameter(Latency.MAX).isEmpty());
+    }
+
+    @Test
+    public void assumptionsOnParameterReset() {
+        assertEquals("false", _P.getParameter(Latency.RESET));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterCountIsReadOnly() throws Exception {
+        Utils.updateParameter(_P, Latency.COUNT, "1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterPercentileIsReadOnly() throws Exception {
+        Utils.updateParameter(_P, Latency.P99, "1");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterResetMustBeBoolean() throws Exception {
+        try {
+            Utils.updateParameters(_P,
+                    Latency.RESET, "true",
+                    Latency.RESET, "false");
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_P, Latency.RESET, "maybe");
+    }
+
+    @Test
+    public void shouldMeasureNanoseconds() throws Exception {
+        Utils.process(_P);
+        Utils.process(_P);
+        assertEquals("2", _P.getParameter(Latency.COUNT));
+        long p50 = Long.parseLong(_P.getParameter(Latency.P50));
+        long p90 = Long.parseLong(_P.getParameter(Latency.P90));
+        long p99 = Long.parseLong(_P.getParameter(Latency.P99));
+        long p999 = Long.parseLong(_P.getParameter(Latency.P999));
+        long max = Long.parseLong(_P.getParameter(Latency.MAX));
+        assertTrue(p50 >= 10000000);
+        assertTrue(p50 <= p90);
+        assertTrue(p90 <= p99);
+        assertTrue(p99 <= p999);
+        assertTrue(p999 <= max);
+    }
+
+    @Test
+    public void shouldNotModifyParametersWhileProcessing() throws Exception {
+        final List<String> parameters = new Vector<>();
+        _P.addObserver(new Observer() {
+            @Override
+            public void update(Configurable configurable, String parameter) {
+                parameters.add(parameter);
+            }
+        });
+        Utils.updateParameter(_P, Sleep.DELAY, "0");
+        parameters.clear();
+        for (int i = 0; i < 100; i++) {
+            Utils.process(_P);
+        }
+        assertTrue(parameters.isEmpty());
+        assertEquals("100", _P.getParameter(Latency.COUNT));
+    }
+
+    @Test
+    public void shouldReset() throws Exception {
+        Utils.process(_P);
+        _P.setParameter(Latency.RESET, "true");
+        assertEquals("false", _P.getParameter(Latency.RESET));
+        assertEquals("0", _P.getParameter(Latency.COUNT));
+        assertTrue(_P.getParameter(Latency.MAX).isEmpty());
+        Utils.process(_P);
+        assertEquals("1", _P.getParameter(Latency.COUNT));
+    }
+
+}
@@ -5,10 +5,12 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.List;
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
 
 /**
  * The JUnit test for class {@link de.claas.mosis.processing.debug.ToString}. It
@@ -53,6 +55,17 @@ public class ToStringTest {
         assertEquals(Arrays.asList(obj.toString(), "23", ""), Utils.processAll(_P, obj, 23L, ""));
     }
 
+    @Test
+    public void shouldConvertBatches() {
+        assertTrue(_P.getBatchSize() > 1);
+        List<List<Object>> in = new ArrayList<>();
+        in.add(Arrays.<Object>asList(42, null));
+        in.add(Arrays.<Object>asList("tree"));
+        List<String> out = new ArrayList<>();
+        _P.processBatch(in, out);
+        assertEquals(Arrays.asList("42", null, "tree"), out);
+    }
+
     @Test
     public void shouldHandleNullValues() {
         assertEquals(null, Utils.process(_P, (Object) null));
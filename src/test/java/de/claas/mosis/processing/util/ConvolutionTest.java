@@ -5,6 +5,11 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.Vector;
+
 import static org.junit.Assert.*;
 
 /**
@@ -170,6 +175,94 @@ public class ConvolutionTest {
         assertEquals(+0.5, Utils.process(_P, 1.0, 0.0), 0.0001);
     }
 
+    @Test
+    public void assumptionsOnParameterMethod() {
+        assertEquals(Convolution.METHOD_AUTO,
+                _P.getParameter(Convolution.METHOD));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void parameterMethodMustBeInWhiteList() throws Exception {
+        try {
+            Utils.updateParameters(_P,
+                    Convolution.METHOD, Convolution.METHOD_DIRECT,
+                    Convolution.METHOD, Convolution.METHOD_FFT,
+                    Convolution.METHOD, Convolution.METHOD_AUTO);
+        } catch (Exception e) {
+            fail(e.toString());
+        }
+        Utils.updateParameter(_P, Convolution.METHOD, "maybe");
+    }
+
+    @Test
+    public void shouldChooseMethodByNumberOfWeights() {
+        assertEquals(1, _P.getBatchSize());
+        Utils.updateParameter(_P, Convolution.FFT_THRESHOLD, "2");
+        assertTrue(_P.getBatchSize() > 1);
+        Utils.updateParameter(_P, Convolution.METHOD, Convolution.METHOD_DIRECT);
+        assertEquals(1, _P.getBatchSize());
+        Utils.updateParameters(_P,
+                Convolution.FFT_THRESHOLD, "64",
+                Convolution.METHOD, Convolution.METHOD_FFT);
+        assertTrue(_P.getBatchSize() > 1);
+    }
+
+    @Test
+    public void shouldMatchDirectForm() {
+        Random random = new Random(23);
+        StringBuilder weights = new StringBuilder();
+        for (int i = 0; i < 100; i++) {
+            weights.append(random.nextGaussian()).append(',');
+        }
+        Convolution direct = new Convolution();
+        Utils.updateParameters(direct,
+                Convolution.WINDOW_SIZE, "100",
+                Convolution.WEIGHTS, weights.toString(),
+                Convolution.REQUIRES_FULL_BUFFER, "true",
+                Convolution.METHOD, Convolution.METHOD_DIRECT);
+        Utils.updateParameters(_P,
+                Convolution.WINDOW_SIZE, "100",
+                Convolution.WEIGHTS, weights.toString(),
+                Convolution.REQUIRES_FULL_BUFFER, "true",
+                Convolution.METHOD, Convolution.METHOD_FFT);
+
+        List<Double> expected = new Vector<>();
+        List<Double> actual = new Vector<>();
+        List<List<Double>> batch = new Vector<>();
+        for (int i = 0; i < 1000; i++) {
+            List<Double> sample = Arrays.asList(random.nextGaussian() * 100);
+            direct.process(sample, expected);
+            batch.add(sample);
+            if (batch.size() == (i < 500 ? _P.getBatchSize() : 37)) {
+                _P.processBatch(batch, actual);
+                batch.clear();
+            }
+        }
+        _P.processBatch(batch, actual);
+        assertEquals(expected.size(), actual.size());
+        for (int i = 0; i < expected.size(); i++) {
+            if (expected.get(i) == null) {
+                assertNull(actual.get(i));
+            } else {
+                assertEquals(expected.get(i), actual.get(i), 1e-9);
+            }
+        }
+    }
+
+    @Test
+    public void shouldUseTumblingWindows() {
+        Utils.updateParameters(_P,
+                Convolution.WINDOW_SIZE, "3",
+                Convolution.WEIGHTS, "1,1,1",
+                Convolution.TUMBLING, "true");
+        assertNull(Utils.process(_P, 1.0));
+        assertNull(Utils.process(_P, 2.0));
+        assertEquals(6.0, Utils.process(_P, 3.0), 0.0001);
+        assertNull(Utils.process(_P, 4.0));
+        assertNull(Utils.process(_P, 5.0));
+        assertEquals(15.0, Utils.process(_P, 6.0), 0.0001);
+    }
+
     @Test
     public void shouldUseCorrespondingWeights() {
         Utils.updateParameters(_P,
@@ -5,8 +5,13 @@ import org.junit.After;
 import org.junit.Before;
 import org.junit.Test;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
 
 /**
  * The JUnit test for class {@link de.claas.mosis.processing.util.Distance}. It
@@ -52,6 +57,18 @@ public class DistanceTest {
         assertEquals(new Double(13.0), Utils.process(_P, 10.0));
     }
 
+    @Test
+    public void shouldReturnDistanceInBatches() {
+        assertTrue(_P.getBatchSize() > 1);
+        List<List<Double>> in = new ArrayList<>();
+        for (Double value : Arrays.asList(10.0, 2.0, 2.0, null, -3.0, 10.0)) {
+            in.add(Arrays.asList(value));
+        }
+        List<Double> out = new ArrayList<>();
+        _P.processBatch(in, out);
+        assertEquals(Arrays.asList(null, -8.0, 0.0, null, null, 13.0), out);
+    }
+
     @Test(expected = ArrayIndexOutOfBoundsException.class)
     public void shouldThrowException() {
         assertNull(Utils.process(_P));
@@ -0,0 +1,64 @@
+package de.claas.mosis.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.util.FastFourierTransform}.
+ * It is intended to collect and document a set of test cases for the tested
+ * class. Please refer to the individual tests for more detailed information.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class FastFourierTransformTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequirePowerOfTwo() {
+        new FastFourierTransform(12);
+    }
+
+    @Test
+    public void shouldMatchDiscreteFourierTransform() {
+        Random random = new Random(23);
+        int size = 16;
+        double[] re = new double[size];
+        double[] im = new double[size];
+        for (int i = 0; i < size; i++) {
+            re[i] = random.nextDouble();
+            im[i] = random.nextDouble();
+        }
+        double[] expectedRe = new double[size];
+        double[] expectedIm = new double[size];
+        for (int k = 0; k < size; k++) {
+            for (int n = 0; n < size; n++) {
+                double angle = -2 * Math.PI * k * n / size;
+                expectedRe[k] += re[n] * Math.cos(angle) - im[n] * Math.sin(angle);
+                expectedIm[k] += re[n] * Math.sin(angle) + im[n] * Math.cos(angle);
+            }
+        }
+        new FastFourierTransform(size).transform(re, im);
+        assertArrayEquals(expectedRe, re, 1e-9);
+        assertArrayEquals(expectedIm, im, 1e-9);
+    }
+
+    @Test
+    public void shouldRestoreValues() {
+        Random random = new Random(42);
+        int size = 64;
+        double[] re = new double[size];
+        double[] im = new double[size];
+        for (int i = 0; i < size; i++) {
+            re[i] = random.nextGaussian();
+        }
+        double[] original = re.clone();
+        FastFourierTransform fft = new FastFourierTransform(size);
+        fft.transform(re, im);
+        fft.inverse(re, im);
+        assertArrayEquals(original, re, 1e-9);
+        assertArrayEquals(new double[size], im, 1e-9);
+    }
+
+}
@@ -0,0 +1,98 @@
+package de.claas.mosis.util;
+
+import org.junit.Test;
+
+import java.util.Random;
+
+import static org.junit.Assert.*;
+
+/**
+ * The JUnit test for class {@link de.claas.mosis.util.Histogram}. It is
+ * intended to collect and document a set of test cases for the tested class.
+ * Please refer to the individual tests for more detailed information.
+ *
+ * @author Claas Ahlrichs (claasahl@tzi.de)
+ */
+public class HistogramTest {
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequirePositivePrecision() {
+        new Histogram(1000, 0);
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void shouldRequirePositiveHighestValue() {
+        new Histogram(0, 8);
+    }
+
+    @Test
+    public void shouldBeEmpty() {
+        Histogram histogram = new Histogram(1000, 8);
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(0, histogram.getMax());
+        assertEquals(0.0, histogram.getMean(), 0.0);
+        assertEquals(0, histogram.getValueAtPercentile(50));
+    }
+
+    @Test
+    public void shouldRecordSmallValuesExactly() {
+        Histogram histogram = new Histogram(1000000, 10);
+        for (int i = 1; i <= 1000; i++) {
+            histogram.record(i);
+        }
+        assertEquals(1000, histogram.getCount());
+        assertEquals(1, histogram.getMin());
+        assertEquals(1000, histogram.getMax());
+        assertEquals(500.5, histogram.getMean(), 0.0);
+        assertEquals(1, histogram.getValueAtPercentile(0));
+        assertEquals(500, histogram.getValueAtPercentile(50));
+        assertEquals(990, histogram.getValueAtPercentile(99));
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void shouldBoundRelativeError() {
+        Random random = new Random(42);
+        for (int i = 0; i < 10000; i++) {
+            Histogram histogram = new Histogram(Long.MAX_VALUE, 8);
+            long value = random.nextLong() >>> (1 + random.nextInt(63));
+            histogram.record(value);
+            histogram.record(Long.MAX_VALUE);
+            long actual = histogram.getValueAtPercentile(50);
+            assertTrue(actual >= value);
+            assertTrue(actual - value <= value / 128);
+        }
+    }
+
+    @Test
+    public void shouldNotExceedMaximum() {
+        Histogram histogram = new Histogram(1000000, 2);
+        histogram.record(1000);
+        assertEquals(1000, histogram.getValueAtPercentile(100));
+    }
+
+    @Test
+    public void shouldClampToHighestValue() {
+        Histogram histogram = new Histogram(1000, 8);
+        histogram.record(500);
+        histogram.record(5000);
+        histogram.record(-1);
+        assertEquals(3, histogram.getCount());
+        assertEquals(0, histogram.getMin());
+        assertEquals(5000, histogram.getMax());
+        assertTrue(histogram.getValueAtPercentile(100) >= 1000);
+    }
+
+    @Test
+    public void shouldReset() {
+        Histogram histogram = new Histogram(1000, 8);
+        histogram.record(500);
+        histogram.reset();
+        assertEquals(0, histogram.getCount());
+        assertEquals(0, histogram.getMax());
+        histogram.record(7);
+        assertEquals(7, histogram.getValueAtPercentile(50));
+    }
+
+}